@@ -0,0 +1,38 @@
+package com.webApp.archive;
+
+/**
+ * Where the compressed bytes of a blob are: the segment file and the offset of the bytes in it
+ */
+public class BlobLocation {
+
+    private final int segment;
+
+    private final long offset;
+
+    private final long compressedLength;
+
+    private final long rawLength;
+
+    public BlobLocation(int segment, long offset, long compressedLength, long rawLength) {
+        this.segment = segment;
+        this.offset = offset;
+        this.compressedLength = compressedLength;
+        this.rawLength = rawLength;
+    }
+
+    public int getSegment() {
+        return segment;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public long getCompressedLength() {
+        return compressedLength;
+    }
+
+    public long getRawLength() {
+        return rawLength;
+    }
+}
@@ -0,0 +1,280 @@
+package com.webApp.archive;
+
+import com.webApp.exception_handling.BlobTooLargeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Content addressed store of compressed blobs on local disk, keyed by the SHA-256 of their
+ * content. Blobs are gzip compressed and appended to segment files of at most
+ * {@code app.archive.segment.maxBytes}, so millions of blobs take a few hundred files. Every
+ * record starts with a header holding the key and the lengths, which makes a segment readable
+ * without the database:
+ * <pre>
+ * int magic | byte[32] sha256 | long raw length | int compressed length | compressed bytes
+ * </pre>
+ * Segments are only appended to. Nothing is rewritten, so readers need no lock.
+ * <p>
+ * A blob is first {@link #stage staged}: the content is streamed through the digest and the
+ * compressor into a temporary file, so it is never held on the heap whatever its size. The caller
+ * then looks the key up and either {@link StagedBlob#discard discards} the staged blob or
+ * {@link #append appends} it, which copies the temporary file into the segment from channel to
+ * channel. Reads go through read-only mappings of the segments, or straight from the segment
+ * channel with {@link FileChannel#transferTo} when the compressed bytes are sent as they are.
+ */
+@Component
+@Slf4j
+public class BlobStore {
+
+    static final int MAGIC = 0x4b534231;
+
+    static final int HEADER_LENGTH = 4 + 32 + 8 + 4;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+
+    private final Path stagingDirectory;
+
+    private final long segmentMaxBytes;
+
+    private final Map<Integer, FileChannel> readChannels = new ConcurrentHashMap<>();
+
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+
+    private FileChannel writeChannel;
+
+    private int writeSegment;
+
+    @Autowired
+    public BlobStore(@Value("${app.archive.directory}") String directory,
+                     @Value("${app.archive.segment.maxBytes}") long segmentMaxBytes) throws IOException {
+        if (segmentMaxBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A segment is mapped as a whole and can't be larger than 2GB");
+        }
+        this.directory = Paths.get(directory);
+        this.stagingDirectory = this.directory.resolve("staging");
+        this.segmentMaxBytes = segmentMaxBytes;
+        Files.createDirectories(stagingDirectory);
+        this.writeSegment = Math.max(1, lastSegment());
+        this.writeChannel = openForAppend(writeSegment);
+    }
+
+    /**
+     * Compresses the content into a temporary file while hashing it. Fails with a
+     * {@link BlobTooLargeException} when the content has more than {@code maxBytes} bytes.
+     */
+    public StagedBlob stage(InputStream content, long maxBytes) throws IOException {
+        Path file = Files.createTempFile(stagingDirectory, "blob-", ".gz");
+        MessageDigest digest = sha256();
+        long rawLength = 0;
+        try (InputStream in = new DigestInputStream(content, digest);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(file), 8192)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                rawLength += read;
+                if (rawLength > maxBytes) {
+                    throw new BlobTooLargeException("Content is larger than " + maxBytes + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new StagedBlob(file, toHex(digest.digest()), rawLength, Files.size(file));
+    }
+
+    /**
+     * Appends the staged blob to the current segment, starting a new segment when it is full
+     */
+    public synchronized BlobLocation append(StagedBlob blob) throws IOException {
+        try {
+            long recordLength = HEADER_LENGTH + blob.getCompressedLength();
+            if (writeChannel.size() > 0 && writeChannel.size() + recordLength > segmentMaxBytes) {
+                writeChannel.force(true);
+                writeChannel.close();
+                writeSegment++;
+                writeChannel = openForAppend(writeSegment);
+            }
+            long recordOffset = writeChannel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.putInt(MAGIC).put(fromHex(blob.getSha256())).putLong(blob.getRawLength())
+                    .putInt((int) blob.getCompressedLength()).flip();
+            while (header.hasRemaining()) {
+                writeChannel.write(header, recordOffset + header.position());
+            }
+            long dataOffset = recordOffset + HEADER_LENGTH;
+            try (FileChannel staged = FileChannel.open(blob.getFile(), StandardOpenOption.READ)) {
+                long copied = 0;
+                while (copied < blob.getCompressedLength()) {
+                    copied += writeChannel.transferFrom(staged, dataOffset + copied, blob.getCompressedLength() - copied);
+                }
+            }
+            writeChannel.force(false);
+            return new BlobLocation(writeSegment, dataOffset, blob.getCompressedLength(), blob.getRawLength());
+        } finally {
+            blob.discard();
+        }
+    }
+
+    /**
+     * Sends the compressed bytes of the blob as they are stored, with a gzip stream
+     */
+    public void transferCompressed(BlobLocation location, WritableByteChannel target) throws IOException {
+        FileChannel channel = readChannel(location.getSegment());
+        long position = location.getOffset();
+        long end = position + location.getCompressedLength();
+        while (position < end) {
+            position += channel.transferTo(position, end - position, target);
+        }
+    }
+
+    /**
+     * Opens the content of the blob, decompressed from the mapping of its segment
+     */
+    public InputStream open(BlobLocation location) throws IOException {
+        ByteBuffer bytes = mapping(location);
+        bytes.position((int) location.getOffset());
+        bytes.limit((int) (location.getOffset() + location.getCompressedLength()));
+        return new GZIPInputStream(new ByteBufferInputStream(bytes.slice()), 8192);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        writeChannel.close();
+        for (FileChannel channel : readChannels.values()) {
+            channel.close();
+        }
+        readChannels.clear();
+        mappings.clear();
+    }
+
+    /**
+     * Maps the segment read-only. A segment still being appended to is mapped again once it grew
+     * past the mapped part.
+     */
+    private ByteBuffer mapping(BlobLocation location) throws IOException {
+        long end = location.getOffset() + location.getCompressedLength();
+        MappedByteBuffer mapped = mappings.get(location.getSegment());
+        if (mapped == null || mapped.capacity() < end) {
+            FileChannel channel = readChannel(location.getSegment());
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappings.put(location.getSegment(), mapped);
+        }
+        return mapped.duplicate();
+    }
+
+    private FileChannel readChannel(int segment) {
+        return readChannels.computeIfAbsent(segment, id -> {
+            try {
+                return FileChannel.open(segmentPath(id), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private FileChannel openForAppend(int segment) throws IOException {
+        return FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private int lastSegment() throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : segments) {
+                String name = segment.getFileName().toString();
+                last = Math.max(last, Integer.parseInt(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        return last;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads a buffer, the mapping of a segment here, without copying it to the heap first
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
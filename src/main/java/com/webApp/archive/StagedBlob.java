@@ -0,0 +1,50 @@
+package com.webApp.archive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compressed content waiting in a temporary file to be appended to the {@link BlobStore}, or
+ * discarded when the store already holds it
+ */
+public class StagedBlob {
+
+    private final Path file;
+
+    private final String sha256;
+
+    private final long rawLength;
+
+    private final long compressedLength;
+
+    StagedBlob(Path file, String sha256, long rawLength, long compressedLength) {
+        this.file = file;
+        this.sha256 = sha256;
+        this.rawLength = rawLength;
+        this.compressedLength = compressedLength;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * SHA-256 of the content before compression, in hex
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getRawLength() {
+        return rawLength;
+    }
+
+    public long getCompressedLength() {
+        return compressedLength;
+    }
+
+    public void discard() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
@@ -0,0 +1,60 @@
+package com.webApp.cache;
+
+import com.webApp.model.token.RevokedToken;
+import com.webApp.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.cache.logoutToken.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseTokenRevocationStore implements TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    public DatabaseTokenRevocationStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @Override
+    public void revoke(RevokedToken revokedToken) {
+        if (revokedTokenRepository.existsByTokenDigest(revokedToken.getTokenDigest())) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(revokedToken);
+        } catch (DataIntegrityViolationException ex) {
+            log.info(String.format("Token for user [%s] was already revoked by another node", revokedToken.getUserEmail()));
+        }
+    }
+
+    @Override
+    public Optional<RevokedToken> findByTokenDigest(String tokenDigest) {
+        return revokedTokenRepository.findByTokenDigest(tokenDigest);
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Date revokedAfter) {
+        return revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(revokedAfter, new Date());
+    }
+
+    @Override
+    public List<RevokedToken> findAllActive() {
+        return revokedTokenRepository.findByExpiresAtAfter(new Date());
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        return revokedTokenRepository.deleteExpired(new Date());
+    }
+}
@@ -0,0 +1,206 @@
+package com.webApp.cache;
+
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by an {@link ExpiringMap}, bounded both in
+ * size and in time: entries live at most {@code ttlInMs} after being loaded and the oldest entry is
+ * dropped once {@code maxSize} is reached.
+ * <p>
+ * Values that are {@link Weighted} are also bounded by their combined weight: the oldest entries
+ * are dropped once it goes over {@code maxWeight}, and a value heavier than {@code maxWeight} on
+ * its own is returned to the caller without being kept.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} are serialized per key stripe so that a burst of
+ * requests for the same missing entry runs the loader once. Hits, misses, puts, evictions and the
+ * time spent loading are counted for {@link ExpiringMapCacheManager}'s metrics.
+ */
+public class ExpiringMapCache extends AbstractValueAdaptingCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final String name;
+
+    private final ExpiringMap<Object, Object> store;
+
+    private final long maxWeight;
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadNanos = new LongAdder();
+
+    public ExpiringMapCache(String name, int maxSize, long ttlInMs) {
+        this(name, maxSize, Long.MAX_VALUE, ttlInMs);
+    }
+
+    public ExpiringMapCache(String name, int maxSize, long maxWeight, long ttlInMs) {
+        super(false);
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.store = ExpiringMap.builder()
+                .maxSize(maxSize)
+                .expiration(ttlInMs, TimeUnit.MILLISECONDS)
+                .expirationPolicy(ExpirationPolicy.CREATED)
+                .expirationListener((key, value) -> {
+                    weight.addAndGet(-weightOf(value));
+                    evictions.increment();
+                })
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = store.get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        synchronized (locks[(key.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES]) {
+            value = store.get(key);
+            if (value != null) {
+                return (T) fromStoreValue(value);
+            }
+            long start = System.nanoTime();
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            } finally {
+                loads.increment();
+                loadNanos.add(System.nanoTime() - start);
+            }
+            put(key, loaded);
+            return loaded;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        long added = weightOf(storeValue);
+        if (added > maxWeight) {
+            evict(key);
+            return;
+        }
+        weight.addAndGet(added - weightOf(store.put(key, storeValue)));
+        puts.increment();
+        evictOverWeight(key);
+    }
+
+    @Override
+    public void evict(Object key) {
+        weight.addAndGet(-weightOf(store.remove(key)));
+    }
+
+    @Override
+    public void clear() {
+        for (Object key : new ArrayList<>(store.keySet())) {
+            evict(key);
+        }
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Combined weight of the {@link Weighted} values held
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getPutCount() {
+        return puts.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public double getTotalLoadTimeInNanos() {
+        return loadNanos.sum();
+    }
+
+    /**
+     * Drops the oldest entries, except the one just put, until the weight is within bounds again
+     */
+    private void evictOverWeight(Object put) {
+        if (weight.get() <= maxWeight) {
+            return;
+        }
+        Iterator<Object> keys = new ArrayList<>(store.keySet()).iterator();
+        while (weight.get() > maxWeight && keys.hasNext()) {
+            Object key = keys.next();
+            if (!key.equals(put)) {
+                Object removed = store.remove(key);
+                if (removed != null) {
+                    weight.addAndGet(-weightOf(removed));
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static long weightOf(Object value) {
+        return value instanceof Weighted ? ((Weighted) value).weight() : 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.webApp.cache;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of {@link ExpiringMapCache}s sharing the same bounds, the weight bound applying to
+ * each cache on its own. Asking for a cache that wasn't
+ * declared returns null, so a typo in a cache name fails at the first call instead of silently
+ * creating an unbounded cache.
+ * <p>
+ * Every cache reports the standard {@code cache.gets}, {@code cache.puts}, {@code cache.evictions}
+ * and {@code cache.size} meters, plus a {@code cache.load} timer of the time spent loading missing
+ * entries and a {@code cache.weight} gauge of the bytes held by its {@link Weighted} values.
+ */
+public class ExpiringMapCacheManager implements CacheManager, MeterBinder {
+
+    private final Map<String, ExpiringMapCache> caches = new LinkedHashMap<>();
+
+    public ExpiringMapCacheManager(Collection<String> cacheNames, int maxSize, long ttlInMs) {
+        this(cacheNames, maxSize, Long.MAX_VALUE, ttlInMs);
+    }
+
+    public ExpiringMapCacheManager(Collection<String> cacheNames, int maxSize, long maxWeight, long ttlInMs) {
+        cacheNames.forEach(name -> caches.put(name, new ExpiringMapCache(name, maxSize, maxWeight, ttlInMs)));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        caches.values().forEach(cache -> new ExpiringMapCacheMetrics(cache).bindTo(registry));
+    }
+
+    private static final class ExpiringMapCacheMetrics extends CacheMeterBinder {
+
+        private final ExpiringMapCache cache;
+
+        private ExpiringMapCacheMetrics(ExpiringMapCache cache) {
+            super(cache, cache.getName(), Tags.empty());
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long size() {
+            return (long) cache.size();
+        }
+
+        @Override
+        protected long hitCount() {
+            return cache.getHitCount();
+        }
+
+        @Override
+        protected Long missCount() {
+            return cache.getMissCount();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return cache.getEvictionCount();
+        }
+
+        @Override
+        protected long putCount() {
+            return cache.getPutCount();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            FunctionTimer.builder("cache.load", cache, ExpiringMapCache::getLoadCount,
+                    ExpiringMapCache::getTotalLoadTimeInNanos, TimeUnit.NANOSECONDS)
+                    .tags(getTagsWithCacheName())
+                    .description("The time spent loading missing entries")
+                    .register(registry);
+            Gauge.builder("cache.weight", cache, ExpiringMapCache::weight)
+                    .tags(getTagsWithCacheName())
+                    .description("The approximate heap held by the entries")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
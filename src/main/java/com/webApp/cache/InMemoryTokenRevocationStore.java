@@ -0,0 +1,56 @@
+package com.webApp.cache;
+
+import com.webApp.model.token.RevokedToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps revocations in the current JVM only. Suitable for a single node and for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.logoutToken.store", havingValue = "memory")
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final ConcurrentMap<String, RevokedToken> revokedTokens = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(RevokedToken revokedToken) {
+        revokedTokens.putIfAbsent(revokedToken.getTokenDigest(), revokedToken);
+    }
+
+    @Override
+    public Optional<RevokedToken> findByTokenDigest(String tokenDigest) {
+        return Optional.ofNullable(revokedTokens.get(tokenDigest));
+    }
+
+    @Override
+    public List<RevokedToken> findRevokedSince(Date revokedAfter) {
+        Date now = new Date();
+        return revokedTokens.values().stream()
+                .filter(token -> token.getRevokedAt().after(revokedAfter) && token.getExpiresAt().after(now))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<RevokedToken> findAllActive() {
+        Date now = new Date();
+        return revokedTokens.values().stream()
+                .filter(token -> token.getExpiresAt().after(now))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int purgeExpired() {
+        Date now = new Date();
+        int sizeBefore = revokedTokens.size();
+        revokedTokens.values().removeIf(token -> !token.getExpiresAt().after(now));
+        return sizeBefore - revokedTokens.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.webApp.cache;
+
+import com.webApp.security.JwtClaims;
+import com.webApp.util.TokenDigest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import net.jodah.expiringmap.ExpiringMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This cache keeps the claims of tokens whose signature has already been verified, so that
+ * an authenticated request doesn't parse and verify the same HS512 token again.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the raw token rather than the token itself,
+ * so a tampered token can never hit the entry of the original one. Each entry lives exactly
+ * until the token's own expiry and the cache is bounded by {@code app.cache.jwtClaims.maxSize}.
+ */
+@Component
+@Slf4j
+public class JwtClaimsCache implements MeterBinder {
+
+    private final ExpiringMap<String, JwtClaims> claimsMap;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public JwtClaimsCache(@Value("${app.cache.jwtClaims.maxSize}") int maxSize) {
+        this.claimsMap = ExpiringMap.builder()
+                .variableExpiration()
+                .maxSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the previously verified claims for the token or null on a miss
+     */
+    public JwtClaims getClaimsForToken(String token) {
+        JwtClaims claims = claimsMap.get(digest(token));
+        if (claims == null) {
+            misses.increment();
+            return null;
+        }
+        if (claims.getExpirationMillis() <= System.currentTimeMillis()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return claims;
+    }
+
+    /**
+     * Caches the verified claims until the token expires
+     */
+    public void putClaimsForToken(String token, JwtClaims claims) {
+        long ttlInMs = claims.getExpirationMillis() - System.currentTimeMillis();
+        if (ttlInMs <= 0) {
+            return;
+        }
+        claimsMap.put(digest(token), claims, ttlInMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void evictToken(String token) {
+        claimsMap.remove(digest(token));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return claimsMap.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "jwtClaims")
+                .tag("result", "hit")
+                .description("The number of times a verified token was found in the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "jwtClaims")
+                .tag("result", "miss")
+                .description("The number of times a token had to be parsed and verified")
+                .register(registry);
+        Gauge.builder("cache.size", claimsMap, ExpiringMap::size)
+                .tag("cache", "jwtClaims")
+                .description("The number of verified tokens currently cached")
+                .register(registry);
+    }
+
+    private static String digest(String token) {
+        return TokenDigest.sha256Hex(token);
+    }
+}
@@ -1,15 +1,22 @@
 package com.webApp.cache;
 
 import com.webApp.event.OnUserLogoutSuccessEvent;
+import com.webApp.model.token.RevokedToken;
 import com.webApp.security.JwtTokenProvider;
+import com.webApp.util.TokenDigest;
+import com.webApp.util.TokenDigester;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
-import net.jodah.expiringmap.ExpiringMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
+import javax.annotation.PostConstruct;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -17,46 +24,176 @@ import java.util.concurrent.TimeUnit;
  * Since JWT tokens are immutable, they'd still remain accessible post logout as long as the token
  * doesn't expire.
  * <p>
- * Note: To prevent this cache from building up indefinitely, we set a max size. The TTL for each
- * token will be the number of seconds that remain until its expiry. This is done as an optimization
- * as once a JWT token expires, it cannot be used anyway.
+ * Revocations are persisted in a {@link TokenRevocationStore} shared by every node. Each node keeps
+ * the digests of the revocations it knows about in a {@link RevokedTokenTable}, which answers the
+ * validation of every request without allocating, and a bloom filter covering the revocations that
+ * didn't fit in the table so that the common "not revoked" answer never costs I/O. Revocations made
+ * on other nodes are pulled in by polling the store, and the filter is rebuilt periodically to
+ * forget expired tokens.
+ * <p>
+ * Note: To prevent this cache from building up indefinitely, the table is bounded by
+ * {@code app.cache.logoutToken.maxSize}. Each entry expires together with its token, as once a JWT
+ * token expires, it cannot be used anyway.
  */
 @Component
 @Slf4j
-public class LoggedOutJwtTokenCache {
+public class LoggedOutJwtTokenCache implements MeterBinder {
 
-    private final ExpiringMap<String, OnUserLogoutSuccessEvent> tokenEventMap;
+    private final RevokedTokenTable revokedTokenTable;
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationStore revocationStore;
+    private final int bloomExpectedInsertions;
+    private final double bloomFalsePositiveRate;
+    private final long pollOverlapInMs;
+    private volatile TokenBloomFilter bloomFilter;
+    private volatile Date lastPollDate;
 
     @Autowired
-    public LoggedOutJwtTokenCache(@Value("${app.cache.logoutToken.maxSize}") int maxSize, JwtTokenProvider tokenProvider) {
+    public LoggedOutJwtTokenCache(@Value("${app.cache.logoutToken.maxSize}") int maxSize,
+                                  @Value("${app.cache.logoutToken.bloom.expectedInsertions}") int bloomExpectedInsertions,
+                                  @Value("${app.cache.logoutToken.bloom.falsePositiveRate}") double bloomFalsePositiveRate,
+                                  @Value("${app.cache.logoutToken.pollOverlapMs}") long pollOverlapInMs,
+                                  JwtTokenProvider tokenProvider,
+                                  TokenRevocationStore revocationStore) {
         this.tokenProvider = tokenProvider;
-        this.tokenEventMap = ExpiringMap.builder()
-                .variableExpiration()
-                .maxSize(maxSize)
-                .build();
+        this.revocationStore = revocationStore;
+        this.bloomExpectedInsertions = bloomExpectedInsertions;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        this.pollOverlapInMs = pollOverlapInMs;
+        this.bloomFilter = new TokenBloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+        this.lastPollDate = new Date(0);
+        this.revokedTokenTable = new RevokedTokenTable(maxSize, nowInSeconds());
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuildBloomFilter();
     }
 
     public void markLogoutEventForToken(OnUserLogoutSuccessEvent event) {
         String token = event.getToken();
-        if (tokenEventMap.containsKey(token)) {
+        TokenDigester digester = TokenDigester.forCurrentThread().digest(token);
+        if (revokedTokenTable.contains(digester.high(), digester.low(), nowInSeconds())) {
             log.info(String.format("Log out token for user [%s] is already present in the cache", event.getUserEmail()));
 
         } else {
             Date tokenExpiryDate = tokenProvider.getTokenExpiryFromJWT(token);
             long ttlForToken = getTTLForToken(tokenExpiryDate);
             log.info(String.format("Logout token cache set for [%s] with a TTL of [%s] seconds. Token is due expiry at [%s]", event.getUserEmail(), ttlForToken, tokenExpiryDate));
-            tokenEventMap.put(token, event, ttlForToken, TimeUnit.SECONDS);
+            remember(digester.high(), digester.low(), tokenExpiryDate);
+            revocationStore.revoke(new RevokedToken(digester.hex(), event.getUserEmail(), event.getEventTime(), tokenExpiryDate));
         }
     }
 
+    /**
+     * Returns the logout event of the token, or null if it was never logged out. Answering null
+     * doesn't allocate unless the bloom filter gives a false positive.
+     */
     public OnUserLogoutSuccessEvent getLogoutEventForToken(String token) {
-        return tokenEventMap.get(token);
+        TokenDigester digester = TokenDigester.forCurrentThread().digest(token);
+        if (revokedTokenTable.contains(digester.high(), digester.low(), nowInSeconds())) {
+            OnUserLogoutSuccessEvent event = loadLogoutEvent(digester.hex(), token);
+            return event != null ? event : new OnUserLogoutSuccessEvent(null, token, null, null);
+        }
+        if (!bloomFilter.mightContain(digester.high(), digester.low())) {
+            return null;
+        }
+        return loadLogoutEvent(digester.hex(), token);
+    }
+
+    /**
+     * Pulls the revocations made by the other nodes into the local table. The polling window
+     * overlaps the previous one so that revocations committed late or stamped by a node with a
+     * slightly different clock are not missed. Adding a digest twice is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.logoutToken.pollIntervalMs}",
+               initialDelayString = "${app.cache.logoutToken.pollIntervalMs}")
+    public void pollRevocations() {
+        Date pollDate = new Date();
+        Date revokedAfter = new Date(lastPollDate.getTime() - pollOverlapInMs);
+        List<RevokedToken> revokedTokens = revocationStore.findRevokedSince(revokedAfter);
+        revokedTokens.forEach(this::remember);
+        lastPollDate = pollDate;
+    }
+
+    /**
+     * Purges the expired revocations from the store and replaces the bloom filter with one built
+     * from the remaining ones, so that expired tokens stop costing a store lookup.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.logoutToken.rebuildIntervalMs}",
+               initialDelayString = "${app.cache.logoutToken.rebuildIntervalMs}")
+    public void rebuildBloomFilter() {
+        Date rebuildDate = new Date();
+        int purged = revocationStore.purgeExpired();
+        TokenBloomFilter filter = new TokenBloomFilter(bloomExpectedInsertions, bloomFalsePositiveRate);
+        List<RevokedToken> activeTokens = revocationStore.findAllActive();
+        long now = nowInSeconds();
+        for (RevokedToken revokedToken : activeTokens) {
+            long high = TokenDigest.high(revokedToken.getTokenDigest());
+            long low = TokenDigest.low(revokedToken.getTokenDigest());
+            if (!revokedTokenTable.add(high, low, toSeconds(revokedToken.getExpiresAt()), now)) {
+                filter.put(high, low);
+            }
+        }
+        bloomFilter = filter;
+        lastPollDate = rebuildDate;
+        log.info(String.format("Logout token bloom filter rebuilt with [%s] revoked tokens, [%s] expired ones purged", activeTokens.size(), purged));
+    }
+
+    /**
+     * Advances the timing wheel of the table so that expired tokens free their slots
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void expireRevokedTokens() {
+        revokedTokenTable.expire(nowInSeconds());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", revokedTokenTable, RevokedTokenTable::size)
+                .tag("cache", "logoutToken")
+                .description("The number of revoked tokens held in the local table")
+                .register(registry);
+        Gauge.builder("cache.logoutToken.memory", revokedTokenTable, RevokedTokenTable::memoryFootprint)
+                .baseUnit("bytes")
+                .description("Approximate heap used by the revoked token table")
+                .register(registry);
+    }
+
+    private void remember(RevokedToken revokedToken) {
+        String tokenDigest = revokedToken.getTokenDigest();
+        remember(TokenDigest.high(tokenDigest), TokenDigest.low(tokenDigest), revokedToken.getExpiresAt());
+    }
+
+    /**
+     * Adds the digest to the table, or to the bloom filter when the table is full so that the token
+     * is still routed to the store
+     */
+    private void remember(long high, long low, Date expiresAt) {
+        if (!revokedTokenTable.add(high, low, toSeconds(expiresAt), nowInSeconds())) {
+            bloomFilter.put(high, low);
+        }
+    }
+
+    private OnUserLogoutSuccessEvent loadLogoutEvent(String tokenDigest, String token) {
+        Date now = new Date();
+        return revocationStore.findByTokenDigest(tokenDigest)
+                .filter(revokedToken -> revokedToken.getExpiresAt().after(now))
+                .map(revokedToken -> new OnUserLogoutSuccessEvent(revokedToken.getUserEmail(), token, null, revokedToken.getRevokedAt()))
+                .orElse(null);
     }
 
     private long getTTLForToken(Date date) {
-        long secondAtExpiry = date.toInstant().getEpochSecond();
-        long secondAtLogout = Instant.now().getEpochSecond();
+        long secondAtExpiry = toSeconds(date);
+        long secondAtLogout = nowInSeconds();
         return Math.max(0, secondAtExpiry - secondAtLogout);
     }
-}
\ No newline at end of file
+
+    private static long toSeconds(Date date) {
+        return TimeUnit.MILLISECONDS.toSeconds(date.getTime());
+    }
+
+    private static long nowInSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,299 @@
+package com.webApp.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Set of revoked token digests kept in primitive arrays. Each entry is the first 128 bits of the
+ * token's SHA-256 digest plus the second at which the token expires, so an entry costs 20 bytes per
+ * slot instead of a map entry holding the whole jwt and its logout event.
+ * <p>
+ * The table uses open addressing with linear probing. Deleted slots become tombstones so that slot
+ * indexes stay stable for the timing wheel, and the table is rehashed once tombstones pile up. It
+ * grows by doubling until {@code maxEntries} is reached, after which new entries are rejected and
+ * the caller has to rely on its slower path.
+ * <p>
+ * Expiry is handled by a hashed timing wheel with one bucket per second. Each bucket holds the slot
+ * indexes of the entries expiring in that second (modulo the wheel size). {@link #expire(long)}
+ * walks the buckets passed since the previous call and removes the entries that are due; entries
+ * that are a full revolution or more away simply stay in their bucket. Lookups also check the expiry
+ * so that correctness never depends on how often the wheel is advanced.
+ * <p>
+ * Lookups are lock free and allocation free: they run under an optimistic read stamp and only fall
+ * back to a read lock when they raced with a writer.
+ */
+public class RevokedTokenTable {
+
+    private static final int EMPTY = 0;
+
+    private static final int TOMBSTONE = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int WHEEL_SIZE = 4096;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final StampedLock lock = new StampedLock();
+
+    private final int maxEntries;
+
+    private final long baseSecond;
+
+    private Slots slots;
+
+    private int size;
+
+    private int tombstones;
+
+    private final int[][] wheel = new int[WHEEL_SIZE][];
+
+    private final int[] wheelCounts = new int[WHEEL_SIZE];
+
+    private long lastExpiredSecond;
+
+    public RevokedTokenTable(int maxEntries, long nowSecond) {
+        this.maxEntries = maxEntries;
+        this.baseSecond = nowSecond - 1;
+        this.lastExpiredSecond = nowSecond;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns true if the digest is in the table and hasn't expired at the given second
+     */
+    public boolean contains(long high, long low, long nowSecond) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(high, low, nowSecond);
+        if (lock.validate(stamp)) {
+            return found;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(high, low, nowSecond);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Adds the digest until the given expiry second. Returns false if the entry is already expired
+     * or the table is full.
+     */
+    public boolean add(long high, long low, long expirySecond, long nowSecond) {
+        if (expirySecond <= nowSecond) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = indexOf(high, low);
+            if (slot >= 0) {
+                return true;
+            }
+            if (size >= maxEntries) {
+                return false;
+            }
+            int length = slots.expiry.length;
+            if ((size + tombstones + 1) * 2 > length) {
+                int capacity = size * 4 > length ? length * 2 : length;
+                rehash(Math.min(capacity, maxCapacity()));
+            }
+            slot = insert(high, low, toRelative(expirySecond));
+            size++;
+            schedule(slot, expirySecond);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Advances the timing wheel up to the given second and removes the expired entries.
+     * Returns the number of removed entries.
+     */
+    public int expire(long nowSecond) {
+        long stamp = lock.writeLock();
+        try {
+            int removed = 0;
+            long from = Math.max(lastExpiredSecond, nowSecond - WHEEL_SIZE + 1);
+            for (long second = from; second <= nowSecond; second++) {
+                removed += expireBucket((int) (second & WHEEL_MASK), nowSecond);
+            }
+            lastExpiredSecond = nowSecond;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return slots.expiry.length;
+    }
+
+    /**
+     * Approximate heap used by the table and the timing wheel, in bytes
+     */
+    public long memoryFootprint() {
+        long bytes = (long) slots.expiry.length * (Long.BYTES + Long.BYTES + Integer.BYTES);
+        for (int[] bucket : wheel) {
+            if (bucket != null) {
+                bytes += (long) bucket.length * Integer.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private boolean find(long high, long low, long nowSecond) {
+        Slots current = slots;
+        int relativeNow = toRelative(nowSecond);
+        int mask = current.mask;
+        for (int slot = spread(high, low) & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            int state = current.expiry[slot];
+            if (state == EMPTY) {
+                return false;
+            }
+            if (state != TOMBSTONE && current.high[slot] == high && current.low[slot] == low) {
+                return state > relativeNow;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(long high, long low) {
+        Slots current = slots;
+        int mask = current.mask;
+        for (int slot = spread(high, low) & mask, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            int state = current.expiry[slot];
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state != TOMBSTONE && current.high[slot] == high && current.low[slot] == low) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int insert(long high, long low, int relativeExpiry) {
+        Slots current = slots;
+        int slot = spread(high, low) & current.mask;
+        while (current.expiry[slot] > EMPTY) {
+            slot = (slot + 1) & current.mask;
+        }
+        if (current.expiry[slot] == TOMBSTONE) {
+            tombstones--;
+        }
+        current.high[slot] = high;
+        current.low[slot] = low;
+        current.expiry[slot] = relativeExpiry;
+        return slot;
+    }
+
+    private int expireBucket(int bucketIndex, long nowSecond) {
+        int[] bucket = wheel[bucketIndex];
+        int count = wheelCounts[bucketIndex];
+        int[] expiry = slots.expiry;
+        int relativeNow = toRelative(nowSecond);
+        int kept = 0;
+        int removed = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = bucket[i];
+            int state = expiry[slot];
+            if (state <= EMPTY) {
+                continue;
+            }
+            if (state <= relativeNow) {
+                expiry[slot] = TOMBSTONE;
+                size--;
+                tombstones++;
+                removed++;
+            } else if (((state + baseSecond) & WHEEL_MASK) == bucketIndex) {
+                bucket[kept++] = slot;
+            }
+        }
+        wheelCounts[bucketIndex] = kept;
+        if (bucket != null && kept == 0 && bucket.length > 64) {
+            wheel[bucketIndex] = null;
+        }
+        return removed;
+    }
+
+    private void schedule(int slot, long expirySecond) {
+        int bucketIndex = (int) (expirySecond & WHEEL_MASK);
+        int[] bucket = wheel[bucketIndex];
+        int count = wheelCounts[bucketIndex];
+        if (bucket == null) {
+            bucket = new int[8];
+            wheel[bucketIndex] = bucket;
+        } else if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, count * 2);
+            wheel[bucketIndex] = bucket;
+        }
+        bucket[count] = slot;
+        wheelCounts[bucketIndex] = count + 1;
+    }
+
+    private void rehash(int capacity) {
+        Slots old = slots;
+        allocate(capacity);
+        Arrays.fill(wheelCounts, 0);
+        tombstones = 0;
+        for (int i = 0; i < old.expiry.length; i++) {
+            if (old.expiry[i] > EMPTY) {
+                int slot = insert(old.high[i], old.low[i], old.expiry[i]);
+                schedule(slot, old.expiry[i] + baseSecond);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new Slots(capacity);
+    }
+
+    private int maxCapacity() {
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < maxEntries * 2 && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private int toRelative(long second) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, second - baseSecond));
+    }
+
+    private static int spread(long high, long low) {
+        long hash = high ^ low;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * The slot arrays are swapped as one unit on rehash so that an optimistic reader never
+     * combines arrays of different sizes.
+     */
+    private static final class Slots {
+
+        private final long[] high;
+
+        private final long[] low;
+
+        /**
+         * Seconds since the base second of the table at which the entry expires. 0 marks an empty slot
+         * and -1 a tombstone.
+         */
+        private final int[] expiry;
+
+        private final int mask;
+
+        private Slots(int capacity) {
+            this.high = new long[capacity];
+            this.low = new long[capacity];
+            this.expiry = new int[capacity];
+            this.mask = capacity - 1;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.webApp.cache;
+
+import com.webApp.util.TokenDigest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Add-only bloom filter over SHA-256 token digests. The digest is already uniformly distributed,
+ * so its first two 64 bit words are used directly as the two base hashes of the double hashing
+ * scheme instead of hashing the key again.
+ * <p>
+ * A negative answer is exact and costs no I/O, a positive answer has to be confirmed against the
+ * {@link TokenRevocationStore}. Bits can't be cleared, so the filter is rebuilt periodically to
+ * drop expired tokens.
+ */
+public class TokenBloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    public TokenBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int insertions = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * Math.log(2)));
+    }
+
+    public void put(String hexDigest) {
+        put(TokenDigest.high(hexDigest), TokenDigest.low(hexDigest));
+    }
+
+    public void put(long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            setBit(index);
+        }
+    }
+
+    public boolean mightContain(String hexDigest) {
+        return mightContain(TokenDigest.high(hexDigest), TokenDigest.low(hexDigest));
+    }
+
+    public boolean mightContain(long hash1, long hash2) {
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+}
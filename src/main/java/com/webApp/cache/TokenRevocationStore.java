@@ -0,0 +1,39 @@
+package com.webApp.cache;
+
+import com.webApp.model.token.RevokedToken;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Source of truth for logged out tokens. {@link LoggedOutJwtTokenCache} only asks the store when
+ * its local bloom filter can't rule a token out, and polls it for revocations made by other nodes.
+ * <p>
+ * Selected with {@code app.cache.logoutToken.store}: {@code database} (default) shares revocations
+ * between all the nodes using the same database, {@code memory} keeps them in the current JVM only.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Persists the revocation. Revoking an already revoked token is a no-op
+     */
+    void revoke(RevokedToken revokedToken);
+
+    Optional<RevokedToken> findByTokenDigest(String tokenDigest);
+
+    /**
+     * Returns the still unexpired revocations made after the given date
+     */
+    List<RevokedToken> findRevokedSince(Date revokedAfter);
+
+    /**
+     * Returns every revocation that hasn't expired yet
+     */
+    List<RevokedToken> findAllActive();
+
+    /**
+     * Removes the revocations whose tokens have expired and returns how many were removed
+     */
+    int purgeExpired();
+}
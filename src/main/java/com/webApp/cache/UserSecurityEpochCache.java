@@ -0,0 +1,70 @@
+package com.webApp.cache;
+
+import com.webApp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a per-user "security epoch". The current epoch is embedded in every jwt issued for
+ * the user and is bumped whenever something security relevant changes on the account
+ * (password update or reset, role change, deactivation). A token that carries an older
+ * epoch than the current one is rejected, which lets the app trust the token's claims
+ * without loading the user from the database on every request.
+ * <p>
+ * The epoch is stored on the user's row, so it survives a restart and is shared by every
+ * node. This class only caches it: an epoch is loaded on a miss and kept for
+ * {@code app.cache.securityEpoch.ttlMs}, which bounds how long another node keeps accepting
+ * the tokens revoked by a bump made elsewhere. The node making the bump sees it at once.
+ */
+@Component
+@Slf4j
+public class UserSecurityEpochCache {
+
+    private static final long INITIAL_EPOCH = 0L;
+
+    private final UserRepository userRepository;
+
+    private final ExpiringMap<Long, Long> epochMap;
+
+    @Autowired
+    public UserSecurityEpochCache(UserRepository userRepository,
+                                  @Value("${app.cache.securityEpoch.maxSize}") int maxSize,
+                                  @Value("${app.cache.securityEpoch.ttlMs}") long ttlInMs) {
+        this.userRepository = userRepository;
+        this.epochMap = ExpiringMap.builder()
+                .maxSize(maxSize)
+                .expiration(ttlInMs, TimeUnit.MILLISECONDS)
+                .expirationPolicy(ExpirationPolicy.CREATED)
+                .entryLoader(this::loadEpoch)
+                .build();
+    }
+
+    public long getEpochForUser(Long userId) {
+        return epochMap.get(userId);
+    }
+
+    /**
+     * Invalidates every token issued to the user so far
+     */
+    public long incrementEpochForUser(Long userId) {
+        userRepository.incrementSecurityEpoch(userId);
+        long epoch = loadEpoch(userId);
+        epochMap.put(userId, epoch);
+        log.info(String.format("Security epoch for user [%s] moved to [%s]", userId, epoch));
+        return epoch;
+    }
+
+    public boolean isCurrentEpoch(Long userId, long tokenEpoch) {
+        return tokenEpoch >= getEpochForUser(userId);
+    }
+
+    private Long loadEpoch(Long userId) {
+        return userRepository.findSecurityEpochById(userId).orElse(INITIAL_EPOCH);
+    }
+}
@@ -0,0 +1,10 @@
+package com.webApp.cache;
+
+/**
+ * A cached value that knows roughly how many bytes of heap it holds, so that an
+ * {@link ExpiringMapCache} can bound its entries by their combined weight
+ */
+public interface Weighted {
+
+    long weight();
+}
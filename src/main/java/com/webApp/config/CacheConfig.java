@@ -0,0 +1,24 @@
+package com.webApp.config;
+
+import com.webApp.cache.ExpiringMapCacheManager;
+import com.webApp.service.KnowledgeTreeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public ExpiringMapCacheManager cacheManager(@Value("${app.cache.listings.maxSize}") int maxSize,
+                                                @Value("${app.cache.listings.maxMemoryBytes}") long maxMemoryBytes,
+                                                @Value("${app.cache.listings.ttlMs}") long ttlInMs) {
+        return new ExpiringMapCacheManager(
+                List.of(KnowledgeTreeService.TITLES_CACHE, KnowledgeTreeService.CATEGORIES_CACHE),
+                maxSize, maxMemoryBytes, ttlInMs);
+    }
+}
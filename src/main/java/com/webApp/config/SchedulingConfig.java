@@ -0,0 +1,14 @@
+package com.webApp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the scheduled jobs on the {@code ThreadPoolTaskScheduler} Spring Boot configures from
+ * {@code spring.task.scheduling.*}. The pool has a thread for each job, so a long purge or repair
+ * never holds up the revocation poll or the flushes of the other jobs.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,93 @@
+package com.webApp.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.BookmarkImportProgress;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.BookmarkImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/bookmarks")
+@Tag(name = "Bookmark", description = "Bookmarks import REST Api")
+public class BookmarkController {
+
+    private final BookmarkImportService bookmarkImportService;
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BookmarkController(BookmarkImportService bookmarkImportService, ObjectMapper objectMapper) {
+        this.bookmarkImportService = bookmarkImportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "Import browser bookmarks",
+               tags = {"Bookmark"},
+               method = "POST",
+               description = "Method imports a Netscape bookmark file exported by a browser. Top level folders become titles " +
+                       "and nested folders become categories. The progress is streamed as newline delimited json, one line " +
+                       "per saved batch of links, the last one having done set to true",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Import started, progress is streamed"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to import bookmarks")
+               })
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+                 produces = LinkController.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> importBookmarks(@Parameter(description = "Bookmark file exported by the browser", required = true)
+                                                                 @RequestParam("file") MultipartFile file,
+                                                                 @Parameter(description = "Current registered user", required = true)
+                                                                 @CurrentUser CustomUserDetails customUserDetails) {
+        Long userId = customUserDetails.getId();
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+                BookmarkImportProgress result = bookmarkImportService.importBookmarks(userId, reader, progress -> {
+                    try {
+                        writeLine(generator, progress);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                writeLine(generator, result);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(LinkController.APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    private static void writeLine(JsonGenerator generator, BookmarkImportProgress progress) throws IOException {
+        generator.writeObject(progress);
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+}
@@ -2,9 +2,19 @@ package com.webApp.controller;
 
 import com.webApp.exception_handling.NoSuchEntityException;
 import com.webApp.model.Category;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.model.KnowledgeTreeVersion;
 import com.webApp.model.Title;
+import com.webApp.payload.BulkOperationResponse;
+import com.webApp.payload.CategoryMergeRequest;
+import com.webApp.payload.CategoryTreeResponse;
+import com.webApp.security.CurrentUser;
 import com.webApp.service.CategoryService;
+import com.webApp.service.KnowledgeTreeService;
+import com.webApp.service.KnowledgeTreeVersionService;
+import com.webApp.service.LinkReorganizationService;
 import com.webApp.service.TitleService;
+import com.webApp.util.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,7 +24,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -30,11 +42,23 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    private final KnowledgeTreeService knowledgeTreeService;
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private final LinkReorganizationService linkReorganizationService;
+
     @Autowired
     public CategoryController(TitleService titleService,
-                              CategoryService categoryService) {
+                              CategoryService categoryService,
+                              KnowledgeTreeService knowledgeTreeService,
+                              KnowledgeTreeVersionService knowledgeTreeVersionService,
+                              LinkReorganizationService linkReorganizationService) {
         this.titleService = titleService;
         this.categoryService = categoryService;
+        this.knowledgeTreeService = knowledgeTreeService;
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
+        this.linkReorganizationService = linkReorganizationService;
     }
 
     @Operation(summary = "Find all user's categories",
@@ -49,9 +73,17 @@ public class CategoryController {
 
             })
     @GetMapping(path = "titles/{titleId}/categories", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<Category> getAllCategoriesByTitleId(@Parameter(description = "Title ID by which all categories will be found",required = true)
-                                                    @PathVariable(value = "titleId") Long titleId) {
-        return categoryService.findAllCategoriesByTitleId(titleId);
+    @PreAuthorize("hasRole('USER')")
+    public List<CategoryTreeResponse> getAllCategoriesByTitleId(@Parameter(description = "Current registered user", required = true)
+                                                                @CurrentUser CustomUserDetails customUserDetails,
+                                                                @Parameter(description = "Title ID by which all categories will be found",required = true)
+                                                                @PathVariable(value = "titleId") Long titleId,
+                                                                WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return knowledgeTreeService.findCategoriesByTitleId(customUserDetails.getId(), titleId, version.getVersion());
     }
 
     @Operation(summary = "Find category by it's ID",
@@ -64,18 +96,22 @@ public class CategoryController {
                     @ApiResponse(responseCode = "400", description = "Id can't consists of symbols")
             })
     @GetMapping(path = "titles/{titleId}/categories/{categoryId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Category> getCategoryById(@Parameter(description = "Title ID by which category will be found")
-                                                    @PathVariable(value = "titleId") Long titleId,
-                                                    @Parameter(description = "Category ID from which category object will be retrieved")
-                                                    @PathVariable(value = "categoryId") Long categoryId) {
-
-       Title title = titleService.findTitleById(titleId)
-               .orElseThrow(() -> new NoSuchEntityException("Title id not found " + titleId));
-
-       Category category = categoryService.findCategoryById(categoryId)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CategoryTreeResponse> getCategoryById(@Parameter(description = "Current registered user", required = true)
+                                                                @CurrentUser CustomUserDetails customUserDetails,
+                                                                @Parameter(description = "Title ID by which category will be found")
+                                                                @PathVariable(value = "titleId") Long titleId,
+                                                                @Parameter(description = "Category ID from which category object will be retrieved")
+                                                                @PathVariable(value = "categoryId") Long categoryId,
+                                                                WebRequest webRequest) {
+       KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+       if (ConditionalRequests.checkNotModified(webRequest, version)) {
+           return null;
+       }
+
+       CategoryTreeResponse category = knowledgeTreeService.findCategory(customUserDetails.getId(), titleId, categoryId)
                .orElseThrow(() -> new NoSuchEntityException("Category id not found " + categoryId));
 
-       category.setTitle(title);
        return ResponseEntity.ok().body(category);
     }
 
@@ -161,4 +197,28 @@ public class CategoryController {
                 }).orElseThrow(() -> new NoSuchEntityException("Category not found with ID " + categoryId
                                                                 + " and title with ID " + titleId));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Merge category into another",
+               tags = {"Category"},
+               method = "POST",
+               description = "Method moves all links of the category into another category of the title and deletes it",
+               responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully merged, returns how many links were moved"),
+                    @ApiResponse(responseCode = "400", description = "The category is merged into itself"),
+                    @ApiResponse(responseCode = "404", description = "A category is not found in the title")
+            })
+    @PostMapping(path = "titles/{titleId}/categories/{categoryId}/merge", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public BulkOperationResponse mergeCategory(@Parameter(description = "Current registered user", required = true)
+                                               @CurrentUser CustomUserDetails customUserDetails,
+                                               @Parameter(description = "Title ID of the categories", required = true)
+                                               @PathVariable(value = "titleId") Long titleId,
+                                               @Parameter(description = "ID of the category merged and deleted", required = true)
+                                               @PathVariable(value = "categoryId") Long categoryId,
+                                               @Parameter(description = "Category the links are moved to", required = true)
+                                               @RequestBody @Valid CategoryMergeRequest request) {
+
+        return new BulkOperationResponse(linkReorganizationService.mergeCategories(customUserDetails.getId(), titleId,
+                categoryId, request.getTargetCategoryId()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.webApp.controller;
+
+import com.webApp.export.ExportFormat;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.KnowledgeExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/export")
+@Tag(name = "Export", description = "Knowledge store export REST Api")
+public class ExportController {
+
+    private final KnowledgeExportService knowledgeExportService;
+
+    @Autowired
+    public ExportController(KnowledgeExportService knowledgeExportService) {
+        this.knowledgeExportService = knowledgeExportService;
+    }
+
+    @Operation(summary = "Export user's knowledge store",
+               tags = {"Export"},
+               method = "GET",
+               description = "Method streams all titles, categories and links of the user as ndjson, csv or bookmark html",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Export is streamed"),
+                       @ApiResponse(responseCode = "400", description = "The format is not supported"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to export the resource")
+               })
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> export(@Parameter(description = "Export format: ndjson, csv or html")
+                                                        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                        @Parameter(description = "Current registered user", required = true)
+                                                        @CurrentUser CustomUserDetails customUserDetails) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        Long userId = customUserDetails.getId();
+
+        StreamingResponseBody body = outputStream -> knowledgeExportService.export(userId, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getContentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("knowledge-store." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
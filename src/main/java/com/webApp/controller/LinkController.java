@@ -1,10 +1,30 @@
 package com.webApp.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webApp.exception_handling.DuplicateLinkException;
 import com.webApp.exception_handling.NoSuchEntityException;
 import com.webApp.model.Category;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.model.KnowledgeTreeVersion;
 import com.webApp.model.Link;
+import com.webApp.payload.BulkLinkRequest;
+import com.webApp.payload.BulkLinkResponse;
+import com.webApp.payload.BulkOperationResponse;
+import com.webApp.payload.DuplicateLinkResponse;
+import com.webApp.payload.LinkIdsRequest;
+import com.webApp.payload.LinkMoveRequest;
+import com.webApp.payload.LinkPage;
+import com.webApp.payload.LinkResponse;
+import com.webApp.security.CurrentUser;
 import com.webApp.service.CategoryService;
+import com.webApp.service.KnowledgeTreeService;
+import com.webApp.service.KnowledgeTreeVersionService;
+import com.webApp.service.LinkDuplicateService;
+import com.webApp.service.LinkImportService;
+import com.webApp.service.LinkReorganizationService;
 import com.webApp.service.LinkService;
+import com.webApp.util.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,12 +32,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,15 +54,49 @@ import java.util.Optional;
 @Tag(name = "Link", description = "Links REST Api")
 public class LinkController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final CategoryService categoryService;
 
     private final LinkService linkService;
 
+    private final LinkImportService linkImportService;
+
+    private final KnowledgeTreeService knowledgeTreeService;
+
+    private final LinkReorganizationService linkReorganizationService;
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private final LinkDuplicateService linkDuplicateService;
+
+    private final ObjectMapper objectMapper;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
     @Autowired
     public LinkController(CategoryService categoryService,
-                          LinkService linkService) {
+                          LinkService linkService,
+                          LinkImportService linkImportService,
+                          KnowledgeTreeService knowledgeTreeService,
+                          LinkReorganizationService linkReorganizationService,
+                          KnowledgeTreeVersionService knowledgeTreeVersionService,
+                          LinkDuplicateService linkDuplicateService,
+                          ObjectMapper objectMapper,
+                          @Value("${app.links.page.defaultSize}") int defaultPageSize,
+                          @Value("${app.links.page.maxSize}") int maxPageSize) {
         this.categoryService = categoryService;
         this.linkService = linkService;
+        this.linkImportService = linkImportService;
+        this.knowledgeTreeService = knowledgeTreeService;
+        this.linkReorganizationService = linkReorganizationService;
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
+        this.linkDuplicateService = linkDuplicateService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Operation(summary = "Find all user's links",
@@ -57,9 +117,107 @@ public class LinkController {
             @ApiResponse(responseCode = "404", description = "The resource you were trying to reach is not found")
     })
     @GetMapping(path = "categories/{categoryId}/links", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Link>> getAllLinksByCategoryId(@Parameter(description = "Category ID from which all links will be retrieved",required = true)
-                                                              @PathVariable(value = "categoryId") Long categoryId) {
-        return ResponseEntity.ok(linkService.findByCategoryId(categoryId));
+    public ResponseEntity<List<LinkResponse>> getAllLinksByCategoryId(@Parameter(description = "Current registered user", required = true)
+                                                                      @CurrentUser CustomUserDetails customUserDetails,
+                                                                      @Parameter(description = "Title ID of the category", required = true)
+                                                                      @PathVariable(value = "titleId") Long titleId,
+                                                                      @Parameter(description = "Category ID from which all links will be retrieved",required = true)
+                                                                      @PathVariable(value = "categoryId") Long categoryId,
+                                                                      WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+
+        if (!knowledgeTreeService.categoryExists(customUserDetails.getId(), titleId, categoryId)) {
+            throw new NoSuchEntityException("Category id not found: " + categoryId);
+        }
+
+        return ResponseEntity.ok(linkService.findResponsesByCategoryId(categoryId));
+    }
+
+    @Operation(summary = "Find a page of user's links",
+            tags = {"Link"},
+            method = "GET",
+            description = "Method returns links ordered by id, starting after the cursor, and the cursor of the next page",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully retrieved page of links"),
+                    @ApiResponse(responseCode = "400", description = "The cursor is invalid"),
+                    @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                    @ApiResponse(responseCode = "404", description = "The category you were trying to reach is not found")
+            })
+    @GetMapping(path = "categories/{categoryId}/links/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<LinkPage> getLinkPageByCategoryId(@Parameter(description = "Current registered user", required = true)
+                                                            @CurrentUser CustomUserDetails customUserDetails,
+                                                            @Parameter(description = "Title ID of the category", required = true)
+                                                            @PathVariable(value = "titleId") Long titleId,
+                                                            @Parameter(description = "Category ID from which links will be retrieved", required = true)
+                                                            @PathVariable(value = "categoryId") Long categoryId,
+                                                            @Parameter(description = "Cursor returned as next by the previous page")
+                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                            @Parameter(description = "Number of links in the page")
+                                                            @RequestParam(value = "size", required = false) Integer size,
+                                                            WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+
+        if (!knowledgeTreeService.categoryExists(customUserDetails.getId(), titleId, categoryId)) {
+            throw new NoSuchEntityException("Category id not found: " + categoryId);
+        }
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        return ResponseEntity.ok(linkService.findPageByCategoryId(categoryId, cursor, pageSize));
+    }
+
+    @Operation(summary = "Stream all user's links",
+            tags = {"Link"},
+            method = "GET",
+            description = "Method streams the links of the category as newline delimited json, one link per line",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully streamed links"),
+                    @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                    @ApiResponse(responseCode = "404", description = "The category you were trying to reach is not found")
+            })
+    @GetMapping(path = "categories/{categoryId}/links", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLinksByCategoryId(@Parameter(description = "Current registered user", required = true)
+                                                                         @CurrentUser CustomUserDetails customUserDetails,
+                                                                         @Parameter(description = "Title ID of the category", required = true)
+                                                                         @PathVariable(value = "titleId") Long titleId,
+                                                                         @Parameter(description = "Category ID from which all links will be streamed", required = true)
+                                                                         @PathVariable(value = "categoryId") Long categoryId,
+                                                                         WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+
+        if (!knowledgeTreeService.categoryExists(customUserDetails.getId(), titleId, categoryId)) {
+            throw new NoSuchEntityException("Category id not found: " + categoryId);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            try {
+                linkService.streamByCategoryId(categoryId, link -> {
+                    try {
+                        generator.writeObject(link);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            generator.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
     }
 
     @Operation(summary = "Find links by it's ID",
@@ -72,19 +230,23 @@ public class LinkController {
                     @ApiResponse(responseCode = "400", description = "Id can't consists of symbols")
             })
     @GetMapping(path = "categories/{categoryId}/links/{linkId}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Link> getLinkById(@Parameter(description = "Category ID from which all links will be retrieved",required = true)
-                                            @PathVariable(value = "categoryId") Long categoryId,
-                                            @Parameter(description = "Link ID by which link will be found")
-                                            @PathVariable(value = "linkId") Long linkId) {
-
-        Category category = categoryService.findCategoryById(categoryId)
-                .orElseThrow(() -> new NoSuchEntityException("Category id not found: " + categoryId));
+    public ResponseEntity<LinkResponse> getLinkById(@Parameter(description = "Current registered user", required = true)
+                                                    @CurrentUser CustomUserDetails customUserDetails,
+                                                    @Parameter(description = "Title ID of the category", required = true)
+                                                    @PathVariable(value = "titleId") Long titleId,
+                                                    @Parameter(description = "Category ID from which all links will be retrieved",required = true)
+                                                    @PathVariable(value = "categoryId") Long categoryId,
+                                                    @Parameter(description = "Link ID by which link will be found")
+                                                    @PathVariable(value = "linkId") Long linkId,
+                                                    WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
 
-        Link link = linkService.findLinkById(linkId)
+        LinkResponse link = knowledgeTreeService.findLink(customUserDetails.getId(), titleId, categoryId, linkId)
                 .orElseThrow(() -> new NoSuchEntityException("Link id not found: " + linkId));
 
-        link.setCategory(category);
-
         return ResponseEntity.ok().body(link);
 
     }
@@ -92,18 +254,31 @@ public class LinkController {
     @Operation(summary = "Create a new link",
             tags = {"Link"},
             method = "POST",
-            description = "Method creates a new link",
+            description = "Method creates a new link, unless the user already saved the same URL in another form",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully created a new link"),
                     @ApiResponse(responseCode = "400", description = "Link name can't be null"),
+                    @ApiResponse(responseCode = "409", description = "The user already saved the link"),
             })
     @PostMapping(path = "categories/{categoryId}/links")
     @ResponseStatus(value = HttpStatus.CREATED)
-    public Link createLink(@Parameter(description = "Category ID from which all links will be retrieved", required = true)
+    public Link createLink(@Parameter(description = "Current registered user", required = true)
+                           @CurrentUser CustomUserDetails customUserDetails,
+                           @Parameter(description = "Category ID from which all links will be retrieved", required = true)
                            @PathVariable(value = "categoryId") Long categoryId,
+                           @Parameter(description = "Save the link even if the user already saved the same URL")
+                           @RequestParam(value = "allowDuplicate", defaultValue = "false") boolean allowDuplicate,
                            @Parameter(description = "Link which will be saves as a new one")
                            @RequestBody @Valid Link createdLink) {
 
+        if (!allowDuplicate && createdLink.getLinkName() != null) {
+            List<DuplicateLinkResponse> duplicates =
+                    linkDuplicateService.findDuplicatesOf(customUserDetails.getId(), createdLink.getLinkName());
+            if (!duplicates.isEmpty()) {
+                throw new DuplicateLinkException(createdLink.getLinkName(), duplicates.get(0).getId());
+            }
+        }
+
         return categoryService.findCategoryById(categoryId)
                 .map(category -> {
                     createdLink.setCategory(category);
@@ -111,6 +286,94 @@ public class LinkController {
                 }).orElseThrow(() -> new NoSuchEntityException("Link not found"));
     }
 
+    @Operation(summary = "Import links into a category",
+            tags = {"Link"},
+            method = "POST",
+            description = "Method creates all the given links in the category in one request",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Successfully created the links"),
+                    @ApiResponse(responseCode = "400", description = "One or more links are invalid"),
+                    @ApiResponse(responseCode = "404", description = "The category is not found in the user's title")
+            })
+    @PostMapping(path = "categories/{categoryId}/links/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.CREATED)
+    public BulkLinkResponse createLinksInCategory(@Parameter(description = "Current registered user", required = true)
+                                                  @CurrentUser CustomUserDetails customUserDetails,
+                                                  @Parameter(description = "Title ID the category belongs to", required = true)
+                                                  @PathVariable(value = "titleId") Long titleId,
+                                                  @Parameter(description = "Category ID the links are added to", required = true)
+                                                  @PathVariable(value = "categoryId") Long categoryId,
+                                                  @Parameter(description = "Links which will be saved", required = true)
+                                                  @RequestBody @Valid BulkLinkRequest request) {
+
+        request.getLinks().forEach(link -> link.setCategoryId(categoryId));
+        return new BulkLinkResponse(linkImportService.importLinks(customUserDetails.getId(), titleId, request.getLinks()));
+    }
+
+    @Operation(summary = "Import links into several categories",
+            tags = {"Link"},
+            method = "POST",
+            description = "Method creates all the given links, each in the category it references, in one request",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Successfully created the links"),
+                    @ApiResponse(responseCode = "400", description = "One or more links are invalid"),
+                    @ApiResponse(responseCode = "404", description = "A category is not found in the user's title")
+            })
+    @PostMapping(path = "links/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.CREATED)
+    public BulkLinkResponse createLinks(@Parameter(description = "Current registered user", required = true)
+                                        @CurrentUser CustomUserDetails customUserDetails,
+                                        @Parameter(description = "Title ID the categories belong to", required = true)
+                                        @PathVariable(value = "titleId") Long titleId,
+                                        @Parameter(description = "Links which will be saved with their category ID", required = true)
+                                        @RequestBody @Valid BulkLinkRequest request) {
+
+        return new BulkLinkResponse(linkImportService.importLinks(customUserDetails.getId(), titleId, request.getLinks()));
+    }
+
+    @Operation(summary = "Move links to another category",
+            tags = {"Link"},
+            method = "POST",
+            description = "Method moves the given links of the title into a category of the same title in one statement",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully moved the links, returns how many were moved"),
+                    @ApiResponse(responseCode = "400", description = "Link ids are empty or too many"),
+                    @ApiResponse(responseCode = "404", description = "The target category is not found in the title")
+            })
+    @PostMapping(path = "links/move", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public BulkOperationResponse moveLinks(@Parameter(description = "Current registered user", required = true)
+                                           @CurrentUser CustomUserDetails customUserDetails,
+                                           @Parameter(description = "Title ID the links and the category belong to", required = true)
+                                           @PathVariable(value = "titleId") Long titleId,
+                                           @Parameter(description = "Links to move and their new category", required = true)
+                                           @RequestBody @Valid LinkMoveRequest request) {
+
+        return new BulkOperationResponse(linkReorganizationService.moveLinks(customUserDetails.getId(), titleId,
+                request.getLinkIds(), request.getTargetCategoryId()));
+    }
+
+    @Operation(summary = "Delete many links",
+            tags = {"Link"},
+            method = "POST",
+            description = "Method deletes the given links of the title in one statement",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Successfully deleted the links, returns how many were deleted"),
+                    @ApiResponse(responseCode = "400", description = "Link ids are empty or too many")
+            })
+    @PostMapping(path = "links/delete", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public BulkOperationResponse deleteLinks(@Parameter(description = "Current registered user", required = true)
+                                             @CurrentUser CustomUserDetails customUserDetails,
+                                             @Parameter(description = "Title ID the links belong to", required = true)
+                                             @PathVariable(value = "titleId") Long titleId,
+                                             @Parameter(description = "Links to delete", required = true)
+                                             @RequestBody @Valid LinkIdsRequest request) {
+
+        return new BulkOperationResponse(linkReorganizationService.deleteLinks(customUserDetails.getId(), titleId,
+                request.getLinkIds()));
+    }
+
     @Operation(summary = "Update link",
             tags = {"Link"},
             method = "PUT",
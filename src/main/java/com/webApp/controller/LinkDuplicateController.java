@@ -0,0 +1,51 @@
+package com.webApp.controller;
+
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.DuplicateLinkGroup;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.LinkDuplicateService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/links")
+@Tag(name = "Link duplicates", description = "Duplicate links REST Api")
+public class LinkDuplicateController {
+
+    private final LinkDuplicateService linkDuplicateService;
+
+    @Autowired
+    public LinkDuplicateController(LinkDuplicateService linkDuplicateService) {
+        this.linkDuplicateService = linkDuplicateService;
+    }
+
+    @Operation(summary = "Find user's duplicate links",
+               tags = {"Link duplicates"},
+               method = "GET",
+               description = "Method returns the groups of user's links saved more than once under forms of the same URL, " +
+                       "such as http and https, a trailing slash or tracking parameters",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the duplicates"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "duplicates", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<DuplicateLinkGroup>> findDuplicates(@Parameter(description = "Current registered user", required = true)
+                                                                   @CurrentUser CustomUserDetails customUserDetails) {
+
+        return ResponseEntity.ok(linkDuplicateService.findDuplicates(customUserDetails.getId()));
+    }
+}
@@ -0,0 +1,60 @@
+package com.webApp.controller;
+
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.LinkHealthResponse;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.LinkHealthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/links")
+@Tag(name = "Link health", description = "Link health REST Api")
+public class LinkHealthController {
+
+    private final LinkHealthService linkHealthService;
+
+    private final int maxListingSize;
+
+    @Autowired
+    public LinkHealthController(LinkHealthService linkHealthService,
+                                @Value("${app.health.listing.maxSize}") int maxListingSize) {
+        this.linkHealthService = linkHealthService;
+        this.maxListingSize = maxListingSize;
+    }
+
+    @Operation(summary = "Find user's broken links",
+               tags = {"Link health"},
+               method = "GET",
+               description = "Method returns the user's links that failed their last health checks, " +
+                       "the latest checked first. Links are checked in the background, about once a week",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved list of links"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "broken", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<LinkHealthResponse>> findBroken(@Parameter(description = "Maximum number of links")
+                                                               @RequestParam(value = "size", defaultValue = "50") int size,
+                                                               @Parameter(description = "Current registered user", required = true)
+                                                               @CurrentUser CustomUserDetails customUserDetails) {
+
+        int limit = Math.max(1, Math.min(size, maxListingSize));
+        return ResponseEntity.ok(linkHealthService.findBroken(customUserDetails.getId(), limit));
+    }
+}
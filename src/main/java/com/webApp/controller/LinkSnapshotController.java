@@ -0,0 +1,176 @@
+package com.webApp.controller;
+
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.model.LinkSnapshot;
+import com.webApp.payload.LinkSnapshotResponse;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.LinkService;
+import com.webApp.service.LinkSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/links")
+@Tag(name = "Link snapshots", description = "Link snapshots REST Api")
+public class LinkSnapshotController {
+
+    /**
+     * The content of a snapshot never changes, its ETag is the hash of the content
+     */
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().getHeaderValue();
+
+    private final LinkService linkService;
+
+    private final LinkSnapshotService linkSnapshotService;
+
+    @Autowired
+    public LinkSnapshotController(LinkService linkService, LinkSnapshotService linkSnapshotService) {
+        this.linkService = linkService;
+        this.linkSnapshotService = linkSnapshotService;
+    }
+
+    @Operation(summary = "Upload a snapshot of a link's page",
+               tags = {"Link snapshots"},
+               method = "POST",
+               description = "Method archives the HTML of the page sent in the body as a snapshot of the user's link",
+               responses = {
+                       @ApiResponse(responseCode = "201", description = "Snapshot archived"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "404", description = "The link is not found"),
+                       @ApiResponse(responseCode = "413", description = "The page is larger than allowed")
+               })
+    @PostMapping(path = "{linkId}/snapshots", consumes = MediaType.TEXT_HTML_VALUE,
+                 produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<LinkSnapshotResponse> uploadSnapshot(@Parameter(description = "Current registered user", required = true)
+                                                               @CurrentUser CustomUserDetails customUserDetails,
+                                                               @Parameter(description = "Link ID of the archived link", required = true)
+                                                               @PathVariable(value = "linkId") Long linkId,
+                                                               HttpServletRequest request) throws IOException {
+
+        if (!linkService.existsByUserIdAndId(customUserDetails.getId(), linkId)) {
+            throw new NoSuchEntityException("Link not found with ID " + linkId);
+        }
+        LinkSnapshotResponse snapshot = linkSnapshotService.upload(linkId, request.getInputStream(), request.getContentType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(snapshot);
+    }
+
+    @Operation(summary = "Capture a snapshot of a link's page",
+               tags = {"Link snapshots"},
+               method = "POST",
+               description = "Method queues a fetch of the page of the user's link, which is archived as a snapshot " +
+                       "once it is fetched. Pages that are not HTML or larger than allowed are not archived",
+               responses = {
+                       @ApiResponse(responseCode = "202", description = "Capture queued"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "404", description = "The link is not found"),
+                       @ApiResponse(responseCode = "503", description = "Too many captures are queued, overall or for the link's site, try again later")
+               })
+    @PostMapping(path = "{linkId}/snapshots/capture")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> captureSnapshot(@Parameter(description = "Current registered user", required = true)
+                                                @CurrentUser CustomUserDetails customUserDetails,
+                                                @Parameter(description = "Link ID of the archived link", required = true)
+                                                @PathVariable(value = "linkId") Long linkId) {
+
+        if (!linkSnapshotService.capture(customUserDetails.getId(), linkId)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    @Operation(summary = "Find snapshots of a link",
+               tags = {"Link snapshots"},
+               method = "GET",
+               description = "Method returns the snapshots of the user's link, the latest first",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved list of snapshots"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "{linkId}/snapshots", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<LinkSnapshotResponse>> findSnapshots(@Parameter(description = "Current registered user", required = true)
+                                                                    @CurrentUser CustomUserDetails customUserDetails,
+                                                                    @Parameter(description = "Link ID of the archived link", required = true)
+                                                                    @PathVariable(value = "linkId") Long linkId) {
+
+        return ResponseEntity.ok(linkSnapshotService.findSnapshots(customUserDetails.getId(), linkId));
+    }
+
+    @Operation(summary = "Get the content of a snapshot",
+               tags = {"Link snapshots"},
+               method = "GET",
+               description = "Method streams the archived page. Clients accepting gzip get the content as it is " +
+                       "stored, compressed. The page is sandboxed so that its scripts can't run on this origin",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the page"),
+                       @ApiResponse(responseCode = "304", description = "The client has the page already"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "404", description = "The snapshot is not found")
+               })
+    @GetMapping(path = "{linkId}/snapshots/{snapshotId}")
+    @PreAuthorize("hasRole('USER')")
+    public void getSnapshot(@Parameter(description = "Current registered user", required = true)
+                            @CurrentUser CustomUserDetails customUserDetails,
+                            @Parameter(description = "Link ID of the archived link", required = true)
+                            @PathVariable(value = "linkId") Long linkId,
+                            @Parameter(description = "Snapshot ID", required = true)
+                            @PathVariable(value = "snapshotId") Long snapshotId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+
+        LinkSnapshot snapshot = linkSnapshotService.findSnapshot(customUserDetails.getId(), linkId, snapshotId)
+                .orElseThrow(() -> new NoSuchEntityException("Snapshot not found with ID " + snapshotId));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + snapshot.getSha256() + "\"")) {
+            return;
+        }
+        response.setContentType(snapshot.getContentType());
+        response.setHeader("Content-Security-Policy", "sandbox");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLengthLong(snapshot.getCompressedLength());
+            linkSnapshotService.transferCompressed(snapshot, Channels.newChannel(response.getOutputStream()));
+        } else {
+            response.setContentLengthLong(snapshot.getRawLength());
+            try (InputStream content = linkSnapshotService.open(snapshot)) {
+                StreamUtils.copy(content, response.getOutputStream());
+            }
+        }
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+}
@@ -0,0 +1,112 @@
+package com.webApp.controller;
+
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.LinkUsageResponse;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.LinkService;
+import com.webApp.service.LinkUsageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/links")
+@Tag(name = "Link usage", description = "Link usage REST Api")
+public class LinkUsageController {
+
+    private final LinkService linkService;
+
+    private final LinkUsageService linkUsageService;
+
+    private final int maxListingSize;
+
+    @Autowired
+    public LinkUsageController(LinkService linkService, LinkUsageService linkUsageService,
+                               @Value("${app.usage.listing.maxSize}") int maxListingSize) {
+        this.linkService = linkService;
+        this.linkUsageService = linkUsageService;
+        this.maxListingSize = maxListingSize;
+    }
+
+    @Operation(summary = "Record that a link was opened",
+               tags = {"Link usage"},
+               method = "POST",
+               description = "Method counts an open of the user's link. Opens are written in batches, " +
+                       "so they show up in the listings after a few seconds",
+               responses = {
+                       @ApiResponse(responseCode = "202", description = "Open counted"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "404", description = "The link is not found")
+               })
+    @PostMapping(path = "{linkId}/open")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> openLink(@Parameter(description = "Current registered user", required = true)
+                                         @CurrentUser CustomUserDetails customUserDetails,
+                                         @Parameter(description = "Link ID of the opened link", required = true)
+                                         @PathVariable(value = "linkId") Long linkId) {
+
+        if (!linkService.existsByUserIdAndId(customUserDetails.getId(), linkId)) {
+            throw new NoSuchEntityException("Link not found with ID " + linkId);
+        }
+        linkUsageService.recordOpen(linkId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+
+    @Operation(summary = "Find user's most used links",
+               tags = {"Link usage"},
+               method = "GET",
+               description = "Method returns the user's links opened the most times, the most opened first",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved list of links"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "most-used", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<LinkUsageResponse>> findMostUsed(@Parameter(description = "Maximum number of links")
+                                                                @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                @Parameter(description = "Current registered user", required = true)
+                                                                @CurrentUser CustomUserDetails customUserDetails) {
+
+        return ResponseEntity.ok(linkService.findMostUsed(customUserDetails.getId(), limit(size)));
+    }
+
+    @Operation(summary = "Find user's recently used links",
+               tags = {"Link usage"},
+               method = "GET",
+               description = "Method returns the user's links opened last, the latest first",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved list of links"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "recently-used", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<LinkUsageResponse>> findRecentlyUsed(@Parameter(description = "Maximum number of links")
+                                                                    @RequestParam(value = "size", defaultValue = "10") int size,
+                                                                    @Parameter(description = "Current registered user", required = true)
+                                                                    @CurrentUser CustomUserDetails customUserDetails) {
+
+        return ResponseEntity.ok(linkService.findRecentlyUsed(customUserDetails.getId(), limit(size)));
+    }
+
+    private int limit(int size) {
+        return Math.max(1, Math.min(size, maxListingSize));
+    }
+}
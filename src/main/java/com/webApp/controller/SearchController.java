@@ -0,0 +1,94 @@
+package com.webApp.controller;
+
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.LinkSearchPage;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.LinkSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/search")
+@Tag(name = "Search", description = "Link search REST Api")
+public class SearchController {
+
+    private final LinkSearchService linkSearchService;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    @Autowired
+    public SearchController(LinkSearchService linkSearchService,
+                            @Value("${app.links.page.defaultSize}") int defaultPageSize,
+                            @Value("${app.links.page.maxSize}") int maxPageSize) {
+        this.linkSearchService = linkSearchService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Operation(summary = "Search user's links",
+               tags = {"Search"},
+               method = "GET",
+               description = "Method returns the user's links whose name, description, category, title or archived page contain " +
+                       "every word of the query, best matches first, and the cursor of the next page",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved page of results"),
+                       @ApiResponse(responseCode = "400", description = "The cursor is invalid"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "links", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<LinkSearchPage> searchLinks(@Parameter(description = "Words to search for", required = true)
+                                                      @RequestParam(value = "q") String query,
+                                                      @Parameter(description = "Cursor returned as next by the previous page")
+                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                      @Parameter(description = "Number of results in the page")
+                                                      @RequestParam(value = "size", required = false) Integer size,
+                                                      @Parameter(description = "Current registered user", required = true)
+                                                      @CurrentUser CustomUserDetails customUserDetails) {
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        return ResponseEntity.ok(linkSearchService.search(customUserDetails.getId(), query, cursor, pageSize));
+    }
+
+    @Operation(summary = "Suggest user's links while typing",
+               tags = {"Search"},
+               method = "GET",
+               description = "Method returns the newest user's links having a word that starts with every word of the query. " +
+                       "Answered from memory, meant to be called on every keystroke",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(path = "links/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<LinkSearchResult>> suggestLinks(@Parameter(description = "Words typed so far", required = true)
+                                                               @RequestParam(value = "q") String query,
+                                                               @Parameter(description = "Maximum number of suggestions")
+                                                               @RequestParam(value = "size", defaultValue = "10") int size,
+                                                               @Parameter(description = "Current registered user", required = true)
+                                                               @CurrentUser CustomUserDetails customUserDetails) {
+
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+
+        return ResponseEntity.ok(linkSearchService.suggest(customUserDetails.getId(), query, limit));
+    }
+}
@@ -0,0 +1,67 @@
+package com.webApp.controller;
+
+import com.webApp.model.CustomUserDetails;
+import com.webApp.payload.SyncPage;
+import com.webApp.security.CurrentUser;
+import com.webApp.service.KnowledgeTreeSyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Slf4j
+@RequestMapping("/api/user/sync")
+@Tag(name = "Sync", description = "Device sync REST Api")
+public class SyncController {
+
+    private final KnowledgeTreeSyncService knowledgeTreeSyncService;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    @Autowired
+    public SyncController(KnowledgeTreeSyncService knowledgeTreeSyncService,
+                          @Value("${app.sync.page.defaultSize}") int defaultPageSize,
+                          @Value("${app.sync.page.maxSize}") int maxPageSize) {
+        this.knowledgeTreeSyncService = knowledgeTreeSyncService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Operation(summary = "Sync user's titles, categories and links",
+               tags = {"Sync"},
+               method = "GET",
+               description = "Method returns the titles, categories and links created or updated since the sync token, " +
+                       "the ids of the deleted ones and the token of the next sync. Without a token, or with one older " +
+                       "than the change log retention, it asks the device to download the whole tree again",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the changes"),
+                       @ApiResponse(responseCode = "400", description = "The sync token is invalid"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource")
+               })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SyncPage> sync(@Parameter(description = "Token returned as next by the previous sync")
+                                         @RequestParam(value = "since", required = false) String since,
+                                         @Parameter(description = "Maximum number of changes in the response")
+                                         @RequestParam(value = "size", required = false) Integer size,
+                                         @Parameter(description = "Current registered user", required = true)
+                                         @CurrentUser CustomUserDetails customUserDetails) {
+
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        return ResponseEntity.ok(knowledgeTreeSyncService.findChangesSince(customUserDetails.getId(), since, pageSize));
+    }
+}
@@ -2,11 +2,22 @@ package com.webApp.controller;
 
 import com.webApp.exception_handling.NoSuchEntityException;
 import com.webApp.model.CustomUserDetails;
+import com.webApp.model.KnowledgeTreeVersion;
 import com.webApp.model.Title;
 import com.webApp.model.User;
+import com.webApp.payload.BulkTitleRequest;
+import com.webApp.payload.CategoryTemplateRequest;
+import com.webApp.payload.CategoryTreeResponse;
+import com.webApp.payload.KnowledgeTreeSummary;
+import com.webApp.payload.TitleTreeResponse;
 import com.webApp.security.CurrentUser;
+import com.webApp.service.CategoryProvisioningService;
+import com.webApp.service.KnowledgeTreeService;
+import com.webApp.service.KnowledgeTreeSummaryService;
+import com.webApp.service.KnowledgeTreeVersionService;
 import com.webApp.service.TitleService;
 import com.webApp.service.UserService;
+import com.webApp.util.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -20,8 +31,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,13 +48,30 @@ public class TitleController {
 
     private final UserService userService;
 
+    private final KnowledgeTreeService knowledgeTreeService;
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
     private final ApplicationEventPublisher applicationEventPublisher;
 
+    private final CategoryProvisioningService categoryProvisioningService;
+
+    private final KnowledgeTreeSummaryService knowledgeTreeSummaryService;
+
     @Autowired
-    public TitleController(TitleService titleService, UserService userService, ApplicationEventPublisher applicationEventPublisher) {
+    public TitleController(TitleService titleService, UserService userService,
+                           KnowledgeTreeService knowledgeTreeService,
+                           KnowledgeTreeVersionService knowledgeTreeVersionService,
+                           ApplicationEventPublisher applicationEventPublisher,
+                           CategoryProvisioningService categoryProvisioningService,
+                           KnowledgeTreeSummaryService knowledgeTreeSummaryService) {
         this.titleService = titleService;
         this.userService = userService;
+        this.knowledgeTreeService = knowledgeTreeService;
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.categoryProvisioningService = categoryProvisioningService;
+        this.knowledgeTreeSummaryService = knowledgeTreeSummaryService;
     }
 
     @Operation(summary = "Find all user's titles",
@@ -57,10 +87,58 @@ public class TitleController {
     })
     @GetMapping(path = "/", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Title>> findAllTitlesByUserId(
+    public ResponseEntity<List<TitleTreeResponse>> findAllTitlesByUserId(
                                                              @Parameter(description = "Current registered user", required = true)
-                                                             @CurrentUser CustomUserDetails customUserDetails) {
-        return ResponseEntity.ok(titleService.findAllByUserId(customUserDetails.getId()));
+                                                             @CurrentUser CustomUserDetails customUserDetails,
+                                                             WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return ResponseEntity.ok(knowledgeTreeService.findTreeByUserId(customUserDetails.getId(), version.getVersion()));
+    }
+
+    @Operation(summary = "Find user's whole knowledge tree",
+               tags = {"Title"},
+               method = "GET",
+               description = "Method returns all titles of the user with their categories and links",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the tree"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "403", description = "Accessing the resource you were trying to reach is forbidden")
+    })
+    @GetMapping(path = "/tree", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<TitleTreeResponse>> findTreeByUserId(@Parameter(description = "Current registered user", required = true)
+                                                                    @CurrentUser CustomUserDetails customUserDetails,
+                                                                    WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return ResponseEntity.ok(knowledgeTreeService.findTreeByUserId(customUserDetails.getId(), version.getVersion()));
+    }
+
+    @Operation(summary = "Count user's titles, categories and links",
+               tags = {"Title"},
+               method = "GET",
+               description = "Method returns the number of titles, categories and links of the user, " +
+                       "and the number of categories and links of every title, without the links themselves",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the summary"),
+                       @ApiResponse(responseCode = "401", description = "You are not authorized to view the resource"),
+                       @ApiResponse(responseCode = "403", description = "Accessing the resource you were trying to reach is forbidden")
+    })
+    @GetMapping(path = "/summary", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<KnowledgeTreeSummary> findSummaryByUserId(@Parameter(description = "Current registered user", required = true)
+                                                                    @CurrentUser CustomUserDetails customUserDetails,
+                                                                    WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return ResponseEntity.ok(knowledgeTreeSummaryService.findSummary(customUserDetails.getId()));
     }
 
 
@@ -75,9 +153,16 @@ public class TitleController {
                })
     @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Title> getTitleById(@Parameter(description = "Title ID from which object title will be retrieved", required = true)
-                                              @PathVariable(name = "id") Long titleId) {
-        return titleService.findTitleById(titleId)
+    public ResponseEntity<TitleTreeResponse> getTitleById(@Parameter(description = "Current registered user", required = true)
+                                                          @CurrentUser CustomUserDetails customUserDetails,
+                                                          @Parameter(description = "Title ID from which object title will be retrieved", required = true)
+                                                          @PathVariable(name = "id") Long titleId,
+                                                          WebRequest webRequest) {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(customUserDetails.getId());
+        if (ConditionalRequests.checkNotModified(webRequest, version)) {
+            return null;
+        }
+        return knowledgeTreeService.findTitle(customUserDetails.getId(), titleId, version.getVersion())
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new NoSuchEntityException("Title not found with ID: " + titleId));
     }
@@ -107,6 +192,68 @@ public class TitleController {
 
     }
 
+    @Operation(summary = "Create many titles",
+               tags = {"Title"},
+               method = "POST",
+               description = "Method creates titles with the categories of the user's template in one transaction",
+               responses = {
+                           @ApiResponse(responseCode = "201", description = "The titles were successfully created"),
+                           @ApiResponse(responseCode = "400", description = "Title names are empty, invalid or too many")
+            })
+    @PostMapping(path = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasRole('USER')")
+    public List<TitleTreeResponse> createTitles(@Parameter(description = "Names of the titles to create", required = true)
+                                                @Valid @RequestBody BulkTitleRequest request,
+                                                @Parameter(description = "Current registered user", required = true)
+                                                @CurrentUser CustomUserDetails customUserDetails) {
+        User user = userService.findById(customUserDetails.getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + customUserDetails));
+        List<Title> titles = new ArrayList<>(request.getNames().size());
+        request.getNames().forEach(name -> titles.add(new Title(name)));
+
+        List<TitleTreeResponse> created = new ArrayList<>(titles.size());
+        for (Title title : titleService.saveTitles(user, titles)) {
+            TitleTreeResponse response = new TitleTreeResponse(title.getId(), title.getName());
+            title.getCategories().forEach(category -> response.getCategories()
+                    .add(new CategoryTreeResponse(category.getId(), title.getId(), category.getName())));
+            created.add(response);
+        }
+        return created;
+    }
+
+    @Operation(summary = "Find the category template",
+               tags = {"Title"},
+               method = "GET",
+               description = "Method returns the names of the categories new titles are created with",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "Successfully retrieved the template")
+            })
+    @GetMapping(path = "/category-template", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public List<String> findCategoryTemplate(@Parameter(description = "Current registered user", required = true)
+                                             @CurrentUser CustomUserDetails customUserDetails) {
+        return categoryProvisioningService.findTemplate(customUserDetails.getId());
+    }
+
+    @Operation(summary = "Replace the category template",
+               tags = {"Title"},
+               method = "PUT",
+               description = "Method sets the categories new titles are created with, an empty list restores the default ones",
+               responses = {
+                       @ApiResponse(responseCode = "200", description = "The template was successfully replaced"),
+                       @ApiResponse(responseCode = "400", description = "Category names are invalid or too many")
+            })
+    @PutMapping(path = "/category-template", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public List<String> replaceCategoryTemplate(@Parameter(description = "Names of the categories", required = true)
+                                                @Valid @RequestBody CategoryTemplateRequest request,
+                                                @Parameter(description = "Current registered user", required = true)
+                                                @CurrentUser CustomUserDetails customUserDetails) {
+        categoryProvisioningService.replaceTemplate(customUserDetails.getId(), request.getNames());
+        return categoryProvisioningService.findTemplate(customUserDetails.getId());
+    }
+
     @Operation(summary = "Delete title",
                tags = {"Title"},
                method = "DELETE",
@@ -151,19 +298,10 @@ public class TitleController {
                                                  @Parameter(description =  "Title object to be updated", required = true)
                                                  @Valid @RequestBody Title title) {
 
-        Optional<Title> updatedTitle = titleService.findTitleById(titleId);
-
-        if(!updatedTitle.isPresent()) {
+        if (!titleService.updateTitle(customUserDetails.getId(), titleId, title.getName())) {
             throw new NoSuchEntityException("There is not such title with ID: " + titleId);
         }
-
-        return userService.findById(customUserDetails.getId())
-                .map(user -> {
-                    title.setUser(user);
-                    title.setId(titleId);
-                    titleService.saveTitle(title);
-                    return ResponseEntity.ok(title);
-                })
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + customUserDetails));
+        title.setId(titleId);
+        return ResponseEntity.ok(title);
     }
 }
@@ -0,0 +1,60 @@
+package com.webApp.event;
+
+import com.webApp.model.KnowledgeTreeEntityType;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published when a title of the user, or one of its categories or links, is created, updated or
+ * deleted. It lists the entities that changed, which are written to the user's change log for the
+ * devices to sync. Deleting a title or a category deletes everything below it, and only the
+ * deleted entity itself is listed.
+ */
+@Getter
+public class OnKnowledgeTreeChangeEvent extends ApplicationEvent {
+
+    private final Long userId;
+
+    private final Long titleId;
+
+    private final List<Change> changes;
+
+    public OnKnowledgeTreeChangeEvent(Long userId, Long titleId, List<Change> changes) {
+        super(userId);
+        this.userId = userId;
+        this.titleId = titleId;
+        this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+
+    public OnKnowledgeTreeChangeEvent(Long userId, Long titleId, Change change) {
+        this(userId, titleId, Collections.singletonList(change));
+    }
+
+    @Getter
+    public static final class Change {
+
+        private final KnowledgeTreeEntityType entityType;
+
+        private final Long entityId;
+
+        private final boolean deleted;
+
+        private Change(KnowledgeTreeEntityType entityType, Long entityId, boolean deleted) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.deleted = deleted;
+        }
+
+        public static Change saved(KnowledgeTreeEntityType entityType, Long entityId) {
+            return new Change(entityType, entityId, false);
+        }
+
+        public static Change deleted(KnowledgeTreeEntityType entityType, Long entityId) {
+            return new Change(entityType, entityId, true);
+        }
+    }
+}
@@ -27,4 +27,12 @@ public class OnUserLogoutSuccessEvent extends ApplicationEvent {
         this.logOutRequest = logOutRequest;
         this.eventTime = Date.from(Instant.now());
     }
+
+    public OnUserLogoutSuccessEvent(String userEmail, String token, LogOutRequest logOutRequest, Date eventTime) {
+        super(userEmail);
+        this.userEmail = userEmail;
+        this.token = token;
+        this.logOutRequest = logOutRequest;
+        this.eventTime = eventTime;
+    }
 }
@@ -0,0 +1,43 @@
+package com.webApp.event.listener;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.service.KnowledgeTreeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@Slf4j
+public class OnKnowledgeTreeChangeCacheListener {
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public OnKnowledgeTreeChangeCacheListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Evicts the title listing of the user and the category listing of the changed title. Runs
+     * once the change is committed, otherwise a concurrent read could cache the old state again
+     * right after the eviction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onKnowledgeTreeChange(OnKnowledgeTreeChangeEvent event) {
+        evict(KnowledgeTreeService.TITLES_CACHE, event.getUserId());
+        if (event.getTitleId() != null) {
+            evict(KnowledgeTreeService.CATEGORIES_CACHE,
+                    KnowledgeTreeService.categoriesKey(event.getUserId(), event.getTitleId()));
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.webApp.event.listener;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.service.KnowledgeTreeSyncService;
+import com.webApp.service.KnowledgeTreeVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class OnKnowledgeTreeChangeVersionListener {
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private final KnowledgeTreeSyncService knowledgeTreeSyncService;
+
+    @Autowired
+    public OnKnowledgeTreeChangeVersionListener(KnowledgeTreeVersionService knowledgeTreeVersionService,
+                                                KnowledgeTreeSyncService knowledgeTreeSyncService) {
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
+        this.knowledgeTreeSyncService = knowledgeTreeSyncService;
+    }
+
+    /**
+     * Runs synchronously, inside the transaction of the change when there is one, so the new
+     * version and its change log entries are committed or rolled back together with the change
+     */
+    @EventListener
+    public void onKnowledgeTreeChange(OnKnowledgeTreeChangeEvent event) {
+        long version = knowledgeTreeVersionService.increment(event.getUserId());
+        if (!event.getChanges().isEmpty()) {
+            knowledgeTreeSyncService.recordChanges(event.getUserId(), version, event.getChanges());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.webApp.event.listener;
+
+import com.webApp.cache.UserSecurityEpochCache;
+import com.webApp.event.OnUserAccountChangeEvent;
+import com.webApp.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class OnUserAccountChangeSecurityEpochListener implements ApplicationListener<OnUserAccountChangeEvent> {
+
+    private final UserSecurityEpochCache securityEpochCache;
+
+    @Autowired
+    public OnUserAccountChangeSecurityEpochListener(UserSecurityEpochCache securityEpochCache) {
+        this.securityEpochCache = securityEpochCache;
+    }
+
+    /**
+     * Runs synchronously so that the tokens issued before the change stop working
+     * before the response of the request that changed the account is sent
+     */
+    @Override
+    public void onApplicationEvent(OnUserAccountChangeEvent event) {
+        User user = event.getUser();
+        if (user != null && user.getId() != null) {
+            log.info(String.format("Account change [%s] received for user [%s]", event.getAction(), user.getEmail()));
+            securityEpochCache.incrementEpochForUser(user.getId());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.webApp.exception_handling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.PAYLOAD_TOO_LARGE)
+public class BlobTooLargeException extends RuntimeException {
+
+    public BlobTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.webApp.exception_handling;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+@Getter
+public class DuplicateLinkException extends RuntimeException {
+
+    private final Long existingLinkId;
+
+    public DuplicateLinkException(String linkName, Long existingLinkId) {
+        super(String.format("Link '%s' is already saved with ID %d", linkName, existingLinkId));
+        this.existingLinkId = existingLinkId;
+    }
+}
@@ -0,0 +1,12 @@
+package com.webApp.exception_handling;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class UnsupportedFormatException extends RuntimeException {
+
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,95 @@
+package com.webApp.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Netscape bookmark file that browsers can import: every title is a folder holding one folder per
+ * category. The description of a link is used as its name, which is where the bookmark import
+ * takes descriptions from, so an exported file can be imported back.
+ */
+public class BookmarkHtmlExportWriter implements ExportWriter {
+
+    private final Writer writer;
+
+    public BookmarkHtmlExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writer.write("<!DOCTYPE NETSCAPE-Bookmark-file-1>\n" +
+                "<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n" +
+                "<TITLE>Bookmarks</TITLE>\n" +
+                "<H1>Bookmarks</H1>\n" +
+                "<DL><p>\n");
+    }
+
+    @Override
+    public void startTitle(Long id, String name) throws IOException {
+        folder("    ", name);
+    }
+
+    @Override
+    public void startCategory(Long id, Long titleId, String name) throws IOException {
+        folder("        ", name);
+    }
+
+    @Override
+    public void link(Long id, Long categoryId, String linkName, String linkDescription) throws IOException {
+        writer.write("            <DT><A HREF=\"");
+        escape(linkName);
+        writer.write("\">");
+        escape(linkDescription != null && !linkDescription.isEmpty() ? linkDescription : linkName);
+        writer.write("</A>\n");
+    }
+
+    @Override
+    public void endCategory() throws IOException {
+        writer.write("        </DL><p>\n");
+    }
+
+    @Override
+    public void endTitle() throws IOException {
+        writer.write("    </DL><p>\n");
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.write("</DL><p>\n");
+    }
+
+    private void folder(String indent, String name) throws IOException {
+        writer.write(indent);
+        writer.write("<DT><H3>");
+        escape(name);
+        writer.write("</H3>\n");
+        writer.write(indent);
+        writer.write("<DL><p>\n");
+    }
+
+    private void escape(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                default:
+                    writer.write(c);
+            }
+        }
+    }
+}
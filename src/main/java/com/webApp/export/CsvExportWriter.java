@@ -0,0 +1,101 @@
+package com.webApp.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One RFC 4180 row per link with the names of its title and category. Categories without links
+ * and titles without categories get a row with empty columns so that they are not lost.
+ */
+public class CsvExportWriter implements ExportWriter {
+
+    private final Writer writer;
+
+    private String title;
+
+    private String category;
+
+    private boolean titleHasCategories;
+
+    private boolean categoryHasLinks;
+
+    public CsvExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writer.write("title,category,link_name,link_description\r\n");
+    }
+
+    @Override
+    public void startTitle(Long id, String name) {
+        title = name;
+        titleHasCategories = false;
+    }
+
+    @Override
+    public void startCategory(Long id, Long titleId, String name) {
+        category = name;
+        titleHasCategories = true;
+        categoryHasLinks = false;
+    }
+
+    @Override
+    public void link(Long id, Long categoryId, String linkName, String linkDescription) throws IOException {
+        categoryHasLinks = true;
+        row(title, category, linkName, linkDescription);
+    }
+
+    @Override
+    public void endCategory() throws IOException {
+        if (!categoryHasLinks) {
+            row(title, category, null, null);
+        }
+    }
+
+    @Override
+    public void endTitle() throws IOException {
+        if (!titleHasCategories) {
+            row(title, null, null, null);
+        }
+    }
+
+    @Override
+    public void end() {
+    }
+
+    private void row(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
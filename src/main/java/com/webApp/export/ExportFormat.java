@@ -0,0 +1,53 @@
+package com.webApp.export;
+
+import com.webApp.exception_handling.UnsupportedFormatException;
+
+import java.io.Writer;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Formats the knowledge store can be exported to
+ */
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson", NdjsonExportWriter::new),
+    CSV("text/csv", "csv", CsvExportWriter::new),
+    HTML("text/html", "html", BookmarkHtmlExportWriter::new);
+
+    private final String contentType;
+
+    private final String extension;
+
+    private final Function<Writer, ExportWriter> writerFactory;
+
+    ExportFormat(String contentType, String extension, Function<Writer, ExportWriter> writerFactory) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.writerFactory = writerFactory;
+    }
+
+    /**
+     * Returns the format with the given name, ignoring case
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new UnsupportedFormatException("Unsupported export format: " + name);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public ExportWriter newWriter(Writer writer) {
+        return writerFactory.apply(writer);
+    }
+}
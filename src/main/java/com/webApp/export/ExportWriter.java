@@ -0,0 +1,25 @@
+package com.webApp.export;
+
+import java.io.IOException;
+
+/**
+ * Writes the knowledge store in one format as it is read. Calls arrive in tree order: a title,
+ * then each of its categories followed by their links, and every title and category is closed
+ * before the next one starts.
+ */
+public interface ExportWriter {
+
+    void begin() throws IOException;
+
+    void startTitle(Long id, String name) throws IOException;
+
+    void startCategory(Long id, Long titleId, String name) throws IOException;
+
+    void link(Long id, Long categoryId, String linkName, String linkDescription) throws IOException;
+
+    void endCategory() throws IOException;
+
+    void endTitle() throws IOException;
+
+    void end() throws IOException;
+}
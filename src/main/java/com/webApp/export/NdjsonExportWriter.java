@@ -0,0 +1,78 @@
+package com.webApp.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One json object per line, each one typed as a title, a category or a link and carrying the id of
+ * its parent, so the tree can be rebuilt while reading the lines in order
+ */
+public class NdjsonExportWriter implements ExportWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Writer writer;
+
+    private JsonGenerator generator;
+
+    public NdjsonExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        generator = JSON_FACTORY.createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void startTitle(Long id, String name) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "title");
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", name);
+        endLine();
+    }
+
+    @Override
+    public void startCategory(Long id, Long titleId, String name) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "category");
+        generator.writeNumberField("id", id);
+        generator.writeNumberField("titleId", titleId);
+        generator.writeStringField("name", name);
+        endLine();
+    }
+
+    @Override
+    public void link(Long id, Long categoryId, String linkName, String linkDescription) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "link");
+        generator.writeNumberField("id", id);
+        generator.writeNumberField("categoryId", categoryId);
+        generator.writeStringField("linkName", linkName);
+        generator.writeStringField("linkDescription", linkDescription);
+        endLine();
+    }
+
+    @Override
+    public void endCategory() {
+    }
+
+    @Override
+    public void endTitle() {
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.flush();
+    }
+
+    private void endLine() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
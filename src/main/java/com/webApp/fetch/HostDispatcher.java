@@ -0,0 +1,214 @@
+package com.webApp.fetch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs fetches on a pool of {@code concurrency} threads of its own, so that slow sites hold up
+ * neither the request threads nor the connection pool, while being polite to every host: at most
+ * {@code maxPerHost} fetches of a host run at once and they start at least {@code minIntervalMs}
+ * apart.
+ * <p>
+ * Tasks wait in a queue per host. A host with a task allowed to start joins the back of the ready
+ * hosts, and a free thread takes the next task of the first ready host, so hosts take turns and a
+ * host with many links doesn't starve the others. A host that has to wait for its interval is put
+ * back by a timer. At most {@code capacity} tasks wait overall and at most
+ * {@code maxWaitingPerHost} for any one host, {@link #offer} refuses the others. The cap per host
+ * keeps a few hosts with many links, whose tasks drain at one per {@code minIntervalMs}, from
+ * taking the whole queue while the other hosts have nothing to do.
+ */
+@Slf4j
+public class HostDispatcher {
+
+    private final int concurrency;
+
+    private final int maxPerHost;
+
+    private final long minIntervalMs;
+
+    private final int capacity;
+
+    private final int maxWaitingPerHost;
+
+    private final ExecutorService workers;
+
+    private final ScheduledExecutorService timer;
+
+    private final Map<String, Host> hosts = new HashMap<>();
+
+    private final Deque<Host> ready = new ArrayDeque<>();
+
+    private int waiting;
+
+    private int running;
+
+    public HostDispatcher(String name, int concurrency, int maxPerHost, long minIntervalMs, int capacity,
+                          int maxWaitingPerHost) {
+        this.concurrency = concurrency;
+        this.maxPerHost = maxPerHost;
+        this.minIntervalMs = minIntervalMs;
+        this.capacity = capacity;
+        this.maxWaitingPerHost = maxWaitingPerHost;
+        this.workers = Executors.newFixedThreadPool(concurrency, threadFactory(name));
+        this.timer = Executors.newSingleThreadScheduledExecutor(threadFactory(name + "-timer"));
+    }
+
+    /**
+     * Host and port of the url the limits apply to, or null when the url has no host
+     */
+    public static String hostOf(String url) {
+        try {
+            URL parsed = new URL(url.trim());
+            String host = parsed.getHost().toLowerCase(Locale.ROOT);
+            if (host.isEmpty()) {
+                return null;
+            }
+            return parsed.getPort() == -1 ? host : host + ":" + parsed.getPort();
+        } catch (MalformedURLException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Queues the task for the host. Returns false, without queueing it, when the queue is full or
+     * the host has {@code maxWaitingPerHost} tasks waiting already. Only the first case leaves
+     * {@link #remainingCapacity} at 0.
+     */
+    public synchronized boolean offer(String host, Runnable task) {
+        if (waiting >= capacity) {
+            return false;
+        }
+        Host queue = hosts.computeIfAbsent(host, Host::new);
+        if (queue.tasks.size() >= maxWaitingPerHost) {
+            return false;
+        }
+        waiting++;
+        queue.tasks.add(task);
+        schedule(queue);
+        dispatch();
+        return true;
+    }
+
+    /**
+     * Number of tasks waiting or running
+     */
+    public synchronized int pending() {
+        return waiting + running;
+    }
+
+    /**
+     * Number of tasks that can still be queued
+     */
+    public synchronized int remainingCapacity() {
+        return capacity - waiting;
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Makes the host ready, or sets a timer for when it may start a fetch again. An idle host is
+     * forgotten once its interval is over.
+     */
+    private void schedule(Host host) {
+        if (host.ready || host.timed || host.active >= maxPerHost) {
+            return;
+        }
+        long delay = host.nextStart - System.currentTimeMillis();
+        if (host.tasks.isEmpty()) {
+            if (host.active == 0 && delay <= 0) {
+                hosts.remove(host.name);
+            } else if (host.active == 0) {
+                startTimer(host, delay);
+            }
+        } else if (delay <= 0) {
+            host.ready = true;
+            ready.add(host);
+        } else {
+            startTimer(host, delay);
+        }
+    }
+
+    private void startTimer(Host host, long delay) {
+        host.timed = true;
+        timer.schedule(() -> {
+            synchronized (this) {
+                host.timed = false;
+                schedule(host);
+                dispatch();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatch() {
+        while (running < concurrency && !ready.isEmpty()) {
+            Host host = ready.poll();
+            host.ready = false;
+            Runnable task = host.tasks.poll();
+            host.active++;
+            host.nextStart = System.currentTimeMillis() + minIntervalMs;
+            waiting--;
+            running++;
+            workers.execute(() -> run(host, task));
+            schedule(host);
+        }
+    }
+
+    private void run(Host host, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Fetch for host {} failed", host.name, e);
+        } finally {
+            synchronized (this) {
+                host.active--;
+                running--;
+                schedule(host);
+                dispatch();
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Host {
+
+        private final String name;
+
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        private int active;
+
+        private long nextStart;
+
+        private boolean ready;
+
+        private boolean timed;
+
+        private Host(String name) {
+            this.name = name;
+        }
+    }
+}
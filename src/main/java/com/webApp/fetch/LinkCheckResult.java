@@ -0,0 +1,31 @@
+package com.webApp.fetch;
+
+/**
+ * Status a link answered a check with, and the validators to make the next check conditional
+ */
+public class LinkCheckResult {
+
+    private final int statusCode;
+
+    private final String etag;
+
+    private final String lastModified;
+
+    public LinkCheckResult(int statusCode, String etag, String lastModified) {
+        this.statusCode = statusCode;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,208 @@
+package com.webApp.fetch;
+
+import com.webApp.util.HtmlHeadParser;
+import com.webApp.util.PageMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches the pages users saved links to. Every fetch has connect and read timeouts, redirects are
+ * followed by hand up to {@value #MAX_REDIRECTS} times, and every host on the way is resolved and
+ * refused when it is a loopback, link local or private address, so that a link can't make the
+ * server call into its own network. Only what is needed of a page is read: the head for its
+ * metadata, the body as it streams in for an archived copy, nothing but the status and the
+ * validators for a check.
+ */
+@Component
+@Slf4j
+public class PageFetcher {
+
+    static final int MAX_REDIRECTS = 5;
+
+    private final int timeoutMs;
+
+    private final int maxHeadBytes;
+
+    private final boolean allowPrivateAddresses;
+
+    private final String userAgent;
+
+    @Autowired
+    public PageFetcher(@Value("${app.fetch.timeoutMs}") int timeoutMs,
+                       @Value("${app.fetch.maxHeadBytes}") int maxHeadBytes,
+                       @Value("${app.fetch.allowPrivateAddresses}") boolean allowPrivateAddresses,
+                       @Value("${app.fetch.userAgent}") String userAgent) {
+        this.timeoutMs = timeoutMs;
+        this.maxHeadBytes = maxHeadBytes;
+        this.allowPrivateAddresses = allowPrivateAddresses;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * Reads the metadata out of the head of the page. Returns null when the url doesn't answer
+     * with an HTML page.
+     */
+    public PageMetadata fetchMetadata(String url) throws IOException {
+        return fetchPage(url, (body, contentType, pageUrl) -> {
+            try (Reader reader = new InputStreamReader(body, charset(contentType))) {
+                return new HtmlHeadParser(reader, maxHeadBytes).parse(pageUrl);
+            }
+        });
+    }
+
+    /**
+     * Hands the body of the page to the reader, as it arrives and decompressed. Returns what the
+     * reader returned, or null when the url doesn't answer with an HTML page.
+     */
+    public <T> T fetchPage(String url, PageReader<T> pageReader) throws IOException {
+        HttpURLConnection connection = open(url, "GET", Collections.singletonMap("Accept", "text/html"));
+        try {
+            String contentType = connection.getContentType();
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK
+                    || contentType == null || !contentType.toLowerCase(Locale.ROOT).contains("html")) {
+                return null;
+            }
+            try (InputStream body = body(connection)) {
+                return pageReader.read(body, contentType, connection.getURL());
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Checks that the link still answers. A link checked before is sent a conditional GET with the
+     * validators of that check, which a page that didn't change answers with a 304 and no body,
+     * other links a HEAD, or a GET when the site doesn't support HEAD. The body is never read.
+     */
+    public LinkCheckResult check(String url, String etag, String lastModified) throws IOException {
+        Map<String, String> headers = new HashMap<>(4);
+        if (etag != null) {
+            headers.put("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            headers.put("If-Modified-Since", lastModified);
+        }
+        HttpURLConnection connection = open(url, headers.isEmpty() ? "HEAD" : "GET", headers);
+        try {
+            int status = connection.getResponseCode();
+            if (headers.isEmpty() && (status == HttpURLConnection.HTTP_BAD_METHOD
+                    || status == HttpURLConnection.HTTP_NOT_IMPLEMENTED)) {
+                connection.disconnect();
+                connection = open(url, "GET", headers);
+                status = connection.getResponseCode();
+            }
+            String newEtag = connection.getHeaderField("ETag");
+            String newLastModified = connection.getHeaderField("Last-Modified");
+            return new LinkCheckResult(status,
+                    newEtag != null ? newEtag : etag,
+                    newLastModified != null ? newLastModified : lastModified);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Sends the request, following the redirects, and returns the connection with the final
+     * response. The caller disconnects it.
+     */
+    HttpURLConnection open(String url, String method, Map<String, String> headers) throws IOException {
+        URL current = new URL(url);
+        for (int redirects = 0; ; redirects++) {
+            checkTarget(current);
+            HttpURLConnection connection = (HttpURLConnection) current.openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(timeoutMs);
+            connection.setReadTimeout(timeoutMs);
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("User-Agent", userAgent);
+            connection.setRequestProperty("Accept-Encoding", "gzip");
+            headers.forEach(connection::setRequestProperty);
+
+            int status = connection.getResponseCode();
+            String location = connection.getHeaderField("Location");
+            if (status < 300 || status >= 400 || status == HttpURLConnection.HTTP_NOT_MODIFIED || location == null) {
+                return connection;
+            }
+            connection.disconnect();
+            if (redirects == MAX_REDIRECTS) {
+                throw new IOException("More than " + MAX_REDIRECTS + " redirects from " + url);
+            }
+            current = new URL(current, location);
+        }
+    }
+
+    private void checkTarget(URL url) throws IOException {
+        String protocol = url.getProtocol();
+        if (!"http".equals(protocol) && !"https".equals(protocol)) {
+            throw new IOException("Refusing to fetch " + protocol + " url " + url);
+        }
+        if (allowPrivateAddresses) {
+            return;
+        }
+        for (InetAddress address : InetAddress.getAllByName(url.getHost())) {
+            if (isPrivate(address)) {
+                throw new IOException("Refusing to fetch " + url + " resolving to private address " + address);
+            }
+        }
+    }
+
+    private static boolean isPrivate(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        // unique local IPv6 addresses, fc00::/7
+        return address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+
+    private static InputStream body(HttpURLConnection connection) throws IOException {
+        InputStream body = connection.getInputStream();
+        return "gzip".equalsIgnoreCase(connection.getContentEncoding()) ? new GZIPInputStream(body) : body;
+    }
+
+    /**
+     * Charset named by the content type, UTF-8 when it names none or one that isn't supported
+     */
+    public static Charset charset(String contentType) {
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            return StandardCharsets.UTF_8;
+        }
+        String name = contentType.substring(index + "charset=".length()).split(";")[0].trim().replace("\"", "");
+        try {
+            return Charset.forName(name);
+        } catch (IllegalArgumentException ex) {
+            log.debug("Unknown charset {}, reading as UTF-8", name);
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    /**
+     * Reads the body of a page, given its content type and the url it was fetched from after
+     * the redirects
+     */
+    @FunctionalInterface
+    public interface PageReader<T> {
+
+        T read(InputStream body, String contentType, URL pageUrl) throws IOException;
+    }
+}
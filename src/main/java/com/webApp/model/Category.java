@@ -2,6 +2,7 @@ package com.webApp.model;
 
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.webApp.model.audit.AuditModel;
 import io.swagger.annotations.ApiModel;
@@ -23,7 +24,8 @@ import java.util.Set;
 public class Category extends AuditModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_id_generator")
+    @SequenceGenerator(name = "category_id_generator", sequenceName = "categories_id_seq", allocationSize = 50)
     @Column(name = "id")
     @ApiModelProperty(value = "The database generated category ID",
                       example = "10")
@@ -49,6 +51,17 @@ public class Category extends AuditModel {
     @JsonManagedReference
     private Set<Link> links;
 
+    /**
+     * Number of links in the category. It is only changed by atomic increments issued in the
+     * transactions that add or remove links, never written from the entity, and recomputed from
+     * the links table by the repair job.
+     */
+    @Column(name = "link_count", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    @JsonIgnore
+    @ToString.Exclude
+    private long linkCount;
+
     public Category(Long id, String name) {
         this.id = id;
         this.name = name;
@@ -0,0 +1,44 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+/**
+ * One of the categories a user's new titles are created with, in the order of its position. Users
+ * without any template get the global ones of {@code app.titles.defaultCategories}.
+ */
+@Entity(name = "CategoryTemplate")
+@Table(name = "category_templates", indexes = {
+        @Index(name = "idx_category_templates_user_position", columnList = "user_id,position")})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class CategoryTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_template_id_generator")
+    @SequenceGenerator(name = "category_template_id_generator", sequenceName = "category_templates_id_seq",
+                       allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "name", nullable = false, length = 50)
+    private String name;
+
+    @Column(name = "position", nullable = false)
+    private int position;
+
+    public CategoryTemplate(Long userId, String name, int position) {
+        this.userId = userId;
+        this.name = name;
+        this.position = position;
+    }
+}
@@ -0,0 +1,64 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * One entry of a user's change log: the title, category or link was saved or deleted in the
+ * {@link KnowledgeTreeVersion version} of the user. Deletes are kept as tombstones so that devices
+ * learn about them on their next sync. Entries superseded by a later one for the same entity, and
+ * entries past the retention period, are removed by the compaction job.
+ */
+@Entity(name = "KnowledgeTreeChange")
+@Table(name = "knowledge_tree_changes", indexes = {
+        @Index(name = "idx_knowledge_tree_changes_user_version", columnList = "user_id,version,id"),
+        @Index(name = "idx_knowledge_tree_changes_user_entity", columnList = "user_id,entity_type,entity_id"),
+        @Index(name = "idx_knowledge_tree_changes_changed_at", columnList = "changed_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class KnowledgeTreeChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "knowledge_tree_change_id_generator")
+    @SequenceGenerator(name = "knowledge_tree_change_id_generator", sequenceName = "knowledge_tree_changes_id_seq",
+                       allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private KnowledgeTreeEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "changed_at", nullable = false)
+    private Date changedAt;
+
+    public KnowledgeTreeChange(Long userId, long version, KnowledgeTreeEntityType entityType, Long entityId,
+                               boolean deleted, Date changedAt) {
+        this.userId = userId;
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,19 @@
+package com.webApp.model;
+
+public enum KnowledgeTreeEntityType {
+
+    /**
+     * A title of the user
+     */
+    TITLE,
+
+    /**
+     * A category of one of the user's titles
+     */
+    CATEGORY,
+
+    /**
+     * A link of one of the user's categories
+     */
+    LINK,
+}
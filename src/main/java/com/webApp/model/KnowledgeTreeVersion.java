@@ -0,0 +1,69 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Version of everything a user keeps in the knowledge store. It moves forward with every change to
+ * the user's titles, categories or links and is the validator of the conditional GET requests.
+ */
+@Entity(name = "KnowledgeTreeVersion")
+@Table(name = "knowledge_tree_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class KnowledgeTreeVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Epoch second of the last change. Strictly increasing with the version, so that two versions
+     * never share the second sent in Last-Modified.
+     */
+    @Column(name = "last_modified", nullable = false)
+    private long lastModified;
+
+    /**
+     * Highest version whose change log entries were removed by the retention, 0 if none were
+     */
+    @Column(name = "purged_version", nullable = false)
+    private long purgedVersion;
+
+    public KnowledgeTreeVersion(Long userId, long version, long lastModified) {
+        this.userId = userId;
+        this.version = version;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Version of a user who never changed anything
+     */
+    public static KnowledgeTreeVersion initial(Long userId) {
+        return new KnowledgeTreeVersion(userId, 0L, 0L);
+    }
+
+    public String getETag() {
+        return "\"" + userId + "-" + version + "\"";
+    }
+
+    /**
+     * Last-Modified in milliseconds, -1 when the user never changed anything
+     */
+    public long getLastModifiedMillis() {
+        return lastModified > 0 ? TimeUnit.SECONDS.toMillis(lastModified) : -1L;
+    }
+}
@@ -1,17 +1,21 @@
 package com.webApp.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.webApp.model.audit.AuditModel;
+import com.webApp.util.UrlCanonicalizer;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
 import javax.persistence.*;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 
 
 @Entity(name = "Link")
-@Table(name = "links")
+@Table(name = "links", indexes = {
+        @Index(name = "idx_links_url_hash", columnList = "url_hash")})
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
@@ -22,7 +26,8 @@ import javax.validation.constraints.Size;
 public class Link extends AuditModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "link_id_generator")
+    @SequenceGenerator(name = "link_id_generator", sequenceName = "links_id_seq", allocationSize = 50)
     @Column(name = "id")
     @ApiModelProperty(value = "The database generated ID",
                       example = "10")
@@ -46,6 +51,50 @@ public class Link extends AuditModel {
     @JsonBackReference
     private Category category;
 
+    /**
+     * Hash of the canonical form of the link name, see {@link UrlCanonicalizer}. Set whenever the
+     * link is written, it finds the user's links saved under another form of the same URL with a
+     * single index probe.
+     */
+    @Column(name = "url_hash")
+    @JsonIgnore
+    private Long urlHash;
+
+    /**
+     * Title of the page, read in the background by the enrichment of the link. The metadata
+     * columns are only written by the enrichment, saving the link leaves them alone.
+     */
+    @Column(name = "page_title", length = 300, insertable = false, updatable = false)
+    @ApiModelProperty(value = "Title of the page, read from the page after the link is saved",
+                      example = "Stack Overflow - Where Developers Learn, Share, & Build Careers")
+    private String pageTitle;
+
+    @Column(name = "page_description", length = 500, insertable = false, updatable = false)
+    @ApiModelProperty(value = "Description of the page, read from the page after the link is saved")
+    private String pageDescription;
+
+    @Column(name = "canonical_url", length = 2048, insertable = false, updatable = false)
+    @ApiModelProperty(value = "Canonical URL the page declares for itself",
+                      example = "https://stackoverflow.com/")
+    private String canonicalUrl;
+
+    @Column(name = "favicon_url", length = 2048, insertable = false, updatable = false)
+    @ApiModelProperty(value = "Icon of the page",
+                      example = "https://stackoverflow.com/favicon.ico")
+    private String faviconUrl;
+
+    /**
+     * {@link #urlHash} of the URL the metadata was read from, the link needs enriching again when
+     * it differs
+     */
+    @Column(name = "enriched_url_hash", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long enrichedUrlHash;
+
+    @Column(name = "enriched_at", insertable = false, updatable = false)
+    @JsonIgnore
+    private Instant enrichedAt;
+
     public Link(Long id, String linkName) {
         this.id = id;
         this.linkName = linkName;
@@ -55,4 +104,10 @@ public class Link extends AuditModel {
         this.linkName = linkName;
     }
 
+    @PrePersist
+    @PreUpdate
+    void hashUrl() {
+        urlHash = linkName == null ? null : UrlCanonicalizer.hash(linkName);
+    }
+
 }
@@ -0,0 +1,49 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Outcome of the last check of a link and the validators its page answered with. The rows are
+ * written by {@link com.webApp.service.LinkHealthService} only, in batches, and are removed with
+ * their link.
+ */
+@Entity(name = "LinkHealth")
+@Table(name = "link_health")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class LinkHealth {
+
+    @Id
+    @Column(name = "link_id")
+    private Long linkId;
+
+    /**
+     * HTTP status of the last check, 0 when the page couldn't be reached
+     */
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "etag", length = 500)
+    private String etag;
+
+    @Column(name = "last_modified", length = 100)
+    private String lastModified;
+
+    /**
+     * Number of checks in a row that found the link broken
+     */
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    @Column(name = "checked_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date checkedAt;
+}
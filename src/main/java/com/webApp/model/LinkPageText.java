@@ -0,0 +1,40 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Text of the latest archived snapshot of a link, which search matches along with the link's
+ * name and description. The rows are written by {@link com.webApp.service.PageTextIndexService}
+ * only, in batches, and are removed with their link.
+ */
+@Entity(name = "LinkPageText")
+@Table(name = "link_page_text")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString(exclude = "content")
+public class LinkPageText {
+
+    @Id
+    @Column(name = "link_id")
+    private Long linkId;
+
+    /**
+     * Snapshot the text was extracted from, the text of an older snapshot never replaces it
+     */
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "indexed_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date indexedAt;
+}
@@ -0,0 +1,82 @@
+package com.webApp.model;
+
+import com.webApp.archive.BlobLocation;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * An archived copy of the page of a link. The content is kept in the
+ * {@link com.webApp.archive.BlobStore}, the row holds its key and where its bytes are, so that
+ * snapshots of the same content share them. The rows are removed with their link.
+ */
+@Entity(name = "LinkSnapshot")
+@Table(name = "link_snapshots", indexes = {
+        @Index(name = "idx_link_snapshots_link_id", columnList = "link_id"),
+        @Index(name = "idx_link_snapshots_sha256", columnList = "sha256")})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class LinkSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "link_snapshot_id_generator")
+    @SequenceGenerator(name = "link_snapshot_id_generator", sequenceName = "link_snapshots_id_seq",
+                       allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "link_id", nullable = false)
+    private Long linkId;
+
+    /**
+     * SHA-256 of the content, in hex
+     */
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "segment", nullable = false)
+    private int segment;
+
+    @Column(name = "segment_offset", nullable = false)
+    private long segmentOffset;
+
+    @Column(name = "compressed_length", nullable = false)
+    private long compressedLength;
+
+    @Column(name = "raw_length", nullable = false)
+    private long rawLength;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "source", nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private SnapshotSource source;
+
+    @Column(name = "captured_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date capturedAt;
+
+    public LinkSnapshot(Long linkId, String sha256, BlobLocation location, String contentType,
+                        SnapshotSource source) {
+        this.linkId = linkId;
+        this.sha256 = sha256;
+        this.segment = location.getSegment();
+        this.segmentOffset = location.getOffset();
+        this.compressedLength = location.getCompressedLength();
+        this.rawLength = location.getRawLength();
+        this.contentType = contentType;
+        this.source = source;
+        this.capturedAt = new Date();
+    }
+
+    public BlobLocation getLocation() {
+        return new BlobLocation(segment, segmentOffset, compressedLength, rawLength);
+    }
+}
@@ -0,0 +1,34 @@
+package com.webApp.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * How many times a link was opened and when it was last. The rows are written by
+ * {@link com.webApp.service.LinkUsageService} only, which adds up the opens in memory and applies
+ * them in batches, and are removed with their link.
+ */
+@Entity(name = "LinkUsage")
+@Table(name = "link_usage")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class LinkUsage {
+
+    @Id
+    @Column(name = "link_id")
+    private Long linkId;
+
+    @Column(name = "open_count", nullable = false)
+    private long openCount;
+
+    @Column(name = "last_opened_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastOpenedAt;
+}
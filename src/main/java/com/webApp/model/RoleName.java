@@ -1,6 +1,20 @@
 package com.webApp.model;
 
+import java.util.Optional;
+
 public enum RoleName {
     ROLE_USER,
-    ROLE_ADMIN
+    ROLE_ADMIN;
+
+    /**
+     * Returns the role granted by the authority, or empty for an authority no role grants
+     */
+    public static Optional<RoleName> fromAuthority(String authority) {
+        for (RoleName roleName : values()) {
+            if (roleName.name().equals(authority)) {
+                return Optional.of(roleName);
+            }
+        }
+        return Optional.empty();
+    }
 }
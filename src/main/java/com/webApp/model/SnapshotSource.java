@@ -0,0 +1,8 @@
+package com.webApp.model;
+
+public enum SnapshotSource {
+
+    FETCH,
+
+    UPLOAD
+}
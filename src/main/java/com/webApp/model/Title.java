@@ -10,6 +10,7 @@ import lombok.*;
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
+import java.util.Date;
 import java.util.Set;
 
 @Entity(name = "Title")
@@ -24,7 +25,8 @@ import java.util.Set;
 public class Title extends AuditModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "title_id_generator")
+    @SequenceGenerator(name = "title_id_generator", sequenceName = "titles_id_seq", allocationSize = 50)
     @Column(name = "id")
     @ApiModelProperty(value = "The database generated title ID",
                       example = "10")
@@ -50,6 +52,15 @@ public class Title extends AuditModel {
     @JsonIgnore
     private User user;
 
+    /**
+     * Set when a title too large to delete in one request is hidden, its rows are then removed in
+     * the background. Queries of the user's knowledge tree leave out the titles that have it.
+     */
+    @Column(name = "deleted_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    @JsonIgnore
+    private Date deletedAt;
+
     public Title(String name) {
         this.name = name;
     }
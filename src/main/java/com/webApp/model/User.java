@@ -64,6 +64,15 @@ public class User extends AuditModel {
     @Column(name = "IS_EMAIL_VERIFIED", nullable = false)
     private Boolean isEmailVerified;
 
+    /**
+     * Bumped on every security relevant change of the account, only written through
+     * {@link com.webApp.repository.UserRepository#incrementSecurityEpoch} so that saving the
+     * entity never moves it back
+     */
+    @Column(name = "SECURITY_EPOCH", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0 not null")
+    private long securityEpoch;
+
 
     public User(User user) {
         id = user.getId();
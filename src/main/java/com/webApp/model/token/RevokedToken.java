@@ -0,0 +1,50 @@
+package com.webApp.model.token;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * A jwt that was logged out before it expired. Only the SHA-256 digest of the token is kept.
+ * Rows are shared by all the nodes of the app and removed once the token itself has expired.
+ */
+@Entity(name = "REVOKED_TOKEN")
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "token_digest", nullable = false, unique = true, length = 64)
+    private String tokenDigest;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "revoked_at", nullable = false)
+    private Date revokedAt;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+
+    public RevokedToken(String tokenDigest, String userEmail, Date revokedAt, Date expiresAt) {
+        this.tokenDigest = tokenDigest;
+        this.userEmail = userEmail;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
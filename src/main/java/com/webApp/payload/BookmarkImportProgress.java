@@ -0,0 +1,68 @@
+package com.webApp.payload;
+
+/**
+ * Running totals of a bookmark import, reported after every committed batch
+ */
+public class BookmarkImportProgress {
+
+    private int titles;
+
+    private int categories;
+
+    private int links;
+
+    private int skipped;
+
+    private boolean done;
+
+    public BookmarkImportProgress() {
+    }
+
+    public BookmarkImportProgress(int titles, int categories, int links, int skipped, boolean done) {
+        this.titles = titles;
+        this.categories = categories;
+        this.links = links;
+        this.skipped = skipped;
+        this.done = done;
+    }
+
+    public int getTitles() {
+        return titles;
+    }
+
+    public void setTitles(int titles) {
+        this.titles = titles;
+    }
+
+    public int getCategories() {
+        return categories;
+    }
+
+    public void setCategories(int categories) {
+        this.categories = categories;
+    }
+
+    public int getLinks() {
+        return links;
+    }
+
+    public void setLinks(int links) {
+        this.links = links;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+}
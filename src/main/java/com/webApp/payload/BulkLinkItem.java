@@ -0,0 +1,56 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+public class BulkLinkItem {
+
+    @ApiModelProperty(value = "Category the link is added to. Taken from the path when importing into a single category",
+                      example = "10")
+    private Long categoryId;
+
+    @NotBlank(message = "Link name should not be empty")
+    @Pattern(regexp = "(https://|http://).+", message = "Please use following pattern: http:// or https://")
+    @ApiModelProperty(value = "Name of the link", required = true, example = "https://stackoverflow.com")
+    private String linkName;
+
+    @Size(max = 500, message = "Description should not be greater than 500 symbols")
+    @ApiModelProperty(value = "Description about the link")
+    private String linkDescription;
+
+    public BulkLinkItem() {
+    }
+
+    public BulkLinkItem(Long categoryId, String linkName, String linkDescription) {
+        this.categoryId = categoryId;
+        this.linkName = linkName;
+        this.linkDescription = linkDescription;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    public String getLinkDescription() {
+        return linkDescription;
+    }
+
+    public void setLinkDescription(String linkDescription) {
+        this.linkDescription = linkDescription;
+    }
+}
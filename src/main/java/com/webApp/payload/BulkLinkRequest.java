@@ -0,0 +1,34 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class BulkLinkRequest {
+
+    public static final int MAX_LINKS = 10000;
+
+    @Valid
+    @NotEmpty(message = "Links should not be empty")
+    @Size(max = MAX_LINKS, message = "No more than " + MAX_LINKS + " links can be imported at once")
+    @ApiModelProperty(value = "Links to import", required = true)
+    private List<BulkLinkItem> links;
+
+    public BulkLinkRequest() {
+    }
+
+    public BulkLinkRequest(List<BulkLinkItem> links) {
+        this.links = links;
+    }
+
+    public List<BulkLinkItem> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<BulkLinkItem> links) {
+        this.links = links;
+    }
+}
@@ -0,0 +1,31 @@
+package com.webApp.payload;
+
+import java.util.List;
+
+public class BulkLinkResponse {
+
+    private int created;
+
+    private List<Long> ids;
+
+    public BulkLinkResponse(List<Long> ids) {
+        this.created = ids.size();
+        this.ids = ids;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,18 @@
+package com.webApp.payload;
+
+public class BulkOperationResponse {
+
+    private int affected;
+
+    public BulkOperationResponse(int affected) {
+        this.affected = affected;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+}
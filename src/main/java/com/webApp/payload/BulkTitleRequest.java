@@ -0,0 +1,35 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class BulkTitleRequest {
+
+    public static final int MAX_TITLES = 1000;
+
+    @NotEmpty(message = "Titles should not be empty")
+    @Size(max = MAX_TITLES, message = "No more than " + MAX_TITLES + " titles can be created at once")
+    @ApiModelProperty(value = "Names of the titles to create", required = true)
+    private List<@NotBlank(message = "Title name should not be empty")
+                 @Size(min = 2, max = 50, message = "Title name should be greater than 2 and less than 50 symbols")
+                 String> names;
+
+    public BulkTitleRequest() {
+    }
+
+    public BulkTitleRequest(List<String> names) {
+        this.names = names;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public void setNames(List<String> names) {
+        this.names = names;
+    }
+}
@@ -0,0 +1,27 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotNull;
+
+public class CategoryMergeRequest {
+
+    @NotNull(message = "Target category id should not be null")
+    @ApiModelProperty(value = "Category of the same title the links are moved to", required = true, example = "10")
+    private Long targetCategoryId;
+
+    public CategoryMergeRequest() {
+    }
+
+    public CategoryMergeRequest(Long targetCategoryId) {
+        this.targetCategoryId = targetCategoryId;
+    }
+
+    public Long getTargetCategoryId() {
+        return targetCategoryId;
+    }
+
+    public void setTargetCategoryId(Long targetCategoryId) {
+        this.targetCategoryId = targetCategoryId;
+    }
+}
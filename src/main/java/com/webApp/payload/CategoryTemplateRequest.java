@@ -0,0 +1,36 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class CategoryTemplateRequest {
+
+    public static final int MAX_CATEGORIES = 20;
+
+    @NotNull(message = "Names should not be null")
+    @Size(max = MAX_CATEGORIES, message = "No more than " + MAX_CATEGORIES + " categories can be in a template")
+    @ApiModelProperty(value = "Names of the categories new titles are created with, in order. " +
+                              "Empty to use the default ones", required = true)
+    private List<@NotBlank(message = "Category name should not be empty")
+                 @Size(min = 2, max = 50, message = "Category name should be greater than 2 and less than 50 symbols")
+                 String> names;
+
+    public CategoryTemplateRequest() {
+    }
+
+    public CategoryTemplateRequest(List<String> names) {
+        this.names = names;
+    }
+
+    public List<String> getNames() {
+        return names;
+    }
+
+    public void setNames(List<String> names) {
+        this.names = names;
+    }
+}
@@ -0,0 +1,77 @@
+package com.webApp.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Category node of the knowledge tree together with its links
+ */
+public class CategoryTreeResponse {
+
+    private Long id;
+
+    private String name;
+
+    @JsonIgnore
+    private Long titleId;
+
+    private long linkCount;
+
+    private List<LinkResponse> links = new ArrayList<>();
+
+    public CategoryTreeResponse() {
+    }
+
+    public CategoryTreeResponse(Long id, Long titleId, String name) {
+        this.id = id;
+        this.titleId = titleId;
+        this.name = name;
+    }
+
+    public CategoryTreeResponse(Long id, Long titleId, String name, Long linkCount) {
+        this(id, titleId, name);
+        this.linkCount = linkCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getTitleId() {
+        return titleId;
+    }
+
+    public void setTitleId(Long titleId) {
+        this.titleId = titleId;
+    }
+
+    public long getLinkCount() {
+        return linkCount;
+    }
+
+    public void setLinkCount(long linkCount) {
+        this.linkCount = linkCount;
+    }
+
+    public List<LinkResponse> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<LinkResponse> links) {
+        this.links = links;
+    }
+}
@@ -0,0 +1,37 @@
+package com.webApp.payload;
+
+import java.util.List;
+
+/**
+ * The links of the user saved under forms of the same canonical URL, the oldest first
+ */
+public class DuplicateLinkGroup {
+
+    private String canonicalUrl;
+
+    private List<DuplicateLinkResponse> links;
+
+    public DuplicateLinkGroup() {
+    }
+
+    public DuplicateLinkGroup(String canonicalUrl, List<DuplicateLinkResponse> links) {
+        this.canonicalUrl = canonicalUrl;
+        this.links = links;
+    }
+
+    public String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    public void setCanonicalUrl(String canonicalUrl) {
+        this.canonicalUrl = canonicalUrl;
+    }
+
+    public List<DuplicateLinkResponse> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<DuplicateLinkResponse> links) {
+        this.links = links;
+    }
+}
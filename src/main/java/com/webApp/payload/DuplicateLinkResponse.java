@@ -0,0 +1,71 @@
+package com.webApp.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * A link of the user saved under the same canonical URL as at least one other
+ */
+public class DuplicateLinkResponse {
+
+    private Long id;
+
+    @JsonIgnore
+    private Long urlHash;
+
+    private Long titleId;
+
+    private Long categoryId;
+
+    private String linkName;
+
+    public DuplicateLinkResponse() {
+    }
+
+    public DuplicateLinkResponse(Long id, Long urlHash, Long titleId, Long categoryId, String linkName) {
+        this.id = id;
+        this.urlHash = urlHash;
+        this.titleId = titleId;
+        this.categoryId = categoryId;
+        this.linkName = linkName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(Long urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public Long getTitleId() {
+        return titleId;
+    }
+
+    public void setTitleId(Long titleId) {
+        this.titleId = titleId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+}
@@ -0,0 +1,61 @@
+package com.webApp.payload;
+
+import java.util.List;
+
+/**
+ * Number of titles, categories and links of a user, with the counts of every title
+ */
+public class KnowledgeTreeSummary {
+
+    private int titleCount;
+
+    private long categoryCount;
+
+    private long linkCount;
+
+    private List<TitleSummary> titles;
+
+    public KnowledgeTreeSummary() {
+    }
+
+    public KnowledgeTreeSummary(List<TitleSummary> titles) {
+        this.titles = titles;
+        this.titleCount = titles.size();
+        for (TitleSummary title : titles) {
+            categoryCount += title.getCategoryCount();
+            linkCount += title.getLinkCount();
+        }
+    }
+
+    public int getTitleCount() {
+        return titleCount;
+    }
+
+    public void setTitleCount(int titleCount) {
+        this.titleCount = titleCount;
+    }
+
+    public long getCategoryCount() {
+        return categoryCount;
+    }
+
+    public void setCategoryCount(long categoryCount) {
+        this.categoryCount = categoryCount;
+    }
+
+    public long getLinkCount() {
+        return linkCount;
+    }
+
+    public void setLinkCount(long linkCount) {
+        this.linkCount = linkCount;
+    }
+
+    public List<TitleSummary> getTitles() {
+        return titles;
+    }
+
+    public void setTitles(List<TitleSummary> titles) {
+        this.titles = titles;
+    }
+}
@@ -0,0 +1,93 @@
+package com.webApp.payload;
+
+import java.util.Date;
+
+/**
+ * A link of the user with the outcome of its last health check
+ */
+public class LinkHealthResponse {
+
+    private Long id;
+
+    private Long titleId;
+
+    private Long categoryId;
+
+    private String linkName;
+
+    private int statusCode;
+
+    private int consecutiveFailures;
+
+    private Date checkedAt;
+
+    public LinkHealthResponse() {
+    }
+
+    public LinkHealthResponse(Long id, Long titleId, Long categoryId, String linkName,
+                              Integer statusCode, Integer consecutiveFailures, Date checkedAt) {
+        this.id = id;
+        this.titleId = titleId;
+        this.categoryId = categoryId;
+        this.linkName = linkName;
+        this.statusCode = statusCode;
+        this.consecutiveFailures = consecutiveFailures;
+        this.checkedAt = checkedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTitleId() {
+        return titleId;
+    }
+
+    public void setTitleId(Long titleId) {
+        this.titleId = titleId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    public void setConsecutiveFailures(int consecutiveFailures) {
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public Date getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(Date checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
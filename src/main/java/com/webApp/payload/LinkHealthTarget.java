@@ -0,0 +1,38 @@
+package com.webApp.payload;
+
+/**
+ * A link due for a health check, with the validators of its previous check if it had one
+ */
+public class LinkHealthTarget {
+
+    private final Long id;
+
+    private final String linkName;
+
+    private final String etag;
+
+    private final String lastModified;
+
+    public LinkHealthTarget(Long id, String linkName, String etag, String lastModified) {
+        this.id = id;
+        this.linkName = linkName;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+}
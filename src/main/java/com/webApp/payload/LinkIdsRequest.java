@@ -0,0 +1,33 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class LinkIdsRequest {
+
+    public static final int MAX_LINKS = 10000;
+
+    @NotEmpty(message = "Link ids should not be empty")
+    @Size(max = MAX_LINKS, message = "No more than " + MAX_LINKS + " links can be changed at once")
+    @ApiModelProperty(value = "IDs of the links", required = true)
+    private List<@NotNull(message = "Link id should not be null") Long> linkIds;
+
+    public LinkIdsRequest() {
+    }
+
+    public LinkIdsRequest(List<Long> linkIds) {
+        this.linkIds = linkIds;
+    }
+
+    public List<Long> getLinkIds() {
+        return linkIds;
+    }
+
+    public void setLinkIds(List<Long> linkIds) {
+        this.linkIds = linkIds;
+    }
+}
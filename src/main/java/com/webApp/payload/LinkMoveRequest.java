@@ -0,0 +1,29 @@
+package com.webApp.payload;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+public class LinkMoveRequest extends LinkIdsRequest {
+
+    @NotNull(message = "Target category id should not be null")
+    @ApiModelProperty(value = "Category of the same title the links are moved to", required = true, example = "10")
+    private Long targetCategoryId;
+
+    public LinkMoveRequest() {
+    }
+
+    public LinkMoveRequest(List<Long> linkIds, Long targetCategoryId) {
+        super(linkIds);
+        this.targetCategoryId = targetCategoryId;
+    }
+
+    public Long getTargetCategoryId() {
+        return targetCategoryId;
+    }
+
+    public void setTargetCategoryId(Long targetCategoryId) {
+        this.targetCategoryId = targetCategoryId;
+    }
+}
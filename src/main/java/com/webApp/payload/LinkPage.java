@@ -0,0 +1,35 @@
+package com.webApp.payload;
+
+import java.util.List;
+
+/**
+ * One page of links ordered by id. {@code next} is the opaque cursor of the following page and is
+ * null on the last one.
+ */
+public class LinkPage {
+
+    private List<LinkResponse> links;
+
+    private String next;
+
+    public LinkPage(List<LinkResponse> links, String next) {
+        this.links = links;
+        this.next = next;
+    }
+
+    public List<LinkResponse> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<LinkResponse> links) {
+        this.links = links;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,119 @@
+package com.webApp.payload;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Read-only view of a link selected straight from the links table, without its category and title.
+ * The metadata of the page is only selected for a single link, listings leave it out.
+ */
+public class LinkResponse {
+
+    private Long id;
+
+    private String linkName;
+
+    private String linkDescription;
+
+    @JsonIgnore
+    private Long categoryId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String pageTitle;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String pageDescription;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String canonicalUrl;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String faviconUrl;
+
+    public LinkResponse() {
+    }
+
+    public LinkResponse(Long id, String linkName, String linkDescription) {
+        this.id = id;
+        this.linkName = linkName;
+        this.linkDescription = linkDescription;
+    }
+
+    public LinkResponse(Long id, Long categoryId, String linkName, String linkDescription) {
+        this(id, linkName, linkDescription);
+        this.categoryId = categoryId;
+    }
+
+    public LinkResponse(Long id, Long categoryId, String linkName, String linkDescription,
+                        String pageTitle, String pageDescription, String canonicalUrl, String faviconUrl) {
+        this(id, categoryId, linkName, linkDescription);
+        this.pageTitle = pageTitle;
+        this.pageDescription = pageDescription;
+        this.canonicalUrl = canonicalUrl;
+        this.faviconUrl = faviconUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    public String getLinkDescription() {
+        return linkDescription;
+    }
+
+    public void setLinkDescription(String linkDescription) {
+        this.linkDescription = linkDescription;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getPageTitle() {
+        return pageTitle;
+    }
+
+    public void setPageTitle(String pageTitle) {
+        this.pageTitle = pageTitle;
+    }
+
+    public String getPageDescription() {
+        return pageDescription;
+    }
+
+    public void setPageDescription(String pageDescription) {
+        this.pageDescription = pageDescription;
+    }
+
+    public String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    public void setCanonicalUrl(String canonicalUrl) {
+        this.canonicalUrl = canonicalUrl;
+    }
+
+    public String getFaviconUrl() {
+        return faviconUrl;
+    }
+
+    public void setFaviconUrl(String faviconUrl) {
+        this.faviconUrl = faviconUrl;
+    }
+}
@@ -0,0 +1,35 @@
+package com.webApp.payload;
+
+import java.util.List;
+
+/**
+ * One page of search results ordered by rank. {@code next} is the opaque cursor of the following
+ * page and is null on the last one.
+ */
+public class LinkSearchPage {
+
+    private List<LinkSearchResult> results;
+
+    private String next;
+
+    public LinkSearchPage(List<LinkSearchResult> results, String next) {
+        this.results = results;
+        this.next = next;
+    }
+
+    public List<LinkSearchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<LinkSearchResult> results) {
+        this.results = results;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
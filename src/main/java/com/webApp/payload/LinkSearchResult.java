@@ -0,0 +1,107 @@
+package com.webApp.payload;
+
+/**
+ * Link matching a search together with the category and title it belongs to
+ */
+public class LinkSearchResult {
+
+    private Long id;
+
+    private String linkName;
+
+    private String linkDescription;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private Long titleId;
+
+    private String titleName;
+
+    private float rank;
+
+    public LinkSearchResult() {
+    }
+
+    public LinkSearchResult(Long id, String linkName, String linkDescription, Long categoryId, String categoryName,
+                            Long titleId, String titleName) {
+        this(id, linkName, linkDescription, categoryId, categoryName, titleId, titleName, 0f);
+    }
+
+    public LinkSearchResult(Long id, String linkName, String linkDescription, Long categoryId, String categoryName,
+                            Long titleId, String titleName, float rank) {
+        this.id = id;
+        this.linkName = linkName;
+        this.linkDescription = linkDescription;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.titleId = titleId;
+        this.titleName = titleName;
+        this.rank = rank;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    public String getLinkDescription() {
+        return linkDescription;
+    }
+
+    public void setLinkDescription(String linkDescription) {
+        this.linkDescription = linkDescription;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public Long getTitleId() {
+        return titleId;
+    }
+
+    public void setTitleId(Long titleId) {
+        this.titleId = titleId;
+    }
+
+    public String getTitleName() {
+        return titleName;
+    }
+
+    public void setTitleName(String titleName) {
+        this.titleName = titleName;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public void setRank(float rank) {
+        this.rank = rank;
+    }
+}
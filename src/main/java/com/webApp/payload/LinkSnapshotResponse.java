@@ -0,0 +1,95 @@
+package com.webApp.payload;
+
+import com.webApp.model.SnapshotSource;
+
+import java.util.Date;
+
+/**
+ * An archived copy of the page of a link, without its content
+ */
+public class LinkSnapshotResponse {
+
+    private Long id;
+
+    private Long linkId;
+
+    private String sha256;
+
+    private long size;
+
+    private String contentType;
+
+    private SnapshotSource source;
+
+    private Date capturedAt;
+
+    public LinkSnapshotResponse() {
+    }
+
+    public LinkSnapshotResponse(Long id, Long linkId, String sha256, Long size, String contentType,
+                                SnapshotSource source, Date capturedAt) {
+        this.id = id;
+        this.linkId = linkId;
+        this.sha256 = sha256;
+        this.size = size;
+        this.contentType = contentType;
+        this.source = source;
+        this.capturedAt = capturedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLinkId() {
+        return linkId;
+    }
+
+    public void setLinkId(Long linkId) {
+        this.linkId = linkId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public SnapshotSource getSource() {
+        return source;
+    }
+
+    public void setSource(SnapshotSource source) {
+        this.source = source;
+    }
+
+    public Date getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(Date capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+}
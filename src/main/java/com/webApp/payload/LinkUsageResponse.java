@@ -0,0 +1,93 @@
+package com.webApp.payload;
+
+import java.util.Date;
+
+/**
+ * A link of the user with the number of times it was opened and when it was last
+ */
+public class LinkUsageResponse {
+
+    private Long id;
+
+    private Long titleId;
+
+    private Long categoryId;
+
+    private String linkName;
+
+    private String linkDescription;
+
+    private long openCount;
+
+    private Date lastOpenedAt;
+
+    public LinkUsageResponse() {
+    }
+
+    public LinkUsageResponse(Long id, Long titleId, Long categoryId, String linkName, String linkDescription,
+                             Long openCount, Date lastOpenedAt) {
+        this.id = id;
+        this.titleId = titleId;
+        this.categoryId = categoryId;
+        this.linkName = linkName;
+        this.linkDescription = linkDescription;
+        this.openCount = openCount;
+        this.lastOpenedAt = lastOpenedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTitleId() {
+        return titleId;
+    }
+
+    public void setTitleId(Long titleId) {
+        this.titleId = titleId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getLinkName() {
+        return linkName;
+    }
+
+    public void setLinkName(String linkName) {
+        this.linkName = linkName;
+    }
+
+    public String getLinkDescription() {
+        return linkDescription;
+    }
+
+    public void setLinkDescription(String linkDescription) {
+        this.linkDescription = linkDescription;
+    }
+
+    public long getOpenCount() {
+        return openCount;
+    }
+
+    public void setOpenCount(long openCount) {
+        this.openCount = openCount;
+    }
+
+    public Date getLastOpenedAt() {
+        return lastOpenedAt;
+    }
+
+    public void setLastOpenedAt(Date lastOpenedAt) {
+        this.lastOpenedAt = lastOpenedAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.webApp.payload;
+
+/**
+ * Current state of a title, category or link that changed since the sync token. {@code parentId}
+ * is the title of a category and the category of a link, null for a title. Only links have a
+ * description.
+ */
+public class SyncItem {
+
+    private Long id;
+
+    private Long parentId;
+
+    private String name;
+
+    private String description;
+
+    public SyncItem() {
+    }
+
+    public SyncItem(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public SyncItem(Long id, Long parentId, String name) {
+        this(id, name);
+        this.parentId = parentId;
+    }
+
+    public SyncItem(Long id, Long parentId, String name, String description) {
+        this(id, parentId, name);
+        this.description = description;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,115 @@
+package com.webApp.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The titles, categories and links that changed since the sync token, in their current state, and
+ * the ids of the deleted ones. Deleting a title or a category also deletes everything below it,
+ * which the device has to drop without it being listed. {@code next} is the token of the following
+ * sync and {@code hasMore} tells whether it should be sent right away. When {@code reset} is set the
+ * token was too old, or missing, and the device has to download the whole tree before syncing from
+ * {@code next}.
+ */
+public class SyncPage {
+
+    private List<SyncItem> titles = new ArrayList<>();
+
+    private List<SyncItem> categories = new ArrayList<>();
+
+    private List<SyncItem> links = new ArrayList<>();
+
+    private List<Long> deletedTitleIds = new ArrayList<>();
+
+    private List<Long> deletedCategoryIds = new ArrayList<>();
+
+    private List<Long> deletedLinkIds = new ArrayList<>();
+
+    private String next;
+
+    private boolean hasMore;
+
+    private boolean reset;
+
+    public SyncPage() {
+    }
+
+    public static SyncPage reset(String next) {
+        SyncPage page = new SyncPage();
+        page.setNext(next);
+        page.setReset(true);
+        return page;
+    }
+
+    public List<SyncItem> getTitles() {
+        return titles;
+    }
+
+    public void setTitles(List<SyncItem> titles) {
+        this.titles = titles;
+    }
+
+    public List<SyncItem> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<SyncItem> categories) {
+        this.categories = categories;
+    }
+
+    public List<SyncItem> getLinks() {
+        return links;
+    }
+
+    public void setLinks(List<SyncItem> links) {
+        this.links = links;
+    }
+
+    public List<Long> getDeletedTitleIds() {
+        return deletedTitleIds;
+    }
+
+    public void setDeletedTitleIds(List<Long> deletedTitleIds) {
+        this.deletedTitleIds = deletedTitleIds;
+    }
+
+    public List<Long> getDeletedCategoryIds() {
+        return deletedCategoryIds;
+    }
+
+    public void setDeletedCategoryIds(List<Long> deletedCategoryIds) {
+        this.deletedCategoryIds = deletedCategoryIds;
+    }
+
+    public List<Long> getDeletedLinkIds() {
+        return deletedLinkIds;
+    }
+
+    public void setDeletedLinkIds(List<Long> deletedLinkIds) {
+        this.deletedLinkIds = deletedLinkIds;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
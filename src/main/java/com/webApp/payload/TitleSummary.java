@@ -0,0 +1,57 @@
+package com.webApp.payload;
+
+/**
+ * Number of categories and links of a title
+ */
+public class TitleSummary {
+
+    private Long id;
+
+    private String name;
+
+    private long categoryCount;
+
+    private long linkCount;
+
+    public TitleSummary() {
+    }
+
+    public TitleSummary(Long id, String name, Long categoryCount, Long linkCount) {
+        this.id = id;
+        this.name = name;
+        this.categoryCount = categoryCount;
+        this.linkCount = linkCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getCategoryCount() {
+        return categoryCount;
+    }
+
+    public void setCategoryCount(long categoryCount) {
+        this.categoryCount = categoryCount;
+    }
+
+    public long getLinkCount() {
+        return linkCount;
+    }
+
+    public void setLinkCount(long linkCount) {
+        this.linkCount = linkCount;
+    }
+}
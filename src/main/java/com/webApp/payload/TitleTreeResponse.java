@@ -0,0 +1,63 @@
+package com.webApp.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Root node of the knowledge tree: a title with its categories and their links
+ */
+public class TitleTreeResponse {
+
+    private Long id;
+
+    private String name;
+
+    private List<CategoryTreeResponse> categories = new ArrayList<>();
+
+    public TitleTreeResponse() {
+    }
+
+    public TitleTreeResponse(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<CategoryTreeResponse> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryTreeResponse> categories) {
+        this.categories = categories;
+    }
+
+    public int getCategoryCount() {
+        return categories.size();
+    }
+
+    /**
+     * Sum of the link counters of the categories
+     */
+    public long getLinkCount() {
+        long links = 0;
+        for (CategoryTreeResponse category : categories) {
+            links += category.getLinkCount();
+        }
+        return links;
+    }
+}
@@ -1,11 +1,23 @@
 package com.webApp.repository;
 
 import com.webApp.model.Category;
+import com.webApp.payload.CategoryTreeResponse;
+import com.webApp.payload.SyncItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -15,4 +27,106 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByTitleId(Long titleId);
 
     Optional<Category> findByIdAndTitleId(Long id, Long titleId);
+
+    @Query("select new com.webApp.payload.CategoryTreeResponse(c.id, t.id, c.name, c.linkCount) " +
+           "from Category c join c.title t where t.user.id = :userId and t.deletedAt is null order by c.id")
+    List<CategoryTreeResponse> findTreeNodesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.webApp.payload.CategoryTreeResponse(c.id, t.id, c.name, c.linkCount) " +
+           "from Category c join c.title t where t.id = :titleId and t.user.id = :userId and t.deletedAt is null " +
+           "order by c.id")
+    List<CategoryTreeResponse> findTreeNodesByUserIdAndTitleId(@Param("userId") Long userId,
+                                                               @Param("titleId") Long titleId);
+
+    @Query("select new com.webApp.payload.CategoryTreeResponse(c.id, t.id, c.name, c.linkCount) " +
+           "from Category c join c.title t where c.id = :categoryId and t.id = :titleId and t.user.id = :userId " +
+           "and t.deletedAt is null")
+    Optional<CategoryTreeResponse> findTreeNodeByUserIdAndTitleIdAndId(@Param("userId") Long userId,
+                                                                       @Param("titleId") Long titleId,
+                                                                       @Param("categoryId") Long categoryId);
+
+    @Query("select case when count(c) > 0 then true else false end " +
+           "from Category c join c.title t where c.id = :categoryId and t.id = :titleId and t.user.id = :userId " +
+           "and t.deletedAt is null")
+    boolean existsByUserIdAndTitleIdAndId(@Param("userId") Long userId,
+                                          @Param("titleId") Long titleId,
+                                          @Param("categoryId") Long categoryId);
+
+    @Query("select new com.webApp.payload.SyncItem(c.id, t.id, c.name) " +
+           "from Category c join c.title t where t.user.id = :userId and c.id in :ids and t.deletedAt is null")
+    List<SyncItem> findSyncItems(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select c.id from Category c join c.title t where t.id = :titleId and t.user.id = :userId " +
+           "and c.id in :ids and t.deletedAt is null")
+    List<Long> findIdsByUserIdAndTitleIdAndIdIn(@Param("userId") Long userId,
+                                                @Param("titleId") Long titleId,
+                                                @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the rows of the title's categories, their links have to be deleted first
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Category c where c.title.id = :titleId")
+    int deleteRowsByTitleId(@Param("titleId") Long titleId);
+
+    /**
+     * Deletes the category row if it belongs to the title of the user. Its links have to be moved
+     * or deleted first.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Category c where c.id = :categoryId and c.title.id in (" +
+           "select t.id from Title t where t.id = :titleId and t.user.id = :userId and t.deletedAt is null)")
+    int deleteOwnedRowById(@Param("userId") Long userId, @Param("titleId") Long titleId,
+                           @Param("categoryId") Long categoryId);
+
+    /**
+     * Deletes the category row alone, its links have to be deleted first
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Category c where c.id = :categoryId")
+    int deleteRowById(@Param("categoryId") Long categoryId);
+
+    /**
+     * Adds the delta to the link counter of the category. The increment is done by the database on
+     * the current value of the row, which stays locked until the transaction ends, so concurrent
+     * writers never lose each other's changes.
+     */
+    @Modifying
+    @Query("update Category c set c.linkCount = c.linkCount + :delta where c.id = :categoryId")
+    int addLinkCount(@Param("categoryId") Long categoryId, @Param("delta") long delta);
+
+    /**
+     * Adds the deltas to the link counters of their categories, in the order of the category ids
+     * so that two transactions updating the same counters can't deadlock
+     */
+    default void addLinkCounts(Map<Long, Long> deltas) {
+        new TreeMap<>(deltas).forEach((categoryId, delta) -> {
+            if (delta != 0) {
+                addLinkCount(categoryId, delta);
+            }
+        });
+    }
+
+    @Query("select c.id from Category c where c.id > :afterId order by c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Locks the rows of the categories, in the order of their ids, until the end of the current
+     * transaction. A link written meanwhile waits for the lock to add itself to the counter.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id from Category c where c.id in :ids order by c.id")
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Returns the id, the link counter and the number of links of each category
+     */
+    @Query(value = "select c.id, c.link_count, (select count(*) from links l where l.category_id = c.id) " +
+                   "from categories c where c.id in (:ids)",
+           nativeQuery = true)
+    List<Object[]> countLinksByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Category c set c.linkCount = :linkCount where c.id = :categoryId")
+    int setLinkCount(@Param("categoryId") Long categoryId, @Param("linkCount") long linkCount);
 }
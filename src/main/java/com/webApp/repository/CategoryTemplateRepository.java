@@ -0,0 +1,21 @@
+package com.webApp.repository;
+
+import com.webApp.model.CategoryTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryTemplateRepository extends JpaRepository<CategoryTemplate, Long> {
+
+    @Query("select t.name from CategoryTemplate t where t.userId = :userId order by t.position")
+    List<String> findNamesByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CategoryTemplate t where t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,59 @@
+package com.webApp.repository;
+
+import com.webApp.model.KnowledgeTreeChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Date;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public interface KnowledgeTreeChangeRepository extends JpaRepository<KnowledgeTreeChange, Long> {
+
+    /**
+     * Keyset page of the user's change log: the entries right after ({@code afterVersion},
+     * {@code afterId}) in version then id order, up to {@code upToVersion}. The page size comes
+     * from the pageable, its offset is expected to be 0.
+     */
+    @Query("select c from KnowledgeTreeChange c where c.userId = :userId and c.version <= :upToVersion " +
+           "and (c.version > :afterVersion or (c.version = :afterVersion and c.id > :afterId)) " +
+           "order by c.version, c.id")
+    @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+    List<KnowledgeTreeChange> findPage(@Param("userId") Long userId,
+                                       @Param("afterVersion") long afterVersion,
+                                       @Param("afterId") long afterId,
+                                       @Param("upToVersion") long upToVersion,
+                                       Pageable pageable);
+
+    /**
+     * Removes the entries followed by a later entry for the same entity. A device behind the
+     * removed entry is also behind the later one, so it still learns the entity changed.
+     */
+    @Modifying
+    @Query(value = "delete from knowledge_tree_changes where exists (" +
+                   "select 1 from knowledge_tree_changes later " +
+                   "where later.user_id = knowledge_tree_changes.user_id " +
+                   "and later.entity_type = knowledge_tree_changes.entity_type " +
+                   "and later.entity_id = knowledge_tree_changes.entity_id " +
+                   "and later.version > knowledge_tree_changes.version)",
+           nativeQuery = true)
+    int deleteSuperseded();
+
+    /**
+     * Returns the user id and the highest version of the entries made before the date, per user
+     */
+    @Query("select c.userId, max(c.version) from KnowledgeTreeChange c where c.changedAt < :before group by c.userId")
+    List<Object[]> findLastVersionsChangedBefore(@Param("before") Date before);
+
+    @Modifying
+    @Query("delete from KnowledgeTreeChange c where c.userId = :userId and c.version <= :version")
+    int deleteUpToVersion(@Param("userId") Long userId, @Param("version") long version);
+}
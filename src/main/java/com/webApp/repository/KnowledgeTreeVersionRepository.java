@@ -0,0 +1,35 @@
+package com.webApp.repository;
+
+import com.webApp.model.KnowledgeTreeVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface KnowledgeTreeVersionRepository extends JpaRepository<KnowledgeTreeVersion, Long> {
+
+    /**
+     * Moves the version of the user forward, and its last modified second to now or one second
+     * past the previous one if that is later. Returns 0 if the user has no version yet.
+     */
+    @Modifying
+    @Query(value = "update knowledge_tree_versions set version = version + 1, " +
+                   "last_modified = greatest(:now, last_modified + 1) where user_id = :userId",
+           nativeQuery = true)
+    int increment(@Param("userId") Long userId, @Param("now") long nowInSeconds);
+
+    /**
+     * Reads the version straight from the table, past the persistence context
+     */
+    @Query("select v.version from KnowledgeTreeVersion v where v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update KnowledgeTreeVersion v set v.purgedVersion = :version " +
+           "where v.userId = :userId and v.purgedVersion < :version")
+    int raisePurgedVersion(@Param("userId") Long userId, @Param("version") long version);
+}
@@ -1,18 +1,255 @@
 package com.webApp.repository;
 
 import com.webApp.model.Link;
+import com.webApp.payload.DuplicateLinkResponse;
+import com.webApp.payload.LinkHealthResponse;
+import com.webApp.payload.LinkHealthTarget;
+import com.webApp.payload.LinkResponse;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.payload.LinkUsageResponse;
+import com.webApp.payload.SyncItem;
+import com.webApp.util.UrlCanonicalizer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface LinkRepository extends JpaRepository<Link, Long> {
 
-     Link findLinkByLinkName(String linkName);
+     String STREAM_FETCH_SIZE = "500";
+
+     /**
+      * Finds a link by its exact name through the index on the hash of its canonical form
+      */
+     default Link findLinkByLinkName(String linkName) {
+          return findFirstByUrlHashAndLinkName(UrlCanonicalizer.hash(linkName), linkName);
+     }
+
+     Link findFirstByUrlHashAndLinkName(Long urlHash, String linkName);
+
+     @Query("select new com.webApp.payload.DuplicateLinkResponse(l.id, l.urlHash, t.id, c.id, l.linkName) " +
+            "from Link l join l.category c join c.title t " +
+            "where l.urlHash = :urlHash and t.user.id = :userId and t.deletedAt is null order by l.id")
+     List<DuplicateLinkResponse> findByUserIdAndUrlHash(@Param("userId") Long userId, @Param("urlHash") Long urlHash);
+
+     /**
+      * Selects the links of the user whose canonical URL hash is shared by another of the user's
+      * links, grouped by hash with the oldest link first
+      */
+     @Query("select new com.webApp.payload.DuplicateLinkResponse(l.id, l.urlHash, t.id, c.id, l.linkName) " +
+            "from Link l join l.category c join c.title t " +
+            "where t.user.id = :userId and t.deletedAt is null and l.urlHash in (" +
+            "select dl.urlHash from Link dl join dl.category dc join dc.title dt " +
+            "where dt.user.id = :userId and dt.deletedAt is null and dl.urlHash is not null " +
+            "group by dl.urlHash having count(dl) > 1) " +
+            "order by l.urlHash, l.id")
+     List<DuplicateLinkResponse> findDuplicatesByUserId(@Param("userId") Long userId);
+
+     @Query("select new com.webApp.payload.LinkResponse(l.id, l.linkName, l.linkDescription) " +
+            "from Link l where l.urlHash is null order by l.id")
+     List<LinkResponse> findWithoutUrlHash(Pageable pageable);
+
+     /**
+      * Finds the links following the given id whose metadata was never read, or was read from
+      * another URL than their current one, leaving out the links of titles waiting to be purged
+      */
+     @Query("select new com.webApp.payload.LinkResponse(l.id, l.linkName, l.linkDescription) " +
+            "from Link l join l.category c join c.title t where l.id > :afterId and t.deletedAt is null " +
+            "and (l.enrichedUrlHash is null or l.enrichedUrlHash <> l.urlHash) order by l.id")
+     List<LinkResponse> findNotEnrichedAfter(@Param("afterId") long afterId, Pageable pageable);
+
+     /**
+      * Finds the links following the given id never checked, or last checked before the given time,
+      * leaving out the links of titles waiting to be purged
+      */
+     @Query("select new com.webApp.payload.LinkHealthTarget(l.id, l.linkName, h.etag, h.lastModified) " +
+            "from Link l join l.category c join c.title t left join LinkHealth h on h.linkId = l.id " +
+            "where l.id > :afterId and t.deletedAt is null " +
+            "and (h.checkedAt is null or h.checkedAt < :checkedBefore) order by l.id")
+     List<LinkHealthTarget> findHealthTargetsAfter(@Param("afterId") long afterId,
+                                                   @Param("checkedBefore") Date checkedBefore,
+                                                   Pageable pageable);
+
+     @Query("select new com.webApp.payload.LinkHealthResponse(l.id, t.id, c.id, l.linkName, " +
+            "h.statusCode, h.consecutiveFailures, h.checkedAt) " +
+            "from LinkHealth h, Link l join l.category c join c.title t " +
+            "where l.id = h.linkId and t.user.id = :userId and t.deletedAt is null " +
+            "and h.consecutiveFailures >= :minFailures " +
+            "order by h.checkedAt desc, l.id desc")
+     List<LinkHealthResponse> findBrokenByUserId(@Param("userId") Long userId,
+                                                 @Param("minFailures") int minFailures,
+                                                 Pageable pageable);
+
+     /**
+      * Returns the id of each given link with the ids of its title and its user
+      */
+     @Query("select l.id, t.id, t.user.id from Link l join l.category c join c.title t where l.id in :ids")
+     List<Object[]> findOwnersByIdIn(@Param("ids") Collection<Long> ids);
 
      List<Link> findByCategoryId(Long categoryId);
 
+     @Query("select l.linkName from Link l join l.category c join c.title t where l.id = :linkId " +
+            "and t.user.id = :userId and t.deletedAt is null")
+     Optional<String> findLinkNameByUserIdAndId(@Param("userId") Long userId, @Param("linkId") Long linkId);
+
+     @Query("select case when count(l) > 0 then true else false end " +
+            "from Link l join l.category c join c.title t where l.id = :linkId and t.user.id = :userId " +
+            "and t.deletedAt is null")
+     boolean existsByUserIdAndId(@Param("userId") Long userId, @Param("linkId") Long linkId);
+
+     @Query("select new com.webApp.payload.LinkUsageResponse(l.id, t.id, c.id, l.linkName, l.linkDescription, " +
+            "u.openCount, u.lastOpenedAt) " +
+            "from LinkUsage u, Link l join l.category c join c.title t " +
+            "where l.id = u.linkId and t.user.id = :userId and t.deletedAt is null " +
+            "order by u.openCount desc, l.id desc")
+     List<LinkUsageResponse> findMostUsedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+     @Query("select new com.webApp.payload.LinkUsageResponse(l.id, t.id, c.id, l.linkName, l.linkDescription, " +
+            "u.openCount, u.lastOpenedAt) " +
+            "from LinkUsage u, Link l join l.category c join c.title t " +
+            "where l.id = u.linkId and t.user.id = :userId and t.deletedAt is null " +
+            "order by u.lastOpenedAt desc, l.id desc")
+     List<LinkUsageResponse> findRecentlyUsedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+     @Query("select l.category.id from Link l where l.id = :linkId")
+     Optional<Long> findCategoryIdById(@Param("linkId") Long linkId);
+
+     /**
+      * Counts the given links by category, for the link counters of the categories they leave
+      */
+     @Query("select l.category.id, count(l) from Link l where l.id in :ids group by l.category.id")
+     List<Object[]> countByCategoryIdIn(@Param("ids") Collection<Long> ids);
+
      Optional<Link> findByIdAndCategoryId(Long id, Long categoryId);
+
+     @Query("select new com.webApp.payload.LinkResponse(l.id, l.linkName, l.linkDescription) " +
+            "from Link l where l.category.id = :categoryId order by l.id")
+     List<LinkResponse> findResponsesByCategoryId(@Param("categoryId") Long categoryId);
+
+     @Query("select new com.webApp.payload.LinkResponse(l.id, c.id, l.linkName, l.linkDescription) " +
+            "from Link l join l.category c join c.title t where t.user.id = :userId and t.deletedAt is null order by l.id")
+     List<LinkResponse> findTreeNodesByUserId(@Param("userId") Long userId);
+
+     @Query("select new com.webApp.payload.LinkResponse(l.id, c.id, l.linkName, l.linkDescription) " +
+            "from Link l join l.category c join c.title t where t.id = :titleId and t.user.id = :userId " +
+            "and t.deletedAt is null order by l.id")
+     List<LinkResponse> findTreeNodesByUserIdAndTitleId(@Param("userId") Long userId,
+                                                        @Param("titleId") Long titleId);
+
+     @Query("select new com.webApp.payload.LinkSearchResult(l.id, l.linkName, l.linkDescription, c.id, c.name, t.id, t.name) " +
+            "from Link l join l.category c join c.title t where t.user.id = :userId and t.deletedAt is null order by l.id")
+     @QueryHints(@QueryHint(name = HINT_READONLY, value = "true"))
+     List<LinkSearchResult> findSearchResultsByUserId(@Param("userId") Long userId);
+
+     @Query("select new com.webApp.payload.LinkResponse(l.id, c.id, l.linkName, l.linkDescription, " +
+            "l.pageTitle, l.pageDescription, l.canonicalUrl, l.faviconUrl) " +
+            "from Link l join l.category c join c.title t " +
+            "where l.id = :linkId and c.id = :categoryId and t.id = :titleId and t.user.id = :userId and t.deletedAt is null")
+     Optional<LinkResponse> findResponseByUserIdAndTitleIdAndCategoryIdAndId(@Param("userId") Long userId,
+                                                                            @Param("titleId") Long titleId,
+                                                                            @Param("categoryId") Long categoryId,
+                                                                            @Param("linkId") Long linkId);
+
+     @Query("select new com.webApp.payload.SyncItem(l.id, c.id, l.linkName, l.linkDescription) " +
+            "from Link l join l.category c join c.title t where t.user.id = :userId and l.id in :ids " +
+            "and t.deletedAt is null")
+     List<SyncItem> findSyncItems(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+     /**
+      * Keyset page of the category's links: the rows right after {@code afterId} in id order.
+      * The page size comes from the pageable, its offset is expected to be 0.
+      */
+     @Query("select new com.webApp.payload.LinkResponse(l.id, l.linkName, l.linkDescription) " +
+            "from Link l where l.category.id = :categoryId and l.id > :afterId order by l.id")
+     List<LinkResponse> findPageByCategoryId(@Param("categoryId") Long categoryId,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+     /**
+      * Forward-only cursor over the category's links. Has to be consumed and closed inside a
+      * transaction, the driver then fetches {@value #STREAM_FETCH_SIZE} rows per round trip.
+      */
+     @Query("select new com.webApp.payload.LinkResponse(l.id, l.linkName, l.linkDescription) " +
+            "from Link l where l.category.id = :categoryId order by l.id")
+     @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                  @QueryHint(name = HINT_READONLY, value = "true")})
+     Stream<LinkResponse> streamByCategoryId(@Param("categoryId") Long categoryId);
+
+     @Query("select count(l) from Link l join l.category c where c.title.id = :titleId")
+     long countByTitleId(@Param("titleId") Long titleId);
+
+     @Modifying(flushAutomatically = true)
+     @Query("delete from Link l where l.category.id in (select c.id from Category c where c.title.id = :titleId)")
+     int deleteRowsByTitleId(@Param("titleId") Long titleId);
+
+     @Modifying(flushAutomatically = true)
+     @Query("delete from Link l where l.category.id = :categoryId")
+     int deleteRowsByCategoryId(@Param("categoryId") Long categoryId);
+
+     /**
+      * Categories of the title, if it belongs to the user. The second form is closed by the
+      * parameter naming the category to check.
+      */
+     String OWNED_CATEGORY_IDS = "select oc.id from Category oc join oc.title ot " +
+                                 "where ot.id = :titleId and ot.user.id = :userId and ot.deletedAt is null";
+
+     String OWNED_CATEGORY_EXISTS = "exists (" + OWNED_CATEGORY_IDS + " and oc.id = ";
+
+     @Query("select l.id from Link l where l.id in :ids and l.category.id in (" + OWNED_CATEGORY_IDS + ")")
+     List<Long> findOwnedIds(@Param("userId") Long userId, @Param("titleId") Long titleId,
+                             @Param("ids") Collection<Long> ids);
+
+     @Query("select l.id from Link l where l.category.id = :categoryId and l.category.id in (" + OWNED_CATEGORY_IDS + ")")
+     List<Long> findOwnedIdsByCategoryId(@Param("userId") Long userId, @Param("titleId") Long titleId,
+                                         @Param("categoryId") Long categoryId);
+
+     /**
+      * Moves the links into the target category, if both the links and the category belong to the
+      * title of the user. Returns the number of links moved.
+      */
+     @Modifying(flushAutomatically = true)
+     @Query("update Link l set l.category.id = :targetId, l.updatedAt = :updatedAt " +
+            "where l.id in :ids and l.category.id <> :targetId and l.category.id in (" + OWNED_CATEGORY_IDS + ") " +
+            "and " + OWNED_CATEGORY_EXISTS + ":targetId)")
+     int moveOwned(@Param("userId") Long userId, @Param("titleId") Long titleId, @Param("ids") Collection<Long> ids,
+                   @Param("targetId") Long targetId, @Param("updatedAt") Date updatedAt);
+
+     /**
+      * Moves every link of the source category into the target one, if both belong to the title of
+      * the user. Returns the number of links moved.
+      */
+     @Modifying(flushAutomatically = true)
+     @Query("update Link l set l.category.id = :targetId, l.updatedAt = :updatedAt " +
+            "where l.category.id = :sourceId and l.category.id <> :targetId " +
+            "and " + OWNED_CATEGORY_EXISTS + ":sourceId) and " + OWNED_CATEGORY_EXISTS + ":targetId)")
+     int moveAllOwned(@Param("userId") Long userId, @Param("titleId") Long titleId, @Param("sourceId") Long sourceId,
+                      @Param("targetId") Long targetId, @Param("updatedAt") Date updatedAt);
+
+     @Modifying(flushAutomatically = true)
+     @Query("delete from Link l where l.id in :ids and l.category.id in (" + OWNED_CATEGORY_IDS + ")")
+     int deleteOwned(@Param("userId") Long userId, @Param("titleId") Long titleId, @Param("ids") Collection<Long> ids);
+
+     /**
+      * Deletes at most {@code limit} links of the title, returns how many were deleted
+      */
+     @Modifying
+     @Query(value = "delete from links where id in (" +
+                    "select l.id from links l join categories c on c.id = l.category_id " +
+                    "where c.title_id = :titleId limit :limit)",
+            nativeQuery = true)
+     int deleteBatchByTitleId(@Param("titleId") Long titleId, @Param("limit") int limit);
 }
@@ -0,0 +1,43 @@
+package com.webApp.repository;
+
+import com.webApp.model.LinkSnapshot;
+import com.webApp.payload.LinkSnapshotResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LinkSnapshotRepository extends JpaRepository<LinkSnapshot, Long> {
+
+    String OWNED_SNAPSHOTS = "from LinkSnapshot s, Link l join l.category c join c.title t " +
+                             "where l.id = s.linkId and l.id = :linkId and t.user.id = :userId and t.deletedAt is null";
+
+    /**
+     * Returns a snapshot with the given content, whose bytes a new snapshot of it can share
+     */
+    Optional<LinkSnapshot> findFirstBySha256(String sha256);
+
+    /**
+     * Returns the id of the links after the given one whose latest snapshot has no text written,
+     * with the id of that snapshot
+     */
+    @Query("select s.linkId, max(s.id) from LinkSnapshot s where s.linkId > :afterLinkId and not exists (" +
+           "select p.linkId from LinkPageText p where p.linkId = s.linkId and p.snapshotId >= s.id) " +
+           "group by s.linkId order by s.linkId")
+    List<Object[]> findNotIndexedAfter(@Param("afterLinkId") long afterLinkId, Pageable pageable);
+
+    @Query("select new com.webApp.payload.LinkSnapshotResponse(s.id, s.linkId, s.sha256, s.rawLength, " +
+           "s.contentType, s.source, s.capturedAt) " + OWNED_SNAPSHOTS + " order by s.capturedAt desc, s.id desc")
+    List<LinkSnapshotResponse> findResponsesByUserIdAndLinkId(@Param("userId") Long userId,
+                                                              @Param("linkId") Long linkId);
+
+    @Query("select s " + OWNED_SNAPSHOTS + " and s.id = :snapshotId")
+    Optional<LinkSnapshot> findByUserIdAndLinkIdAndId(@Param("userId") Long userId,
+                                                      @Param("linkId") Long linkId,
+                                                      @Param("snapshotId") Long snapshotId);
+}
@@ -0,0 +1,28 @@
+package com.webApp.repository;
+
+import com.webApp.model.token.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    Optional<RevokedToken> findByTokenDigest(String tokenDigest);
+
+    Boolean existsByTokenDigest(String tokenDigest);
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Date revokedAfter, Date expiresAfter);
+
+    List<RevokedToken> findByExpiresAtAfter(Date expiresAfter);
+
+    @Modifying
+    @Query("DELETE FROM REVOKED_TOKEN r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Date now);
+}
@@ -1,9 +1,18 @@
 package com.webApp.repository;
 
 import com.webApp.model.Title;
+import com.webApp.payload.SyncItem;
+import com.webApp.payload.TitleSummary;
+import com.webApp.payload.TitleTreeResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +25,57 @@ public interface TitleRepository extends JpaRepository<Title,Long> {
 
     Optional<Title> findByUserId(Long userId);
 
+    @Query("select new com.webApp.payload.TitleTreeResponse(t.id, t.name) " +
+           "from Title t where t.user.id = :userId and t.deletedAt is null order by t.id")
+    List<TitleTreeResponse> findTreeNodesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.webApp.payload.TitleTreeResponse(t.id, t.name) " +
+           "from Title t where t.id = :titleId and t.user.id = :userId and t.deletedAt is null")
+    Optional<TitleTreeResponse> findTreeNodeByUserIdAndId(@Param("userId") Long userId,
+                                                          @Param("titleId") Long titleId);
+
+    /**
+     * Counts the categories and links of every title of the user in one grouped query over the
+     * title and category rows, adding up the link counters of the categories
+     */
+    @Query("select new com.webApp.payload.TitleSummary(t.id, t.name, count(c.id), coalesce(sum(c.linkCount), 0L)) " +
+           "from Title t left join t.categories c where t.user.id = :userId and t.deletedAt is null " +
+           "group by t.id, t.name order by t.id")
+    List<TitleSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.webApp.payload.SyncItem(t.id, t.name) " +
+           "from Title t where t.user.id = :userId and t.id in :ids and t.deletedAt is null")
+    List<SyncItem> findSyncItems(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+
+    @Query("select t.user.id from Title t where t.id = :titleId")
+    Optional<Long> findUserIdById(@Param("titleId") Long titleId);
+
+    /**
+     * Renames the title if it belongs to the user, with a single column update. Its categories
+     * are left untouched.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Title t set t.name = :name, t.updatedAt = :updatedAt " +
+           "where t.id = :titleId and t.user.id = :userId and t.deletedAt is null")
+    int updateName(@Param("userId") Long userId, @Param("titleId") Long titleId, @Param("name") String name,
+                   @Param("updatedAt") Date updatedAt);
+
+    /**
+     * Hides the title from the user, its rows are left for {@link com.webApp.service.KnowledgeTreeDeletionService}
+     * to purge
+     */
+    @Modifying
+    @Query("update Title t set t.deletedAt = :deletedAt where t.id = :titleId and t.deletedAt is null")
+    int markDeleted(@Param("titleId") Long titleId, @Param("deletedAt") Date deletedAt);
+
+    @Query("select t.id from Title t where t.deletedAt is not null order by t.deletedAt")
+    List<Long> findIdsMarkedDeleted(Pageable pageable);
+
+    /**
+     * Deletes the title row alone, its categories have to be deleted first
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Title t where t.id = :titleId")
+    int deleteRowById(@Param("titleId") Long titleId);
+
 }
@@ -2,8 +2,14 @@ package com.webApp.repository;
 
 import com.webApp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +22,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     Boolean existsByUsername(String username);
+
+    /**
+     * Locks the row of the user until the end of the current transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.id from User u where u.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query("select u.securityEpoch from User u where u.id = :id")
+    Optional<Long> findSecurityEpochById(@Param("id") Long id);
+
+    /**
+     * Bumps the security epoch of the user in the database, so that every node rejects the
+     * tokens issued before
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.securityEpoch = u.securityEpoch + 1 where u.id = :id")
+    int incrementSecurityEpoch(@Param("id") Long id);
 }
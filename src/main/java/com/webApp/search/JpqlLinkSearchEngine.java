@@ -0,0 +1,61 @@
+package com.webApp.search;
+
+import com.webApp.payload.LinkSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * Portable search used where full text search isn't available, such as the H2 database of the
+ * tests. Every term has to be contained in one of the searched columns or in the text of the
+ * link's archived page, and results are ordered by id only.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "jpql", matchIfMissing = true)
+public class JpqlLinkSearchEngine implements LinkSearchEngine {
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public JpqlLinkSearchEngine(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LinkSearchResult> search(Long userId, List<String> terms, float afterRank, long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select new com.webApp.payload.LinkSearchResult(" +
+                "l.id, l.linkName, l.linkDescription, c.id, c.name, t.id, t.name) " +
+                "from Link l join l.category c join c.title t left join LinkPageText p on p.linkId = l.id " +
+                "where t.user.id = :userId and t.deletedAt is null and l.id < :afterId");
+        for (int i = 0; i < terms.size(); i++) {
+            String term = ":term" + i;
+            jpql.append(" and (lower(l.linkName) like ").append(term).append(" escape '\\'")
+                    .append(" or lower(l.linkDescription) like ").append(term).append(" escape '\\'")
+                    .append(" or lower(c.name) like ").append(term).append(" escape '\\'")
+                    .append(" or lower(t.name) like ").append(term).append(" escape '\\'")
+                    .append(" or lower(p.content) like ").append(term).append(" escape '\\')");
+        }
+        jpql.append(" order by l.id desc");
+
+        TypedQuery<LinkSearchResult> query = entityManager.createQuery(jpql.toString(), LinkSearchResult.class)
+                .setParameter("userId", userId)
+                .setParameter("afterId", afterRank > 0f ? Long.MAX_VALUE : afterId)
+                .setMaxResults(limit);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("term" + i, "%" + escapeLike(terms.get(i)) + "%");
+        }
+        return query.getResultList();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
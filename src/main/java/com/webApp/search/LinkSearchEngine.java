@@ -0,0 +1,19 @@
+package com.webApp.search;
+
+import com.webApp.payload.LinkSearchResult;
+
+import java.util.List;
+
+/**
+ * Finds the links of a user whose name, description, category name, title name or archived page
+ * text contain all the search terms. Results are ordered by rank then id, both descending, and
+ * start strictly after the given position so that they can be keyset-paginated.
+ * <p>
+ * Selected with {@code app.search.engine}: {@code postgres} ranks a maintained tsvector column
+ * with {@code ts_rank}, {@code jpql} (default) matches with portable LIKE queries and gives every
+ * result the same rank.
+ */
+public interface LinkSearchEngine {
+
+    List<LinkSearchResult> search(Long userId, List<String> terms, float afterRank, long afterId, int limit);
+}
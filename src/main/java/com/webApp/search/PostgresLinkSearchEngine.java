@@ -0,0 +1,71 @@
+package com.webApp.search;
+
+import com.webApp.payload.LinkSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Full text search over the {@code links.search_vector} column maintained by triggers
+ * (see {@code V5_link_search.sql}). The link name weighs more than its description, which weighs
+ * more than the names of its category and title, which weigh more than the text of its archived
+ * page (see {@code V16_link_page_text.sql}). The GIN index on the column answers the match,
+ * so only the matching links of the user are ranked.
+ * <p>
+ * The query is built with {@code plainto_tsquery} from the already split terms, so any user input
+ * is safe and every term has to match.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresLinkSearchEngine implements LinkSearchEngine {
+
+    private static final String SEARCH_QUERY =
+            "select r.id, r.link_name, r.description, r.category_id, r.category_name, r.title_id, r.title_name, r.rank " +
+            "from (" +
+            "    select l.id, l.link_name, l.description, c.id as category_id, c.name as category_name, " +
+            "           t.id as title_id, t.name as title_name, ts_rank(l.search_vector, q.query) as rank " +
+            "    from links l " +
+            "    join categories c on c.id = l.category_id " +
+            "    join titles t on t.id = c.title_id " +
+            "    cross join plainto_tsquery('simple', :query) as q(query) " +
+            "    where t.user_id = :userId and t.deleted_at is null and l.search_vector @@ q.query" +
+            ") r " +
+            "where r.rank < cast(:afterRank as real) or (r.rank = cast(:afterRank as real) and r.id < :afterId) " +
+            "order by r.rank desc, r.id desc " +
+            "limit :limit";
+
+    private static final RowMapper<LinkSearchResult> RESULT_MAPPER = (rs, rowNum) -> new LinkSearchResult(
+            rs.getLong("id"),
+            rs.getString("link_name"),
+            rs.getString("description"),
+            rs.getLong("category_id"),
+            rs.getString("category_name"),
+            rs.getLong("title_id"),
+            rs.getString("title_name"),
+            rs.getFloat("rank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PostgresLinkSearchEngine(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<LinkSearchResult> search(Long userId, List<String> terms, float afterRank, long afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", String.join(" ", terms))
+                .addValue("userId", userId)
+                .addValue("afterRank", afterRank)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SEARCH_QUERY, parameters, RESULT_MAPPER);
+    }
+}
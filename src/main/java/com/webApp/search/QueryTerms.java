@@ -0,0 +1,47 @@
+package com.webApp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into the lower cased words search works on. Urls are split too, so that
+ * {@code https://docs.oracle.com} is found by {@code oracle}.
+ */
+public final class QueryTerms {
+
+    public static final int MAX_TERMS = 8;
+
+    private QueryTerms() {
+    }
+
+    /**
+     * Returns the distinct words of the query, at most {@link #MAX_TERMS} of them
+     */
+    public static List<String> parse(String query) {
+        return split(query, MAX_TERMS);
+    }
+
+    /**
+     * Returns all the distinct words of an indexed text
+     */
+    public static List<String> words(String text) {
+        return split(text, Integer.MAX_VALUE);
+    }
+
+    private static List<String> split(String text, int limit) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+                if (terms.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,271 @@
+package com.webApp.search;
+
+import com.webApp.payload.LinkSearchResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory inverted index over the links of one user. Every word of a link's name, description,
+ * category name and title name maps to the sorted ordinals of the links containing it, kept in a
+ * primitive int array. Words are held in a sorted map so that a prefix selects a contiguous range
+ * of them, which is what an as-you-type search needs.
+ * <p>
+ * Removed links are only marked dead; the index is rebuilt once more than half of its ordinals are
+ * dead. An update is a removal followed by an addition under a new ordinal, so postings only ever
+ * grow at their end.
+ * <p>
+ * The heap used is tracked while adding so that {@link UserLinkIndexCache} can evict indexes
+ * without walking them. The figures are estimates of the object layout of a 64 bit JVM with
+ * compressed pointers.
+ */
+public class UserLinkIndex {
+
+    private static final int DOC_BYTES = 48 + 2 * 16 + 64;
+
+    private static final int STRING_BYTES = 40;
+
+    private static final int TERM_BYTES = 40 + STRING_BYTES + 24;
+
+    private static final int INITIAL_POSTINGS = 4;
+
+    private static final int MIN_COMPACTION = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Long userId;
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+
+    private final Set<Long> categoryIds = new HashSet<>();
+
+    private final Set<Long> titleIds = new HashSet<>();
+
+    private final BitSet live = new BitSet();
+
+    private LinkSearchResult[] docs = new LinkSearchResult[16];
+
+    private int docCount;
+
+    private volatile long memoryFootprint;
+
+    public UserLinkIndex(Long userId) {
+        this.userId = userId;
+        this.memoryFootprint = docs.length * 4L;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Adds the links, replacing those already indexed with the same id
+     */
+    public void addAll(Collection<LinkSearchResult> links) {
+        lock.writeLock().lock();
+        try {
+            links.forEach(this::upsert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(LinkSearchResult link) {
+        lock.writeLock().lock();
+        try {
+            upsert(link);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if the link was indexed
+     */
+    public boolean remove(Long linkId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalById.remove(linkId);
+            if (ordinal == null) {
+                return false;
+            }
+            live.clear(ordinal);
+            docs[ordinal] = null;
+            if (docCount >= MIN_COMPACTION && live.cardinality() * 2 < docCount) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean containsCategory(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return categoryIds.contains(categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsTitle(Long titleId) {
+        lock.readLock().lock();
+        try {
+            return titleIds.contains(titleId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the links containing, for every query term, a word starting with it. Results are
+     * ordered by id descending like the other search engines.
+     */
+    public List<LinkSearchResult> search(List<String> queryTerms, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = null;
+            for (String term : queryTerms) {
+                BitSet termMatches = new BitSet(docCount);
+                for (Postings postings : terms.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                    postings.addTo(termMatches);
+                }
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.and(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            if (matches == null) {
+                return new ArrayList<>();
+            }
+            matches.and(live);
+            List<LinkSearchResult> results = new ArrayList<>(matches.cardinality());
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                results.add(docs[ordinal]);
+            }
+            results.sort(Comparator.comparing(LinkSearchResult::getId).reversed());
+            return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return ordinalById.size();
+    }
+
+    /**
+     * Approximate heap used by the index, in bytes
+     */
+    public long memoryFootprint() {
+        return memoryFootprint;
+    }
+
+    private void upsert(LinkSearchResult link) {
+        Integer previous = ordinalById.get(link.getId());
+        if (previous != null) {
+            live.clear(previous);
+            docs[previous] = null;
+        }
+        int ordinal = docCount++;
+        if (ordinal == docs.length) {
+            docs = Arrays.copyOf(docs, docs.length * 2);
+            memoryFootprint += ordinal * 4L;
+        }
+        docs[ordinal] = link;
+        live.set(ordinal);
+        ordinalById.put(link.getId(), ordinal);
+        categoryIds.add(link.getCategoryId());
+        titleIds.add(link.getTitleId());
+        memoryFootprint += DOC_BYTES + textBytes(link.getLinkName()) + textBytes(link.getLinkDescription())
+                + textBytes(link.getCategoryName()) + textBytes(link.getTitleName());
+
+        Set<String> words = new HashSet<>();
+        words.addAll(QueryTerms.words(link.getLinkName()));
+        words.addAll(QueryTerms.words(link.getLinkDescription()));
+        words.addAll(QueryTerms.words(link.getCategoryName()));
+        words.addAll(QueryTerms.words(link.getTitleName()));
+        for (String word : words) {
+            Postings postings = terms.get(word);
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(word, postings);
+                memoryFootprint += TERM_BYTES + word.length() + 16 + 4 * INITIAL_POSTINGS;
+            }
+            memoryFootprint += postings.add(ordinal);
+        }
+    }
+
+    /**
+     * Rebuilds the index from its live links so that dead ordinals stop taking memory
+     */
+    private void compact() {
+        List<LinkSearchResult> links = new ArrayList<>(ordinalById.size());
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            links.add(docs[ordinal]);
+        }
+        terms.clear();
+        ordinalById.clear();
+        categoryIds.clear();
+        titleIds.clear();
+        live.clear();
+        docs = new LinkSearchResult[Math.max(16, links.size())];
+        docCount = 0;
+        memoryFootprint = docs.length * 4L;
+        links.forEach(this::upsert);
+    }
+
+    private static long textBytes(String text) {
+        return text == null ? 0 : STRING_BYTES + text.length();
+    }
+
+    /**
+     * Ordinals of the links containing a word, in increasing order
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[INITIAL_POSTINGS];
+
+        private int size;
+
+        /**
+         * Appends the ordinal and returns the number of bytes the array grew by
+         */
+        private long add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return 0;
+            }
+            long grown = 0;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                grown = size * 4L;
+            }
+            ordinals[size++] = ordinal;
+            return grown;
+        }
+
+        private void addTo(BitSet bitSet) {
+            for (int i = 0; i < size; i++) {
+                bitSet.set(ordinals[i]);
+            }
+        }
+    }
+}
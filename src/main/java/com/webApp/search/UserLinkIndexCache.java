@@ -0,0 +1,282 @@
+package com.webApp.search;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.repository.LinkRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a {@link UserLinkIndex} for each user who searched recently, so that as-you-type
+ * searches are answered without a database round trip.
+ * <p>
+ * An index is loaded with one query on the first search of the user and then kept up to date by
+ * the link service when a link is saved or deleted. Writes that bypass these hooks (bulk imports,
+ * renaming or deleting a category or a title) evict the indexes they affect, which are reloaded on
+ * the next search. Changes made while an index is loading are queued and replayed once it is
+ * loaded, so a load never misses a committed change.
+ * <p>
+ * The indexes are kept in least recently used order and the oldest ones are evicted once their
+ * combined footprint goes over {@code app.search.index.maxMemoryBytes}.
+ */
+@Component
+@Slf4j
+public class UserLinkIndexCache implements MeterBinder {
+
+    private final LinkRepository linkRepository;
+
+    private final long maxMemoryBytes;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public UserLinkIndexCache(LinkRepository linkRepository,
+                              @Value("${app.search.index.maxMemoryBytes}") long maxMemoryBytes) {
+        this.linkRepository = linkRepository;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Returns the links of the user containing a word starting with each term of the query, newest
+     * first
+     */
+    public List<LinkSearchResult> search(Long userId, String query, int limit) {
+        List<String> terms = QueryTerms.parse(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return indexFor(userId).search(terms, limit);
+    }
+
+    public void onLinkSaved(Link link) {
+        Category category = link == null ? null : link.getCategory();
+        Title title = category == null ? null : category.getTitle();
+        if (title == null || title.getUser() == null || link.getId() == null) {
+            return;
+        }
+        Long userId = title.getUser().getId();
+        LinkSearchResult document = new LinkSearchResult(link.getId(), link.getLinkName(), link.getLinkDescription(),
+                category.getId(), category.getName(), title.getId(), title.getName());
+        afterCommit(() -> {
+            Entry entry;
+            synchronized (entries) {
+                entry = entries.get(userId);
+            }
+            if (entry != null) {
+                entry.apply(index -> index.add(document));
+            }
+        });
+    }
+
+    public void onLinkDeleted(Long linkId) {
+        afterCommit(() -> {
+            List<Entry> current;
+            synchronized (entries) {
+                current = new ArrayList<>(entries.values());
+            }
+            current.forEach(entry -> entry.apply(index -> index.remove(linkId)));
+        });
+    }
+
+    public void evictUser(Long userId) {
+        afterCommit(() -> evict(entry -> entry.index.getUserId().equals(userId)));
+    }
+
+    public void evictTitle(Long titleId) {
+        afterCommit(() -> evict(entry -> !entry.isLoaded() || entry.index.containsTitle(titleId)));
+    }
+
+    public void evictCategory(Long categoryId) {
+        afterCommit(() -> evict(entry -> !entry.isLoaded() || entry.index.containsCategory(categoryId)));
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Approximate heap used by all the indexes, in bytes
+     */
+    public long memoryFootprint() {
+        synchronized (entries) {
+            long bytes = 0;
+            for (Entry entry : entries.values()) {
+                bytes += entry.index.memoryFootprint();
+            }
+            return bytes;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "linkIndex")
+                .tag("result", "hit")
+                .description("The number of searches answered by an already loaded link index")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "linkIndex")
+                .tag("result", "miss")
+                .description("The number of searches that had to load the link index of the user")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "linkIndex")
+                .description("The number of link indexes evicted to stay within the memory budget")
+                .register(registry);
+        Gauge.builder("cache.size", this, UserLinkIndexCache::size)
+                .tag("cache", "linkIndex")
+                .description("The number of users whose link index is held in memory")
+                .register(registry);
+        Gauge.builder("cache.linkIndex.memory", this, UserLinkIndexCache::memoryFootprint)
+                .baseUnit("bytes")
+                .description("Approximate heap used by the link indexes")
+                .register(registry);
+    }
+
+    private UserLinkIndex indexFor(Long userId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+            if (entry == null) {
+                entry = new Entry(new UserLinkIndex(userId));
+                entries.put(userId, entry);
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+        }
+        if (entry.isLoaded()) {
+            return entry.index;
+        }
+        try {
+            entry.load();
+        } catch (RuntimeException ex) {
+            synchronized (entries) {
+                entries.remove(userId, entry);
+            }
+            throw ex;
+        }
+        evictOverBudget(entry);
+        return entry.index;
+    }
+
+    /**
+     * Evicts the least recently used indexes, except the one just loaded, until the cache fits
+     * its memory budget again
+     */
+    private void evictOverBudget(Entry loaded) {
+        synchronized (entries) {
+            long bytes = 0;
+            for (Entry entry : entries.values()) {
+                bytes += entry.index.memoryFootprint();
+            }
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (bytes > maxMemoryBytes && iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry != loaded) {
+                    bytes -= entry.index.memoryFootprint();
+                    iterator.remove();
+                    evictions.increment();
+                    log.info("Evicted link index of user [{}] holding [{}] links", entry.index.getUserId(), entry.index.size());
+                }
+            }
+        }
+    }
+
+    private void evict(Predicate<Entry> predicate) {
+        synchronized (entries) {
+            entries.values().removeIf(predicate);
+        }
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or right away outside of a transaction
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private final class Entry {
+
+        private final UserLinkIndex index;
+
+        private final ReentrantLock loadLock = new ReentrantLock();
+
+        private List<Consumer<UserLinkIndex>> pending = new ArrayList<>();
+
+        private volatile boolean loaded;
+
+        private Entry(UserLinkIndex index) {
+            this.index = index;
+        }
+
+        private boolean isLoaded() {
+            return loaded;
+        }
+
+        private void load() {
+            loadLock.lock();
+            try {
+                if (loaded) {
+                    return;
+                }
+                index.addAll(linkRepository.findSearchResultsByUserId(index.getUserId()));
+                synchronized (this) {
+                    pending.forEach(change -> change.accept(index));
+                    pending = null;
+                    loaded = true;
+                }
+                log.info("Loaded link index of user [{}] with [{}] links", index.getUserId(), index.size());
+            } finally {
+                loadLock.unlock();
+            }
+        }
+
+        private void apply(Consumer<UserLinkIndex> change) {
+            synchronized (this) {
+                if (!loaded) {
+                    pending.add(change);
+                    return;
+                }
+            }
+            change.accept(index);
+        }
+    }
+}
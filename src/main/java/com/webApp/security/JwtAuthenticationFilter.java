@@ -30,8 +30,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Value("${app.jwt.header.prefix}")
     private String tokenRequestHeaderPrefix;
 
-    @Autowired
-    private JwtTokenProvider jwtTokenProvider;
+    @Value("${app.jwt.stateless:false}")
+    private boolean statelessAuthentication;
 
     @Autowired
     private JwtTokenValidator jwtTokenValidator;
@@ -40,7 +40,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private CustomUserDetailsService customUserDetailsService;
 
     /**
-     * Filter the incoming request for a valid token in the request header
+     * Filter the incoming request for a valid token in the request header. In stateless mode
+     * the principal is built from the token claims instead of being loaded from the database
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -48,10 +49,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtTokenValidator.validateToken(jwt)) {
-                Long userId = jwtTokenProvider.getUserIdFromJWT(jwt);
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                List<GrantedAuthority> authorities = jwtTokenProvider.getAuthoritiesFromJWT(jwt);
+            if (StringUtils.hasText(jwt)) {
+                JwtClaims claims = jwtTokenValidator.validateAndParseToken(jwt);
+                UserDetails userDetails = statelessAuthentication
+                        ? customUserDetailsService.loadUserFromClaims(claims)
+                        : customUserDetailsService.loadUserById(claims.getUserId());
+                List<GrantedAuthority> authorities = claims.getAuthorities();
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, jwt, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -0,0 +1,100 @@
+package com.webApp.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable view of the claims of an already verified JWT. Built once per token
+ * and shared between requests through the {@link com.webApp.cache.JwtClaimsCache}
+ * so that the signature and the payload don't have to be decoded again.
+ */
+public final class JwtClaims {
+
+    private final Long userId;
+
+    private final String email;
+
+    private final List<GrantedAuthority> authorities;
+
+    private final long securityEpoch;
+
+    private final long issuedAtMillis;
+
+    private final long expirationMillis;
+
+    public JwtClaims(Long userId, String email, List<GrantedAuthority> authorities, long securityEpoch,
+                     long issuedAtMillis, long expirationMillis) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = Collections.unmodifiableList(new ArrayList<>(authorities));
+        this.securityEpoch = securityEpoch;
+        this.issuedAtMillis = issuedAtMillis;
+        this.expirationMillis = expirationMillis;
+    }
+
+    /**
+     * Copies the values needed by the security layer out of the parsed jjwt claims
+     */
+    public static JwtClaims from(Claims claims) {
+        Object authoritiesClaim = claims.get(JwtTokenProvider.AUTHORITIES_CLAIM);
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (authoritiesClaim != null) {
+            for (String authority : StringUtils.commaDelimitedListToStringArray(authoritiesClaim.toString())) {
+                if (StringUtils.hasText(authority)) {
+                    authorities.add(new SimpleGrantedAuthority(authority));
+                }
+            }
+        }
+        Number securityEpoch = claims.get(JwtTokenProvider.SECURITY_EPOCH_CLAIM, Number.class);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        return new JwtClaims(Long.parseLong(claims.getSubject()),
+                claims.get(JwtTokenProvider.EMAIL_CLAIM, String.class),
+                authorities,
+                securityEpoch != null ? securityEpoch.longValue() : 0L,
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public long getSecurityEpoch() {
+        return securityEpoch;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public long getExpirationMillis() {
+        return expirationMillis;
+    }
+
+    public Date getExpiration() {
+        return new Date(expirationMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtClaims{" + "userId=" + userId + ", email='" + email + '\'' + ", authorities=" + authorities
+                + ", securityEpoch=" + securityEpoch + ", issuedAt=" + issuedAtMillis
+                + ", expiration=" + expirationMillis + '}';
+    }
+}
@@ -1,9 +1,11 @@
 package com.webApp.security;
 
+import com.webApp.cache.UserSecurityEpochCache;
 import com.webApp.model.CustomUserDetails;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -13,47 +15,45 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
-    private static final String AUTHORITIES_CLAIM = "authorities";
+    static final String AUTHORITIES_CLAIM = "authorities";
+    static final String EMAIL_CLAIM = "email";
+    static final String SECURITY_EPOCH_CLAIM = "epoch";
     private final String jwtSecret;
     private final long jwtExpirationInMs;
+    private final UserSecurityEpochCache securityEpochCache;
 
-    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret, @Value("${app.jwt.expiration}") long jwtExpirationInMs) {
+    @Autowired
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret, @Value("${app.jwt.expiration}") long jwtExpirationInMs,
+                            UserSecurityEpochCache securityEpochCache) {
         this.jwtSecret = jwtSecret;
         this.jwtExpirationInMs = jwtExpirationInMs;
+        this.securityEpochCache = securityEpochCache;
     }
 
     /**
-     * Generates a token from a principal object. Embed the refresh token in the jwt
-     * so that a new jwt can be created
+     * Generates a token from a principal object. Login and refresh both issue their tokens
+     * here, so that every token carries the user id, email, authorities and security epoch
+     * the stateless principal is built from. Each token gets an id of its own, so that two
+     * tokens issued within the same second differ and logging out one leaves the other valid
      */
     public String generateToken(CustomUserDetails customUserDetails) {
         Instant expiryDate = Instant.now().plusMillis(jwtExpirationInMs);
         String authorities = getUserAuthorities(customUserDetails);
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(Long.toString(customUserDetails.getId()))
                 .setIssuedAt(Date.from(Instant.now()))
                 .setExpiration(Date.from(expiryDate))
                 .signWith(SignatureAlgorithm.HS512, jwtSecret)
                 .claim(AUTHORITIES_CLAIM, authorities)
-                .compact();
-    }
-
-    /**
-     * Generates a token from a principal object. Embed the refresh token in the jwt
-     * so that a new jwt can be created
-     */
-    public String generateTokenFromUserId(Long userId) {
-        Instant expiryDate = Instant.now().plusMillis(jwtExpirationInMs);
-        return Jwts.builder()
-                .setSubject(Long.toString(userId))
-                .setIssuedAt(Date.from(Instant.now()))
-                .setExpiration(Date.from(expiryDate))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .claim(EMAIL_CLAIM, customUserDetails.getEmail())
+                .claim(SECURITY_EPOCH_CLAIM, securityEpochCache.getEpochForUser(customUserDetails.getId()))
                 .compact();
     }
 
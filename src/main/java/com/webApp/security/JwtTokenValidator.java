@@ -1,12 +1,16 @@
 package com.webApp.security;
 
+import com.webApp.cache.JwtClaimsCache;
 import com.webApp.cache.LoggedOutJwtTokenCache;
+import com.webApp.cache.UserSecurityEpochCache;
 import com.webApp.event.OnUserLogoutSuccessEvent;
 import com.webApp.exception_handling.InvalidTokenRequestException;
+import com.webApp.model.RoleName;
 import io.jsonwebtoken.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
@@ -17,11 +21,16 @@ public class JwtTokenValidator {
 
     private final String jwtSecret;
     private final LoggedOutJwtTokenCache loggedOutTokenCache;
+    private final JwtClaimsCache claimsCache;
+    private final UserSecurityEpochCache securityEpochCache;
 
     @Autowired
-    public JwtTokenValidator(@Value("${app.jwt.secret}") String jwtSecret, LoggedOutJwtTokenCache loggedOutTokenCache) {
+    public JwtTokenValidator(@Value("${app.jwt.secret}") String jwtSecret, LoggedOutJwtTokenCache loggedOutTokenCache,
+                             JwtClaimsCache claimsCache, UserSecurityEpochCache securityEpochCache) {
         this.jwtSecret = jwtSecret;
         this.loggedOutTokenCache = loggedOutTokenCache;
+        this.claimsCache = claimsCache;
+        this.securityEpochCache = securityEpochCache;
     }
 
     /**
@@ -30,10 +39,35 @@ public class JwtTokenValidator {
      * - Token hasn't expired
      * - Token is supported
      * - Token has not recently been logged out.
+     * - Token was issued after the last security change of the user's account.
+     * - Token grants no authority other than the known roles.
      */
     public boolean validateToken(String authToken) {
+        validateAndParseToken(authToken);
+        return true;
+    }
+
+    /**
+     * Validates the token the same way as {@link #validateToken(String)} and returns its claims.
+     * The signature is verified only the first time a token is seen, after that the claims
+     * come from the cache until the token expires. The logout and security epoch checks are
+     * done on every call.
+     */
+    public JwtClaims validateAndParseToken(String authToken) {
+        JwtClaims claims = claimsCache.getClaimsForToken(authToken);
+        if (claims == null) {
+            claims = JwtClaims.from(parseClaims(authToken));
+            validateTokenAuthoritiesAreKnown(authToken, claims);
+            claimsCache.putClaimsForToken(authToken, claims);
+        }
+        validateTokenIsNotForALoggedOutDevice(authToken);
+        validateTokenIsForCurrentSecurityEpoch(authToken, claims);
+        return claims;
+    }
+
+    private Claims parseClaims(String authToken) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
+            return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken).getBody();
 
         } catch (SignatureException ex) {
             log.error("Invalid JWT signature");
@@ -55,8 +89,6 @@ public class JwtTokenValidator {
             log.error("JWT claims string is empty.");
             throw new InvalidTokenRequestException("JWT", authToken, "Illegal argument token");
         }
-        validateTokenIsNotForALoggedOutDevice(authToken);
-        return true;
     }
 
     private void validateTokenIsNotForALoggedOutDevice(String authToken) {
@@ -68,4 +100,20 @@ public class JwtTokenValidator {
             throw new InvalidTokenRequestException("JWT", authToken, errorMessage);
         }
     }
+
+    private void validateTokenAuthoritiesAreKnown(String authToken, JwtClaims claims) {
+        for (GrantedAuthority authority : claims.getAuthorities()) {
+            if (!RoleName.fromAuthority(authority.getAuthority()).isPresent()) {
+                log.error("Unknown JWT authority");
+                throw new InvalidTokenRequestException("JWT", authToken, "Unknown authority " + authority.getAuthority());
+            }
+        }
+    }
+
+    private void validateTokenIsForCurrentSecurityEpoch(String authToken, JwtClaims claims) {
+        if (!securityEpochCache.isCurrentEpoch(claims.getUserId(), claims.getSecurityEpoch())) {
+            String errorMessage = String.format("Token was issued before the last account change of user [%s]. Please login again", claims.getUserId());
+            throw new InvalidTokenRequestException("JWT", authToken, errorMessage);
+        }
+    }
 }
\ No newline at end of file
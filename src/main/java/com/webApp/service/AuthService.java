@@ -159,13 +159,6 @@ public class AuthService {
         return tokenProvider.generateToken(customUserDetails);
     }
 
-    /**
-     * Generates a JWT token for the validated client by userId
-     */
-    private String generateTokenFromUserId(Long userId) {
-        return tokenProvider.generateTokenFromUserId(userId);
-    }
-
     /**
      * Creates and persists the refresh token for the user device. If device exists
      * already, we don't care. Unused devices with expired tokens should be cleaned
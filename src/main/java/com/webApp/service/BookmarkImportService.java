@@ -0,0 +1,290 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.BookmarkImportProgress;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.search.UserLinkIndexCache;
+import com.webApp.util.NetscapeBookmarkParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a browser bookmark export while it is being parsed. Top level folders become titles and
+ * the folders below them become categories of that title, named after the innermost folder. Links
+ * directly inside a top level folder go to an {@value #UNSORTED} category, and links outside of
+ * any folder to an {@value #UNSORTED} category of an {@value #IMPORTED} title.
+ * <p>
+ * Links are collected until a JDBC batch is full and then written, together with the titles and
+ * categories they need, in a transaction of their own. Only the open folders and the current
+ * batch are held in memory, and every committed batch is reported to the progress listener. Each
+ * batch is a change of its own for the version and the change log of the user.
+ */
+@Service
+@Slf4j
+public class BookmarkImportService {
+
+    static final String IMPORTED = "Imported bookmarks";
+
+    static final String UNSORTED = "Unsorted";
+
+    private static final Pattern HTTP_URL = Pattern.compile("(https://|http://).+");
+
+    private static final int MAX_NAME_LENGTH = 50;
+
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final EntityManager entityManager;
+
+    private final CategoryRepository categoryRepository;
+
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    @Autowired
+    public BookmarkImportService(EntityManager entityManager,
+                                 CategoryRepository categoryRepository,
+                                 UserLinkIndexCache userLinkIndexCache,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.entityManager = entityManager;
+        this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public BookmarkImportProgress importBookmarks(Long userId, Reader reader,
+                                                  Consumer<BookmarkImportProgress> progressListener) throws IOException {
+        ImportSession session = new ImportSession(userId, progressListener);
+        try {
+            new NetscapeBookmarkParser(reader).parse(session);
+            session.finish();
+        } finally {
+            userLinkIndexCache.evictUser(userId);
+        }
+        log.info("Imported {} bookmarks for user {} into {} titles and {} categories, {} skipped",
+                session.links, userId, session.titles, session.categories, session.skipped);
+        return session.progress(true);
+    }
+
+    private static String toName(String folder, String fallback) {
+        String name = folder == null ? "" : folder.trim();
+        if (name.length() > MAX_NAME_LENGTH) {
+            name = name.substring(0, MAX_NAME_LENGTH).trim();
+        }
+        return name.length() < 2 ? fallback : name;
+    }
+
+    private static final class TitleTarget {
+
+        private final String name;
+
+        private Long id;
+
+        private TitleTarget(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class CategoryTarget {
+
+        private final TitleTarget title;
+
+        private final String name;
+
+        private Long id;
+
+        private CategoryTarget(TitleTarget title, String name) {
+            this.title = title;
+            this.name = name;
+        }
+    }
+
+    private static final class PendingLink {
+
+        private final CategoryTarget category;
+
+        private final String url;
+
+        private String description;
+
+        private PendingLink(CategoryTarget category, String url, String description) {
+            this.category = category;
+            this.url = url;
+            this.description = description;
+        }
+    }
+
+    private final class ImportSession implements NetscapeBookmarkParser.Handler {
+
+        private final Long userId;
+
+        private final Consumer<BookmarkImportProgress> progressListener;
+
+        private final Deque<CategoryTarget> folders = new ArrayDeque<>();
+
+        private final List<PendingLink> batch = new ArrayList<>(batchSize);
+
+        private final List<Change> changes = new ArrayList<>(batchSize);
+
+        private CategoryTarget rootCategory;
+
+        private int titles;
+
+        private int categories;
+
+        private int links;
+
+        private int skipped;
+
+        private ImportSession(Long userId, Consumer<BookmarkImportProgress> progressListener) {
+            this.userId = userId;
+            this.progressListener = progressListener;
+        }
+
+        @Override
+        public void startFolder(String name) {
+            CategoryTarget parent = folders.peek();
+            if (parent == null) {
+                TitleTarget title = new TitleTarget(toName(name, IMPORTED));
+                folders.push(new CategoryTarget(title, UNSORTED));
+            } else {
+                folders.push(new CategoryTarget(parent.title, toName(name, UNSORTED)));
+            }
+        }
+
+        @Override
+        public void endFolder() {
+            folders.poll();
+        }
+
+        @Override
+        public void link(String href, String name) {
+            if (!HTTP_URL.matcher(href).matches()) {
+                skipped++;
+                return;
+            }
+            if (batch.size() == batchSize) {
+                flush();
+            }
+            batch.add(new PendingLink(currentCategory(), href, truncate(name)));
+        }
+
+        @Override
+        public void description(String description) {
+            if (batch.isEmpty() || description.isEmpty()) {
+                return;
+            }
+            PendingLink last = batch.get(batch.size() - 1);
+            last.description = truncate(last.description == null || last.description.isEmpty()
+                    ? description
+                    : last.description + " - " + description);
+        }
+
+        private void finish() {
+            flush();
+        }
+
+        private CategoryTarget currentCategory() {
+            CategoryTarget folder = folders.peek();
+            if (folder != null) {
+                return folder;
+            }
+            if (rootCategory == null) {
+                rootCategory = new CategoryTarget(new TitleTarget(IMPORTED), UNSORTED);
+            }
+            return rootCategory;
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Long> linkCounts = new HashMap<>();
+                for (PendingLink pending : batch) {
+                    Long categoryId = categoryId(pending.category);
+                    Link link = new Link(pending.url);
+                    link.setLinkDescription(pending.description);
+                    link.setCategory(entityManager.getReference(Category.class, categoryId));
+                    entityManager.persist(link);
+                    changes.add(Change.saved(KnowledgeTreeEntityType.LINK, link.getId()));
+                    linkCounts.merge(categoryId, 1L, Long::sum);
+                }
+                entityManager.flush();
+                categoryRepository.addLinkCounts(linkCounts);
+                entityManager.clear();
+                applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, null, changes));
+            });
+            changes.clear();
+            links += batch.size();
+            batch.clear();
+            progressListener.accept(progress(false));
+        }
+
+        private Long categoryId(CategoryTarget target) {
+            if (target.id == null) {
+                Category category = new Category(target.name);
+                category.setTitle(entityManager.getReference(Title.class, titleId(target.title)));
+                entityManager.persist(category);
+                target.id = category.getId();
+                changes.add(Change.saved(KnowledgeTreeEntityType.CATEGORY, target.id));
+                categories++;
+            }
+            return target.id;
+        }
+
+        private Long titleId(TitleTarget target) {
+            if (target.id == null) {
+                Title title = new Title(target.name);
+                title.setUser(entityManager.getReference(User.class, userId));
+                entityManager.persist(title);
+                target.id = title.getId();
+                changes.add(Change.saved(KnowledgeTreeEntityType.TITLE, target.id));
+                titles++;
+            }
+            return target.id;
+        }
+
+        private BookmarkImportProgress progress(boolean done) {
+            return new BookmarkImportProgress(titles, categories, links, skipped, done);
+        }
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_DESCRIPTION_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_DESCRIPTION_LENGTH);
+    }
+}
@@ -0,0 +1,91 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.CategoryTemplate;
+import com.webApp.model.Title;
+import com.webApp.repository.CategoryTemplateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the default categories of new titles from the template of their user, or from the global
+ * one of {@code app.titles.defaultCategories} if the user has none. The template is read once per
+ * call whatever the number of titles, and the categories are only persisted: ids come from a pooled
+ * sequence, so the inserts of all the titles go out as one JDBC batch when the transaction flushes.
+ * <p>
+ * Titles are provisioned when they are created only, their categories are left alone afterwards.
+ */
+@Service
+@Slf4j
+public class CategoryProvisioningService {
+
+    private final CategoryTemplateRepository categoryTemplateRepository;
+
+    private final EntityManager entityManager;
+
+    private final List<String> defaultCategories;
+
+    @Autowired
+    public CategoryProvisioningService(CategoryTemplateRepository categoryTemplateRepository,
+                                       EntityManager entityManager,
+                                       @Value("${app.titles.defaultCategories}") String[] defaultCategories) {
+        this.categoryTemplateRepository = categoryTemplateRepository;
+        this.entityManager = entityManager;
+        this.defaultCategories = Collections.unmodifiableList(Arrays.asList(defaultCategories));
+    }
+
+    /**
+     * Returns the names of the categories the user's new titles are created with
+     */
+    @Transactional(readOnly = true)
+    public List<String> findTemplate(Long userId) {
+        List<String> names = categoryTemplateRepository.findNamesByUserId(userId);
+        return names.isEmpty() ? defaultCategories : names;
+    }
+
+    /**
+     * Replaces the template of the user. An empty list brings the global template back.
+     */
+    @Transactional
+    public void replaceTemplate(Long userId, List<String> names) {
+        categoryTemplateRepository.deleteByUserId(userId);
+        for (int i = 0; i < names.size(); i++) {
+            entityManager.persist(new CategoryTemplate(userId, names.get(i), i));
+        }
+        log.info("Category template of user {} replaced with {} categories", userId, names.size());
+    }
+
+    /**
+     * Persists the template categories of the user's titles, which must be managed already, and
+     * sets them as the titles' categories. Returns all the new categories.
+     */
+    @Transactional
+    public List<Category> provision(Long userId, Collection<Title> titles) {
+        List<String> names = findTemplate(userId);
+        List<Category> provisioned = new ArrayList<>(names.size() * titles.size());
+        for (Title title : titles) {
+            Set<Category> categories = new LinkedHashSet<>(names.size() * 2);
+            for (String name : names) {
+                Category category = new Category(name);
+                category.setTitle(title);
+                entityManager.persist(category);
+                categories.add(category);
+            }
+            title.setCategories(categories);
+            provisioned.addAll(categories);
+        }
+        return provisioned;
+    }
+}
@@ -1,10 +1,17 @@
 package com.webApp.service;
 
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
 import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.model.Title;
 import com.webApp.repository.CategoryRepository;
+import com.webApp.search.UserLinkIndexCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,9 +22,20 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final KnowledgeTreeDeletionService knowledgeTreeDeletionService;
+
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, UserLinkIndexCache userLinkIndexCache,
+                           ApplicationEventPublisher applicationEventPublisher,
+                           KnowledgeTreeDeletionService knowledgeTreeDeletionService) {
         this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.knowledgeTreeDeletionService = knowledgeTreeDeletionService;
     }
 
     public List<Category> findAllCategoriesByTitleId(Long titleId) {
@@ -38,13 +56,29 @@ public class CategoryService {
         return categoryRepository.findById(id);
     }
 
+    @Transactional
     public Category saveCategory(Category category) {
         log.info("Save {}", category);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        if (savedCategory != null) {
+            userLinkIndexCache.evictCategory(savedCategory.getId());
+            publishChange(category.getTitle(), Change.saved(KnowledgeTreeEntityType.CATEGORY, savedCategory.getId()));
+        }
+        return savedCategory;
     }
 
+    @Transactional
     public void deleteCategoryById(Long id) {
         log.info("Delete by id {}", id);
-        categoryRepository.deleteById(id);
+        Optional<Title> title = categoryRepository.findById(id).map(Category::getTitle);
+        knowledgeTreeDeletionService.deleteCategory(id);
+        userLinkIndexCache.evictCategory(id);
+        title.ifPresent(owner -> publishChange(owner, Change.deleted(KnowledgeTreeEntityType.CATEGORY, id)));
+    }
+
+    private void publishChange(Title title, Change change) {
+        if (title != null && title.getUser() != null) {
+            applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(title.getUser().getId(), title.getId(), change));
+        }
     }
 }
@@ -2,16 +2,22 @@ package com.webApp.service;
 
 
 import com.webApp.model.CustomUserDetails;
+import com.webApp.model.Role;
+import com.webApp.model.RoleName;
 import com.webApp.model.User;
 import com.webApp.repository.UserRepository;
+import com.webApp.security.JwtClaims;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -38,4 +44,26 @@ public class CustomUserDetailsService implements UserDetailsService {
         return dbUser.map(CustomUserDetails::new)
                 .orElseThrow(() -> new UsernameNotFoundException("Couldn't find a matching user id in the database for " + id));
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the principal from the claims of an already validated token without touching
+     * the database. The token is only issued to active users with a verified login, and any
+     * later change of the account invalidates it through the user's security epoch. The
+     * validator rejects tokens granting an authority of no known role, so none reaches here.
+     */
+    public UserDetails loadUserFromClaims(JwtClaims claims) {
+        Set<Role> roles = claims.getAuthorities().stream()
+                .map(authority -> RoleName.fromAuthority(authority.getAuthority())
+                        .orElseThrow(() -> new BadCredentialsException("Unknown authority " + authority.getAuthority())))
+                .map(Role::new)
+                .collect(Collectors.toSet());
+        User user = User.builder()
+                .id(claims.getUserId())
+                .email(claims.getEmail())
+                .active(true)
+                .isEmailVerified(true)
+                .roles(roles)
+                .build();
+        return new CustomUserDetails(user);
+    }
+}
@@ -0,0 +1,106 @@
+package com.webApp.service;
+
+import com.webApp.export.ExportFormat;
+import com.webApp.export.ExportWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Writes all titles, categories and links of a user while they are read from the database. The
+ * tree is selected as scalar rows by a single query, ordered so that it can be walked in one pass,
+ * and read through a forward-only scroll with {@code app.export.fetchSize} rows per round trip.
+ * No entity is loaded, so memory doesn't depend on the size of the account.
+ */
+@Service
+@Slf4j
+public class KnowledgeExportService {
+
+    private static final String EXPORT_QUERY = "select t.id, t.name, c.id, c.name, l.id, l.linkName, l.linkDescription " +
+            "from Title t left join t.categories c left join c.links l " +
+            "where t.user.id = :userId and t.deletedAt is null order by t.id, c.id, l.id";
+
+    private final EntityManager entityManager;
+
+    private final int fetchSize;
+
+    @Autowired
+    public KnowledgeExportService(EntityManager entityManager,
+                                  @Value("${app.export.fetchSize}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Long userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ExportWriter exportWriter = format.newWriter(writer);
+        exportWriter.begin();
+        writer.flush();
+
+        long rows = 0;
+        try (ScrollableResults results = entityManager.unwrap(Session.class)
+                .createQuery(EXPORT_QUERY, Object[].class)
+                .setParameter("userId", userId)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            Long titleId = null;
+            Long categoryId = null;
+            while (results.next()) {
+                Object[] row = results.get();
+                rows++;
+                Long rowTitleId = (Long) row[0];
+                Long rowCategoryId = (Long) row[2];
+                Long rowLinkId = (Long) row[4];
+                if (!rowTitleId.equals(titleId)) {
+                    if (categoryId != null) {
+                        exportWriter.endCategory();
+                    }
+                    if (titleId != null) {
+                        exportWriter.endTitle();
+                    }
+                    titleId = rowTitleId;
+                    categoryId = null;
+                    exportWriter.startTitle(titleId, (String) row[1]);
+                }
+                if (rowCategoryId != null && !Objects.equals(rowCategoryId, categoryId)) {
+                    if (categoryId != null) {
+                        exportWriter.endCategory();
+                    }
+                    categoryId = rowCategoryId;
+                    exportWriter.startCategory(categoryId, titleId, (String) row[3]);
+                }
+                if (rowLinkId != null) {
+                    exportWriter.link(rowLinkId, categoryId, (String) row[5], (String) row[6]);
+                }
+            }
+            if (categoryId != null) {
+                exportWriter.endCategory();
+            }
+            if (titleId != null) {
+                exportWriter.endTitle();
+            }
+        }
+        exportWriter.end();
+        writer.flush();
+        log.info("Exported {} rows of user {} as {}", rows, userId, format);
+    }
+}
@@ -0,0 +1,129 @@
+package com.webApp.service;
+
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Deletes titles and categories with their subtrees. The rows are removed level by level with
+ * set-based DELETE statements, links first, instead of cascading through the entities: nothing is
+ * loaded into the persistence context and a title costs three statements whatever its size.
+ * <p>
+ * A title holding at least {@code app.delete.softDelete.minLinks} links would still hold its
+ * locks for as long as the whole subtree takes to delete, so it is only marked as deleted, which
+ * hides it from every query of the knowledge tree at once. The purge job then deletes its links in
+ * batches of {@code app.delete.purge.batchSize}, each in its own short transaction, and the title
+ * with its categories last. A run deletes at most {@code app.delete.purge.maxBatchesPerRun}
+ * batches, so a very large title is purged over several runs and never keeps a scheduler thread
+ * for long.
+ */
+@Service
+@Slf4j
+public class KnowledgeTreeDeletionService {
+
+    private final TitleRepository titleRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final LinkRepository linkRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long softDeleteMinLinks;
+
+    private final int purgeBatchSize;
+
+    private final int purgeMaxBatchesPerRun;
+
+    @Autowired
+    public KnowledgeTreeDeletionService(TitleRepository titleRepository,
+                                        CategoryRepository categoryRepository,
+                                        LinkRepository linkRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.delete.softDelete.minLinks}") long softDeleteMinLinks,
+                                        @Value("${app.delete.purge.batchSize}") int purgeBatchSize,
+                                        @Value("${app.delete.purge.maxBatchesPerRun}") int purgeMaxBatchesPerRun) {
+        this.titleRepository = titleRepository;
+        this.categoryRepository = categoryRepository;
+        this.linkRepository = linkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.softDeleteMinLinks = softDeleteMinLinks;
+        this.purgeBatchSize = purgeBatchSize;
+        this.purgeMaxBatchesPerRun = purgeMaxBatchesPerRun;
+    }
+
+    /**
+     * Deletes the title with its categories and links, or hides it for the purge job if it holds
+     * too many links. Returns true if the title was hidden.
+     */
+    @Transactional
+    public boolean deleteTitle(Long titleId) {
+        long links = linkRepository.countByTitleId(titleId);
+        if (links >= softDeleteMinLinks) {
+            titleRepository.markDeleted(titleId, new Date());
+            log.info("Title {} with {} links hidden, its rows are left to the purge job", titleId, links);
+            return true;
+        }
+        int deletedLinks = linkRepository.deleteRowsByTitleId(titleId);
+        int deletedCategories = categoryRepository.deleteRowsByTitleId(titleId);
+        titleRepository.deleteRowById(titleId);
+        log.info("Title {} deleted with {} categories and {} links", titleId, deletedCategories, deletedLinks);
+        return false;
+    }
+
+    @Transactional
+    public void deleteCategory(Long categoryId) {
+        int deletedLinks = linkRepository.deleteRowsByCategoryId(categoryId);
+        categoryRepository.deleteRowById(categoryId);
+        log.info("Category {} deleted with {} links", categoryId, deletedLinks);
+    }
+
+    /**
+     * Removes the rows of the hidden titles, the oldest first, up to
+     * {@code app.delete.purge.maxBatchesPerRun} batches of links. Every batch is committed on its
+     * own, so a title left unfinished is picked up where it stopped on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.delete.purge.intervalMs}",
+               initialDelayString = "${app.delete.purge.intervalMs}")
+    public void purge() {
+        int batches = 0;
+        List<Long> titleIds = titleRepository.findIdsMarkedDeleted(PageRequest.of(0, purgeBatchSize));
+        for (Long titleId : titleIds) {
+            long deletedLinks = 0;
+            int deleted = purgeBatchSize;
+            while (deleted == purgeBatchSize && batches < purgeMaxBatchesPerRun) {
+                deleted = inTransaction(() -> linkRepository.deleteBatchByTitleId(titleId, purgeBatchSize));
+                deletedLinks += deleted;
+                batches++;
+            }
+            if (deleted == purgeBatchSize) {
+                log.info("Purged {} links of hidden title {}, the next run goes on", deletedLinks, titleId);
+                return;
+            }
+            int deletedCategories = inTransaction(() -> {
+                int categories = categoryRepository.deleteRowsByTitleId(titleId);
+                titleRepository.deleteRowById(titleId);
+                return categories;
+            });
+            log.info("Purged hidden title {} with {} categories and {} links", titleId, deletedCategories, deletedLinks);
+        }
+    }
+
+    private int inTransaction(IntSupplier statement) {
+        Integer result = transactionTemplate.execute(status -> statement.getAsInt());
+        return result == null ? 0 : result;
+    }
+}
@@ -0,0 +1,244 @@
+package com.webApp.service;
+
+import com.webApp.cache.Weighted;
+import com.webApp.payload.CategoryTreeResponse;
+import com.webApp.payload.LinkResponse;
+import com.webApp.payload.TitleTreeResponse;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds the whole title -> category -> link tree of a user. Every level is selected with a
+ * single projection query filtered by the user, and the levels are linked together in memory,
+ * so the tree always costs three statements whatever its size.
+ * <p>
+ * The trees back the title and category listings loaded on every page, so they are cached per user,
+ * and per user and title for the categories. The cached lists are shared between requests and must
+ * not be modified. Entries are evicted by
+ * {@link com.webApp.event.listener.OnKnowledgeTreeChangeCacheListener} when the titles, categories
+ * or links they hold change. Each entry weighs the estimated bytes of its tree, so the caches hold
+ * at most {@code app.cache.listings.maxMemoryBytes} of trees however many links the users have.
+ * <p>
+ * Each entry remembers the {@link KnowledgeTreeVersionService version} of the user it was built
+ * from, read before the tree itself. The listings are served with that version as their ETag, so
+ * an entry older than the version the caller has already seen is rebuilt rather than returned,
+ * even if its eviction hasn't run yet.
+ * <p>
+ * The single title, category and link lookups select the same projections, scoped to the user
+ * and to the parents in the request path. Like every read of the tree they run in read-only
+ * transactions, which Spring runs with Hibernate's MANUAL flush mode: no entity is managed, so
+ * there is nothing to dirty check or flush.
+ */
+@Service
+@Slf4j
+public class KnowledgeTreeService {
+
+    public static final String TITLES_CACHE = "titles";
+
+    public static final String CATEGORIES_CACHE = "categories";
+
+    private static final int NODE_BYTES = 64;
+
+    private static final int STRING_BYTES = 40;
+
+    private final TitleRepository titleRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final LinkRepository linkRepository;
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public KnowledgeTreeService(TitleRepository titleRepository,
+                                CategoryRepository categoryRepository,
+                                LinkRepository linkRepository,
+                                KnowledgeTreeVersionService knowledgeTreeVersionService,
+                                CacheManager cacheManager) {
+        this.titleRepository = titleRepository;
+        this.categoryRepository = categoryRepository;
+        this.linkRepository = linkRepository;
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the cached tree of the user, built from the given version or a later one
+     */
+    @Transactional(readOnly = true)
+    public List<TitleTreeResponse> findTreeByUserId(Long userId, long minVersion) {
+        return findCached(TITLES_CACHE, userId, userId, minVersion, () -> findTreeByUserId(userId),
+                KnowledgeTreeService::weighTitles);
+    }
+
+    /**
+     * Returns the cached categories of the title with their links, built from the given version of
+     * the user or a later one. Nothing is returned if the title doesn't belong to the user.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryTreeResponse> findCategoriesByTitleId(Long userId, Long titleId, long minVersion) {
+        return findCached(CATEGORIES_CACHE, categoriesKey(userId, titleId), userId, minVersion,
+                () -> findCategoriesByTitleId(userId, titleId), KnowledgeTreeService::weighCategories);
+    }
+
+    /**
+     * Returns the title of the user with its categories and their links, the categories coming
+     * from the cached listing of the title
+     */
+    @Transactional(readOnly = true)
+    public Optional<TitleTreeResponse> findTitle(Long userId, Long titleId, long minVersion) {
+        return titleRepository.findTreeNodeByUserIdAndId(userId, titleId).map(title -> {
+            title.setCategories(findCategoriesByTitleId(userId, titleId, minVersion));
+            return title;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CategoryTreeResponse> findCategory(Long userId, Long titleId, Long categoryId) {
+        return categoryRepository.findTreeNodeByUserIdAndTitleIdAndId(userId, titleId, categoryId).map(category -> {
+            category.setLinks(linkRepository.findResponsesByCategoryId(categoryId));
+            return category;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LinkResponse> findLink(Long userId, Long titleId, Long categoryId, Long linkId) {
+        return linkRepository.findResponseByUserIdAndTitleIdAndCategoryIdAndId(userId, titleId, categoryId, linkId);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean categoryExists(Long userId, Long titleId, Long categoryId) {
+        return categoryRepository.existsByUserIdAndTitleIdAndId(userId, titleId, categoryId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TitleTreeResponse> findTreeByUserId(Long userId) {
+        List<TitleTreeResponse> titles = titleRepository.findTreeNodesByUserId(userId);
+        Map<Long, TitleTreeResponse> titlesById = new HashMap<>(titles.size() * 2);
+        titles.forEach(title -> titlesById.put(title.getId(), title));
+
+        List<CategoryTreeResponse> categories = categoryRepository.findTreeNodesByUserId(userId);
+        Map<Long, CategoryTreeResponse> categoriesById = new HashMap<>(categories.size() * 2);
+        for (CategoryTreeResponse category : categories) {
+            categoriesById.put(category.getId(), category);
+            TitleTreeResponse title = titlesById.get(category.getTitleId());
+            if (title != null) {
+                title.getCategories().add(category);
+            }
+        }
+
+        List<LinkResponse> links = linkRepository.findTreeNodesByUserId(userId);
+        for (LinkResponse link : links) {
+            CategoryTreeResponse category = categoriesById.get(link.getCategoryId());
+            if (category != null) {
+                category.getLinks().add(link);
+            }
+        }
+        log.info("Knowledge tree of user {} built with {} titles, {} categories and {} links",
+                userId, titles.size(), categories.size(), links.size());
+        return titles;
+    }
+
+    private List<CategoryTreeResponse> findCategoriesByTitleId(Long userId, Long titleId) {
+        List<CategoryTreeResponse> categories = categoryRepository.findTreeNodesByUserIdAndTitleId(userId, titleId);
+        Map<Long, CategoryTreeResponse> categoriesById = new HashMap<>(categories.size() * 2);
+        categories.forEach(category -> categoriesById.put(category.getId(), category));
+
+        for (LinkResponse link : linkRepository.findTreeNodesByUserIdAndTitleId(userId, titleId)) {
+            CategoryTreeResponse category = categoriesById.get(link.getCategoryId());
+            if (category != null) {
+                category.getLinks().add(link);
+            }
+        }
+        return categories;
+    }
+
+    public static Object categoriesKey(Long userId, Long titleId) {
+        return new SimpleKey(userId, titleId);
+    }
+
+    private <T> T findCached(String cacheName, Object key, Long userId, long minVersion, Supplier<T> loader,
+                             ToLongFunction<T> weigher) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Supplier<Snapshot<T>> builder = () -> {
+            long version = knowledgeTreeVersionService.findVersion(userId).getVersion();
+            T value = loader.get();
+            return new Snapshot<>(version, value, weigher.applyAsLong(value));
+        };
+        if (cache == null) {
+            return loader.get();
+        }
+        Snapshot<T> snapshot = cache.get(key, builder::get);
+        if (snapshot.version < minVersion) {
+            snapshot = builder.get();
+            cache.put(key, snapshot);
+        }
+        return snapshot.value;
+    }
+
+    /**
+     * Estimated bytes of the titles with their categories and links
+     */
+    private static long weighTitles(List<TitleTreeResponse> titles) {
+        long bytes = 0;
+        for (TitleTreeResponse title : titles) {
+            bytes += NODE_BYTES + textBytes(title.getName()) + weighCategories(title.getCategories());
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimated bytes of the categories with their links
+     */
+    private static long weighCategories(List<CategoryTreeResponse> categories) {
+        long bytes = 0;
+        for (CategoryTreeResponse category : categories) {
+            bytes += NODE_BYTES + textBytes(category.getName());
+            for (LinkResponse link : category.getLinks()) {
+                bytes += NODE_BYTES + textBytes(link.getLinkName()) + textBytes(link.getLinkDescription());
+            }
+        }
+        return bytes;
+    }
+
+    private static long textBytes(String text) {
+        return text == null ? 0 : STRING_BYTES + text.length();
+    }
+
+    private static final class Snapshot<T> implements Weighted {
+
+        private final long version;
+
+        private final T value;
+
+        private final long weight;
+
+        private Snapshot(long version, T value, long weight) {
+            this.version = version;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+    }
+}
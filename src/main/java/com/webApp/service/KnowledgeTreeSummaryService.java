@@ -0,0 +1,118 @@
+package com.webApp.service;
+
+import com.webApp.payload.KnowledgeTreeSummary;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.TitleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Counts the titles, categories and links of a user without reading a single link: every category
+ * row holds the number of its links, which the services adding, moving and deleting links keep up
+ * to date with atomic increments in their own transactions, and the counts of the titles are
+ * summed from it with one grouped query.
+ * <p>
+ * Rows written around the services, by hand or before the counters existed, are caught by the
+ * repair job, which recounts the links of every category in batches of
+ * {@code app.counters.repair.batchSize}, each in its own short transaction, and only writes the
+ * counters that are off. The category rows of a batch are locked before their links are counted,
+ * so a link written at the same time is either counted or adds itself to the repaired counter
+ * once the batch commits, never lost. A run repairs at most
+ * {@code app.counters.repair.maxBatchesPerRun} batches and the next run goes on from there, a pass
+ * over all the categories starts every {@code app.counters.repair.intervalMs}.
+ */
+@Service
+@Slf4j
+public class KnowledgeTreeSummaryService {
+
+    private final TitleRepository titleRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int repairBatchSize;
+
+    private final int repairMaxBatchesPerRun;
+
+    private final long repairIntervalMs;
+
+    private long repairAfterId;
+
+    private long nextPassAt;
+
+    @Autowired
+    public KnowledgeTreeSummaryService(TitleRepository titleRepository,
+                                       CategoryRepository categoryRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.counters.repair.batchSize}") int repairBatchSize,
+                                       @Value("${app.counters.repair.maxBatchesPerRun}") int repairMaxBatchesPerRun,
+                                       @Value("${app.counters.repair.intervalMs}") long repairIntervalMs) {
+        this.titleRepository = titleRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repairBatchSize = repairBatchSize;
+        this.repairMaxBatchesPerRun = repairMaxBatchesPerRun;
+        this.repairIntervalMs = repairIntervalMs;
+    }
+
+    @Transactional(readOnly = true)
+    public KnowledgeTreeSummary findSummary(Long userId) {
+        return new KnowledgeTreeSummary(titleRepository.findSummariesByUserId(userId));
+    }
+
+    /**
+     * Recomputes the link counters of the next batches of categories from the links table, once
+     * the last pass over all of them is {@code app.counters.repair.intervalMs} old. Returns the
+     * number of counters corrected.
+     */
+    @Scheduled(fixedDelayString = "${app.counters.repair.runIntervalMs}",
+               initialDelayString = "${app.counters.repair.initialDelayMs}")
+    public synchronized int repairLinkCounts() {
+        long now = System.currentTimeMillis();
+        if (repairAfterId == 0 && now < nextPassAt) {
+            return 0;
+        }
+        int repaired = 0;
+        for (int batches = 0; batches < repairMaxBatchesPerRun; batches++) {
+            List<Long> ids = categoryRepository.findIdsAfter(repairAfterId, PageRequest.of(0, repairBatchSize));
+            if (!ids.isEmpty()) {
+                Integer corrected = transactionTemplate.execute(status -> repairBatch(ids));
+                repaired += corrected == null ? 0 : corrected;
+                repairAfterId = ids.get(ids.size() - 1);
+            }
+            if (ids.size() < repairBatchSize) {
+                repairAfterId = 0;
+                nextPassAt = now + repairIntervalMs;
+                break;
+            }
+        }
+        if (repaired > 0) {
+            log.warn("Repaired the link counters of {} categories", repaired);
+        }
+        return repaired;
+    }
+
+    private int repairBatch(List<Long> ids) {
+        categoryRepository.lockByIdIn(ids);
+        int corrected = 0;
+        for (Object[] row : categoryRepository.countLinksByIdIn(ids)) {
+            long linkCount = ((Number) row[1]).longValue();
+            long links = ((Number) row[2]).longValue();
+            if (linkCount != links) {
+                categoryRepository.setLinkCount(((Number) row[0]).longValue(), links);
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,203 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.model.KnowledgeTreeChange;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.model.KnowledgeTreeVersion;
+import com.webApp.payload.SyncItem;
+import com.webApp.payload.SyncPage;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.KnowledgeTreeChangeRepository;
+import com.webApp.repository.KnowledgeTreeVersionRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import com.webApp.util.SyncToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the change log of every user and answers the devices syncing from it. Each change made in a
+ * {@link KnowledgeTreeVersion version} of the user is logged with that version, deletes as
+ * tombstones. A sync token is a position in the log, so a sync reads the entries after it and loads
+ * the entities they name by id: its cost follows what changed, not the size of the store.
+ * <p>
+ * Versions are taken under the lock of the user's version row, so the entries of a version are
+ * committed before the next version exists and a device can't read past entries still to come.
+ */
+@Service
+@Slf4j
+public class KnowledgeTreeSyncService {
+
+    private final KnowledgeTreeChangeRepository knowledgeTreeChangeRepository;
+
+    private final KnowledgeTreeVersionRepository knowledgeTreeVersionRepository;
+
+    private final KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private final TitleRepository titleRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final LinkRepository linkRepository;
+
+    private final long retentionInMs;
+
+    @Autowired
+    public KnowledgeTreeSyncService(KnowledgeTreeChangeRepository knowledgeTreeChangeRepository,
+                                    KnowledgeTreeVersionRepository knowledgeTreeVersionRepository,
+                                    KnowledgeTreeVersionService knowledgeTreeVersionService,
+                                    TitleRepository titleRepository,
+                                    CategoryRepository categoryRepository,
+                                    LinkRepository linkRepository,
+                                    @Value("${app.sync.retentionMs}") long retentionInMs) {
+        this.knowledgeTreeChangeRepository = knowledgeTreeChangeRepository;
+        this.knowledgeTreeVersionRepository = knowledgeTreeVersionRepository;
+        this.knowledgeTreeVersionService = knowledgeTreeVersionService;
+        this.titleRepository = titleRepository;
+        this.categoryRepository = categoryRepository;
+        this.linkRepository = linkRepository;
+        this.retentionInMs = retentionInMs;
+    }
+
+    /**
+     * Logs the changes made in the version of the user. An entity listed several times is logged
+     * once, with its last change.
+     */
+    @Transactional
+    public void recordChanges(Long userId, long version, List<OnKnowledgeTreeChangeEvent.Change> changes) {
+        Map<KnowledgeTreeEntityType, Map<Long, Boolean>> latest = latestChanges(changes);
+        Date changedAt = new Date();
+        List<KnowledgeTreeChange> entries = new ArrayList<>(changes.size());
+        latest.forEach((type, byId) -> byId.forEach((id, deleted) ->
+                entries.add(new KnowledgeTreeChange(userId, version, type, id, deleted, changedAt))));
+        knowledgeTreeChangeRepository.saveAll(entries);
+    }
+
+    /**
+     * Returns up to {@code size} log entries after the token, each entity with its current state or
+     * as deleted. Entries of versions committed while the page is read are left for the next sync.
+     * A missing token, or one older than the retention, returns an empty page asking for a reset.
+     */
+    @Transactional(readOnly = true)
+    public SyncPage findChangesSince(Long userId, String token, int size) {
+        SyncToken since = SyncToken.decode(token);
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(userId);
+        String upToDate = new SyncToken(version.getVersion(), SyncToken.COMPLETE).encode();
+        if (since == null || isBehindRetention(since, version) || since.getVersion() > version.getVersion()) {
+            log.info("Sync of user {} from {} needs a reset at version {}", userId, token, version.getVersion());
+            return SyncPage.reset(upToDate);
+        }
+
+        List<KnowledgeTreeChange> entries = knowledgeTreeChangeRepository.findPage(userId, since.getVersion(),
+                since.getLastId(), version.getVersion(), PageRequest.of(0, size + 1));
+        SyncPage page = new SyncPage();
+        page.setHasMore(entries.size() > size);
+        if (page.isHasMore()) {
+            entries = entries.subList(0, size);
+            KnowledgeTreeChange last = entries.get(entries.size() - 1);
+            page.setNext(new SyncToken(last.getVersion(), last.getId()).encode());
+        } else {
+            page.setNext(upToDate);
+        }
+
+        Map<KnowledgeTreeEntityType, Map<Long, Boolean>> latest = new EnumMap<>(KnowledgeTreeEntityType.class);
+        for (KnowledgeTreeChange entry : entries) {
+            latest.computeIfAbsent(entry.getEntityType(), type -> new LinkedHashMap<>())
+                    .put(entry.getEntityId(), entry.isDeleted());
+        }
+        fill(userId, latest.get(KnowledgeTreeEntityType.TITLE), titleRepository::findSyncItems,
+                page.getTitles(), page.getDeletedTitleIds());
+        fill(userId, latest.get(KnowledgeTreeEntityType.CATEGORY), categoryRepository::findSyncItems,
+                page.getCategories(), page.getDeletedCategoryIds());
+        fill(userId, latest.get(KnowledgeTreeEntityType.LINK), linkRepository::findSyncItems,
+                page.getLinks(), page.getDeletedLinkIds());
+        return page;
+    }
+
+    /**
+     * Compacts the change log. Entries followed by a later one for the same entity are dropped
+     * first, then the entries older than the retention period, whose users' tokens from before
+     * them will ask for a reset.
+     */
+    @Scheduled(fixedDelayString = "${app.sync.compaction.intervalMs}",
+               initialDelayString = "${app.sync.compaction.intervalMs}")
+    @Transactional
+    public void compact() {
+        int superseded = knowledgeTreeChangeRepository.deleteSuperseded();
+        int expired = 0;
+        Date before = new Date(System.currentTimeMillis() - retentionInMs);
+        for (Object[] row : knowledgeTreeChangeRepository.findLastVersionsChangedBefore(before)) {
+            Long userId = (Long) row[0];
+            long version = ((Number) row[1]).longValue();
+            knowledgeTreeVersionRepository.raisePurgedVersion(userId, version);
+            expired += knowledgeTreeChangeRepository.deleteUpToVersion(userId, version);
+        }
+        log.info("Compacted knowledge tree change log: {} superseded and {} expired entries removed",
+                superseded, expired);
+    }
+
+    /**
+     * A token can only be caught up if no entry after it was removed by the retention
+     */
+    private static boolean isBehindRetention(SyncToken since, KnowledgeTreeVersion version) {
+        return since.getVersion() < version.getPurgedVersion()
+                || since.getVersion() == version.getPurgedVersion() && !since.isComplete();
+    }
+
+    private static Map<KnowledgeTreeEntityType, Map<Long, Boolean>> latestChanges(
+            List<OnKnowledgeTreeChangeEvent.Change> changes) {
+        Map<KnowledgeTreeEntityType, Map<Long, Boolean>> latest = new EnumMap<>(KnowledgeTreeEntityType.class);
+        for (OnKnowledgeTreeChangeEvent.Change change : changes) {
+            if (change.getEntityId() != null) {
+                latest.computeIfAbsent(change.getEntityType(), type -> new LinkedHashMap<>())
+                        .put(change.getEntityId(), change.isDeleted());
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Loads the saved entities and reports the deleted ones. A saved entity that can't be found was
+     * deleted together with its title or category since, and is reported as deleted as well.
+     */
+    private static void fill(Long userId, Map<Long, Boolean> changes,
+                             BiFunction<Long, Collection<Long>, List<SyncItem>> loader,
+                             List<SyncItem> items, List<Long> deletedIds) {
+        if (changes == null) {
+            return;
+        }
+        List<Long> savedIds = new ArrayList<>(changes.size());
+        changes.forEach((id, deleted) -> {
+            if (deleted) {
+                deletedIds.add(id);
+            } else {
+                savedIds.add(id);
+            }
+        });
+        if (savedIds.isEmpty()) {
+            return;
+        }
+        items.addAll(loader.apply(userId, savedIds));
+        if (items.size() < savedIds.size()) {
+            Set<Long> found = new HashSet<>(items.size() * 2);
+            items.forEach(item -> found.add(item.getId()));
+            savedIds.stream().filter(id -> !found.contains(id)).forEach(deletedIds::add);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.webApp.service;
+
+import com.webApp.model.KnowledgeTreeVersion;
+import com.webApp.repository.KnowledgeTreeVersionRepository;
+import com.webApp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the per-user version the title, category and link resources are validated against.
+ * The version is incremented in the transaction of the change (see
+ * {@link com.webApp.event.listener.OnKnowledgeTreeChangeVersionListener}), so a reader never sees
+ * a new version together with the old content.
+ */
+@Service
+@Slf4j
+public class KnowledgeTreeVersionService {
+
+    private final KnowledgeTreeVersionRepository knowledgeTreeVersionRepository;
+
+    private final UserRepository userRepository;
+
+    @Autowired
+    public KnowledgeTreeVersionService(KnowledgeTreeVersionRepository knowledgeTreeVersionRepository,
+                                       UserRepository userRepository) {
+        this.knowledgeTreeVersionRepository = knowledgeTreeVersionRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public KnowledgeTreeVersion findVersion(Long userId) {
+        return knowledgeTreeVersionRepository.findById(userId)
+                .orElseGet(() -> KnowledgeTreeVersion.initial(userId));
+    }
+
+    /**
+     * Moves the version of the user forward. The first change of a user creates the row under a
+     * lock on the user, so that two concurrent first changes don't both insert it. Returns the new
+     * version, which stays locked until the transaction ends: versions are committed in order.
+     */
+    @Transactional
+    public long increment(Long userId) {
+        long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        if (knowledgeTreeVersionRepository.increment(userId, now) > 0) {
+            return currentVersion(userId);
+        }
+        userRepository.lockById(userId);
+        if (knowledgeTreeVersionRepository.increment(userId, now) > 0) {
+            return currentVersion(userId);
+        }
+        log.info("Creating knowledge tree version of user {}", userId);
+        knowledgeTreeVersionRepository.save(new KnowledgeTreeVersion(userId, 1L, now));
+        return 1L;
+    }
+
+    private long currentVersion(Long userId) {
+        return knowledgeTreeVersionRepository.findVersionByUserId(userId).orElse(0L);
+    }
+}
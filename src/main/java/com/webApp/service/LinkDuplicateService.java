@@ -0,0 +1,133 @@
+package com.webApp.service;
+
+import com.webApp.payload.DuplicateLinkGroup;
+import com.webApp.payload.DuplicateLinkResponse;
+import com.webApp.payload.LinkResponse;
+import com.webApp.repository.LinkRepository;
+import com.webApp.util.UrlCanonicalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the links a user saved more than once under different forms of the same URL. Links are
+ * matched on the hash of their canonical URL, looked up through its index, and the candidates are
+ * compared on the canonical URL itself so that a collision of the hashes never reports a duplicate.
+ * <p>
+ * Links saved before the hash existed are hashed by the backfill job in batches of
+ * {@code app.links.urlHash.backfill.batchSize}, each in its own short transaction. A run hashes at
+ * most {@code app.links.urlHash.backfill.maxBatchesPerRun} batches and leaves the rest to the
+ * next one.
+ */
+@Service
+@Slf4j
+public class LinkDuplicateService {
+
+    private static final String UPDATE_URL_HASH = "update links set url_hash = ? where id = ?";
+
+    private final LinkRepository linkRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int backfillBatchSize;
+
+    private final int backfillMaxBatchesPerRun;
+
+    @Autowired
+    public LinkDuplicateService(LinkRepository linkRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.links.urlHash.backfill.batchSize}") int backfillBatchSize,
+                                @Value("${app.links.urlHash.backfill.maxBatchesPerRun}") int backfillMaxBatchesPerRun) {
+        this.linkRepository = linkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillBatchSize = backfillBatchSize;
+        this.backfillMaxBatchesPerRun = backfillMaxBatchesPerRun;
+    }
+
+    /**
+     * Returns the user's links with the same canonical URL as the given one, the oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateLinkResponse> findDuplicatesOf(Long userId, String linkName) {
+        String canonicalUrl = UrlCanonicalizer.canonicalize(linkName);
+        List<DuplicateLinkResponse> duplicates = new ArrayList<>();
+        for (DuplicateLinkResponse link : linkRepository.findByUserIdAndUrlHash(userId, UrlCanonicalizer.hash(linkName))) {
+            if (canonicalUrl.equals(UrlCanonicalizer.canonicalize(link.getLinkName()))) {
+                duplicates.add(link);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Returns every group of the user's links saved more than once
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateLinkGroup> findDuplicates(Long userId) {
+        List<DuplicateLinkGroup> groups = new ArrayList<>();
+        Map<String, List<DuplicateLinkResponse>> sameHash = new LinkedHashMap<>();
+        Long urlHash = null;
+        for (DuplicateLinkResponse link : linkRepository.findDuplicatesByUserId(userId)) {
+            if (!link.getUrlHash().equals(urlHash)) {
+                addGroups(sameHash, groups);
+                urlHash = link.getUrlHash();
+            }
+            sameHash.computeIfAbsent(UrlCanonicalizer.canonicalize(link.getLinkName()), url -> new ArrayList<>(2))
+                    .add(link);
+        }
+        addGroups(sameHash, groups);
+        return groups;
+    }
+
+    /**
+     * Hashes the next batches of the links saved before the hash existed. Returns the number of
+     * links hashed.
+     */
+    @Scheduled(fixedDelayString = "${app.links.urlHash.backfill.intervalMs}",
+               initialDelayString = "${app.links.urlHash.backfill.initialDelayMs}")
+    public int backfillUrlHashes() {
+        int hashed = 0;
+        int batches = 0;
+        List<LinkResponse> links;
+        do {
+            links = linkRepository.findWithoutUrlHash(PageRequest.of(0, backfillBatchSize));
+            List<Object[]> updates = new ArrayList<>(links.size());
+            for (LinkResponse link : links) {
+                updates.add(new Object[]{UrlCanonicalizer.hash(link.getLinkName()), link.getId()});
+            }
+            if (!updates.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_URL_HASH, updates));
+                hashed += updates.size();
+            }
+        } while (links.size() == backfillBatchSize && ++batches < backfillMaxBatchesPerRun);
+        if (hashed > 0) {
+            log.info("Hashed the canonical URLs of {} links", hashed);
+        }
+        return hashed;
+    }
+
+    private static void addGroups(Map<String, List<DuplicateLinkResponse>> sameHash, List<DuplicateLinkGroup> groups) {
+        sameHash.forEach((canonicalUrl, links) -> {
+            if (links.size() > 1) {
+                groups.add(new DuplicateLinkGroup(canonicalUrl, links));
+            }
+        });
+        sameHash.clear();
+    }
+}
@@ -0,0 +1,343 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.fetch.HostDispatcher;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.payload.LinkResponse;
+import com.webApp.repository.LinkRepository;
+import com.webApp.util.PageMetadata;
+import com.webApp.util.UrlCanonicalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads the title, description, canonical URL and icon of the pages links point to, in the
+ * background. A saved link is queued once its transaction commits and saving it never waits on
+ * the page: the fetches run on the threads of a {@link HostDispatcher}, which bounds the queue and
+ * limits the fetches per host, and only the head of a page is read. At most
+ * {@code app.enrichment.host.maxWaiting} links of one host wait in the queue, so an import of many
+ * links of one site doesn't take the queue from the links other users save meanwhile.
+ * <p>
+ * The results are written back to the links table in JDBC batches of
+ * {@code app.enrichment.flush.batchSize} links, when a batch is full or every
+ * {@code app.enrichment.flush.intervalMs}, and the links with new metadata are a change of their
+ * users' knowledge trees. A link whose page can't be read is written back without metadata, so it
+ * isn't fetched again until its URL changes.
+ * <p>
+ * A link that didn't fit in the queue, was imported, or was saved while the application was down,
+ * is picked up by the sweep, which walks the links not enriched yet in id order while the queue
+ * has room and carries on from there the next time. Links of a host with enough links waiting
+ * already are passed over and queued by a later pass.
+ */
+@Service
+@Slf4j
+public class LinkEnrichmentService {
+
+    private static final String UPDATE_METADATA =
+            "update links set page_title = ?, page_description = ?, canonical_url = ?, favicon_url = ?, " +
+            "enriched_url_hash = ?, enriched_at = ? " +
+            "where id = ? and (url_hash = ? or url_hash is null)";
+
+    private final boolean enabled;
+
+    private final PageFetcher pageFetcher;
+
+    private final LinkRepository linkRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final HostDispatcher dispatcher;
+
+    private final int flushBatchSize;
+
+    private final int sweepBatchSize;
+
+    /**
+     * Links queued, being fetched or waiting to be written, a link is never queued twice
+     */
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Result> results = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger resultCount = new AtomicInteger();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile long sweepAfterId;
+
+    @Autowired
+    public LinkEnrichmentService(PageFetcher pageFetcher,
+                                 LinkRepository linkRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 @Value("${app.enrichment.enabled}") boolean enabled,
+                                 @Value("${app.enrichment.concurrency}") int concurrency,
+                                 @Value("${app.enrichment.host.maxConcurrent}") int maxPerHost,
+                                 @Value("${app.enrichment.host.minIntervalMs}") long minIntervalMs,
+                                 @Value("${app.enrichment.queue.capacity}") int capacity,
+                                 @Value("${app.enrichment.host.maxWaiting}") int maxWaitingPerHost,
+                                 @Value("${app.enrichment.flush.batchSize}") int flushBatchSize,
+                                 @Value("${app.enrichment.sweep.batchSize}") int sweepBatchSize) {
+        this.pageFetcher = pageFetcher;
+        this.linkRepository = linkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.enabled = enabled;
+        this.dispatcher = enabled
+                ? new HostDispatcher("link-enricher", concurrency, maxPerHost, minIntervalMs, capacity,
+                maxWaitingPerHost)
+                : null;
+        this.flushBatchSize = flushBatchSize;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Queues the link once the current transaction commits, or right away outside of a transaction
+     */
+    public void enqueueAfterCommit(Long linkId, String url) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(linkId, url);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(linkId, url);
+            }
+        });
+    }
+
+    /**
+     * Queues the link without waiting. Returns false when it can't be queued, the sweep picks it
+     * up later.
+     */
+    public boolean enqueue(Long linkId, String url) {
+        if (!enabled || linkId == null || url == null) {
+            return false;
+        }
+        if (!inProgress.add(linkId)) {
+            return true;
+        }
+        String host = HostDispatcher.hostOf(url);
+        if (host == null) {
+            addResult(new Result(linkId, UrlCanonicalizer.hash(url), null));
+            return true;
+        }
+        if (!dispatcher.offer(host, () -> enrich(linkId, url.trim()))) {
+            inProgress.remove(linkId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of links queued, being fetched or waiting to be written
+     */
+    public int pendingLinks() {
+        return inProgress.size();
+    }
+
+    /**
+     * Queues the links not enriched yet, as many as the queue has room for, passing over those of
+     * busy hosts. Returns the number of links queued.
+     */
+    @Scheduled(fixedDelayString = "${app.enrichment.sweep.intervalMs}",
+               initialDelayString = "${app.enrichment.sweep.initialDelayMs}")
+    public int sweep() {
+        if (!enabled) {
+            return 0;
+        }
+        int queued = 0;
+        int passedOver = 0;
+        int room;
+        while ((room = dispatcher.remainingCapacity()) > 0) {
+            int size = Math.min(room, sweepBatchSize);
+            List<LinkResponse> links = linkRepository.findNotEnrichedAfter(sweepAfterId, PageRequest.of(0, size));
+            for (LinkResponse link : links) {
+                if (!inProgress.contains(link.getId())) {
+                    if (enqueue(link.getId(), link.getLinkName())) {
+                        queued++;
+                    } else if (dispatcher.remainingCapacity() == 0) {
+                        log.info("Queued {} links for enrichment, the queue is full", queued);
+                        return queued;
+                    } else {
+                        // its host has enough links waiting, the next pass queues it
+                        passedOver++;
+                    }
+                }
+                sweepAfterId = link.getId();
+            }
+            if (links.size() < size) {
+                sweepAfterId = 0;
+                break;
+            }
+        }
+        if (queued > 0 || passedOver > 0) {
+            log.info("Queued {} links for enrichment, passed over {} of busy hosts", queued, passedOver);
+        }
+        return queued;
+    }
+
+    /**
+     * Writes the metadata read since the last flush. Returns the number of links written.
+     */
+    @Scheduled(fixedDelayString = "${app.enrichment.flush.intervalMs}",
+               initialDelayString = "${app.enrichment.flush.intervalMs}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            return write();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+            flush();
+        }
+    }
+
+    private void enrich(Long linkId, String url) {
+        PageMetadata metadata = null;
+        try {
+            metadata = pageFetcher.fetchMetadata(url);
+        } catch (IOException e) {
+            log.debug("Reading the page of link {} at {} failed: {}", linkId, url, e.toString());
+        }
+        addResult(new Result(linkId, UrlCanonicalizer.hash(url), metadata));
+    }
+
+    /**
+     * Keeps the result for the next flush, or writes the batch right away once it is full
+     */
+    private void addResult(Result result) {
+        results.add(result);
+        if (resultCount.incrementAndGet() >= flushBatchSize && flushLock.tryLock()) {
+            try {
+                write();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private int write() {
+        int written = 0;
+        List<Result> batch;
+        while (!(batch = drain()).isEmpty()) {
+            List<Result> writing = batch;
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(writing));
+                written += writing.size();
+            } catch (DataAccessException e) {
+                log.warn("Writing the metadata of {} links failed, the sweep queues them again", writing.size(), e);
+            }
+            writing.forEach(result -> inProgress.remove(result.linkId));
+        }
+        return written;
+    }
+
+    private List<Result> drain() {
+        List<Result> batch = new ArrayList<>();
+        Result result;
+        while (batch.size() < flushBatchSize && (result = results.poll()) != null) {
+            resultCount.decrementAndGet();
+            batch.add(result);
+        }
+        batch.sort((first, second) -> Long.compare(first.linkId, second.linkId));
+        return batch;
+    }
+
+    private void write(List<Result> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (Result result : batch) {
+            PageMetadata metadata = result.metadata;
+            updates.add(new Object[]{
+                    metadata == null ? null : metadata.getTitle(),
+                    metadata == null ? null : metadata.getDescription(),
+                    metadata == null ? null : metadata.getCanonicalUrl(),
+                    metadata == null ? null : metadata.getFaviconUrl(),
+                    result.urlHash, now, result.linkId, result.urlHash});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_METADATA, updates);
+
+        List<Long> changed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] != 0 && batch.get(i).metadata != null) {
+                changed.add(batch.get(i).linkId);
+            }
+        }
+        if (!changed.isEmpty()) {
+            publishChanges(changed);
+        }
+    }
+
+    /**
+     * Publishes the links with new metadata as changes of their titles
+     */
+    private void publishChanges(List<Long> linkIds) {
+        Map<Long, Map<Long, List<Change>>> changesByUser = new HashMap<>();
+        for (Object[] owner : linkRepository.findOwnersByIdIn(linkIds)) {
+            changesByUser.computeIfAbsent((Long) owner[2], userId -> new HashMap<>())
+                    .computeIfAbsent((Long) owner[1], titleId -> new ArrayList<>())
+                    .add(Change.saved(KnowledgeTreeEntityType.LINK, (Long) owner[0]));
+        }
+        changesByUser.forEach((userId, changesByTitle) -> changesByTitle.forEach((titleId, changes) ->
+                applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId, changes))));
+    }
+
+    private static final class Result {
+
+        private final Long linkId;
+
+        private final long urlHash;
+
+        private final PageMetadata metadata;
+
+        private Result(Long linkId, long urlHash, PageMetadata metadata) {
+            this.linkId = linkId;
+            this.urlHash = urlHash;
+            this.metadata = metadata;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.webApp.service;
+
+import com.webApp.fetch.HostDispatcher;
+import com.webApp.fetch.LinkCheckResult;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.payload.LinkHealthResponse;
+import com.webApp.payload.LinkHealthTarget;
+import com.webApp.repository.LinkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds the links that stopped working. The scan walks the links in id order, in batches of
+ * {@code app.health.scan.batchSize}, and queues the ones not checked for
+ * {@code app.health.recheckAfterMs} while the queue has room, carrying on from the last queued link
+ * the next time. Links of a host that has {@code app.health.host.maxWaiting} checks waiting already
+ * are passed over, so that hosts with many links don't take the queue from the others. Once a pass
+ * reaches the last link the scan rests for {@code app.health.scan.passIntervalMs}, which bounds how
+ * late a new link, a link that became due or a link passed over is queued, rather than walking the
+ * links again every {@code app.health.scan.intervalMs}. The checks run on the threads of a
+ * {@link HostDispatcher} of their own, at most {@code app.health.concurrency} at once and one host
+ * at a time, so neither the request threads nor the connection pool wait on a slow site: the scan
+ * holds a connection for one keyset query, and the outcomes are written in JDBC batches of
+ * {@code app.health.flush.batchSize}.
+ * <p>
+ * A link that wasn't reachable, is gone (404, 410) or fails on the server side (5xx) failed its
+ * check. It is reported broken after {@code app.health.brokenAfterFailures} failed checks in a row,
+ * so that a site down for a moment doesn't show up. Other answers, like a 403 of a site refusing
+ * robots, don't tell that the page is gone and count as working.
+ */
+@Service
+@Slf4j
+public class LinkHealthService {
+
+    private static final String UPDATE_HEALTH =
+            "update link_health set status_code = ?, etag = ?, last_modified = ?, " +
+            "consecutive_failures = case when ? then consecutive_failures + 1 else 0 end, checked_at = ? " +
+            "where link_id = ?";
+
+    private static final String INSERT_HEALTH =
+            "insert into link_health (link_id, status_code, etag, last_modified, consecutive_failures, checked_at) " +
+            "select l.id, ?, ?, ?, ?, ? from links l " +
+            "where l.id = ? and not exists (select 1 from link_health h where h.link_id = l.id)";
+
+    private static final int UNREACHABLE = 0;
+
+    private final boolean enabled;
+
+    private final PageFetcher pageFetcher;
+
+    private final LinkRepository linkRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HostDispatcher dispatcher;
+
+    private final int scanBatchSize;
+
+    private final long scanPassIntervalMs;
+
+    private final long recheckAfterMs;
+
+    private final int flushBatchSize;
+
+    private final int brokenAfterFailures;
+
+    /**
+     * Links queued, being checked or waiting to be written, a link is never queued twice
+     */
+    private final Set<Long> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final Queue<Check> checks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger checkCount = new AtomicInteger();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile long scanAfterId;
+
+    private volatile long nextPassAt;
+
+    @Autowired
+    public LinkHealthService(PageFetcher pageFetcher,
+                             LinkRepository linkRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.health.enabled}") boolean enabled,
+                             @Value("${app.health.concurrency}") int concurrency,
+                             @Value("${app.health.host.maxConcurrent}") int maxPerHost,
+                             @Value("${app.health.host.minIntervalMs}") long minIntervalMs,
+                             @Value("${app.health.queue.capacity}") int capacity,
+                             @Value("${app.health.host.maxWaiting}") int maxWaitingPerHost,
+                             @Value("${app.health.scan.batchSize}") int scanBatchSize,
+                             @Value("${app.health.scan.passIntervalMs}") long scanPassIntervalMs,
+                             @Value("${app.health.recheckAfterMs}") long recheckAfterMs,
+                             @Value("${app.health.flush.batchSize}") int flushBatchSize,
+                             @Value("${app.health.brokenAfterFailures}") int brokenAfterFailures) {
+        this.pageFetcher = pageFetcher;
+        this.linkRepository = linkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.dispatcher = enabled
+                ? new HostDispatcher("link-checker", concurrency, maxPerHost, minIntervalMs, capacity,
+                        maxWaitingPerHost)
+                : null;
+        this.scanBatchSize = scanBatchSize;
+        this.scanPassIntervalMs = scanPassIntervalMs;
+        this.recheckAfterMs = recheckAfterMs;
+        this.flushBatchSize = flushBatchSize;
+        this.brokenAfterFailures = brokenAfterFailures;
+    }
+
+    /**
+     * Returns the user's links found broken, the latest checked first
+     */
+    @Transactional(readOnly = true)
+    public List<LinkHealthResponse> findBroken(Long userId, int limit) {
+        return linkRepository.findBrokenByUserId(userId, brokenAfterFailures, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Number of links queued, being checked or waiting to be written
+     */
+    public int pendingLinks() {
+        return inProgress.size();
+    }
+
+    /**
+     * Queues the links due for a check, as many as the queue has room for, unless the last pass
+     * ended less than {@code app.health.scan.passIntervalMs} ago. Returns the number of links
+     * queued.
+     */
+    @Scheduled(fixedDelayString = "${app.health.scan.intervalMs}",
+               initialDelayString = "${app.health.scan.initialDelayMs}")
+    public int scan() {
+        long now = System.currentTimeMillis();
+        if (!enabled || now < nextPassAt) {
+            return 0;
+        }
+        Date checkedBefore = new Date(now - recheckAfterMs);
+        int queued = 0;
+        int passedOver = 0;
+        int room;
+        while ((room = dispatcher.remainingCapacity()) > 0) {
+            int size = Math.min(room, scanBatchSize);
+            List<LinkHealthTarget> links = linkRepository.findHealthTargetsAfter(scanAfterId, checkedBefore,
+                    PageRequest.of(0, size));
+            for (LinkHealthTarget link : links) {
+                if (!inProgress.contains(link.getId())) {
+                    if (enqueue(link)) {
+                        queued++;
+                    } else if (dispatcher.remainingCapacity() == 0) {
+                        log.info("Queued {} links for a health check, the queue is full", queued);
+                        return queued;
+                    } else {
+                        // its host has enough checks waiting, the next pass queues it
+                        passedOver++;
+                    }
+                }
+                scanAfterId = link.getId();
+            }
+            if (links.size() < size) {
+                scanAfterId = 0;
+                nextPassAt = now + scanPassIntervalMs;
+                break;
+            }
+        }
+        if (queued > 0 || passedOver > 0) {
+            log.info("Queued {} links for a health check, passed over {} of busy hosts", queued, passedOver);
+        }
+        return queued;
+    }
+
+    /**
+     * Writes the outcomes of the checks done since the last flush. Returns the number of links
+     * written.
+     */
+    @Scheduled(fixedDelayString = "${app.health.flush.intervalMs}",
+               initialDelayString = "${app.health.flush.intervalMs}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            return write();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+            flush();
+        }
+    }
+
+    private boolean enqueue(LinkHealthTarget link) {
+        if (!inProgress.add(link.getId())) {
+            return true;
+        }
+        String host = HostDispatcher.hostOf(link.getLinkName());
+        if (host == null) {
+            addCheck(new Check(link.getId(), new LinkCheckResult(UNREACHABLE, null, null)));
+            return true;
+        }
+        if (!dispatcher.offer(host, () -> check(link))) {
+            inProgress.remove(link.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private void check(LinkHealthTarget link) {
+        LinkCheckResult result;
+        try {
+            result = pageFetcher.check(link.getLinkName().trim(), link.getEtag(), link.getLastModified());
+        } catch (IOException e) {
+            log.debug("Checking link {} at {} failed: {}", link.getId(), link.getLinkName(), e.toString());
+            result = new LinkCheckResult(UNREACHABLE, link.getEtag(), link.getLastModified());
+        }
+        addCheck(new Check(link.getId(), result));
+    }
+
+    /**
+     * Keeps the outcome for the next flush, or writes the batch right away once it is full
+     */
+    private void addCheck(Check check) {
+        checks.add(check);
+        if (checkCount.incrementAndGet() >= flushBatchSize && flushLock.tryLock()) {
+            try {
+                write();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private int write() {
+        int written = 0;
+        List<Check> batch;
+        while (!(batch = drain()).isEmpty()) {
+            List<Check> writing = batch;
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(writing));
+                written += writing.size();
+            } catch (DataAccessException e) {
+                log.warn("Writing the checks of {} links failed, the scan queues them again", writing.size(), e);
+            }
+            writing.forEach(check -> inProgress.remove(check.linkId));
+        }
+        return written;
+    }
+
+    private List<Check> drain() {
+        List<Check> batch = new ArrayList<>();
+        Check check;
+        while (batch.size() < flushBatchSize && (check = checks.poll()) != null) {
+            checkCount.decrementAndGet();
+            batch.add(check);
+        }
+        batch.sort((first, second) -> Long.compare(first.linkId, second.linkId));
+        return batch;
+    }
+
+    private void write(List<Check> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (Check check : batch) {
+            LinkCheckResult result = check.result;
+            updates.add(new Object[]{result.getStatusCode(), result.getEtag(), result.getLastModified(),
+                    isFailure(result.getStatusCode()), now, check.linkId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_HEALTH, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] == 0) {
+                LinkCheckResult result = batch.get(i).result;
+                inserts.add(new Object[]{result.getStatusCode(), result.getEtag(), result.getLastModified(),
+                        isFailure(result.getStatusCode()) ? 1 : 0, now, batch.get(i).linkId});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HEALTH, inserts);
+        }
+    }
+
+    private static boolean isFailure(int statusCode) {
+        return statusCode == UNREACHABLE || statusCode == 404 || statusCode == 410 || statusCode >= 500;
+    }
+
+    private static final class Check {
+
+        private final Long linkId;
+
+        private final LinkCheckResult result;
+
+        private Check(Long linkId, LinkCheckResult result) {
+            this.linkId = linkId;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.model.Link;
+import com.webApp.payload.BulkLinkItem;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.search.UserLinkIndexCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserts many links in one transaction. Link ids come from a pooled sequence, so Hibernate can
+ * group the inserts into JDBC batches of {@code hibernate.jdbc.batch_size}. The persistence context
+ * is flushed and cleared after every batch so that it doesn't grow with the size of the import.
+ */
+@Service
+@Slf4j
+public class LinkImportService {
+
+    private final CategoryRepository categoryRepository;
+
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityManager entityManager;
+
+    private final int batchSize;
+
+    @Autowired
+    public LinkImportService(CategoryRepository categoryRepository,
+                             UserLinkIndexCache userLinkIndexCache,
+                             ApplicationEventPublisher applicationEventPublisher,
+                             EntityManager entityManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Saves the links into the categories they reference, which must all belong to the user's
+     * title. Returns the ids of the new links in the order of the items.
+     */
+    @Transactional
+    public List<Long> importLinks(Long userId, Long titleId, List<BulkLinkItem> items) {
+        Set<Long> categoryIds = new HashSet<>();
+        items.forEach(item -> categoryIds.add(item.getCategoryId()));
+        checkCategoriesBelongToTitle(userId, titleId, categoryIds);
+
+        Map<Long, Long> linkCounts = new HashMap<>(categoryIds.size() * 2);
+        items.forEach(item -> linkCounts.merge(item.getCategoryId(), 1L, Long::sum));
+
+        List<Long> ids = new ArrayList<>(items.size());
+        List<Link> batch = new ArrayList<>(batchSize);
+        for (BulkLinkItem item : items) {
+            Link link = new Link(item.getLinkName());
+            link.setLinkDescription(item.getLinkDescription());
+            link.setCategory(entityManager.getReference(Category.class, item.getCategoryId()));
+            entityManager.persist(link);
+            batch.add(link);
+            if (batch.size() == batchSize) {
+                flush(batch, ids);
+            }
+        }
+        flush(batch, ids);
+        categoryRepository.addLinkCounts(linkCounts);
+        userLinkIndexCache.evictUser(userId);
+        List<Change> changes = new ArrayList<>(ids.size());
+        ids.forEach(id -> changes.add(Change.saved(KnowledgeTreeEntityType.LINK, id)));
+        applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId, changes));
+        log.info("Imported {} links into {} categories of title {}", ids.size(), categoryIds.size(), titleId);
+        return ids;
+    }
+
+    private void checkCategoriesBelongToTitle(Long userId, Long titleId, Set<Long> categoryIds) {
+        if (categoryIds.contains(null)) {
+            throw new NoSuchEntityException("Category id is missing");
+        }
+        Set<Long> found = new HashSet<>(categoryRepository.findIdsByUserIdAndTitleIdAndIdIn(userId, titleId, categoryIds));
+        for (Long categoryId : categoryIds) {
+            if (!found.contains(categoryId)) {
+                throw new NoSuchEntityException("Category not found with ID " + categoryId
+                        + " and title with ID " + titleId);
+            }
+        }
+    }
+
+    private void flush(List<Link> batch, List<Long> ids) {
+        entityManager.flush();
+        batch.forEach(link -> ids.add(link.getId()));
+        batch.clear();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.exception_handling.InvalidBulkOperationException;
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.search.UserLinkIndexCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves and deletes many links of a title at once. Each operation is a set-based UPDATE or DELETE
+ * whose WHERE clause checks that the links and categories belong to the title of the user, so
+ * nothing is loaded and ids of other users are simply not affected. The ids the statement will
+ * touch are selected beforehand with the same check, for the change log of syncing devices, and
+ * counted by category for the link counters of the categories, which are updated in the same
+ * transaction.
+ */
+@Service
+@Slf4j
+public class LinkReorganizationService {
+
+    private final LinkRepository linkRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public LinkReorganizationService(LinkRepository linkRepository,
+                                     CategoryRepository categoryRepository,
+                                     UserLinkIndexCache userLinkIndexCache,
+                                     ApplicationEventPublisher applicationEventPublisher) {
+        this.linkRepository = linkRepository;
+        this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Moves the links of the title into the target category of the same title. Returns the number
+     * of links moved, the ones already in the category or not in the title are left alone.
+     */
+    @Transactional
+    public int moveLinks(Long userId, Long titleId, Collection<Long> linkIds, Long targetCategoryId) {
+        checkCategoryExists(userId, titleId, targetCategoryId);
+        List<Long> owned = linkRepository.findOwnedIds(userId, titleId, linkIds);
+        int moved = 0;
+        if (!owned.isEmpty()) {
+            Map<Long, Long> linkCounts = countByCategory(owned, -1);
+            linkCounts.remove(targetCategoryId);
+            moved = linkRepository.moveOwned(userId, titleId, owned, targetCategoryId, new Date());
+            linkCounts.put(targetCategoryId, (long) moved);
+            categoryRepository.addLinkCounts(linkCounts);
+        }
+        publish(userId, titleId, owned, false);
+        log.info("Moved {} of {} links of title {} into category {}", moved, linkIds.size(), titleId, targetCategoryId);
+        return moved;
+    }
+
+    /**
+     * Deletes the links of the title. Returns the number of links deleted.
+     */
+    @Transactional
+    public int deleteLinks(Long userId, Long titleId, Collection<Long> linkIds) {
+        List<Long> owned = linkRepository.findOwnedIds(userId, titleId, linkIds);
+        int deleted = 0;
+        if (!owned.isEmpty()) {
+            Map<Long, Long> linkCounts = countByCategory(owned, -1);
+            deleted = linkRepository.deleteOwned(userId, titleId, owned);
+            categoryRepository.addLinkCounts(linkCounts);
+        }
+        publish(userId, titleId, owned, true);
+        log.info("Deleted {} of {} links of title {}", deleted, linkIds.size(), titleId);
+        return deleted;
+    }
+
+    /**
+     * Moves every link of the source category into the target one and deletes the source. Both
+     * categories must belong to the title. Returns the number of links moved.
+     */
+    @Transactional
+    public int mergeCategories(Long userId, Long titleId, Long sourceCategoryId, Long targetCategoryId) {
+        if (sourceCategoryId.equals(targetCategoryId)) {
+            throw new InvalidBulkOperationException("A category can't be merged into itself");
+        }
+        checkCategoryExists(userId, titleId, sourceCategoryId);
+        checkCategoryExists(userId, titleId, targetCategoryId);
+        List<Long> owned = linkRepository.findOwnedIdsByCategoryId(userId, titleId, sourceCategoryId);
+        int moved = linkRepository.moveAllOwned(userId, titleId, sourceCategoryId, targetCategoryId, new Date());
+        categoryRepository.deleteOwnedRowById(userId, titleId, sourceCategoryId);
+        categoryRepository.addLinkCount(targetCategoryId, moved);
+        userLinkIndexCache.evictUser(userId);
+
+        List<Change> changes = changes(owned, false);
+        changes.add(Change.deleted(KnowledgeTreeEntityType.CATEGORY, sourceCategoryId));
+        applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId, changes));
+        log.info("Merged category {} into category {} of title {} with {} links",
+                sourceCategoryId, targetCategoryId, titleId, moved);
+        return moved;
+    }
+
+    private void checkCategoryExists(Long userId, Long titleId, Long categoryId) {
+        if (!categoryRepository.existsByUserIdAndTitleIdAndId(userId, titleId, categoryId)) {
+            throw new NoSuchEntityException("Category not found with ID " + categoryId
+                    + " and title with ID " + titleId);
+        }
+    }
+
+    private Map<Long, Long> countByCategory(List<Long> linkIds, int sign) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : linkRepository.countByCategoryIdIn(linkIds)) {
+            counts.put((Long) row[0], sign * (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private void publish(Long userId, Long titleId, List<Long> linkIds, boolean deleted) {
+        if (!linkIds.isEmpty()) {
+            userLinkIndexCache.evictUser(userId);
+            applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId, changes(linkIds, deleted)));
+        }
+    }
+
+    private static List<Change> changes(List<Long> linkIds, boolean deleted) {
+        List<Change> changes = new ArrayList<>(linkIds.size() + 1);
+        for (Long linkId : linkIds) {
+            changes.add(deleted ? Change.deleted(KnowledgeTreeEntityType.LINK, linkId)
+                    : Change.saved(KnowledgeTreeEntityType.LINK, linkId));
+        }
+        return changes;
+    }
+}
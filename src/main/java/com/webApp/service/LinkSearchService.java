@@ -0,0 +1,57 @@
+package com.webApp.service;
+
+import com.webApp.payload.LinkSearchPage;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.search.LinkSearchEngine;
+import com.webApp.search.QueryTerms;
+import com.webApp.search.UserLinkIndexCache;
+import com.webApp.util.PageCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@Slf4j
+public class LinkSearchService {
+
+    private final LinkSearchEngine linkSearchEngine;
+
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    @Autowired
+    public LinkSearchService(LinkSearchEngine linkSearchEngine, UserLinkIndexCache userLinkIndexCache) {
+        this.linkSearchEngine = linkSearchEngine;
+        this.userLinkIndexCache = userLinkIndexCache;
+    }
+
+    /**
+     * Returns the page of the user's links matching the query that follows the cursor. As for link
+     * listing, one extra result is fetched to find out whether there is a next page.
+     */
+    public LinkSearchPage search(Long userId, String query, String cursor, int pageSize) {
+        PageCursor.Ranked after = PageCursor.decodeRanked(cursor);
+        List<String> terms = QueryTerms.parse(query);
+        if (terms.isEmpty()) {
+            return new LinkSearchPage(Collections.emptyList(), null);
+        }
+        List<LinkSearchResult> results = linkSearchEngine.search(userId, terms, after.getRank(), after.getId(),
+                pageSize + 1);
+        if (results.size() <= pageSize) {
+            return new LinkSearchPage(results, null);
+        }
+        List<LinkSearchResult> page = results.subList(0, pageSize);
+        LinkSearchResult last = page.get(pageSize - 1);
+        return new LinkSearchPage(page, PageCursor.encodeRanked(last.getRank(), last.getId()));
+    }
+
+    /**
+     * Returns the newest of the user's links matching the query as it is being typed: every term is
+     * a prefix. Answered from the in memory index of the user, which is loaded on the first call.
+     */
+    public List<LinkSearchResult> suggest(Long userId, String query, int limit) {
+        return userLinkIndexCache.search(userId, query, limit);
+    }
+}
@@ -1,13 +1,31 @@
 package com.webApp.service;
 
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeEntityType;
 import com.webApp.model.Link;
+import com.webApp.payload.LinkPage;
+import com.webApp.payload.LinkResponse;
+import com.webApp.payload.LinkUsageResponse;
+import com.webApp.repository.CategoryRepository;
 import com.webApp.repository.LinkRepository;
+import com.webApp.search.UserLinkIndexCache;
+import com.webApp.util.PageCursor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -15,16 +33,63 @@ public class LinkService {
 
     private final LinkRepository linkRepository;
 
+    private final CategoryRepository categoryRepository;
+
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final LinkEnrichmentService linkEnrichmentService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired
-    public LinkService(LinkRepository linkRepository) {
+    public LinkService(LinkRepository linkRepository, CategoryRepository categoryRepository,
+                       UserLinkIndexCache userLinkIndexCache, LinkEnrichmentService linkEnrichmentService,
+                       ApplicationEventPublisher applicationEventPublisher) {
 
         this.linkRepository = linkRepository;
+        this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.linkEnrichmentService = linkEnrichmentService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public List<Link> findByCategoryId(Long categoryId) {
         return linkRepository.findByCategoryId(categoryId);
     }
 
+    @Transactional(readOnly = true)
+    public List<LinkResponse> findResponsesByCategoryId(Long categoryId) {
+        return linkRepository.findResponsesByCategoryId(categoryId);
+    }
+
+    /**
+     * Returns the page of links following the cursor. One extra row is fetched to find out
+     * whether there is a next page without a count query.
+     */
+    @Transactional(readOnly = true)
+    public LinkPage findPageByCategoryId(Long categoryId, String cursor, int pageSize) {
+        long afterId = PageCursor.decode(cursor);
+        List<LinkResponse> links = linkRepository.findPageByCategoryId(categoryId, afterId,
+                PageRequest.of(0, pageSize + 1));
+        if (links.size() <= pageSize) {
+            return new LinkPage(links, null);
+        }
+        List<LinkResponse> page = links.subList(0, pageSize);
+        return new LinkPage(page, PageCursor.encode(page.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * Hands every link of the category to the consumer, one row at a time, while the database
+     * cursor stays open. Nothing is kept in the persistence context so memory doesn't depend
+     * on the size of the category.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCategoryId(Long categoryId, Consumer<LinkResponse> consumer) {
+        try (Stream<LinkResponse> links = linkRepository.streamByCategoryId(categoryId)) {
+            links.forEach(consumer);
+        }
+    }
+
     public List<Link> findAllLinks() {
         log.info("In LinkService find all links");
         return linkRepository.findAll();
@@ -35,17 +100,74 @@ public class LinkService {
         return linkRepository.findById(id);
     }
 
+    /**
+     * Saves the link and moves it from the link counter of its previous category, if any, to the
+     * counter of its category in the same transaction
+     */
+    @Transactional
     public Link saveLink(Link link) {
         log.info("Save {}", link);
-        return linkRepository.save(link);
+        Long previousCategoryId = link.getId() == null ? null
+                : linkRepository.findCategoryIdById(link.getId()).orElse(null);
+        Link savedLink = linkRepository.save(link);
+        userLinkIndexCache.onLinkSaved(savedLink);
+        if (savedLink != null) {
+            Long categoryId = savedLink.getCategory() == null ? null : savedLink.getCategory().getId();
+            if (!Objects.equals(previousCategoryId, categoryId)) {
+                Map<Long, Long> deltas = new HashMap<>(4);
+                if (previousCategoryId != null) {
+                    deltas.put(previousCategoryId, -1L);
+                }
+                if (categoryId != null) {
+                    deltas.put(categoryId, 1L);
+                }
+                categoryRepository.addLinkCounts(deltas);
+            }
+            publishChange(link.getCategory(), Change.saved(KnowledgeTreeEntityType.LINK, savedLink.getId()));
+            linkEnrichmentService.enqueueAfterCommit(savedLink.getId(), savedLink.getLinkName());
+        }
+        return savedLink;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean existsByUserIdAndId(Long userId, Long linkId) {
+        return linkRepository.existsByUserIdAndId(userId, linkId);
+    }
+
+    /**
+     * Returns the user's links opened the most, as of the last flush of the opens
+     */
+    @Transactional(readOnly = true)
+    public List<LinkUsageResponse> findMostUsed(Long userId, int limit) {
+        return linkRepository.findMostUsedByUserId(userId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Returns the user's links opened last, as of the last flush of the opens
+     */
+    @Transactional(readOnly = true)
+    public List<LinkUsageResponse> findRecentlyUsed(Long userId, int limit) {
+        return linkRepository.findRecentlyUsedByUserId(userId, PageRequest.of(0, limit));
     }
 
     public Optional<Link> findByCategoryIdAndLinkId(Long linkId, Long categoryId) {
         return linkRepository.findByIdAndCategoryId(linkId,categoryId);
     }
 
+    @Transactional
     public void deleteLinkById(Long id) {
         log.info("Delete by id {}", id);
+        Optional<Category> category = linkRepository.findById(id).map(Link::getCategory);
         linkRepository.deleteById(id);
+        category.ifPresent(owner -> categoryRepository.addLinkCount(owner.getId(), -1));
+        userLinkIndexCache.onLinkDeleted(id);
+        category.ifPresent(owner -> publishChange(owner, Change.deleted(KnowledgeTreeEntityType.LINK, id)));
+    }
+
+    private void publishChange(Category category, Change change) {
+        if (category != null && category.getTitle() != null && category.getTitle().getUser() != null) {
+            applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(
+                    category.getTitle().getUser().getId(), category.getTitle().getId(), change));
+        }
     }
 }
@@ -0,0 +1,200 @@
+package com.webApp.service;
+
+import com.webApp.archive.BlobLocation;
+import com.webApp.archive.BlobStore;
+import com.webApp.archive.StagedBlob;
+import com.webApp.exception_handling.BlobTooLargeException;
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.fetch.HostDispatcher;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.LinkSnapshot;
+import com.webApp.model.SnapshotSource;
+import com.webApp.payload.LinkSnapshotResponse;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.LinkSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Archives copies of the pages of links, so that users keep the content they saved once the page is
+ * gone. A copy is uploaded by the client or captured by fetching the page, on the threads of a
+ * {@link HostDispatcher} of its own, where at most {@code app.archive.capture.host.maxWaiting}
+ * captures of one host wait so that a site many links point to can't fill the queue. Either way the
+ * content streams into the {@link BlobStore} and is never held on the heap: it is staged while its
+ * SHA-256 is computed, and only appended to the store when no snapshot has the same content yet,
+ * otherwise the new snapshot shares the bytes of that one. Two snapshots of the same new content
+ * stored at once may both append it, which only costs the space of one copy. Every new snapshot is
+ * queued for the {@link PageTextIndexService} so that search finds the link by the text of its
+ * page.
+ */
+@Service
+@Slf4j
+public class LinkSnapshotService {
+
+    private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
+    private final BlobStore blobStore;
+
+    private final PageFetcher pageFetcher;
+
+    private final LinkSnapshotRepository linkSnapshotRepository;
+
+    private final LinkRepository linkRepository;
+
+    private final PageTextIndexService pageTextIndexService;
+
+    private final HostDispatcher dispatcher;
+
+    private final long maxBytes;
+
+    /**
+     * Links with a capture queued or running, a link is never captured twice at once
+     */
+    private final Set<Long> capturing = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public LinkSnapshotService(BlobStore blobStore,
+                               PageFetcher pageFetcher,
+                               LinkSnapshotRepository linkSnapshotRepository,
+                               LinkRepository linkRepository,
+                               PageTextIndexService pageTextIndexService,
+                               @Value("${app.archive.maxBytes}") long maxBytes,
+                               @Value("${app.archive.capture.concurrency}") int concurrency,
+                               @Value("${app.archive.capture.host.minIntervalMs}") long minIntervalMs,
+                               @Value("${app.archive.capture.queue.capacity}") int capacity,
+                               @Value("${app.archive.capture.host.maxWaiting}") int maxWaitingPerHost) {
+        this.blobStore = blobStore;
+        this.pageFetcher = pageFetcher;
+        this.linkSnapshotRepository = linkSnapshotRepository;
+        this.linkRepository = linkRepository;
+        this.pageTextIndexService = pageTextIndexService;
+        this.maxBytes = maxBytes;
+        this.dispatcher = new HostDispatcher("page-archiver", concurrency, 1, minIntervalMs, capacity,
+                maxWaitingPerHost);
+    }
+
+    /**
+     * Archives the content uploaded for the link. Fails with a {@link BlobTooLargeException} when
+     * it is larger than {@code app.archive.maxBytes}.
+     */
+    public LinkSnapshotResponse upload(Long linkId, InputStream content, String contentType) throws IOException {
+        LinkSnapshot snapshot = store(linkId, blobStore.stage(content, maxBytes), contentType, SnapshotSource.UPLOAD);
+        return new LinkSnapshotResponse(snapshot.getId(), snapshot.getLinkId(), snapshot.getSha256(),
+                snapshot.getRawLength(), snapshot.getContentType(), snapshot.getSource(), snapshot.getCapturedAt());
+    }
+
+    /**
+     * Queues a capture of the page of the user's link. Returns false when the queue is full or the
+     * host of the link has enough captures waiting. A link whose capture is already queued isn't
+     * queued again.
+     */
+    public boolean capture(Long userId, Long linkId) {
+        String url = linkRepository.findLinkNameByUserIdAndId(userId, linkId)
+                .orElseThrow(() -> new NoSuchEntityException("Link not found with ID " + linkId));
+        if (!capturing.add(linkId)) {
+            return true;
+        }
+        String host = HostDispatcher.hostOf(url);
+        if (host == null) {
+            log.debug("Link {} at {} has no host to capture", linkId, url);
+            capturing.remove(linkId);
+            return true;
+        }
+        if (!dispatcher.offer(host, () -> fetch(linkId, url.trim()))) {
+            capturing.remove(linkId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of captures queued or running
+     */
+    public int pendingCaptures() {
+        return capturing.size();
+    }
+
+    /**
+     * Returns the snapshots of the user's link, the latest first
+     */
+    @Transactional(readOnly = true)
+    public List<LinkSnapshotResponse> findSnapshots(Long userId, Long linkId) {
+        return linkSnapshotRepository.findResponsesByUserIdAndLinkId(userId, linkId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LinkSnapshot> findSnapshot(Long userId, Long linkId, Long snapshotId) {
+        return linkSnapshotRepository.findByUserIdAndLinkIdAndId(userId, linkId, snapshotId);
+    }
+
+    /**
+     * Opens the content of the snapshot
+     */
+    public InputStream open(LinkSnapshot snapshot) throws IOException {
+        return blobStore.open(snapshot.getLocation());
+    }
+
+    /**
+     * Sends the content of the snapshot gzip compressed, as it is stored
+     */
+    public void transferCompressed(LinkSnapshot snapshot, WritableByteChannel target) throws IOException {
+        blobStore.transferCompressed(snapshot.getLocation(), target);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    private void fetch(Long linkId, String url) {
+        try {
+            LinkSnapshot snapshot = pageFetcher.fetchPage(url, (body, contentType, pageUrl) ->
+                    store(linkId, blobStore.stage(body, maxBytes), contentType, SnapshotSource.FETCH));
+            if (snapshot == null) {
+                log.debug("Link {} at {} didn't answer with a page to capture", linkId, url);
+            }
+        } catch (IOException | BlobTooLargeException | DataAccessException e) {
+            log.debug("Capturing link {} at {} failed: {}", linkId, url, e.toString());
+        } finally {
+            capturing.remove(linkId);
+        }
+    }
+
+    private LinkSnapshot store(Long linkId, StagedBlob blob, String contentType, SnapshotSource source)
+            throws IOException {
+        Optional<LinkSnapshot> same = linkSnapshotRepository.findFirstBySha256(blob.getSha256());
+        BlobLocation location;
+        if (same.isPresent()) {
+            blob.discard();
+            location = same.get().getLocation();
+        } else {
+            location = blobStore.append(blob);
+        }
+        LinkSnapshot snapshot = linkSnapshotRepository.save(new LinkSnapshot(linkId, blob.getSha256(), location,
+                truncate(contentType), source));
+        pageTextIndexService.enqueue(linkId, snapshot.getId());
+        return snapshot;
+    }
+
+    private static String truncate(String contentType) {
+        if (contentType == null) {
+            return "text/html";
+        }
+        return contentType.length() > MAX_CONTENT_TYPE_LENGTH
+                ? contentType.substring(0, MAX_CONTENT_TYPE_LENGTH)
+                : contentType;
+    }
+}
@@ -0,0 +1,179 @@
+package com.webApp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the opens of links in memory and writes them to the {@code link_usage} table in batches,
+ * so that a click costs no write of its own. Every opened link gets a {@link LongAdder}, whose
+ * cells keep concurrent clicks on a popular link from contending on a single counter.
+ * <p>
+ * Every {@code app.usage.flush.intervalMs} the counters are drained and their deltas applied in
+ * link id order, in transactions of {@code app.usage.flush.batchSize} links: a batch of UPDATEs
+ * adds them to the existing rows, and the links opened for the first time get a row with a batch
+ * of INSERTs, which skip the links deleted meanwhile. A failed batch is put back into the counters
+ * for the next flush. The buffer is flushed once more when the application shuts down, so only
+ * the opens of the last interval are lost if the process dies.
+ */
+@Service
+@Slf4j
+public class LinkUsageService {
+
+    private static final String UPDATE_USAGE =
+            "update link_usage set open_count = open_count + ?, " +
+            "last_opened_at = case when last_opened_at < cast(? as timestamp) then cast(? as timestamp) " +
+            "else last_opened_at end " +
+            "where link_id = ?";
+
+    private static final String INSERT_USAGE =
+            "insert into link_usage (link_id, open_count, last_opened_at) " +
+            "select l.id, cast(? as bigint), cast(? as timestamp) from links l " +
+            "where l.id = ? and not exists (select 1 from link_usage u where u.link_id = l.id)";
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    @Autowired
+    public LinkUsageService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.usage.flush.batchSize}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public void recordOpen(Long linkId) {
+        Counter counter = counters.computeIfAbsent(linkId, id -> new Counter());
+        counter.opens.increment();
+        counter.lastOpenedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Number of links with opens not written yet
+     */
+    public int pendingLinks() {
+        return counters.size();
+    }
+
+    /**
+     * Writes the opens counted since the last flush. Returns the number of links written.
+     */
+    @Scheduled(fixedDelayString = "${app.usage.flush.intervalMs}",
+               initialDelayString = "${app.usage.flush.intervalMs}")
+    public synchronized int flush() {
+        List<Delta> deltas = drain();
+        int written = 0;
+        for (int from = 0; from < deltas.size(); from += batchSize) {
+            List<Delta> batch = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                written += batch.size();
+            } catch (DataAccessException e) {
+                log.warn("Writing the opens of {} links failed, they are kept for the next flush", batch.size(), e);
+                batch.forEach(this::restore);
+            }
+        }
+        if (written > 0) {
+            log.debug("Flushed the opens of {} links", written);
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        log.info("Flushed the opens of {} links on shutdown, {} left", written, counters.size());
+    }
+
+    /**
+     * Takes the opens out of the counters, in link id order. A counter that saw no open since the
+     * previous flush is removed, an open racing with its removal may be lost.
+     */
+    private List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        Iterator<Map.Entry<Long, Counter>> entries = counters.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Counter> entry = entries.next();
+            Counter counter = entry.getValue();
+            long opens = counter.opens.sumThenReset();
+            if (opens == 0) {
+                counters.remove(entry.getKey(), counter);
+            } else {
+                deltas.add(new Delta(entry.getKey(), opens, counter.lastOpenedAt));
+            }
+        }
+        deltas.sort((first, second) -> Long.compare(first.linkId, second.linkId));
+        return deltas;
+    }
+
+    private void write(List<Delta> batch) {
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (Delta delta : batch) {
+            Timestamp openedAt = new Timestamp(delta.lastOpenedAt);
+            updates.add(new Object[]{delta.opens, openedAt, openedAt, delta.linkId});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_USAGE, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] == 0) {
+                Delta delta = batch.get(i);
+                inserts.add(new Object[]{delta.opens, new Timestamp(delta.lastOpenedAt), delta.linkId});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USAGE, inserts);
+        }
+    }
+
+    private void restore(Delta delta) {
+        Counter counter = counters.computeIfAbsent(delta.linkId, id -> new Counter());
+        counter.opens.add(delta.opens);
+        if (counter.lastOpenedAt < delta.lastOpenedAt) {
+            counter.lastOpenedAt = delta.lastOpenedAt;
+        }
+    }
+
+    private static final class Counter {
+
+        private final LongAdder opens = new LongAdder();
+
+        private volatile long lastOpenedAt;
+    }
+
+    private static final class Delta {
+
+        private final Long linkId;
+
+        private final long opens;
+
+        private final long lastOpenedAt;
+
+        private Delta(Long linkId, long opens, long lastOpenedAt) {
+            this.linkId = linkId;
+            this.opens = opens;
+            this.lastOpenedAt = lastOpenedAt;
+        }
+    }
+}
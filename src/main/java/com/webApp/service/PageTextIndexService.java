@@ -0,0 +1,258 @@
+package com.webApp.service;
+
+import com.webApp.archive.BlobStore;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.LinkSnapshot;
+import com.webApp.repository.LinkSnapshotRepository;
+import com.webApp.util.HtmlTextExtractor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Makes the text of archived pages searchable. Every new snapshot queues its link, and the queue is
+ * written every {@code app.search.pageText.refreshIntervalMs}, or by the background writer as soon
+ * as {@code app.search.pageText.batchSize} links are waiting, never on the thread that saved the
+ * snapshot: the text of each page is extracted from the {@link BlobStore} and the batch is written
+ * to {@code link_page_text} with JDBC batches in one transaction. On Postgres a trigger folds the
+ * text into the search vector of the link, so a saved page can be found by its content within the
+ * refresh interval, with a single commit per batch. A link is queued once however many snapshots it
+ * gets in the meantime, with the latest one, and the text of an older snapshot never replaces the
+ * text of a newer one.
+ * <p>
+ * Snapshots whose text wasn't written, because the queue was lost in a restart, are found and
+ * queued again by the sweep.
+ */
+@Service
+@Slf4j
+public class PageTextIndexService {
+
+    private static final String UPDATE_TEXT =
+            "update link_page_text set snapshot_id = ?, content = ?, indexed_at = ? " +
+            "where link_id = ? and snapshot_id < ?";
+
+    private static final String INSERT_TEXT =
+            "insert into link_page_text (link_id, snapshot_id, content, indexed_at) " +
+            "select l.id, ?, ?, ? from links l " +
+            "where l.id = ? and not exists (select 1 from link_page_text p where p.link_id = l.id)";
+
+    private final boolean enabled;
+
+    private final BlobStore blobStore;
+
+    private final LinkSnapshotRepository linkSnapshotRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxChars;
+
+    private final int sweepBatchSize;
+
+    /**
+     * Latest snapshot of every queued link
+     */
+    private final Map<Long, Long> queued = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * Writes the queue once a batch is full, a single write is signalled at a time
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-text-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean writeSignalled = new AtomicBoolean();
+
+    private volatile long sweepAfterLinkId;
+
+    @Autowired
+    public PageTextIndexService(BlobStore blobStore,
+                                LinkSnapshotRepository linkSnapshotRepository,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.search.pageText.enabled}") boolean enabled,
+                                @Value("${app.search.pageText.batchSize}") int batchSize,
+                                @Value("${app.search.pageText.maxChars}") int maxChars,
+                                @Value("${app.search.pageText.sweep.batchSize}") int sweepBatchSize) {
+        this.blobStore = blobStore;
+        this.linkSnapshotRepository = linkSnapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxChars = maxChars;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Queues the text of the snapshot to be written, in place of any older snapshot of its link
+     * still waiting. Signals the background writer once a batch is full.
+     */
+    public void enqueue(Long linkId, Long snapshotId) {
+        if (!enabled) {
+            return;
+        }
+        queued.merge(linkId, snapshotId, Math::max);
+        if (queued.size() >= batchSize && writeSignalled.compareAndSet(false, true)) {
+            try {
+                writer.execute(() -> {
+                    writeSignalled.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                // shutting down, the last flush writes the queue
+                writeSignalled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Number of links waiting for their text to be written
+     */
+    public int pendingLinks() {
+        return queued.size();
+    }
+
+    /**
+     * Writes the text of the queued snapshots. Returns the number of links written.
+     */
+    @Scheduled(fixedDelayString = "${app.search.pageText.refreshIntervalMs}",
+               initialDelayString = "${app.search.pageText.refreshIntervalMs}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            return write();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Queues a batch of the links whose latest snapshot has no text written, carrying on from the
+     * last one the next time. Returns the number of links queued.
+     */
+    @Scheduled(fixedDelayString = "${app.search.pageText.sweep.intervalMs}",
+               initialDelayString = "${app.search.pageText.sweep.initialDelayMs}")
+    public int sweep() {
+        if (!enabled) {
+            return 0;
+        }
+        List<Object[]> snapshots = linkSnapshotRepository.findNotIndexedAfter(sweepAfterLinkId,
+                PageRequest.of(0, sweepBatchSize));
+        for (Object[] snapshot : snapshots) {
+            enqueue((Long) snapshot[0], (Long) snapshot[1]);
+            sweepAfterLinkId = (Long) snapshot[0];
+        }
+        if (snapshots.size() < sweepBatchSize) {
+            sweepAfterLinkId = 0;
+        }
+        if (!snapshots.isEmpty()) {
+            log.info("Queued the page text of {} links", snapshots.size());
+        }
+        return snapshots.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        flush();
+    }
+
+    private int write() {
+        int written = 0;
+        Map<Long, Long> batch;
+        while (!(batch = drain()).isEmpty()) {
+            List<Object[]> texts = extract(batch);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(texts));
+                written += texts.size();
+            } catch (DataAccessException e) {
+                log.warn("Writing the page text of {} links failed, the sweep queues them again", texts.size(), e);
+            }
+        }
+        return written;
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> batch = new HashMap<>();
+        Iterator<Long> links = queued.keySet().iterator();
+        while (batch.size() < batchSize && links.hasNext()) {
+            Long linkId = links.next();
+            Long snapshotId = queued.remove(linkId);
+            if (snapshotId != null) {
+                batch.put(linkId, snapshotId);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Reads the text of the snapshots out of the blob store, as rows of link id, snapshot id and
+     * text sorted by link id
+     */
+    private List<Object[]> extract(Map<Long, Long> batch) {
+        List<Object[]> texts = new ArrayList<>(batch.size());
+        for (LinkSnapshot snapshot : linkSnapshotRepository.findAllById(batch.values())) {
+            try (Reader reader = new InputStreamReader(blobStore.open(snapshot.getLocation()),
+                    PageFetcher.charset(snapshot.getContentType()))) {
+                String text = new HtmlTextExtractor(reader, maxChars).extract();
+                texts.add(new Object[]{snapshot.getLinkId(), snapshot.getId(), text});
+            } catch (IOException e) {
+                log.warn("Reading snapshot {} of link {} failed", snapshot.getId(), snapshot.getLinkId(), e);
+            }
+        }
+        texts.sort((first, second) -> Long.compare((Long) first[0], (Long) second[0]));
+        return texts;
+    }
+
+    private void write(List<Object[]> texts) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> updates = new ArrayList<>(texts.size());
+        for (Object[] text : texts) {
+            updates.add(new Object[]{text[1], text[2], now, text[0], text[1]});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_TEXT, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            if (updated[i] == 0) {
+                Object[] text = texts.get(i);
+                inserts.add(new Object[]{text[1], text[2], now, text[0]});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TEXT, inserts);
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.webApp.service;
 
 
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
 import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeEntityType;
 import com.webApp.model.Title;
+import com.webApp.model.User;
 import com.webApp.repository.CategoryRepository;
 import com.webApp.repository.TitleRepository;
+import com.webApp.search.UserLinkIndexCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 
 @Service
@@ -23,10 +31,25 @@ public class TitleService {
 
     private final CategoryRepository categoryRepository;
 
+    private final UserLinkIndexCache userLinkIndexCache;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final KnowledgeTreeDeletionService knowledgeTreeDeletionService;
+
+    private final CategoryProvisioningService categoryProvisioningService;
+
     @Autowired
-    public TitleService(TitleRepository titleRepository, CategoryRepository categoryRepository) {
+    public TitleService(TitleRepository titleRepository, CategoryRepository categoryRepository,
+                        UserLinkIndexCache userLinkIndexCache, ApplicationEventPublisher applicationEventPublisher,
+                        KnowledgeTreeDeletionService knowledgeTreeDeletionService,
+                        CategoryProvisioningService categoryProvisioningService) {
         this.titleRepository = titleRepository;
         this.categoryRepository = categoryRepository;
+        this.userLinkIndexCache = userLinkIndexCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.knowledgeTreeDeletionService = knowledgeTreeDeletionService;
+        this.categoryProvisioningService = categoryProvisioningService;
     }
 
     public List<Title> findAllTitles() {
@@ -36,28 +59,77 @@ public class TitleService {
 
     public Optional<Title> findTitleById(Long titleId) {
         log.info("Found by id {}", titleId);
-        return titleRepository.findById(titleId);
+        return titleRepository.findById(titleId).filter(title -> title.getDeletedAt() == null);
     }
 
+    /**
+     * Creates the title of its user with the categories of the user's template
+     */
     @Transactional
     public Title saveTitle(Title title) {
         log.info("Save {}", title);
-        Set<Category> categories = Set.of(new Category("Articles"),
-                    new Category( "Videos"),
-                    new Category( "Books"),
-                    new Category( "Useful links"));
-        categories.forEach(category -> category.setTitle(title));
-        title.setCategories(categories);
-        return titleRepository.save(title);
+        Title savedTitle = titleRepository.save(title);
+        if (savedTitle != null && title.getUser() != null) {
+            List<Category> categories = categoryProvisioningService.provision(title.getUser().getId(),
+                    Collections.singletonList(savedTitle));
+            publishCreated(title.getUser().getId(), savedTitle.getId(), Collections.singletonList(savedTitle), categories);
+        }
+        return savedTitle;
+    }
+
+    /**
+     * Creates the titles of the user with the categories of the user's template. The titles, then
+     * all of their categories, are inserted in JDBC batches and published as a single change.
+     */
+    @Transactional
+    public List<Title> saveTitles(User user, List<Title> titles) {
+        titles.forEach(title -> title.setUser(user));
+        List<Title> savedTitles = titleRepository.saveAll(titles);
+        List<Category> categories = categoryProvisioningService.provision(user.getId(), savedTitles);
+        publishCreated(user.getId(), null, savedTitles, categories);
+        log.info("Created {} titles with {} categories for user {}", savedTitles.size(), categories.size(), user.getId());
+        return savedTitles;
     }
 
+    /**
+     * Renames the user's title with a single column update. Its categories aren't loaded or
+     * touched. Returns false if the user has no such title.
+     */
+    @Transactional
+    public boolean updateTitle(Long userId, Long titleId, String name) {
+        log.info("Update title {} with name {}", titleId, name);
+        if (titleRepository.updateName(userId, titleId, name, new Date()) == 0) {
+            return false;
+        }
+        userLinkIndexCache.evictTitle(titleId);
+        applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId,
+                Change.saved(KnowledgeTreeEntityType.TITLE, titleId)));
+        return true;
+    }
+
+    /**
+     * Deletes the title with set-based statements, or hides it until the purge job removes it if
+     * it is too large. Either way it is gone for the user's devices from now on.
+     */
+    @Transactional
     public void deleteTitleById(Long titleId) {
         log.info("Delete by id {}", titleId);
-        titleRepository.deleteById(titleId);
+        Optional<Long> userId = titleRepository.findUserIdById(titleId);
+        knowledgeTreeDeletionService.deleteTitle(titleId);
+        userLinkIndexCache.evictTitle(titleId);
+        userId.ifPresent(id -> applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(id, titleId,
+                Change.deleted(KnowledgeTreeEntityType.TITLE, titleId))));
     }
 
     public List<Title> findAllByUserId(Long userId) {
         return titleRepository.findAllByUserId(userId);
     }
 
+    private void publishCreated(Long userId, Long titleId, List<Title> titles, List<Category> categories) {
+        List<Change> changes = new ArrayList<>(titles.size() + categories.size());
+        titles.forEach(title -> changes.add(Change.saved(KnowledgeTreeEntityType.TITLE, title.getId())));
+        categories.forEach(category -> changes.add(Change.saved(KnowledgeTreeEntityType.CATEGORY, category.getId())));
+        applicationEventPublisher.publishEvent(new OnKnowledgeTreeChangeEvent(userId, titleId, changes));
+    }
+
 }
@@ -0,0 +1,41 @@
+package com.webApp.util;
+
+import com.webApp.model.KnowledgeTreeVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Answers the conditional GET requests on the user's titles, categories and links. The resources
+ * are validated against the {@link KnowledgeTreeVersion} of the user instead of their content, so a
+ * 304 costs a primary key lookup and nothing is loaded or serialized.
+ */
+public final class ConditionalRequests {
+
+    /**
+     * Lets clients store the responses but makes them revalidate every time, instead of the
+     * no-store header Spring Security adds by default
+     */
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Sets the ETag and Last-Modified headers of the version and returns true, with the status set
+     * to 304, if the request's If-None-Match or If-Modified-Since show the client is up to date.
+     * The handler then returns null and writes no body.
+     */
+    public static boolean checkNotModified(WebRequest request, KnowledgeTreeVersion version) {
+        if (request instanceof ServletWebRequest) {
+            HttpServletResponse response = ((ServletWebRequest) request).getResponse();
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            }
+        }
+        return request.checkNotModified(version.getETag(), version.getLastModifiedMillis());
+    }
+}
@@ -0,0 +1,312 @@
+package com.webApp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Single pass parser reading the metadata of a page out of its head:
+ * <ul>
+ *     <li>the title, or the og:title property</li>
+ *     <li>the description meta, or the og:description property</li>
+ *     <li>the canonical link, or the og:url property</li>
+ *     <li>the icon link, or {@code /favicon.ico} of the page's host</li>
+ * </ul>
+ * Like {@link NetscapeBookmarkParser} the input is read one character at a time and no document
+ * tree is built. Reading stops at {@code </head>}, at the start of the body or after
+ * {@code maxChars} characters, so the body of the page is never downloaded when the caller closes
+ * the connection right after. Scripts and styles are skipped as raw text.
+ */
+public class HtmlHeadParser {
+
+    public static final int MAX_TITLE_LENGTH = 300;
+
+    public static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    public static final int MAX_URL_LENGTH = 2048;
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+
+    private final int maxChars;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final StringBuilder tagName = new StringBuilder();
+
+    private final StringBuilder attributeName = new StringBuilder();
+
+    private final StringBuilder attributeValue = new StringBuilder();
+
+    private final Map<String, String> attributes = new HashMap<>();
+
+    private int consumed;
+
+    private boolean done;
+
+    private String title;
+
+    private String ogTitle;
+
+    private String description;
+
+    private String ogDescription;
+
+    private String canonicalUrl;
+
+    private String ogUrl;
+
+    private String faviconUrl;
+
+    public HtmlHeadParser(Reader reader, int maxChars) {
+        this.reader = reader;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Parses the head, the relative urls in it are resolved against the url of the page
+     */
+    public PageMetadata parse(URL pageUrl) throws IOException {
+        int c;
+        while (!done && (c = read()) != EOF) {
+            if (c == '<') {
+                readTag();
+            }
+        }
+        return new PageMetadata(
+                clean(title != null ? title : ogTitle, MAX_TITLE_LENGTH),
+                clean(description != null ? description : ogDescription, MAX_DESCRIPTION_LENGTH),
+                resolve(pageUrl, canonicalUrl != null ? canonicalUrl : ogUrl),
+                resolve(pageUrl, faviconUrl != null ? faviconUrl : "/favicon.ico"));
+    }
+
+    private void readTag() throws IOException {
+        int c = read();
+        if (c == '!' || c == '?') {
+            skipDeclaration(c);
+            return;
+        }
+        boolean closing = c == '/';
+        if (closing) {
+            c = read();
+        }
+        tagName.setLength(0);
+        attributes.clear();
+        while (c != EOF && c != '>' && !Character.isWhitespace(c) && c != '/') {
+            append(tagName, Character.toUpperCase(c));
+            c = read();
+        }
+        if (c != '>' && c != EOF) {
+            readAttributes();
+        }
+        onTag(tagName.toString(), closing);
+    }
+
+    private void onTag(String tag, boolean closing) throws IOException {
+        switch (tag) {
+            case "TITLE":
+                if (!closing) {
+                    String value = readRawText("title", true);
+                    if (title == null) {
+                        title = value;
+                    }
+                }
+                break;
+            case "SCRIPT":
+            case "STYLE":
+                if (!closing) {
+                    readRawText(tag, false);
+                }
+                break;
+            case "META":
+                onMeta();
+                break;
+            case "LINK":
+                onLink();
+                break;
+            case "HEAD":
+                done = closing;
+                break;
+            case "BODY":
+                done = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onMeta() {
+        String content = attributes.get("content");
+        if (content == null) {
+            return;
+        }
+        String name = lowerCase(attributes.get("name"));
+        String property = lowerCase(attributes.get("property"));
+        if ("description".equals(name) && description == null) {
+            description = content;
+        } else if ("og:title".equals(property) && ogTitle == null) {
+            ogTitle = content;
+        } else if ("og:description".equals(property) && ogDescription == null) {
+            ogDescription = content;
+        } else if ("og:url".equals(property) && ogUrl == null) {
+            ogUrl = content;
+        }
+    }
+
+    private void onLink() {
+        String rel = lowerCase(attributes.get("rel"));
+        String href = attributes.get("href");
+        if (rel == null || href == null) {
+            return;
+        }
+        for (String type : rel.trim().split("\\s+")) {
+            if ("canonical".equals(type) && canonicalUrl == null) {
+                canonicalUrl = href;
+            } else if ("icon".equals(type) && faviconUrl == null) {
+                faviconUrl = href;
+            }
+        }
+    }
+
+    /**
+     * Reads the attributes up to the end of the tag, the names are lower-cased
+     */
+    private void readAttributes() throws IOException {
+        int c = read();
+        while (c != EOF && c != '>') {
+            if (Character.isWhitespace(c) || c == '/') {
+                c = read();
+                continue;
+            }
+            attributeName.setLength(0);
+            while (c != EOF && c != '>' && c != '=' && !Character.isWhitespace(c)) {
+                append(attributeName, Character.toLowerCase(c));
+                c = read();
+            }
+            while (c != EOF && Character.isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '=') {
+                continue;
+            }
+            c = read();
+            while (c != EOF && Character.isWhitespace(c)) {
+                c = read();
+            }
+            attributeValue.setLength(0);
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                while ((c = read()) != EOF && c != quote) {
+                    append(attributeValue, c);
+                }
+                c = read();
+            } else {
+                while (c != EOF && c != '>' && !Character.isWhitespace(c)) {
+                    append(attributeValue, c);
+                    c = read();
+                }
+            }
+            attributes.putIfAbsent(attributeName.toString(), attributeValue.toString());
+        }
+    }
+
+    /**
+     * Reads the content of an element that can't hold tags up to its end tag
+     */
+    private String readRawText(String name, boolean keep) throws IOException {
+        String end = "</" + name.toLowerCase(Locale.ROOT);
+        text.setLength(0);
+        int matched = 0;
+        int c;
+        while ((c = read()) != EOF) {
+            int lower = Character.toLowerCase(c);
+            if (lower == end.charAt(matched)) {
+                if (++matched == end.length()) {
+                    while (c != EOF && c != '>') {
+                        c = read();
+                    }
+                    break;
+                }
+                continue;
+            }
+            if (keep) {
+                for (int i = 0; i < matched; i++) {
+                    append(text, end.charAt(i));
+                }
+            }
+            matched = lower == '<' ? 1 : 0;
+            if (keep && matched == 0) {
+                append(text, c);
+            }
+        }
+        return keep ? text.toString() : null;
+    }
+
+    private void skipDeclaration(int first) throws IOException {
+        int c = read();
+        if (first == '!' && c == '-') {
+            int dashes = 0;
+            while ((c = read()) != EOF) {
+                if (c == '>' && dashes >= 2) {
+                    return;
+                }
+                dashes = c == '-' ? dashes + 1 : 0;
+            }
+            return;
+        }
+        while (c != EOF && c != '>') {
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (consumed >= maxChars) {
+            return EOF;
+        }
+        consumed++;
+        return reader.read();
+    }
+
+    private static String clean(String value, int maxLength) {
+        if (value == null) {
+            return null;
+        }
+        String cleaned = NetscapeBookmarkParser.Html.unescape(value).trim().replaceAll("\\s+", " ");
+        if (cleaned.isEmpty()) {
+            return null;
+        }
+        return cleaned.length() > maxLength ? cleaned.substring(0, maxLength) : cleaned;
+    }
+
+    /**
+     * Turns a url of the page into an absolute http url, or null when it isn't one
+     */
+    private static String resolve(URL pageUrl, String href) {
+        if (href == null) {
+            return null;
+        }
+        try {
+            URL url = new URL(pageUrl, NetscapeBookmarkParser.Html.unescape(href).trim());
+            String value = url.toString();
+            boolean http = "http".equals(url.getProtocol()) || "https".equals(url.getProtocol());
+            return http && value.length() <= MAX_URL_LENGTH ? value : null;
+        } catch (MalformedURLException ex) {
+            return null;
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static void append(StringBuilder builder, int c) {
+        if (builder.length() < NetscapeBookmarkParser.MAX_VALUE_LENGTH) {
+            builder.append((char) c);
+        }
+    }
+}
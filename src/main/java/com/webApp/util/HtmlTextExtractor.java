@@ -0,0 +1,138 @@
+package com.webApp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Single pass extractor of the text of a page, the words a reader sees, for search. Tags and
+ * comments are dropped, scripts, styles and templates are skipped as raw text, entities are
+ * unescaped and whitespace is collapsed. Like {@link HtmlHeadParser} the input is read one
+ * character at a time and no document tree is built, and extraction stops once {@code maxChars}
+ * characters of text are collected.
+ */
+public class HtmlTextExtractor {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+
+    private final int maxChars;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final StringBuilder tagName = new StringBuilder();
+
+    private boolean space;
+
+    public HtmlTextExtractor(Reader reader, int maxChars) {
+        this.reader = reader;
+        this.maxChars = maxChars;
+    }
+
+    public String extract() throws IOException {
+        int c;
+        while (text.length() < maxChars && (c = reader.read()) != EOF) {
+            if (c == '<') {
+                readTag();
+            } else {
+                append(c);
+            }
+        }
+        String unescaped = NetscapeBookmarkParser.Html.unescape(text.toString()).trim();
+        return unescaped.length() > maxChars ? unescaped.substring(0, maxChars) : unescaped;
+    }
+
+    private void readTag() throws IOException {
+        int c = reader.read();
+        if (c == '!' || c == '?') {
+            skipDeclaration(c);
+            return;
+        }
+        boolean closing = c == '/';
+        if (closing) {
+            c = reader.read();
+        }
+        if (!closing && !Character.isLetter(c)) {
+            // a lone '<' of the text
+            append('<');
+            if (c != EOF) {
+                append(c);
+            }
+            return;
+        }
+        tagName.setLength(0);
+        while (c != EOF && c != '>' && !Character.isWhitespace(c) && c != '/') {
+            if (tagName.length() < 16) {
+                tagName.append(Character.toLowerCase((char) c));
+            }
+            c = reader.read();
+        }
+        while (c != EOF && c != '>') {
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                while ((c = reader.read()) != EOF && c != quote) {
+                    // attribute values aren't text
+                }
+            }
+            c = c == EOF ? EOF : reader.read();
+        }
+        append(' ');
+        String tag = tagName.toString();
+        if (!closing && (tag.equals("script") || tag.equals("style") || tag.equals("template")
+                || tag.equals("noscript"))) {
+            skipRawText(tag);
+        }
+    }
+
+    /**
+     * Skips the content of an element that can't hold tags up to its end tag
+     */
+    private void skipRawText(String name) throws IOException {
+        String end = "</" + name.toLowerCase(Locale.ROOT);
+        int matched = 0;
+        int c;
+        while ((c = reader.read()) != EOF) {
+            int lower = Character.toLowerCase(c);
+            if (lower == end.charAt(matched)) {
+                if (++matched == end.length()) {
+                    while (c != EOF && c != '>') {
+                        c = reader.read();
+                    }
+                    return;
+                }
+            } else {
+                matched = lower == '<' ? 1 : 0;
+            }
+        }
+    }
+
+    private void skipDeclaration(int first) throws IOException {
+        int c = reader.read();
+        if (first == '!' && c == '-') {
+            int dashes = 0;
+            while ((c = reader.read()) != EOF) {
+                if (c == '>' && dashes >= 2) {
+                    return;
+                }
+                dashes = c == '-' ? dashes + 1 : 0;
+            }
+            return;
+        }
+        while (c != EOF && c != '>') {
+            c = reader.read();
+        }
+    }
+
+    private void append(int c) {
+        if (Character.isWhitespace(c)) {
+            space = text.length() > 0;
+            return;
+        }
+        if (space) {
+            text.append(' ');
+            space = false;
+        }
+        text.append((char) c);
+    }
+}
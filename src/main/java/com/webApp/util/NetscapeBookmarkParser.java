@@ -0,0 +1,311 @@
+package com.webApp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Single pass parser for the Netscape bookmark file format exported by every browser:
+ * <pre>
+ * &lt;DL&gt;&lt;p&gt;
+ *     &lt;DT&gt;&lt;H3&gt;Folder&lt;/H3&gt;
+ *     &lt;DL&gt;&lt;p&gt;
+ *         &lt;DT&gt;&lt;A HREF="https://example.com" ADD_DATE="..."&gt;Name&lt;/A&gt;
+ *         &lt;DD&gt;Description
+ *     &lt;/DL&gt;&lt;p&gt;
+ * &lt;/DL&gt;&lt;p&gt;
+ * </pre>
+ * The input is read one character at a time and turned into callbacks on a {@link Handler}, so no
+ * document tree is built. Only the HREF attribute is kept, the other attributes (including the
+ * base64 icons that make these files large) are skipped while reading. Texts and urls longer than
+ * {@link #MAX_VALUE_LENGTH} are truncated, which bounds the memory used whatever the file size.
+ */
+public class NetscapeBookmarkParser {
+
+    public static final int MAX_VALUE_LENGTH = 8192;
+
+    private static final int EOF = -1;
+
+    /**
+     * Receives the bookmarks in document order
+     */
+    public interface Handler {
+
+        void startFolder(String name);
+
+        void endFolder();
+
+        void link(String href, String name);
+
+        /**
+         * Description of the link reported just before
+         */
+        void description(String description);
+    }
+
+    private enum Capture { NONE, FOLDER, LINK, DESCRIPTION }
+
+    private final Reader reader;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final StringBuilder tagName = new StringBuilder();
+
+    private final StringBuilder attributeName = new StringBuilder();
+
+    private final StringBuilder href = new StringBuilder();
+
+    /**
+     * One entry per open DL, true when the list is the content of a folder
+     */
+    private final Deque<Boolean> lists = new ArrayDeque<>();
+
+    private Capture capture = Capture.NONE;
+
+    private String pendingFolder;
+
+    public NetscapeBookmarkParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    public void parse(Handler handler) throws IOException {
+        int c;
+        while ((c = read()) != EOF) {
+            if (c == '<') {
+                readTag(handler);
+            } else if (capture != Capture.NONE) {
+                append(text, c);
+            }
+        }
+        if (capture == Capture.DESCRIPTION) {
+            handler.description(takeText());
+        }
+        while (!lists.isEmpty()) {
+            if (lists.pop()) {
+                handler.endFolder();
+            }
+        }
+    }
+
+    private void readTag(Handler handler) throws IOException {
+        int c = read();
+        if (c == '!' || c == '?') {
+            skipDeclaration(c);
+            return;
+        }
+        boolean closing = c == '/';
+        if (closing) {
+            c = read();
+        }
+        tagName.setLength(0);
+        if (!closing) {
+            href.setLength(0);
+        }
+        while (c != EOF && c != '>' && !Character.isWhitespace(c) && c != '/') {
+            append(tagName, Character.toUpperCase(c));
+            c = read();
+        }
+        if (c != '>' && c != EOF) {
+            readAttributes();
+        }
+        onTag(handler, tagName.toString(), closing);
+    }
+
+    private void onTag(Handler handler, String tag, boolean closing) {
+        if (capture == Capture.DESCRIPTION) {
+            capture = Capture.NONE;
+            handler.description(takeText());
+        }
+        switch (tag) {
+            case "H3":
+                if (closing && capture == Capture.FOLDER) {
+                    capture = Capture.NONE;
+                    pendingFolder = takeText();
+                } else if (!closing) {
+                    startCapture(Capture.FOLDER);
+                }
+                break;
+            case "A":
+                if (closing && capture == Capture.LINK) {
+                    capture = Capture.NONE;
+                    handler.link(Html.unescape(href.toString().trim()), takeText());
+                } else if (!closing) {
+                    startCapture(Capture.LINK);
+                }
+                break;
+            case "DD":
+                if (!closing) {
+                    startCapture(Capture.DESCRIPTION);
+                }
+                break;
+            case "DL":
+                if (closing) {
+                    if (!lists.isEmpty() && lists.pop()) {
+                        handler.endFolder();
+                    }
+                } else {
+                    boolean folder = pendingFolder != null;
+                    lists.push(folder);
+                    if (folder) {
+                        handler.startFolder(pendingFolder);
+                        pendingFolder = null;
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Reads the attributes up to the end of the tag, keeping the value of HREF only
+     */
+    private void readAttributes() throws IOException {
+        int c = read();
+        while (c != EOF && c != '>') {
+            if (Character.isWhitespace(c) || c == '/') {
+                c = read();
+                continue;
+            }
+            attributeName.setLength(0);
+            while (c != EOF && c != '>' && c != '=' && !Character.isWhitespace(c)) {
+                append(attributeName, Character.toUpperCase(c));
+                c = read();
+            }
+            while (c != EOF && Character.isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '=') {
+                continue;
+            }
+            c = read();
+            while (c != EOF && Character.isWhitespace(c)) {
+                c = read();
+            }
+            boolean keep = "HREF".contentEquals(attributeName);
+            if (c == '"' || c == '\'') {
+                int quote = c;
+                while ((c = read()) != EOF && c != quote) {
+                    if (keep) {
+                        append(href, c);
+                    }
+                }
+                c = read();
+            } else {
+                while (c != EOF && c != '>' && !Character.isWhitespace(c)) {
+                    if (keep) {
+                        append(href, c);
+                    }
+                    c = read();
+                }
+            }
+        }
+    }
+
+    private void skipDeclaration(int first) throws IOException {
+        int c = read();
+        if (first == '!' && c == '-') {
+            int dashes = 0;
+            while ((c = read()) != EOF) {
+                if (c == '>' && dashes >= 2) {
+                    return;
+                }
+                dashes = c == '-' ? dashes + 1 : 0;
+            }
+            return;
+        }
+        while (c != EOF && c != '>') {
+            c = read();
+        }
+    }
+
+    private void startCapture(Capture mode) {
+        capture = mode;
+        text.setLength(0);
+    }
+
+    private String takeText() {
+        String value = Html.unescape(text.toString()).trim();
+        text.setLength(0);
+        return value;
+    }
+
+    private int read() throws IOException {
+        return reader.read();
+    }
+
+    private static void append(StringBuilder builder, int c) {
+        if (builder.length() < MAX_VALUE_LENGTH) {
+            builder.append((char) c);
+        }
+    }
+
+    /**
+     * Decodes the character references browsers write into bookmark files
+     */
+    static final class Html {
+
+        private Html() {
+        }
+
+        static String unescape(String value) {
+            int amp = value.indexOf('&');
+            if (amp < 0) {
+                return value;
+            }
+            StringBuilder out = new StringBuilder(value.length());
+            out.append(value, 0, amp);
+            int i = amp;
+            while (i < value.length()) {
+                char c = value.charAt(i);
+                int semicolon = c == '&' ? value.indexOf(';', i) : -1;
+                if (semicolon < 0 || semicolon - i > 10) {
+                    out.append(c);
+                    i++;
+                    continue;
+                }
+                String entity = value.substring(i + 1, semicolon);
+                String decoded = decode(entity);
+                if (decoded == null) {
+                    out.append(c);
+                    i++;
+                } else {
+                    out.append(decoded);
+                    i = semicolon + 1;
+                }
+            }
+            return out.toString();
+        }
+
+        private static String decode(String entity) {
+            switch (entity) {
+                case "amp":
+                    return "&";
+                case "lt":
+                    return "<";
+                case "gt":
+                    return ">";
+                case "quot":
+                    return "\"";
+                case "apos":
+                    return "'";
+                case "nbsp":
+                    return " ";
+                default:
+                    break;
+            }
+            try {
+                if (entity.startsWith("#x") || entity.startsWith("#X")) {
+                    return new String(Character.toChars(Integer.parseInt(entity.substring(2), 16)));
+                }
+                if (entity.startsWith("#")) {
+                    return new String(Character.toChars(Integer.parseInt(entity.substring(1))));
+                }
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+            return null;
+        }
+    }
+}
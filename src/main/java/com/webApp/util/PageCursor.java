@@ -0,0 +1,96 @@
+package com.webApp.util;
+
+import com.webApp.exception_handling.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor handed to clients. It wraps the id of the last row of a page so that the
+ * next page starts with {@code id > cursor} instead of an offset the database has to skip over.
+ * Ranked results are ordered by rank then id, both descending, and their cursor wraps both.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+
+    private static final String RANKED_PREFIX = "rank:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the id the next page starts after, or 0 for a missing cursor
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * The rank is kept as its raw bits so that the next page compares against the exact value
+     */
+    public static String encodeRanked(float rank, long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((RANKED_PREFIX + Float.floatToIntBits(rank) + ":" + lastId)
+                        .getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the position the next page starts after, or a position before every result for a
+     * missing cursor
+     */
+    public static Ranked decodeRanked(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Ranked.FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = value.lastIndexOf(':');
+            if (!value.startsWith(RANKED_PREFIX) || separator <= RANKED_PREFIX.length()) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            int rankBits = Integer.parseInt(value.substring(RANKED_PREFIX.length(), separator));
+            return new Ranked(Float.intBitsToFloat(rankBits), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static final class Ranked {
+
+        public static final Ranked FIRST = new Ranked(Float.MAX_VALUE, Long.MAX_VALUE);
+
+        private final float rank;
+
+        private final long id;
+
+        public Ranked(float rank, long id) {
+            this.rank = rank;
+            this.id = id;
+        }
+
+        public float getRank() {
+            return rank;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.webApp.util;
+
+/**
+ * What the head of an HTML page tells about it, any of the values may be null
+ */
+public class PageMetadata {
+
+    private final String title;
+
+    private final String description;
+
+    private final String canonicalUrl;
+
+    private final String faviconUrl;
+
+    public PageMetadata(String title, String description, String canonicalUrl, String faviconUrl) {
+        this.title = title;
+        this.description = description;
+        this.canonicalUrl = canonicalUrl;
+        this.faviconUrl = faviconUrl;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCanonicalUrl() {
+        return canonicalUrl;
+    }
+
+    public String getFaviconUrl() {
+        return faviconUrl;
+    }
+}
@@ -0,0 +1,68 @@
+package com.webApp.util;
+
+import com.webApp.exception_handling.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque sync token handed to devices. It wraps the position in the user's change log the device
+ * has caught up to: a version and the id of the last entry read in it, or {@link #COMPLETE} once
+ * every entry of the version was read.
+ */
+public final class SyncToken {
+
+    public static final long COMPLETE = Long.MAX_VALUE;
+
+    private static final String PREFIX = "sync:";
+
+    private final long version;
+
+    private final long lastId;
+
+    public SyncToken(long version, long lastId) {
+        this.version = version;
+        this.lastId = lastId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public boolean isComplete() {
+        return lastId == COMPLETE;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + version + ":" + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the position the token was issued at, or null for a missing token
+     */
+    public static SyncToken decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = value.lastIndexOf(':');
+            if (!value.startsWith(PREFIX) || separator <= PREFIX.length()) {
+                throw new InvalidCursorException("Invalid sync token: " + token);
+            }
+            long version = Long.parseLong(value.substring(PREFIX.length(), separator));
+            long lastId = Long.parseLong(value.substring(separator + 1));
+            if (version < 0) {
+                throw new InvalidCursorException("Invalid sync token: " + token);
+            }
+            return new SyncToken(version, lastId);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.webApp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests of raw jwt tokens. Caches and stores key tokens by their digest so that
+ * the token itself never has to be kept around and a tampered token never matches.
+ */
+public final class TokenDigest {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TokenDigest() {
+        throw new UnsupportedOperationException("Cannot instantiate a TokenDigest class");
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    public static String sha256Hex(String token) {
+        return toHex(sha256(token));
+    }
+
+    public static String toHex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * First 64 bits of the hex digest, matching {@link TokenDigester#high()}
+     */
+    public static long high(String hexDigest) {
+        return Long.parseUnsignedLong(hexDigest.substring(0, 16), 16);
+    }
+
+    /**
+     * Second 64 bits of the hex digest, matching {@link TokenDigester#low()}
+     */
+    public static long low(String hexDigest) {
+        return Long.parseUnsignedLong(hexDigest.substring(16, 32), 16);
+    }
+}
@@ -0,0 +1,87 @@
+package com.webApp.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Allocation free SHA-256 of a raw jwt for the request hot path. Each thread reuses its own
+ * {@link MessageDigest} and buffers, and the first 128 bits of the digest are exposed as two
+ * longs so that lookups can key primitive structures without building a String.
+ * <p>
+ * The instance returned by {@link #forCurrentThread()} must not be handed to another thread and
+ * its values are only valid until the next call to {@link #digest(String)}.
+ */
+public final class TokenDigester {
+
+    private static final ThreadLocal<TokenDigester> CURRENT = ThreadLocal.withInitial(TokenDigester::new);
+
+    private static final int DIGEST_LENGTH = 32;
+
+    private final MessageDigest messageDigest;
+
+    private final byte[] output = new byte[DIGEST_LENGTH];
+
+    private byte[] input = new byte[512];
+
+    private long high;
+
+    private long low;
+
+    private TokenDigester() {
+        try {
+            this.messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static TokenDigester forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Digests the token. Jwt tokens are base64url and dot characters only, so every char is
+     * copied as a single byte, which gives the same digest as {@link TokenDigest#sha256(String)}.
+     */
+    public TokenDigester digest(String token) {
+        int length = token.length();
+        if (input.length < length) {
+            input = new byte[Math.max(length, input.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            input[i] = (byte) token.charAt(i);
+        }
+        messageDigest.update(input, 0, length);
+        try {
+            messageDigest.digest(output, 0, DIGEST_LENGTH);
+        } catch (java.security.DigestException e) {
+            throw new IllegalStateException("Could not digest token", e);
+        }
+        high = readLong(0);
+        low = readLong(8);
+        return this;
+    }
+
+    public long high() {
+        return high;
+    }
+
+    public long low() {
+        return low;
+    }
+
+    /**
+     * Hex form of the full digest, as stored by the revocation store. Allocates.
+     */
+    public String hex() {
+        return TokenDigest.toHex(output);
+    }
+
+    private long readLong(int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (output[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,175 @@
+package com.webApp.util;
+
+/**
+ * Reduces the forms a user may save the same page under to one canonical URL, and hashes it into
+ * the 64 bits stored in {@code links.url_hash}:
+ * <ul>
+ *     <li>the http and https schemes are the same, the scheme is left out</li>
+ *     <li>the host is lower-cased and the default ports 80 and 443 are dropped</li>
+ *     <li>trailing slashes of the path are dropped, so is the fragment</li>
+ *     <li>the utm_* parameters and the click ids of ad networks are dropped from the query, the
+ *     other parameters are kept in their order</li>
+ * </ul>
+ * The URL is scanned once with indexes into the original string and the canonical characters go
+ * straight into the FNV-1a hash, so hashing allocates nothing. It runs on every link write and
+ * import row.
+ */
+public final class UrlCanonicalizer {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String[] SCHEMES = {"https://", "http://"};
+
+    private static final String[] DEFAULT_PORTS = {":443", ":80"};
+
+    private static final String TRACKING_PREFIX = "utm_";
+
+    private static final String[] TRACKING_PARAMETERS = {
+            "fbclid", "gclid", "dclid", "msclkid", "yclid", "igshid", "mc_cid", "mc_eid", "_ga"};
+
+    private UrlCanonicalizer() {
+    }
+
+    public static long hash(String url) {
+        Hash hash = new Hash();
+        scan(url, hash);
+        return hash.value;
+    }
+
+    public static String canonicalize(String url) {
+        Text text = new Text(url.length());
+        scan(url, text);
+        return text.builder.toString();
+    }
+
+    private static void scan(String url, Sink sink) {
+        int start = 0;
+        int end = url.length();
+        while (start < end && Character.isWhitespace(url.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(url.charAt(end - 1))) {
+            end--;
+        }
+        for (String scheme : SCHEMES) {
+            if (url.regionMatches(true, start, scheme, 0, scheme.length())) {
+                start += scheme.length();
+                break;
+            }
+        }
+
+        int hostEnd = start;
+        while (hostEnd < end && !isPathDelimiter(url.charAt(hostEnd))) {
+            hostEnd++;
+        }
+        int portStart = hostEnd;
+        for (String port : DEFAULT_PORTS) {
+            if (hostEnd - start > port.length() && url.startsWith(port, hostEnd - port.length())) {
+                portStart = hostEnd - port.length();
+                break;
+            }
+        }
+        for (int i = start; i < portStart; i++) {
+            sink.append(Character.toLowerCase(url.charAt(i)));
+        }
+
+        int pathEnd = hostEnd;
+        int slashes = 0;
+        for (; pathEnd < end; pathEnd++) {
+            char c = url.charAt(pathEnd);
+            if (c == '?' || c == '#') {
+                break;
+            }
+            if (c == '/') {
+                slashes++;
+                continue;
+            }
+            for (; slashes > 0; slashes--) {
+                sink.append('/');
+            }
+            sink.append(c);
+        }
+
+        if (pathEnd < end && url.charAt(pathEnd) == '?') {
+            appendQuery(url, pathEnd + 1, queryEnd(url, pathEnd + 1, end), sink);
+        }
+    }
+
+    private static void appendQuery(String url, int start, int end, Sink sink) {
+        boolean first = true;
+        int parameterStart = start;
+        while (parameterStart < end) {
+            int parameterEnd = url.indexOf('&', parameterStart);
+            if (parameterEnd < 0 || parameterEnd > end) {
+                parameterEnd = end;
+            }
+            if (parameterEnd > parameterStart && !isTracking(url, parameterStart, parameterEnd)) {
+                sink.append(first ? '?' : '&');
+                first = false;
+                for (int i = parameterStart; i < parameterEnd; i++) {
+                    sink.append(url.charAt(i));
+                }
+            }
+            parameterStart = parameterEnd + 1;
+        }
+    }
+
+    private static boolean isTracking(String url, int start, int end) {
+        int nameEnd = url.indexOf('=', start);
+        if (nameEnd < 0 || nameEnd > end) {
+            nameEnd = end;
+        }
+        int length = nameEnd - start;
+        if (length > TRACKING_PREFIX.length()
+                && url.regionMatches(true, start, TRACKING_PREFIX, 0, TRACKING_PREFIX.length())) {
+            return true;
+        }
+        for (String parameter : TRACKING_PARAMETERS) {
+            if (length == parameter.length() && url.regionMatches(true, start, parameter, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int queryEnd(String url, int start, int end) {
+        int fragment = url.indexOf('#', start);
+        return fragment < 0 || fragment > end ? end : fragment;
+    }
+
+    private static boolean isPathDelimiter(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private interface Sink {
+
+        void append(char c);
+    }
+
+    private static final class Hash implements Sink {
+
+        private long value = FNV_OFFSET_BASIS;
+
+        @Override
+        public void append(char c) {
+            value ^= c;
+            value *= FNV_PRIME;
+        }
+    }
+
+    private static final class Text implements Sink {
+
+        private final StringBuilder builder;
+
+        private Text(int capacity) {
+            builder = new StringBuilder(capacity);
+        }
+
+        @Override
+        public void append(char c) {
+            builder.append(c);
+        }
+    }
+}
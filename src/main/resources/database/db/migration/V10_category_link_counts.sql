@@ -0,0 +1,3 @@
+-- Number of links of every category, kept up to date by the statements that add, move and delete
+-- links. Existing rows start at zero and are filled in by the first run of the repair job.
+ALTER TABLE categories ADD COLUMN IF NOT EXISTS link_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Number of times every link was opened, flushed in batches from the counters kept in memory.
+-- Rows only exist for links opened at least once and go away with their link.
+CREATE TABLE IF NOT EXISTS link_usage (
+    link_id BIGINT NOT NULL REFERENCES links (id) ON DELETE CASCADE,
+    open_count BIGINT NOT NULL,
+    last_opened_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (link_id)
+);
@@ -0,0 +1,5 @@
+-- 64-bit hash of the canonical form of every link URL, looked up to find a user's duplicate links.
+-- Rows saved before the column are hashed in batches by the backfill job of the application.
+ALTER TABLE links ADD COLUMN IF NOT EXISTS url_hash BIGINT;
+
+CREATE INDEX IF NOT EXISTS idx_links_url_hash ON links (url_hash);
@@ -0,0 +1,9 @@
+-- Metadata read from the page of every link by the background enrichment, written back in batches.
+-- enriched_url_hash is the url_hash of the URL the metadata was read from, a link whose url_hash
+-- differs, or that was never enriched, is picked up again by the sweep of the application.
+ALTER TABLE links ADD COLUMN IF NOT EXISTS page_title VARCHAR(300);
+ALTER TABLE links ADD COLUMN IF NOT EXISTS page_description VARCHAR(500);
+ALTER TABLE links ADD COLUMN IF NOT EXISTS canonical_url VARCHAR(2048);
+ALTER TABLE links ADD COLUMN IF NOT EXISTS favicon_url VARCHAR(2048);
+ALTER TABLE links ADD COLUMN IF NOT EXISTS enriched_url_hash BIGINT;
+ALTER TABLE links ADD COLUMN IF NOT EXISTS enriched_at TIMESTAMP;
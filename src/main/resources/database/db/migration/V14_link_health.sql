@@ -0,0 +1,11 @@
+-- Outcome of the last check of every link by the background health scanner, written in batches.
+-- Rows only exist for links checked at least once and go away with their link.
+CREATE TABLE IF NOT EXISTS link_health (
+    link_id BIGINT NOT NULL REFERENCES links (id) ON DELETE CASCADE,
+    status_code INTEGER NOT NULL,
+    etag VARCHAR(500),
+    last_modified VARCHAR(100),
+    consecutive_failures INTEGER NOT NULL,
+    checked_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (link_id)
+);
@@ -0,0 +1,21 @@
+-- Archived copies of the pages of links. The content lives in the segment files of the blob store
+-- on local disk, a row only tells where: snapshots with the same content share the same bytes.
+-- Rows go away with their link, the bytes stay in their segment.
+CREATE SEQUENCE IF NOT EXISTS link_snapshots_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS link_snapshots (
+    id BIGINT NOT NULL,
+    link_id BIGINT NOT NULL REFERENCES links (id) ON DELETE CASCADE,
+    sha256 CHAR(64) NOT NULL,
+    segment INTEGER NOT NULL,
+    segment_offset BIGINT NOT NULL,
+    compressed_length BIGINT NOT NULL,
+    raw_length BIGINT NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    source VARCHAR(10) NOT NULL,
+    captured_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_link_snapshots_link_id ON link_snapshots (link_id);
+CREATE INDEX IF NOT EXISTS idx_link_snapshots_sha256 ON link_snapshots (sha256);
@@ -0,0 +1,59 @@
+-- Text of the latest snapshot of every archived link, written in batches by the page text indexer.
+-- The text is folded into the search vector of its link with the lowest weight (D), so that the
+-- GIN index of V5 answers searches over the names and the page text at once, and a search term
+-- may match either. Rows go away with their link.
+-- Function bodies are single quoted rather than dollar quoted because the script is split on semicolons.
+CREATE TABLE IF NOT EXISTS link_page_text (
+    link_id BIGINT NOT NULL REFERENCES links (id) ON DELETE CASCADE,
+    snapshot_id BIGINT NOT NULL,
+    content TEXT NOT NULL,
+    indexed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (link_id)
+);
+
+CREATE OR REPLACE FUNCTION links_search_vector(p_link_id BIGINT, p_link_name TEXT, p_description TEXT, p_category_id BIGINT) RETURNS tsvector AS '
+    SELECT links_search_vector(p_link_name, p_description, p_category_id)
+        || setweight(to_tsvector(''simple'', coalesce((
+               SELECT search_words(p.content) FROM link_page_text p WHERE p.link_id = p_link_id), '''')), ''D'')
+' LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION links_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    NEW.search_vector := links_search_vector(NEW.id, NEW.link_name, NEW.description, NEW.category_id);
+    RETURN NEW;
+END
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION categories_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    UPDATE links SET search_vector = links_search_vector(id, link_name, description, category_id)
+    WHERE category_id = NEW.id;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION titles_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    UPDATE links l SET search_vector = links_search_vector(l.id, l.link_name, l.description, l.category_id)
+    FROM categories c
+    WHERE l.category_id = c.id AND c.title_id = NEW.id;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION link_page_text_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    UPDATE links SET search_vector = links_search_vector(id, link_name, description, category_id)
+    WHERE id = NEW.link_id;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS link_page_text_search_vector_update ON link_page_text;
+CREATE TRIGGER link_page_text_search_vector_update AFTER INSERT OR UPDATE OF content ON link_page_text
+    FOR EACH ROW EXECUTE PROCEDURE link_page_text_search_vector_trigger();
+
+-- New entries of the GIN index go to its pending list and are merged into the index in bulk, by
+-- vacuum or once the list is full. A larger list makes indexing pages of text cheaper, the merge
+-- happening once for many rows, at the cost of scanning the list at search time.
+ALTER INDEX IF EXISTS idx_links_search_vector SET (fastupdate = on, gin_pending_list_limit = 16384);
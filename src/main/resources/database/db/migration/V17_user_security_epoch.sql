@@ -0,0 +1,3 @@
+-- Security epoch of every user, bumped on each security relevant change of the account.
+-- Tokens carrying an older epoch are rejected by every node, also after a restart.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS security_epoch BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Titles, categories and links take their ids from pooled sequences: Hibernate reserves a block of
+-- 50 ids per nextval instead of reading the SERIAL value back after every insert, which lets the
+-- inserts be sent in JDBC batches. The allocation size of the entities must match the increment.
+ALTER SEQUENCE IF EXISTS titles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS links_id_seq INCREMENT BY 50;
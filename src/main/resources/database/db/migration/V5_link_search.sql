@@ -0,0 +1,62 @@
+-- Full text search over links. Every link keeps a tsvector of its name (weight A), description
+-- (weight B) and the names of its category and title (weight C), maintained by triggers and
+-- indexed with GIN. Punctuation is replaced by spaces first so that the words of an url are
+-- indexed one by one instead of as a single host or path token.
+-- Function bodies are single quoted rather than dollar quoted because the script is split on semicolons.
+ALTER TABLE links ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION search_words(p_text TEXT) RETURNS TEXT AS '
+    SELECT regexp_replace(coalesce(p_text, ''''), ''[^[:alnum:]]+'', '' '', ''g'')
+' LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION links_search_vector(p_link_name TEXT, p_description TEXT, p_category_id BIGINT) RETURNS tsvector AS '
+    SELECT setweight(to_tsvector(''simple'', search_words(p_link_name)), ''A'')
+        || setweight(to_tsvector(''simple'', search_words(p_description)), ''B'')
+        || setweight(to_tsvector(''simple'', coalesce((
+               SELECT search_words(c.name) || '' '' || search_words(t.name)
+               FROM categories c JOIN titles t ON t.id = c.title_id
+               WHERE c.id = p_category_id), '''')), ''C'')
+' LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION links_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    NEW.search_vector := links_search_vector(NEW.link_name, NEW.description, NEW.category_id);
+    RETURN NEW;
+END
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS links_search_vector_update ON links;
+CREATE TRIGGER links_search_vector_update BEFORE INSERT OR UPDATE OF link_name, description, category_id ON links
+    FOR EACH ROW EXECUTE PROCEDURE links_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION categories_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    UPDATE links SET search_vector = links_search_vector(link_name, description, category_id)
+    WHERE category_id = NEW.id;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS categories_search_vector_update ON categories;
+CREATE TRIGGER categories_search_vector_update AFTER UPDATE OF name ON categories
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name) EXECUTE PROCEDURE categories_search_vector_trigger();
+
+CREATE OR REPLACE FUNCTION titles_search_vector_trigger() RETURNS trigger AS '
+BEGIN
+    UPDATE links l SET search_vector = links_search_vector(l.link_name, l.description, l.category_id)
+    FROM categories c
+    WHERE l.category_id = c.id AND c.title_id = NEW.id;
+    RETURN NULL;
+END
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS titles_search_vector_update ON titles;
+CREATE TRIGGER titles_search_vector_update AFTER UPDATE OF name ON titles
+    FOR EACH ROW WHEN (OLD.name IS DISTINCT FROM NEW.name) EXECUTE PROCEDURE titles_search_vector_trigger();
+
+UPDATE links SET search_vector = links_search_vector(link_name, description, category_id) WHERE search_vector IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_links_search_vector ON links USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_links_category_id ON links (category_id);
+CREATE INDEX IF NOT EXISTS idx_categories_title_id ON categories (title_id);
+CREATE INDEX IF NOT EXISTS idx_titles_user_id ON titles (user_id);
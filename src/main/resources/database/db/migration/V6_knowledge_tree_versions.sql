@@ -0,0 +1,10 @@
+-- One row per user, bumped in the transaction of every change to the user's titles, categories or
+-- links. The GET endpoints derive their ETag and Last-Modified from it, so a conditional request is
+-- answered with a primary key lookup. last_modified is an epoch second that grows with every bump,
+-- even when several changes land within the same second. Users without a row are on version 0.
+CREATE TABLE IF NOT EXISTS knowledge_tree_versions (
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    last_modified BIGINT NOT NULL,
+    PRIMARY KEY (user_id)
+);
@@ -0,0 +1,24 @@
+-- Change log the devices sync from. Every change to a title, category or link of a user adds a row
+-- tagged with the knowledge tree version it was made in, deletes included as tombstones. Devices
+-- read the rows after the version of their sync token, so a sync reads what changed and nothing
+-- else. Ids come from a pooled sequence so that the rows of an import are inserted in batches.
+CREATE SEQUENCE IF NOT EXISTS knowledge_tree_changes_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS knowledge_tree_changes (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_knowledge_tree_changes_user_version ON knowledge_tree_changes (user_id, version, id);
+CREATE INDEX IF NOT EXISTS idx_knowledge_tree_changes_user_entity ON knowledge_tree_changes (user_id, entity_type, entity_id);
+CREATE INDEX IF NOT EXISTS idx_knowledge_tree_changes_changed_at ON knowledge_tree_changes (changed_at);
+
+-- Highest version whose changes were dropped by the retention. Tokens older than it can't be
+-- caught up from the log and the device has to download everything again.
+ALTER TABLE knowledge_tree_versions ADD COLUMN IF NOT EXISTS purged_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- Titles whose subtree is too large to delete in one request are hidden by setting deleted_at and
+-- purged in bounded batches by the background job, which looks them up with the partial index.
+ALTER TABLE titles ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_titles_deleted_at ON titles (deleted_at) WHERE deleted_at IS NOT NULL;
@@ -0,0 +1,12 @@
+-- Categories a user's new titles are created with, replacing the global defaults for that user.
+CREATE SEQUENCE IF NOT EXISTS category_templates_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS category_templates (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    position INTEGER NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_category_templates_user_position ON category_templates (user_id, position);
@@ -0,0 +1,121 @@
+package com.webApp.archive;
+
+import com.webApp.exception_handling.BlobTooLargeException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BlobStoreTest {
+
+    private Path directory;
+
+    private BlobStore blobStore;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("blob-store");
+        blobStore = new BlobStore(directory.toString(), 1024);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        blobStore.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void whenBlobsAreAppended_thenTheyAreReadBackFromTheirSegments() throws IOException {
+        String first = page("first");
+        String second = page("second");
+
+        BlobLocation firstLocation = blobStore.append(stage(first));
+        BlobLocation secondLocation = blobStore.append(stage(second));
+
+        assertThat(firstLocation.getSegment()).isEqualTo(1);
+        assertThat(firstLocation.getOffset()).isEqualTo(BlobStore.HEADER_LENGTH);
+        assertThat(firstLocation.getRawLength()).isEqualTo(first.length());
+        assertThat(secondLocation.getOffset())
+                .isEqualTo(firstLocation.getOffset() + firstLocation.getCompressedLength() + BlobStore.HEADER_LENGTH);
+        assertThat(read(firstLocation)).isEqualTo(first);
+        assertThat(read(secondLocation)).isEqualTo(second);
+        assertThat(transfer(secondLocation)).isEqualTo(second);
+        try (Stream<Path> staged = Files.list(directory.resolve("staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    @Test
+    public void whenSameContentIsStaged_thenItHasTheSameKey() throws IOException {
+        StagedBlob first = stage(page("same"));
+        StagedBlob second = stage(page("same"));
+
+        assertThat(first.getSha256()).hasSize(64).isEqualTo(second.getSha256());
+        assertThat(stage(page("other")).getSha256()).isNotEqualTo(first.getSha256());
+    }
+
+    @Test
+    public void whenSegmentIsFull_thenTheNextOneIsStartedAndKeptAfterReopening() throws IOException {
+        BlobLocation last = null;
+        for (int i = 0; i < 20; i++) {
+            last = blobStore.append(stage(page("page " + i)));
+        }
+        assertThat(last.getSegment()).isGreaterThan(1);
+
+        blobStore.close();
+        blobStore = new BlobStore(directory.toString(), 1024);
+        BlobLocation next = blobStore.append(stage(page("after reopening")));
+
+        assertThat(next.getSegment()).isGreaterThanOrEqualTo(last.getSegment());
+        assertThat(read(last)).isEqualTo(page("page 19"));
+        assertThat(read(next)).isEqualTo(page("after reopening"));
+    }
+
+    @Test
+    public void whenContentIsTooLarge_thenNothingIsStaged() throws IOException {
+        assertThatThrownBy(() -> blobStore.stage(new ByteArrayInputStream(new byte[100]), 99))
+                .isInstanceOf(BlobTooLargeException.class);
+        try (Stream<Path> staged = Files.list(directory.resolve("staging"))) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    private StagedBlob stage(String content) throws IOException {
+        return blobStore.stage(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 10000);
+    }
+
+    private String read(BlobLocation location) throws IOException {
+        try (InputStream content = blobStore.open(location)) {
+            return StreamUtils.copyToString(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    private String transfer(BlobLocation location) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        blobStore.transferCompressed(location, Channels.newChannel(compressed));
+        try (InputStream content = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            return StreamUtils.copyToString(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String page(String text) {
+        return "<html><head><title>" + text + "</title></head><body><p>" + text + "</p></body></html>";
+    }
+}
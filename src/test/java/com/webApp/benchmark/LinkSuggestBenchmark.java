@@ -0,0 +1,102 @@
+package com.webApp.benchmark;
+
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.search.QueryTerms;
+import com.webApp.search.UserLinkIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the as-you-type queries answered by a {@link UserLinkIndex}: a selective prefix, a
+ * short prefix matching a large part of the links, and two prefixes that have to be intersected.
+ * Links are made of words drawn from a fixed vocabulary so that prefixes match a stable share
+ * of them.
+ * <p>
+ * Run with {@code java -cp <test classpath> com.webApp.benchmark.LinkSuggestBenchmark}
+ * or from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkSuggestBenchmark {
+
+    private static final int VOCABULARY = 5000;
+
+    private static final int LIMIT = 10;
+
+    @Param({"10000", "100000"})
+    private int links;
+
+    private String[] words;
+
+    private UserLinkIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = randomWord(random);
+        }
+        index = new UserLinkIndex(1L);
+        for (long id = 1; id <= links; id++) {
+            String name = "https://" + word(random) + ".com/" + word(random) + "/" + word(random);
+            String description = word(random) + " " + word(random) + " " + word(random);
+            index.add(new LinkSearchResult(id, name, description, id % 40, "Category " + (id % 40),
+                    id % 10, "Title " + (id % 10)));
+        }
+    }
+
+    @Benchmark
+    public List<LinkSearchResult> selectivePrefix() {
+        return index.search(terms(words[nextIndex()].substring(0, 4)), LIMIT);
+    }
+
+    @Benchmark
+    public List<LinkSearchResult> shortPrefix() {
+        return index.search(terms(words[nextIndex()].substring(0, 2)), LIMIT);
+    }
+
+    @Benchmark
+    public List<LinkSearchResult> twoPrefixes() {
+        return index.search(terms(words[nextIndex()].substring(0, 3) + " " + words[nextIndex()].substring(0, 3)), LIMIT);
+    }
+
+    private static List<String> terms(String query) {
+        return QueryTerms.parse(query);
+    }
+
+    private String word(Random random) {
+        return words[random.nextInt(VOCABULARY)];
+    }
+
+    private static int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(VOCABULARY);
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LinkSuggestBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.webApp.benchmark;
+
+import com.webApp.cache.RevokedTokenTable;
+import com.webApp.event.OnUserLogoutSuccessEvent;
+import com.webApp.util.TokenDigester;
+import net.jodah.expiringmap.ExpiringMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the logged out token lookup done for every authenticated request: the former
+ * ExpiringMap keyed by the raw jwt against the digest keyed {@link RevokedTokenTable}.
+ * Lookups build a fresh String each time, the way a token read from the request header is.
+ * <p>
+ * Run with {@code java -cp <test classpath> com.webApp.benchmark.LoggedOutTokenLookupBenchmark}
+ * or from the IDE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggedOutTokenLookupBenchmark {
+
+    private static final int TOKEN_LENGTH = 220;
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    @Param({"1000", "100000"})
+    private int revokedTokens;
+
+    private char[][] revoked;
+
+    private char[][] valid;
+
+    private ExpiringMap<String, OnUserLogoutSuccessEvent> expiringMap;
+
+    private RevokedTokenTable table;
+
+    private long nowInSeconds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        nowInSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        revoked = new char[revokedTokens][];
+        valid = new char[revokedTokens][];
+        expiringMap = ExpiringMap.builder()
+                .variableExpiration()
+                .maxSize(revokedTokens)
+                .build();
+        table = new RevokedTokenTable(revokedTokens, nowInSeconds);
+        for (int i = 0; i < revokedTokens; i++) {
+            revoked[i] = randomToken(random);
+            valid[i] = randomToken(random);
+            String token = new String(revoked[i]);
+            expiringMap.put(token, new OnUserLogoutSuccessEvent("user" + i, token, null), 900, TimeUnit.SECONDS);
+            TokenDigester digester = TokenDigester.forCurrentThread().digest(token);
+            table.add(digester.high(), digester.low(), nowInSeconds + 900, nowInSeconds);
+        }
+    }
+
+    @Benchmark
+    public Object expiringMapRevoked() {
+        return expiringMap.get(new String(revoked[nextIndex()]));
+    }
+
+    @Benchmark
+    public Object expiringMapNotRevoked() {
+        return expiringMap.get(new String(valid[nextIndex()]));
+    }
+
+    @Benchmark
+    public boolean revokedTokenTableRevoked() {
+        TokenDigester digester = TokenDigester.forCurrentThread().digest(new String(revoked[nextIndex()]));
+        return table.contains(digester.high(), digester.low(), nowInSeconds);
+    }
+
+    @Benchmark
+    public boolean revokedTokenTableNotRevoked() {
+        TokenDigester digester = TokenDigester.forCurrentThread().digest(new String(valid[nextIndex()]));
+        return table.contains(digester.high(), digester.low(), nowInSeconds);
+    }
+
+    private int nextIndex() {
+        return ThreadLocalRandom.current().nextInt(revokedTokens);
+    }
+
+    private static char[] randomToken(Random random) {
+        char[] token = new char[TOKEN_LENGTH];
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            token[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        token[36] = '.';
+        token[150] = '.';
+        return token;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoggedOutTokenLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
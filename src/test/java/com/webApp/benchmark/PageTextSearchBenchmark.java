@@ -0,0 +1,229 @@
+package com.webApp.benchmark;
+
+import com.webApp.KnowledgeStoreApplication;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkSearchPage;
+import com.webApp.service.LinkSearchService;
+import com.webApp.service.LinkSnapshotService;
+import com.webApp.service.PageTextIndexService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text of archived pages made searchable by the {@link PageTextIndexService}: how
+ * many pages a second are extracted and written, a batch at a time, and the latency of a search
+ * matching words of the pages, whose 99th percentile is reported by the sample time mode. Pages
+ * are made of words drawn from a fixed vocabulary that link names and descriptions don't use, so
+ * every match comes from the page text.
+ * <p>
+ * The application is started on the Postgres database given by the {@code BENCHMARK_DB_URL},
+ * {@code BENCHMARK_DB_USERNAME} and {@code BENCHMARK_DB_PASSWORD} environment variables, with the
+ * schema of the migrations and the Postgres engine, so pages are written through the trigger
+ * folding them into the search vector and searched through its GIN index. The database is filled
+ * with the benchmark's users and links, use a throwaway one. Run with
+ * {@code java -cp <test classpath> com.webApp.benchmark.PageTextSearchBenchmark} or from the IDE.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageTextSearchBenchmark {
+
+    private static final int VOCABULARY = 2000;
+
+    private static final int WORDS_PER_PAGE = 300;
+
+    private static final int BATCH = 200;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "5000"})
+    private int pages;
+
+    private ConfigurableApplicationContext context;
+
+    private PageTextIndexService pageTextIndexService;
+
+    private LinkSearchService linkSearchService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private String[] words;
+
+    private Long userId;
+
+    private final List<Long> linkIds = new ArrayList<>();
+
+    private final List<Long> snapshotIds = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        String url = System.getenv("BENCHMARK_DB_URL");
+        if (url == null || url.isEmpty()) {
+            throw new IllegalStateException("Set BENCHMARK_DB_URL to the jdbc url of a throwaway Postgres database");
+        }
+        context = new SpringApplicationBuilder(KnowledgeStoreApplication.class)
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                // arguments, as the application properties set these and win over the default properties
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + System.getenv().getOrDefault("BENCHMARK_DB_USERNAME", "postgres"),
+                        "--spring.datasource.password=" + System.getenv().getOrDefault("BENCHMARK_DB_PASSWORD", ""),
+                        "--app.search.engine=postgres",
+                        "--app.archive.directory=target/benchmark-archive",
+                        "--app.search.pageText.enabled=true",
+                        "--app.search.pageText.batchSize=" + BATCH,
+                        "--app.search.pageText.refreshIntervalMs=3600000",
+                        "--app.search.pageText.sweep.initialDelayMs=3600000");
+        pageTextIndexService = context.getBean(PageTextIndexService.class);
+        linkSearchService = context.getBean(LinkSearchService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        LinkSnapshotService linkSnapshotService = context.getBean(LinkSnapshotService.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        EntityManager entityManager = context.getBean(EntityManager.class);
+
+        Random random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = randomWord(random);
+        }
+
+        // a user of its own for every trial, the database outlives them
+        String username = "bench" + System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = User.builder()
+                    .username(username)
+                    .email(username + "@gmail.com")
+                    .password("secret")
+                    .active(true)
+                    .isEmailVerified(true)
+                    .build();
+            entityManager.persist(user);
+            Title title = new Title("Benchmark");
+            title.setUser(user);
+            entityManager.persist(title);
+            Category category = new Category("Benchmark");
+            category.setTitle(title);
+            entityManager.persist(category);
+            for (int l = 0; l < pages; l++) {
+                Link link = new Link("https://example.com/" + l);
+                link.setLinkDescription("Link " + l);
+                link.setCategory(category);
+                entityManager.persist(link);
+                linkIds.add(link.getId());
+            }
+            userId = user.getId();
+        });
+        for (Long linkId : linkIds) {
+            byte[] page = page(random).getBytes(StandardCharsets.UTF_8);
+            snapshotIds.add(linkSnapshotService.upload(linkId, new ByteArrayInputStream(page),
+                    "text/html; charset=UTF-8").getId());
+        }
+        pageTextIndexService.flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * The next batch of links, whose text is deleted before every invocation so that it is
+     * written again rather than found up to date
+     */
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        private int next;
+
+        private final List<Object[]> links = new ArrayList<>(BATCH);
+
+        @Setup(Level.Invocation)
+        public void prepare(PageTextSearchBenchmark benchmark) {
+            links.clear();
+            for (int i = 0; i < BATCH; i++) {
+                int index = next++ % benchmark.linkIds.size();
+                links.add(new Object[]{benchmark.linkIds.get(index), benchmark.snapshotIds.get(index)});
+            }
+            List<Object[]> deletes = new ArrayList<>(BATCH);
+            for (Object[] link : links) {
+                deletes.add(new Object[]{link[0]});
+            }
+            benchmark.jdbcTemplate.batchUpdate("delete from link_page_text where link_id = ?", deletes);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int index(Batch batch) {
+        for (Object[] link : batch.links) {
+            pageTextIndexService.enqueue((Long) link[0], (Long) link[1]);
+        }
+        return pageTextIndexService.flush();
+    }
+
+    @Benchmark
+    public LinkSearchPage searchOneWord() {
+        return linkSearchService.search(userId, word(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public LinkSearchPage searchTwoWords() {
+        return linkSearchService.search(userId, word() + " " + word(), null, PAGE_SIZE);
+    }
+
+    private String word() {
+        return words[ThreadLocalRandom.current().nextInt(VOCABULARY)];
+    }
+
+    private String page(Random random) {
+        StringBuilder page = new StringBuilder("<html><head><title>Page</title>")
+                .append("<script>var ignored = 1;</script></head><body><p>");
+        for (int i = 0; i < WORDS_PER_PAGE; i++) {
+            page.append(words[random.nextInt(VOCABULARY)]).append(i % 20 == 19 ? "</p><p>" : " ");
+        }
+        return page.append("</p></body></html>").toString();
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[5 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PageTextSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,248 @@
+package com.webApp.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webApp.KnowledgeStoreApplication;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import com.webApp.service.KnowledgeTreeService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the read path of the single title, category and link GET endpoints: the former one,
+ * loading the managed entities and handing them to Jackson inside a read-write transaction the
+ * way the open session in view did, against the projections selected by
+ * {@link KnowledgeTreeService} in read-only transactions. Both sides are serialized to JSON, as
+ * the response would be. The title projection is measured with its categories listing evicted,
+ * so that both sides read the whole subtree from the database.
+ * <p>
+ * Latency is the score, and the allocations per request are reported by the gc profiler as
+ * {@code gc.alloc.rate.norm}. The statements and selected columns per request are counted by a
+ * Hibernate statement inspector and printed after every measurement iteration.
+ * <p>
+ * Run with {@code java -cp <test classpath> com.webApp.benchmark.ReadPathBenchmark}
+ * or from the IDE. The application is started on the in-memory database of the test profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    private static final int CATEGORIES = 8;
+
+    @Param({"10", "100"})
+    private int linksPerCategory;
+
+    private ConfigurableApplicationContext context;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ObjectMapper objectMapper;
+
+    private TitleRepository titleRepository;
+
+    private CategoryRepository categoryRepository;
+
+    private LinkRepository linkRepository;
+
+    private KnowledgeTreeService knowledgeTreeService;
+
+    private CacheManager cacheManager;
+
+    private Long userId;
+
+    private Long titleId;
+
+    private Long categoryId;
+
+    private Long linkId;
+
+    private final LongAdder requests = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(KnowledgeStoreApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SelectColumnCounter.class.getName())
+                .run();
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        objectMapper = context.getBean(ObjectMapper.class);
+        titleRepository = context.getBean(TitleRepository.class);
+        categoryRepository = context.getBean(CategoryRepository.class);
+        linkRepository = context.getBean(LinkRepository.class);
+        knowledgeTreeService = context.getBean(KnowledgeTreeService.class);
+        cacheManager = context.getBean(CacheManager.class);
+        EntityManager entityManager = context.getBean(EntityManager.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = User.builder()
+                    .username("benchmark")
+                    .email("benchmark@gmail.com")
+                    .password("secret")
+                    .active(true)
+                    .isEmailVerified(true)
+                    .build();
+            entityManager.persist(user);
+            Title title = new Title("Benchmark");
+            title.setUser(user);
+            entityManager.persist(title);
+            for (int c = 0; c < CATEGORIES; c++) {
+                Category category = new Category("Category " + c);
+                category.setTitle(title);
+                entityManager.persist(category);
+                for (int l = 0; l < linksPerCategory; l++) {
+                    Link link = new Link("https://example.com/" + c + "/" + l);
+                    link.setLinkDescription("Link " + l + " of category " + c);
+                    link.setCategory(category);
+                    entityManager.persist(link);
+                    linkId = link.getId();
+                }
+                categoryId = category.getId();
+            }
+            userId = user.getId();
+            titleId = title.getId();
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        SelectColumnCounter.reset();
+        requests.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounters() {
+        long count = Math.max(1, requests.sum());
+        System.out.printf(Locale.ROOT, "%n%.1f statements and %.1f selected columns per request%n",
+                (double) SelectColumnCounter.STATEMENTS.sum() / count,
+                (double) SelectColumnCounter.COLUMNS.sum() / count);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] titleEntity() {
+        requests.increment();
+        return transactionTemplate.execute(status ->
+                write(titleRepository.findById(titleId).orElseThrow(IllegalStateException::new)));
+    }
+
+    @Benchmark
+    public byte[] titleProjection() {
+        requests.increment();
+        cacheManager.getCache(KnowledgeTreeService.CATEGORIES_CACHE).clear();
+        return write(knowledgeTreeService.findTitle(userId, titleId, 0L).orElseThrow(IllegalStateException::new));
+    }
+
+    @Benchmark
+    public byte[] categoryEntity() {
+        requests.increment();
+        return transactionTemplate.execute(status ->
+                write(categoryRepository.findById(categoryId).orElseThrow(IllegalStateException::new)));
+    }
+
+    @Benchmark
+    public byte[] categoryProjection() {
+        requests.increment();
+        return write(knowledgeTreeService.findCategory(userId, titleId, categoryId).orElseThrow(IllegalStateException::new));
+    }
+
+    @Benchmark
+    public byte[] linkEntity() {
+        requests.increment();
+        return transactionTemplate.execute(status ->
+                write(linkRepository.findById(linkId).orElseThrow(IllegalStateException::new)));
+    }
+
+    @Benchmark
+    public byte[] linkProjection() {
+        requests.increment();
+        return write(knowledgeTreeService.findLink(userId, titleId, categoryId, linkId).orElseThrow(IllegalStateException::new));
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Counts the statements Hibernate prepares and the columns in the select list of each
+     */
+    public static class SelectColumnCounter implements StatementInspector {
+
+        static final LongAdder STATEMENTS = new LongAdder();
+
+        static final LongAdder COLUMNS = new LongAdder();
+
+        static void reset() {
+            STATEMENTS.reset();
+            COLUMNS.reset();
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.increment();
+            String statement = sql.toLowerCase(Locale.ROOT);
+            int select = statement.indexOf("select ");
+            int from = statement.indexOf(" from ");
+            if (select >= 0 && from > select) {
+                int columns = 1;
+                int depth = 0;
+                for (int i = select; i < from; i++) {
+                    char c = statement.charAt(i);
+                    if (c == '(') {
+                        depth++;
+                    } else if (c == ')') {
+                        depth--;
+                    } else if (c == ',' && depth == 0) {
+                        columns++;
+                    }
+                }
+                COLUMNS.add(columns);
+            }
+            return sql;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReadPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,134 @@
+package com.webApp.cache;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.Cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ExpiringMapCacheTest {
+
+    private ExpiringMapCache cache;
+
+    @Before
+    public void setUp() {
+        this.cache = new ExpiringMapCache("titles", 2, 10000);
+    }
+
+    @Test
+    public void testGetLoadsOnceAndCountsHitsAndMisses() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals("A", cache.get(1L, () -> {
+            calls.incrementAndGet();
+            return "A";
+        }));
+        assertEquals("A", cache.get(1L, () -> "B"));
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getLoadCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testEvictRemovesOnlyTheGivenKey() {
+        cache.put(1L, "A");
+        cache.put(2L, "B");
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertEquals("B", cache.get(2L).get());
+    }
+
+    @Test
+    public void testCacheIsBoundedByMaxSize() {
+        cache.put(1L, "A");
+        cache.put(2L, "B");
+        cache.put(3L, "C");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testCacheIsBoundedByWeight() {
+        ExpiringMapCache weighed = new ExpiringMapCache("titles", 10, 100, 10000);
+        weighed.put(1L, new Value(40));
+        weighed.put(2L, new Value(40));
+        weighed.put(3L, new Value(40));
+
+        assertNull(weighed.get(1L));
+        assertEquals(2, weighed.size());
+        assertEquals(80, weighed.weight());
+        assertEquals(1, weighed.getEvictionCount());
+
+        weighed.evict(2L);
+        assertEquals(40, weighed.weight());
+    }
+
+    @Test
+    public void testValueHeavierThanMaxWeightIsNotKept() {
+        ExpiringMapCache weighed = new ExpiringMapCache("titles", 10, 100, 10000);
+        weighed.put(1L, new Value(40));
+
+        Value heavy = new Value(101);
+        assertSame(heavy, weighed.get(2L, () -> heavy));
+
+        assertNull(weighed.get(2L));
+        assertEquals(1, weighed.size());
+        assertEquals(40, weighed.weight());
+    }
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws InterruptedException {
+        ExpiringMapCache shortLived = new ExpiringMapCache("categories", 10, 50);
+        shortLived.put(1L, "A");
+
+        Thread.sleep(200);
+
+        assertNull(shortLived.get(1L));
+    }
+
+    @Test
+    public void testManagerBindsHitRatioEvictionAndLoadMetrics() {
+        ExpiringMapCacheManager manager = new ExpiringMapCacheManager(Arrays.asList("titles", "categories"), 10, 10000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        manager.bindTo(registry);
+
+        Cache titles = manager.getCache("titles");
+        titles.get(1L, () -> "A");
+        titles.get(1L, () -> "A");
+
+        assertNull(manager.getCache("links"));
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "titles").tag("result", "hit")
+                .functionCounter().count(), 0.0);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "titles").tag("result", "miss")
+                .functionCounter().count(), 0.0);
+        FunctionTimer loads = registry.get("cache.load").tag("cache", "titles").functionTimer();
+        assertEquals(1.0, loads.count(), 0.0);
+        registry.get("cache.evictions").tag("cache", "categories").functionCounter();
+    }
+
+    private static final class Value implements Weighted {
+
+        private final long weight;
+
+        private Value(long weight) {
+            this.weight = weight;
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.webApp.cache;
+
+import com.webApp.security.JwtClaims;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class JwtClaimsCacheTest {
+
+    private JwtClaimsCache cache;
+
+    @Before
+    public void setUp() {
+        this.cache = new JwtClaimsCache(2);
+    }
+
+    @Test
+    public void testGetClaimsCountsHitsAndMisses() {
+        JwtClaims claims = stubClaims(1L, System.currentTimeMillis() + 10000);
+
+        assertNull(cache.getClaimsForToken("T1"));
+        cache.putClaimsForToken("T1", claims);
+        assertSame(claims, cache.getClaimsForToken("T1"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testExpiredClaimsAreNotCached() {
+        cache.putClaimsForToken("T2", stubClaims(2L, System.currentTimeMillis() - 1));
+
+        assertNull(cache.getClaimsForToken("T2"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBoundedByMaxSize() {
+        long expiry = System.currentTimeMillis() + 10000;
+        cache.putClaimsForToken("T1", stubClaims(1L, expiry));
+        cache.putClaimsForToken("T2", stubClaims(2L, expiry));
+        cache.putClaimsForToken("T3", stubClaims(3L, expiry));
+
+        assertEquals(2, cache.size());
+        assertNull(cache.getClaimsForToken("T1"));
+    }
+
+    private JwtClaims stubClaims(Long userId, long expiry) {
+        return new JwtClaims(userId, "U" + userId, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")),
+                0L, System.currentTimeMillis(), expiry);
+    }
+}
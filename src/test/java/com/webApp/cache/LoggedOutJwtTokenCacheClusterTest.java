@@ -0,0 +1,90 @@
+package com.webApp.cache;
+
+import com.webApp.event.OnUserLogoutSuccessEvent;
+import com.webApp.repository.RevokedTokenRepository;
+import com.webApp.security.JwtTokenProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two nodes of the app sharing one database, each with its own logout token cache
+ */
+@DataJpaTest
+@RunWith(SpringRunner.class)
+public class LoggedOutJwtTokenCacheClusterTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private JwtTokenProvider mockTokenProvider;
+
+    private LoggedOutJwtTokenCache firstNode;
+
+    private LoggedOutJwtTokenCache secondNode;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.firstNode = stubNode();
+        this.secondNode = stubNode();
+    }
+
+    @Test
+    public void whenTokenIsLoggedOutOnOneNode_thenOtherNodeRejectsIt() {
+        when(mockTokenProvider.getTokenExpiryFromJWT("T1")).thenReturn(Date.from(Instant.now().plusSeconds(100)));
+
+        firstNode.markLogoutEventForToken(new OnUserLogoutSuccessEvent("U1", "T1", null));
+
+        assertEquals(1, revokedTokenRepository.count());
+        assertNull(secondNode.getLogoutEventForToken("T1"));
+
+        secondNode.pollRevocations();
+
+        OnUserLogoutSuccessEvent event = secondNode.getLogoutEventForToken("T1");
+        assertNotNull(event);
+        assertEquals("U1", event.getUserEmail());
+        assertNull(secondNode.getLogoutEventForToken("T2"));
+    }
+
+    @Test
+    public void whenNodeStarts_thenItLoadsExistingRevocations() {
+        when(mockTokenProvider.getTokenExpiryFromJWT("T3")).thenReturn(Date.from(Instant.now().plusSeconds(100)));
+        firstNode.markLogoutEventForToken(new OnUserLogoutSuccessEvent("U3", "T3", null));
+
+        LoggedOutJwtTokenCache startedNode = stubNode();
+        startedNode.init();
+
+        assertNotNull(startedNode.getLogoutEventForToken("T3"));
+    }
+
+    @Test
+    public void whenRevocationExpires_thenItIsPurged() {
+        when(mockTokenProvider.getTokenExpiryFromJWT("T4")).thenReturn(Date.from(Instant.now().minusSeconds(1)));
+        firstNode.markLogoutEventForToken(new OnUserLogoutSuccessEvent("U4", "T4", null));
+
+        secondNode.rebuildBloomFilter();
+
+        assertEquals(0, revokedTokenRepository.count());
+        assertNull(secondNode.getLogoutEventForToken("T4"));
+    }
+
+    private LoggedOutJwtTokenCache stubNode() {
+        return new LoggedOutJwtTokenCache(10, 1000, 0.01, 10000, mockTokenProvider,
+                new DatabaseTokenRevocationStore(revokedTokenRepository));
+    }
+}
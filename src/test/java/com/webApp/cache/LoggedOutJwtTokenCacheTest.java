@@ -24,7 +24,7 @@ public class LoggedOutJwtTokenCacheTest {
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        this.cache = new LoggedOutJwtTokenCache(10, mockTokenProvider);
+        this.cache = new LoggedOutJwtTokenCache(10, 1000, 0.01, 0, mockTokenProvider, new InMemoryTokenRevocationStore());
     }
 
     @Test
@@ -48,6 +48,19 @@ public class LoggedOutJwtTokenCacheTest {
         assertNotNull(cache.getLogoutEventForToken("T2"));
     }
 
+    @Test
+    public void getLogoutEventTokenWhenRevokedTokenTableIsFull() {
+        for (int i = 0; i < 20; i++) {
+            String token = "T" + i;
+            when(mockTokenProvider.getTokenExpiryFromJWT(token)).thenReturn(Date.from(Instant.now().plusSeconds(100)));
+            cache.markLogoutEventForToken(stubLogoutEvent("U" + i, token));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(cache.getLogoutEventForToken("T" + i));
+        }
+    }
+
     private OnUserLogoutSuccessEvent stubLogoutEvent(String email, String token) {
         return new OnUserLogoutSuccessEvent(email, token, null);
     }
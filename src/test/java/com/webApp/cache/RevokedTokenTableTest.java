@@ -0,0 +1,90 @@
+package com.webApp.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RevokedTokenTableTest {
+
+    private static final long NOW = 1_600_000_000L;
+
+    private RevokedTokenTable table;
+
+    @Before
+    public void setUp() {
+        this.table = new RevokedTokenTable(5000, NOW);
+    }
+
+    @Test
+    public void testContainsOnlyAddedDigests() {
+        table.add(1L, 2L, NOW + 100, NOW);
+
+        assertTrue(table.contains(1L, 2L, NOW));
+        assertFalse(table.contains(2L, 1L, NOW));
+        assertFalse(table.contains(1L, 3L, NOW));
+    }
+
+    @Test
+    public void testEntryIsNotContainedAfterItsExpiry() {
+        table.add(1L, 2L, NOW + 10, NOW);
+
+        assertTrue(table.contains(1L, 2L, NOW + 9));
+        assertFalse(table.contains(1L, 2L, NOW + 10));
+    }
+
+    @Test
+    public void testExpireRemovesOnlyDueEntries() {
+        table.add(1L, 1L, NOW + 10, NOW);
+        table.add(2L, 2L, NOW + 20, NOW);
+        table.add(3L, 3L, NOW + 10 + 4096, NOW);
+
+        assertEquals(1, table.expire(NOW + 10));
+        assertEquals(2, table.size());
+        assertTrue(table.contains(2L, 2L, NOW + 10));
+        assertTrue(table.contains(3L, 3L, NOW + 10));
+
+        assertEquals(1, table.expire(NOW + 20));
+        assertEquals(1, table.expire(NOW + 10 + 4096));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testTableGrowsAndKeepsEntries() {
+        for (long i = 1; i <= 4000; i++) {
+            assertTrue(table.add(i, -i, NOW + (i % 50) + 1, NOW));
+        }
+
+        assertEquals(4000, table.size());
+        assertTrue(table.capacity() >= 8000);
+        for (long i = 1; i <= 4000; i++) {
+            assertTrue(table.contains(i, -i, NOW));
+        }
+    }
+
+    @Test
+    public void testSlotsAreReusedAfterExpiry() {
+        for (int round = 0; round < 10; round++) {
+            long now = NOW + round * 10L;
+            for (long i = 1; i <= 1000; i++) {
+                table.add(round * 1000L + i, i, now + 5, now);
+            }
+            table.expire(now + 5);
+        }
+
+        assertEquals(0, table.size());
+        assertTrue(table.capacity() <= 4096);
+    }
+
+    @Test
+    public void testAddIsRejectedWhenTableIsFull() {
+        RevokedTokenTable smallTable = new RevokedTokenTable(2, NOW);
+
+        assertTrue(smallTable.add(1L, 1L, NOW + 10, NOW));
+        assertTrue(smallTable.add(2L, 2L, NOW + 10, NOW));
+        assertFalse(smallTable.add(3L, 3L, NOW + 10, NOW));
+        assertTrue(smallTable.add(2L, 2L, NOW + 10, NOW));
+    }
+}
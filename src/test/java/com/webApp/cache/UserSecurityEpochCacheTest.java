@@ -0,0 +1,72 @@
+package com.webApp.cache;
+
+import com.webApp.model.User;
+import com.webApp.repository.UserRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@DataJpaTest
+@RunWith(SpringRunner.class)
+public class UserSecurityEpochCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @Before
+    public void setUp() {
+        User user = User.builder()
+                .username("epoch")
+                .email("epoch@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build();
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    public void whenCacheIsEmptied_thenTokenOfOlderEpochIsStillRejected() {
+        UserSecurityEpochCache cache = new UserSecurityEpochCache(userRepository, 10, 60000);
+        assertTrue(cache.isCurrentEpoch(userId, 0L));
+
+        assertEquals(1L, cache.incrementEpochForUser(userId));
+
+        // a restarted node starts with nothing cached and reads the epoch back from the user
+        UserSecurityEpochCache restarted = new UserSecurityEpochCache(userRepository, 10, 60000);
+        assertFalse(restarted.isCurrentEpoch(userId, 0L));
+        assertTrue(restarted.isCurrentEpoch(userId, 1L));
+    }
+
+    @Test
+    public void whenEpochIsBumpedOnAnotherNode_thenItIsSeenOnceTheCachedEpochExpires() throws InterruptedException {
+        UserSecurityEpochCache firstNode = new UserSecurityEpochCache(userRepository, 10, 60000);
+        UserSecurityEpochCache secondNode = new UserSecurityEpochCache(userRepository, 10, 50);
+        assertTrue(secondNode.isCurrentEpoch(userId, 0L));
+
+        firstNode.incrementEpochForUser(userId);
+        Thread.sleep(200);
+
+        assertFalse(secondNode.isCurrentEpoch(userId, 0L));
+    }
+
+    @Test
+    public void whenEpochIsBumpedTwice_thenTokensOfBothOlderEpochsAreRejected() {
+        UserSecurityEpochCache cache = new UserSecurityEpochCache(userRepository, 10, 60000);
+        cache.incrementEpochForUser(userId);
+        cache.incrementEpochForUser(userId);
+
+        assertEquals(2L, cache.getEpochForUser(userId));
+        assertFalse(cache.isCurrentEpoch(userId, 1L));
+        assertEquals(2L, userRepository.findSecurityEpochById(userId).orElse(0L).longValue());
+    }
+}
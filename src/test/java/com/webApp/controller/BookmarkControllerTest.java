@@ -0,0 +1,136 @@
+package com.webApp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.webApp.model.DeviceType;
+import com.webApp.payload.DeviceInfo;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/test_sql_scripts/delete_link.sql",
+        "/test_sql_scripts/delete_category.sql",
+        "/test_sql_scripts/delete_titles.sql",
+        "/test_sql_scripts/delete_refresh_token.sql",
+        "/test_sql_scripts/delete_user_device.sql",
+        "/test_sql_scripts/delete_user_role.sql",
+        "/test_sql_scripts/insert_role.sql",
+        "/test_sql_scripts/insert_user.sql",
+        "/test_sql_scripts/insert_user_role.sql"})
+@ActiveProfiles(profiles = "test")
+public class BookmarkControllerTest {
+
+    private static final String IMPORT_URL = "http://localhost:8080/api/user/bookmarks/import";
+
+    private static final String LOGIN_URL = "http://localhost:8080/api/auth/login";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private String getJWTToken() throws Exception {
+        DeviceInfo info = new DeviceInfo("123456", DeviceType.DEVICE_TYPE_ANDROID, "78910");
+
+        String response = mockMvc
+                .perform(
+                        post(LOGIN_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\n" +
+                                        "    \"email\": \"alexwoodyside@gmail.com\",\n" +
+                                        "    \"password\": \"secret123\",\n" +
+                                        "    \"deviceInfo\": {\n" +
+                                        "        \"deviceId\": \"" + info.getDeviceId() + "\",\n" +
+                                        "        \"deviceType\": \"" + info.getDeviceType() + "\",\n" +
+                                        "        \"notificationToken\": \"" + info.getNotificationToken() + "\"\n" +
+                                        "    }\n" +
+                                        "}")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JSONObject jsonObject = new JSONObject(response);
+        return "Bearer " + jsonObject.get("accessToken");
+    }
+
+    @Before
+    public void setUp() {
+        linkRepository.deleteAll();
+        categoryRepository.deleteAll();
+        titleRepository.deleteAll();
+    }
+
+    @Test
+    public void whenImportBookmarks_thenStreamProgressUntilDone() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "bookmarks.html", MediaType.TEXT_HTML_VALUE,
+                ("<DL><p><DT><H3>Programming</H3><DL><p>" +
+                        "<DT><A HREF=\"https://docs.oracle.com\">Docs</A>" +
+                        "<DT><A HREF=\"https://openjdk.java.net\">OpenJDK</A>" +
+                        "</DL><p></DL><p>").getBytes(StandardCharsets.UTF_8));
+
+        MvcResult result = mockMvc
+                .perform(
+                        multipart(IMPORT_URL)
+                                .file(file)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\\n");
+        String last = lines[lines.length - 1];
+        assertThat((Boolean) JsonPath.read(last, "$.done")).isTrue();
+        assertThat((Integer) JsonPath.read(last, "$.links")).isEqualTo(2);
+        assertThat(titleRepository.findTitleByName("Programming")).isNotNull();
+    }
+
+    @Test
+    public void whenImportBookmarksWithoutJWTToken_thenReturnIsUnauthorized() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "bookmarks.html", MediaType.TEXT_HTML_VALUE,
+                "<DL><p></DL><p>".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc
+                .perform(multipart(IMPORT_URL).file(file))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,143 @@
+package com.webApp.controller;
+
+import com.webApp.model.DeviceType;
+import com.webApp.payload.DeviceInfo;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/test_sql_scripts/delete_link.sql",
+        "/test_sql_scripts/delete_category.sql",
+        "/test_sql_scripts/delete_titles.sql",
+        "/test_sql_scripts/delete_refresh_token.sql",
+        "/test_sql_scripts/delete_user_device.sql",
+        "/test_sql_scripts/delete_user_role.sql",
+        "/test_sql_scripts/insert_role.sql",
+        "/test_sql_scripts/insert_user.sql",
+        "/test_sql_scripts/insert_user_role.sql"})
+@ActiveProfiles(profiles = "test")
+public class ExportControllerTest {
+
+    private static final String EXPORT_URL = "http://localhost:8080/api/user/export";
+
+    private static final String LOGIN_URL = "http://localhost:8080/api/auth/login";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private String getJWTToken() throws Exception {
+        DeviceInfo info = new DeviceInfo("123456", DeviceType.DEVICE_TYPE_ANDROID, "78910");
+
+        String response = mockMvc
+                .perform(
+                        post(LOGIN_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\n" +
+                                        "    \"email\": \"alexwoodyside@gmail.com\",\n" +
+                                        "    \"password\": \"secret123\",\n" +
+                                        "    \"deviceInfo\": {\n" +
+                                        "        \"deviceId\": \"" + info.getDeviceId() + "\",\n" +
+                                        "        \"deviceType\": \"" + info.getDeviceType() + "\",\n" +
+                                        "        \"notificationToken\": \"" + info.getNotificationToken() + "\"\n" +
+                                        "    }\n" +
+                                        "}")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JSONObject jsonObject = new JSONObject(response);
+        return "Bearer " + jsonObject.get("accessToken");
+    }
+
+    @Before
+    public void setUp() {
+        linkRepository.deleteAll();
+        categoryRepository.deleteAll();
+        titleRepository.deleteAll();
+    }
+
+    @Test
+    public void whenExportCsv_thenStreamAttachment() throws Exception {
+        String token = getJWTToken();
+        mockMvc
+                .perform(
+                        post("http://localhost:8080/api/user/titles/")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\": \"Title1\"}")
+                )
+                .andExpect(status().isCreated());
+
+        MvcResult result = mockMvc
+                .perform(
+                        get(EXPORT_URL)
+                                .param("format", "csv")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"knowledge-store.csv\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body).startsWith("title,category,link_name,link_description\r\n");
+        assertThat(body.split("\r\n")).hasSize(5);
+    }
+
+    @Test
+    public void whenExportUnknownFormat_thenReturn400() throws Exception {
+        mockMvc
+                .perform(
+                        get(EXPORT_URL)
+                                .param("format", "xml")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenExportWithoutJWTToken_thenReturnIsUnauthorized() throws Exception {
+        mockMvc
+                .perform(get(EXPORT_URL))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -6,6 +6,7 @@ import com.webApp.payload.DeviceInfo;
 import com.webApp.repository.CategoryRepository;
 import com.webApp.repository.LinkRepository;
 import com.webApp.repository.TitleRepository;
+import com.webApp.service.LinkUsageService;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
@@ -14,15 +15,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -56,9 +67,17 @@ public class LinkControllerTest {
     @Autowired
     private LinkRepository linkRepository;
 
+    @Autowired
+    private LinkUsageService linkUsageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String getJWTToken() throws Exception {
-        String email = "alexwoodyside@gmail.com";
-        String password = "secret123";
+        return getJWTToken("alexwoodyside@gmail.com", "secret123");
+    }
+
+    private String getJWTToken(String email, String password) throws Exception {
         DeviceInfo info = new DeviceInfo();
         info.setDeviceId("123456");
         info.setDeviceType(DeviceType.DEVICE_TYPE_ANDROID);
@@ -261,6 +280,16 @@ public class LinkControllerTest {
                 .andExpect(status().isOk());
     }
 
+    private ResultActions getAllLinksIfNoneMatch(Integer titleId, Integer categoryId, String eTag) throws Exception {
+        return mockMvc
+                .perform(
+                        get(TITLE_URL + "/" +
+                                titleId + "/" + "categories" + "/" + categoryId + "/" + "links")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                );
+    }
+
     private void getAllLinksWithoutJWTToken(Integer titleId, Integer categoryId) throws Exception {
         mockMvc
                 .perform(
@@ -532,6 +561,41 @@ public class LinkControllerTest {
         getAllLinks(titleId,categoryId);
     }
 
+    @Test
+    public void whenLinksDidNotChange_thenConditionalGetReturnsNotModified() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions linkActions = createLink(titleId, categoryId, "http://whatever.com");
+        Integer linkId = JsonPath.read(linkActions.andReturn().getResponse().getContentAsString(), "$.id");
+
+        String eTag = getAllLinksIfNoneMatch(titleId, categoryId, "\"none\"")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        getAllLinksIfNoneMatch(titleId, categoryId, eTag)
+                .andExpect(status().isNotModified());
+
+        deleteLink(titleId, categoryId, linkId, "http://whatever.com");
+
+        getAllLinksIfNoneMatch(titleId, categoryId, eTag)
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    public void whenTitleIsHiddenForPurge_thenItsLinksAreNotListed() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+        createLink(titleId, categoryId, "http://whatever.com");
+        jdbcTemplate.update("update titles set deleted_at = current_timestamp where id = ?", titleId);
+
+        getAllLinksIfNoneMatch(titleId, categoryId, "\"none\"")
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void whenGetAllLinksWithInvalidJWTToken_thenReturnIsUnauthorized() throws Exception {
         ResultActions actions = createTitle("Title1");
@@ -671,4 +735,404 @@ public class LinkControllerTest {
         createLink(titleId,categoryId, "http://whatever.com");
         deleteLinkByNonExistentId(titleId,categoryId,10000, "http://whateverandwhoever.com");
     }
+
+    @Test
+    public void whenGetLinkPages_thenFollowNextCursorToTheEnd() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+        createLink(titleId,categoryId, "http://first.com");
+        createLink(titleId,categoryId, "http://second.com");
+        createLink(titleId,categoryId, "http://third.com");
+
+        String firstPage = mockMvc
+                .perform(
+                        get(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/page")
+                                .param("size", "2")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.links.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.links[0].linkName").value("http://first.com"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.links[1].linkName").value("http://second.com"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").isNotEmpty())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String next = JsonPath.read(firstPage, "$.next");
+
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/page")
+                                .param("size", "2")
+                                .param("cursor", next)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.links.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.links[0].linkName").value("http://third.com"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    public void whenGetLinkPageWithInvalidCursor_thenReturn400() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/page")
+                                .param("cursor", "not a cursor")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenStreamLinks_thenReturnOneJsonLinePerLink() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+        createLink(titleId,categoryId, "http://first.com");
+        createLink(titleId,categoryId, "http://second.com");
+
+        MvcResult result = mockMvc
+                .perform(
+                        get(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links")
+                                .accept(LinkController.APPLICATION_NDJSON_VALUE)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat((String) JsonPath.read(lines[0], "$.linkName")).isEqualTo("http://first.com");
+        assertThat((String) JsonPath.read(lines[1], "$.linkName")).isEqualTo("http://second.com");
+    }
+
+    @Test
+    public void whenImportLinks_thenCreateAllOfThem() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"linkName\": \"http://first.com\"}," +
+                                        "{\"linkName\": \"http://second.com\", \"linkDescription\": \"Second\"}," +
+                                        "{\"linkName\": \"http://third.com\"}]}")
+                )
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ids.length()").value(3));
+
+        assertThat(linkRepository.findByCategoryId(categoryId.longValue())).hasSize(3);
+    }
+
+    @Test
+    public void whenImportLinksWithInvalidOne_thenReturn400AndCreateNone() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"categoryId\": " + categoryId + ", \"linkName\": \"http://first.com\"}," +
+                                        "{\"categoryId\": " + categoryId + ", \"linkName\": \"whatever\"}]}")
+                )
+                .andExpect(status().isBadRequest());
+
+        assertThat(linkRepository.findByCategoryId(categoryId.longValue())).isEmpty();
+    }
+
+    @Test
+    public void whenImportLinksIntoTitleOfAnotherUser_thenReturn404AndCreateNone() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        ResultActions categoryActions = createCategory(titleId, "Category1");
+        Integer categoryId = JsonPath.read(categoryActions.andReturn().getResponse().getContentAsString(), "$.id");
+        String otherUserToken = getJWTToken("whatever@mail.ru", "secret10");
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, otherUserToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [{\"linkName\": \"http://first.com\"}]}")
+                )
+                .andExpect(status().isNotFound());
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, otherUserToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [{\"categoryId\": " + categoryId + ", \"linkName\": \"http://first.com\"}]}")
+                )
+                .andExpect(status().isNotFound());
+
+        assertThat(linkRepository.findByCategoryId(categoryId.longValue())).isEmpty();
+    }
+
+    @Test
+    public void whenMoveThenDeleteLinks_thenReturnAffectedCounts() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        Integer sourceId = JsonPath.read(createCategory(titleId, "Category1").andReturn().getResponse().getContentAsString(), "$.id");
+        Integer targetId = JsonPath.read(createCategory(titleId, "Category2").andReturn().getResponse().getContentAsString(), "$.id");
+        String created = mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + sourceId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"linkName\": \"http://first.com\"}," +
+                                        "{\"linkName\": \"http://second.com\"}]}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String linkIds = JsonPath.read(created, "$.ids").toString();
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/links/move")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"linkIds\": " + linkIds + ", \"targetCategoryId\": " + targetId + "}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+
+        assertThat(linkRepository.findByCategoryId(targetId.longValue())).hasSize(2);
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/links/delete")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"linkIds\": " + linkIds + "}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.affected").value(2));
+
+        assertThat(linkRepository.findByCategoryId(targetId.longValue())).isEmpty();
+    }
+
+    @Test
+    public void whenMoveLinksToUnknownCategory_thenReturn404() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/links/move")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"linkIds\": [1, 2], \"targetCategoryId\": 123456}")
+                )
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void whenOpenLinks_thenTheyAreListedByUsage() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        Integer categoryId = JsonPath.read(createCategory(titleId, "Category1").andReturn().getResponse().getContentAsString(), "$.id");
+        String created = mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"linkName\": \"http://first.com\"}," +
+                                        "{\"linkName\": \"http://second.com\"}]}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer firstId = JsonPath.read(created, "$.ids[0]");
+        Integer secondId = JsonPath.read(created, "$.ids[1]");
+
+        openLink(firstId);
+        openLink(secondId);
+        openLink(secondId);
+        mockMvc
+                .perform(
+                        post("/api/user/links/123456/open")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isNotFound());
+        linkUsageService.flush();
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/most-used")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(secondId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].openCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].titleId").value(titleId));
+    }
+
+    private void openLink(Integer linkId) throws Exception {
+        mockMvc
+                .perform(
+                        post("/api/user/links/" + linkId + "/open")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    public void whenLinksFailTheirChecks_thenTheyAreListedAsBroken() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        Integer categoryId = JsonPath.read(createCategory(titleId, "Category1").andReturn().getResponse().getContentAsString(), "$.id");
+        String created = mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"linkName\": \"http://working.com\"}," +
+                                        "{\"linkName\": \"http://gone.com\"}]}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Integer workingId = JsonPath.read(created, "$.ids[0]");
+        Integer goneId = JsonPath.read(created, "$.ids[1]");
+        String insertHealth = "insert into link_health (link_id, status_code, consecutive_failures, checked_at) " +
+                "values (?, ?, ?, current_timestamp)";
+        jdbcTemplate.update(insertHealth, workingId, 200, 0);
+        jdbcTemplate.update(insertHealth, goneId, 404, 2);
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/broken")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(goneId))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].statusCode").value(404))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].categoryId").value(categoryId));
+    }
+
+    @Test
+    public void whenCreateSameLinkInAnotherForm_thenReturn409UnlessDuplicatesAreAllowed() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        Integer categoryId = JsonPath.read(createCategory(titleId, "Category1").andReturn().getResponse().getContentAsString(), "$.id");
+
+        createLinkRequest(titleId, categoryId, "", "https://example.com/page").andExpect(status().isCreated());
+        createLinkRequest(titleId, categoryId, "", "http://example.com/page/?utm_source=feed").andExpect(status().isConflict());
+        createLinkRequest(titleId, categoryId, "?allowDuplicate=true", "http://example.com/page/").andExpect(status().isCreated());
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/duplicates")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].canonicalUrl").value("example.com/page"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].links.length()").value(2));
+    }
+
+    @Test
+    public void whenSnapshotIsUploaded_thenItIsStreamedBackSandboxed() throws Exception {
+        ResultActions actions = createTitle("Title1");
+        Integer titleId = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        Integer categoryId = JsonPath.read(createCategory(titleId, "Category1").andReturn().getResponse().getContentAsString(), "$.id");
+        Integer linkId = JsonPath.read(createLinkRequest(titleId, categoryId, "", "https://example.com/archived")
+                .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString(), "$.id");
+        String page = "<html><head><title>Archived</title></head><body>Saved for later</body></html>";
+
+        String uploaded = mockMvc
+                .perform(
+                        post("/api/user/links/" + linkId + "/snapshots")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.TEXT_HTML)
+                                .content(page)
+                )
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.source").value("UPLOAD"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size").value(page.length()))
+                .andReturn().getResponse().getContentAsString();
+        Integer snapshotId = JsonPath.read(uploaded, "$.id");
+        String sha256 = JsonPath.read(uploaded, "$.sha256");
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/" + linkId + "/snapshots")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(snapshotId));
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/" + linkId + "/snapshots/" + snapshotId)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Security-Policy", "sandbox"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"" + sha256 + "\""))
+                .andExpect(MockMvcResultMatchers.content().string(page));
+
+        byte[] compressed = mockMvc
+                .perform(
+                        get("/api/user/links/" + linkId + "/snapshots/" + snapshotId)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (InputStream content = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertThat(StreamUtils.copyToString(content, StandardCharsets.UTF_8)).isEqualTo(page);
+        }
+
+        mockMvc
+                .perform(
+                        get("/api/user/links/" + linkId + "/snapshots/" + snapshotId)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + sha256 + "\"")
+                )
+                .andExpect(status().isNotModified());
+    }
+
+    private ResultActions createLinkRequest(Integer titleId, Integer categoryId, String query, String linkName) throws Exception {
+        return mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links" + query)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"linkName\": \"" + linkName + "\"}")
+                );
+    }
 }
@@ -0,0 +1,243 @@
+package com.webApp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.webApp.model.DeviceType;
+import com.webApp.payload.DeviceInfo;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/test_sql_scripts/delete_link.sql",
+        "/test_sql_scripts/delete_category.sql",
+        "/test_sql_scripts/delete_titles.sql",
+        "/test_sql_scripts/delete_refresh_token.sql",
+        "/test_sql_scripts/delete_user_device.sql",
+        "/test_sql_scripts/delete_user_role.sql",
+        "/test_sql_scripts/insert_role.sql",
+        "/test_sql_scripts/insert_user.sql",
+        "/test_sql_scripts/insert_user_role.sql"})
+@ActiveProfiles(profiles = "test")
+public class SearchControllerTest {
+
+    private static final String SEARCH_URL = "http://localhost:8080/api/user/search/links";
+
+    private static final String TITLE_URL = "http://localhost:8080/api/user/titles";
+
+    private static final String LOGIN_URL = "http://localhost:8080/api/auth/login";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private String getJWTToken() throws Exception {
+        DeviceInfo info = new DeviceInfo("123456", DeviceType.DEVICE_TYPE_ANDROID, "78910");
+
+        String response = mockMvc
+                .perform(
+                        post(LOGIN_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\n" +
+                                        "    \"email\": \"alexwoodyside@gmail.com\",\n" +
+                                        "    \"password\": \"secret123\",\n" +
+                                        "    \"deviceInfo\": {\n" +
+                                        "        \"deviceId\": \"" + info.getDeviceId() + "\",\n" +
+                                        "        \"deviceType\": \"" + info.getDeviceType() + "\",\n" +
+                                        "        \"notificationToken\": \"" + info.getNotificationToken() + "\"\n" +
+                                        "    }\n" +
+                                        "}")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JSONObject jsonObject = new JSONObject(response);
+        return "Bearer " + jsonObject.get("accessToken");
+    }
+
+    @Before
+    public void setUp() {
+        linkRepository.deleteAll();
+        categoryRepository.deleteAll();
+        titleRepository.deleteAll();
+    }
+
+    @Test
+    public void whenSearchLinks_thenReturnRankedPageWithCursor() throws Exception {
+        String token = getJWTToken();
+        createLinks(token);
+
+        String firstPage = mockMvc
+                .perform(
+                        get(SEARCH_URL)
+                                .param("q", "java")
+                                .param("size", "1")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].categoryName").value("Articles"))
+                .andExpect(jsonPath("$.results[0].titleName").value("Languages"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc
+                .perform(
+                        get(SEARCH_URL)
+                                .param("q", "java")
+                                .param("size", "1")
+                                .param("cursor", JsonPath.<String>read(firstPage, "$.next"))
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.next").isEmpty());
+    }
+
+    @Test
+    public void whenSuggestLinks_thenFollowCreatedAndDeletedLinks() throws Exception {
+        String token = getJWTToken();
+        String categoryUrl = createLinks(token);
+
+        mockMvc
+                .perform(
+                        get(SEARCH_URL + "/suggest")
+                                .param("q", "ope")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].linkName").value("https://openjdk.java.net"));
+
+        String link = mockMvc
+                .perform(
+                        post(categoryUrl + "/links")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"linkName\": \"https://openjfx.io\"}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Integer linkId = JsonPath.read(link, "$.id");
+
+        mockMvc
+                .perform(
+                        get(SEARCH_URL + "/suggest")
+                                .param("q", "ope")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].linkName").value("https://openjfx.io"));
+
+        mockMvc
+                .perform(
+                        delete(categoryUrl + "/links/" + linkId)
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc
+                .perform(
+                        get(SEARCH_URL + "/suggest")
+                                .param("q", "openjfx")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    public void whenSearchWithInvalidCursor_thenReturn400() throws Exception {
+        mockMvc
+                .perform(
+                        get(SEARCH_URL)
+                                .param("q", "java")
+                                .param("cursor", "bad")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenSearchWithoutToken_thenReturn401() throws Exception {
+        mockMvc
+                .perform(get(SEARCH_URL).param("q", "java"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * Creates three links in a new category and returns the url of the category
+     */
+    private String createLinks(String token) throws Exception {
+        String title = mockMvc
+                .perform(
+                        post(TITLE_URL + "/")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\": \"Languages\"}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Integer titleId = JsonPath.read(title, "$.id");
+        String category = mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\": \"Articles\"}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Integer categoryId = JsonPath.read(category, "$.id");
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/" + titleId + "/categories/" + categoryId + "/links/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"links\": [" +
+                                        "{\"linkName\": \"https://openjdk.java.net\", \"linkDescription\": \"OpenJDK\"}," +
+                                        "{\"linkName\": \"https://docs.oracle.com\", \"linkDescription\": \"Java SE\"}," +
+                                        "{\"linkName\": \"https://kotlinlang.org\"}]}")
+                )
+                .andExpect(status().isCreated());
+        return TITLE_URL + "/" + titleId + "/categories/" + categoryId;
+    }
+}
@@ -0,0 +1,175 @@
+package com.webApp.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.webApp.model.DeviceType;
+import com.webApp.payload.DeviceInfo;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql({"/test_sql_scripts/delete_link.sql",
+        "/test_sql_scripts/delete_category.sql",
+        "/test_sql_scripts/delete_titles.sql",
+        "/test_sql_scripts/delete_refresh_token.sql",
+        "/test_sql_scripts/delete_user_device.sql",
+        "/test_sql_scripts/delete_user_role.sql",
+        "/test_sql_scripts/insert_role.sql",
+        "/test_sql_scripts/insert_user.sql",
+        "/test_sql_scripts/insert_user_role.sql"})
+@ActiveProfiles(profiles = "test")
+public class SyncControllerTest {
+
+    private static final String SYNC_URL = "http://localhost:8080/api/user/sync";
+
+    private static final String TITLE_URL = "http://localhost:8080/api/user/titles";
+
+    private static final String LOGIN_URL = "http://localhost:8080/api/auth/login";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private String getJWTToken() throws Exception {
+        DeviceInfo info = new DeviceInfo("123456", DeviceType.DEVICE_TYPE_ANDROID, "78910");
+
+        String response = mockMvc
+                .perform(
+                        post(LOGIN_URL)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\n" +
+                                        "    \"email\": \"alexwoodyside@gmail.com\",\n" +
+                                        "    \"password\": \"secret123\",\n" +
+                                        "    \"deviceInfo\": {\n" +
+                                        "        \"deviceId\": \"" + info.getDeviceId() + "\",\n" +
+                                        "        \"deviceType\": \"" + info.getDeviceType() + "\",\n" +
+                                        "        \"notificationToken\": \"" + info.getNotificationToken() + "\"\n" +
+                                        "    }\n" +
+                                        "}")
+                )
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        JSONObject jsonObject = new JSONObject(response);
+        return "Bearer " + jsonObject.get("accessToken");
+    }
+
+    @Before
+    public void setUp() {
+        linkRepository.deleteAll();
+        categoryRepository.deleteAll();
+        titleRepository.deleteAll();
+    }
+
+    @Test
+    public void whenSyncFromToken_thenReturnCreatedAndDeletedEntities() throws Exception {
+        String token = getJWTToken();
+
+        String reset = mockMvc
+                .perform(
+                        get(SYNC_URL)
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String title = mockMvc
+                .perform(
+                        post(TITLE_URL + "/")
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\": \"Languages\"}")
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Integer titleId = JsonPath.read(title, "$.id");
+
+        String created = mockMvc
+                .perform(
+                        get(SYNC_URL)
+                                .param("since", JsonPath.<String>read(reset, "$.next"))
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reset").value(false))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.titles.length()").value(1))
+                .andExpect(jsonPath("$.titles[0].name").value("Languages"))
+                .andExpect(jsonPath("$.categories.length()").value(4))
+                .andExpect(jsonPath("$.categories[0].parentId").value(titleId))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        mockMvc
+                .perform(
+                        delete(TITLE_URL + "/" + titleId)
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc
+                .perform(
+                        get(SYNC_URL)
+                                .param("since", JsonPath.<String>read(created, "$.next"))
+                                .header(HttpHeaders.AUTHORIZATION, token)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.titles.length()").value(0))
+                .andExpect(jsonPath("$.deletedTitleIds[0]").value(titleId));
+    }
+
+    @Test
+    public void whenSyncWithInvalidToken_thenReturn400() throws Exception {
+        mockMvc
+                .perform(
+                        get(SYNC_URL)
+                                .param("since", "bad")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenSyncWithoutToken_thenReturn401() throws Exception {
+        mockMvc
+                .perform(get(SYNC_URL))
+                .andExpect(status().isUnauthorized());
+    }
+}
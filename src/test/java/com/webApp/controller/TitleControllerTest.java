@@ -11,15 +11,22 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -46,6 +53,9 @@ public class TitleControllerTest {
     @Autowired
     private TitleRepository titleRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private String getJWTToken() throws Exception {
        String email = "alexwoodyside@gmail.com";
        String password = "secret123";
@@ -181,6 +191,25 @@ public class TitleControllerTest {
                 .andExpect(status().isOk());
     }
 
+    private void getAllTitles(int expectedSize) throws Exception {
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/")
+                            .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(expectedSize));
+    }
+
+    private ResultActions getAllTitlesIf(String header, String value) throws Exception {
+        return mockMvc
+                .perform(
+                        get(TITLE_URL + "/")
+                            .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                            .header(header, value)
+                );
+    }
+
     private void getAllTitleUnauthorized() throws Exception {
         mockMvc
                 .perform(
@@ -304,6 +333,7 @@ public class TitleControllerTest {
     @Before
     public void beforeTest() {
        titleRepository.deleteAll();
+       cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -350,6 +380,47 @@ public class TitleControllerTest {
         getAllTitles();
     }
 
+    @Test
+    public void whenTitlesChangeAfterListing_thenListingIsRefreshed() throws Exception {
+        createTitle("Title1");
+        getAllTitles(1);
+        ResultActions actions = createTitle("Title2");
+        getAllTitles(2);
+        Integer id = JsonPath.read(actions.andReturn().getResponse().getContentAsString(), "$.id");
+        deleteTitleById(id);
+        getAllTitles(1);
+    }
+
+    @Test
+    public void whenTitlesDidNotChange_thenConditionalGetReturnsNotModified() throws Exception {
+        createTitle("Title1");
+        MvcResult result = mockMvc
+                .perform(
+                        get(TITLE_URL + "/")
+                            .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        String lastModified = result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        getAllTitlesIf(HttpHeaders.IF_NONE_MATCH, eTag)
+                .andExpect(status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        getAllTitlesIf(HttpHeaders.IF_MODIFIED_SINCE, lastModified)
+                .andExpect(status().isNotModified());
+
+        createTitle("Title2");
+
+        getAllTitlesIf(HttpHeaders.IF_NONE_MATCH, eTag)
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+        getAllTitlesIf(HttpHeaders.IF_MODIFIED_SINCE, lastModified)
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void whenGetAllTitlesUnauthorised_thenNoAccess() throws Exception {
         createTitle("Title1");
@@ -420,6 +491,113 @@ public class TitleControllerTest {
     public void whenDeleteTitleWithNullJWTToken_thenReturnIsNotUnauthorized() throws Exception {
         deleteTitleWithNullJWTToken(130);
     }
-}
 
+    @Test
+    public void whenGetTree_thenReturnTitlesWithTheirCategories() throws Exception {
+        createTitle("Title1");
 
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/tree")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("Title1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].categories.length()").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].categories[0].links").isEmpty());
+    }
+
+    @Test
+    public void whenUpdateTitle_thenItsCategoriesAreKept() throws Exception {
+        String created = createTitle("Title1").andReturn().getResponse().getContentAsString();
+        Integer id = JsonPath.read(created, "$.id");
+        List<Integer> categoryIds = JsonPath.read(created, "$.categories[*].id");
+
+        updateTitle(id, "Title2");
+
+        String title = mockMvc
+                .perform(
+                        get(TITLE_URL + "/" + id)
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> keptIds = JsonPath.read(title, "$.categories[*].id");
+        assertThat(keptIds).containsExactlyInAnyOrderElementsOf(categoryIds);
+    }
+
+    @Test
+    public void whenCreateTitlesInBulk_thenEachGetsTheCategoryTemplate() throws Exception {
+        mockMvc
+                .perform(
+                        put(TITLE_URL + "/category-template")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"names\": [\"Papers\", \"Talks\"]}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"names\": [\"Title1\", \"Title2\", \"Title3\"]}")
+                )
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].name").value("Title3"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].categories[*].name").value(contains("Papers", "Talks")));
+
+        mockMvc
+                .perform(
+                        put(TITLE_URL + "/category-template")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"names\": []}")
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(4));
+    }
+
+    @Test
+    public void whenCreateTitlesInBulkWithInvalidName_thenReturn400() throws Exception {
+        mockMvc
+                .perform(
+                        post(TITLE_URL + "/bulk")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"names\": [\"Title1\", \"\"]}")
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void whenGetSummary_thenReturnCountsOfTitlesCategoriesAndLinks() throws Exception {
+        createTitle("Title1");
+        createTitle("Title2");
+
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/summary")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.titleCount").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.categoryCount").value(8))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.linkCount").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.titles[1].name").value("Title2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.titles[1].categoryCount").value(4));
+
+        mockMvc
+                .perform(
+                        get(TITLE_URL + "/")
+                                .header(HttpHeaders.AUTHORIZATION, getJWTToken())
+                )
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].categoryCount").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].linkCount").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].categories[0].linkCount").value(0));
+    }
+}
@@ -0,0 +1,51 @@
+package com.webApp.fetch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HostDispatcherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final HostDispatcher dispatcher = new HostDispatcher("test", 1, 1, 60000, 10, 2);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void whenHostHasEnoughTasksWaiting_thenOnlyItsTasksAreRefused() {
+        assertThat(dispatcher.offer("busy.example.com", this::block)).isTrue();
+        assertThat(dispatcher.offer("busy.example.com", this::block)).isTrue();
+        assertThat(dispatcher.offer("busy.example.com", this::block)).isTrue();
+
+        assertThat(dispatcher.offer("busy.example.com", this::block)).isFalse();
+        assertThat(dispatcher.remainingCapacity()).isEqualTo(8);
+        assertThat(dispatcher.offer("other.example.com", this::block)).isTrue();
+    }
+
+    @Test
+    public void whenQueueIsFull_thenNoCapacityRemains() {
+        for (int i = 0; i < 11; i++) {
+            assertThat(dispatcher.offer("host" + i + ".example.com", this::block)).isTrue();
+        }
+
+        assertThat(dispatcher.offer("last.example.com", this::block)).isFalse();
+        assertThat(dispatcher.remainingCapacity()).isZero();
+    }
+
+    private void block() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
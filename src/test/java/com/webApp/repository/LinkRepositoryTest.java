@@ -5,13 +5,17 @@ import com.webApp.model.Category;
 import com.webApp.model.Link;
 import com.webApp.model.Title;
 import com.webApp.model.User;
+import com.webApp.payload.LinkHealthTarget;
+import com.webApp.payload.LinkResponse;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -390,6 +394,32 @@ public class LinkRepositoryTest {
 
         assertThat(foundLink.get()).isEqualTo(link);
     }
-}
 
+    @Test
+    public void whenTitleIsHiddenForPurge_thenScansLeaveItsLinksOut() {
+        User user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Link visible = persistLink(user, "Visible", "http://visible.com");
+        Link hidden = persistLink(user, "Hidden", "http://hidden.com");
+        testEntityManager.find(Title.class, hidden.getCategory().getTitle().getId()).setDeletedAt(new Date());
+        testEntityManager.flush();
+
+        assertThat(linkRepository.findNotEnrichedAfter(0, PageRequest.of(0, 10)))
+                .extracting(LinkResponse::getId).containsExactly(visible.getId());
+        assertThat(linkRepository.findHealthTargetsAfter(0, new Date(), PageRequest.of(0, 10)))
+                .extracting(LinkHealthTarget::getId).containsExactly(visible.getId());
+    }
 
+    private Link persistLink(User user, String titleName, String url) {
+        Title title = testEntityManager.persist(Title.builder().name(titleName).user(user).build());
+        Category category = testEntityManager.persist(Category.builder().name("Category").title(title).build());
+        Link link = new Link(url);
+        link.setCategory(category);
+        return testEntityManager.persist(link);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -231,4 +232,35 @@ public class TitleRepositoryTest {
 
         assertThat(foundTitle.get()).isEqualTo(title1);
     }
+
+    @Test
+    public void whenTitleIsRenamedByAnotherUser_thenItKeepsItsName() {
+
+        User owner = User.builder()
+                .username("owner")
+                .email("owner@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build();
+        User other = User.builder()
+                .username("other")
+                .email("other@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build();
+        testEntityManager.persist(other);
+
+        Title title = Title.builder()
+                .name("Title1")
+                .build();
+
+        title.setUser(owner);
+
+        testEntityManager.persist(title);
+
+        assertThat(titleRepository.updateName(other.getId(), title.getId(), "Renamed", new Date())).isZero();
+        assertThat(titleRepository.updateName(owner.getId(), title.getId(), "Renamed", new Date())).isEqualTo(1);
+    }
 }
@@ -0,0 +1,120 @@
+package com.webApp.search;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.repository.LinkRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@RunWith(SpringRunner.class)
+public class UserLinkIndexCacheTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private UserLinkIndexCache userLinkIndexCache;
+
+    private User user;
+
+    private User otherUser;
+
+    private Category articles;
+
+    @Before
+    public void setUp() {
+        userLinkIndexCache = new UserLinkIndexCache(linkRepository, 4096);
+        user = persistUser("alex@gmail.com", "alex");
+        otherUser = persistUser("bob@gmail.com", "bob");
+        Title java = testEntityManager.persist(Title.builder().name("Java").user(user).build());
+        articles = testEntityManager.persist(Category.builder().name("Articles").title(java).build());
+        testEntityManager.persist(Link.builder().linkName("https://openjdk.java.net").category(articles).build());
+        Title otherTitle = testEntityManager.persist(Title.builder().name("Kotlin").user(otherUser).build());
+        Category otherCategory = testEntityManager.persist(Category.builder().name("Videos").title(otherTitle).build());
+        for (int i = 0; i < 20; i++) {
+            testEntityManager.persist(Link.builder().linkName("https://kotlinlang.org/" + i).category(otherCategory).build());
+        }
+        testEntityManager.flush();
+    }
+
+    @Test
+    public void whenFirstSearch_thenLoadOnlyTheLinksOfTheUser() {
+        List<LinkSearchResult> results = userLinkIndexCache.search(user.getId(), "open", 10);
+
+        assertThat(results).extracting(LinkSearchResult::getLinkName).containsExactly("https://openjdk.java.net");
+        assertThat(userLinkIndexCache.search(user.getId(), "kotlin", 10)).isEmpty();
+        assertThat(userLinkIndexCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenLinkSavedInTransaction_thenIndexWaitsForTheCommit() {
+        userLinkIndexCache.search(user.getId(), "open", 10);
+        Link link = testEntityManager.persist(Link.builder().linkName("https://docs.oracle.com").category(articles).build());
+
+        userLinkIndexCache.onLinkSaved(link);
+
+        assertThat(userLinkIndexCache.search(user.getId(), "oracle", 10)).isEmpty();
+    }
+
+    @Test
+    public void whenLinkSavedOrDeleted_thenLoadedIndexFollows() {
+        userLinkIndexCache.search(user.getId(), "open", 10);
+        TestTransaction.end();
+        Link link = Link.builder().id(10_000L).linkName("https://docs.oracle.com").category(articles).build();
+
+        userLinkIndexCache.onLinkSaved(link);
+        assertThat(userLinkIndexCache.search(user.getId(), "oracle", 10)).hasSize(1);
+
+        userLinkIndexCache.onLinkDeleted(link.getId());
+        assertThat(userLinkIndexCache.search(user.getId(), "oracle", 10)).isEmpty();
+    }
+
+    @Test
+    public void whenCategoryOfIndexedLinkChanges_thenEvictTheIndex() {
+        userLinkIndexCache.search(user.getId(), "open", 10);
+        TestTransaction.end();
+
+        userLinkIndexCache.evictCategory(articles.getId() + 1000);
+        assertThat(userLinkIndexCache.size()).isEqualTo(1);
+
+        userLinkIndexCache.evictCategory(articles.getId());
+        assertThat(userLinkIndexCache.size()).isZero();
+    }
+
+    @Test
+    public void whenOverMemoryBudget_thenEvictLeastRecentlyUsedIndex() {
+        userLinkIndexCache.search(user.getId(), "open", 10);
+        assertThat(userLinkIndexCache.memoryFootprint()).isPositive();
+
+        userLinkIndexCache.search(otherUser.getId(), "kotlin", 10);
+
+        assertThat(userLinkIndexCache.size()).isEqualTo(1);
+        assertThat(userLinkIndexCache.search(otherUser.getId(), "kotlin", 100)).hasSize(20);
+    }
+
+    private User persistUser(String email, String username) {
+        return testEntityManager.persist(User.builder()
+                .username(username)
+                .email(email)
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.webApp.search;
+
+import com.webApp.payload.LinkSearchResult;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserLinkIndexTest {
+
+    @Test
+    public void whenSearchPrefix_thenMatchEveryWordStartingWithIt() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        index.addAll(Arrays.asList(
+                link(1L, "https://openjdk.java.net", "OpenJDK home", "Articles"),
+                link(2L, "https://docs.oracle.com/javase", "Java SE documentation", "Articles"),
+                link(3L, "https://kotlinlang.org", null, "Videos")));
+
+        assertThat(ids(index.search(terms("jav"), 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.search(terms("ja doc"), 10))).containsExactly(2L);
+        assertThat(ids(index.search(terms("vid"), 10))).containsExactly(3L);
+        assertThat(ids(index.search(terms("rust"), 10))).isEmpty();
+    }
+
+    @Test
+    public void whenSearch_thenReturnNewestFirstUpToTheLimit() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        for (long id = 1; id <= 20; id++) {
+            index.add(link(id, "https://example.com/" + id, null, "Articles"));
+        }
+
+        assertThat(ids(index.search(terms("example"), 3))).containsExactly(20L, 19L, 18L);
+    }
+
+    @Test
+    public void whenLinkUpdated_thenOnlyItsNewWordsMatch() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        index.add(link(1L, "https://openjdk.java.net", null, "Articles"));
+
+        index.add(link(1L, "https://kotlinlang.org", null, "Articles"));
+
+        assertThat(index.search(terms("openjdk"), 10)).isEmpty();
+        assertThat(ids(index.search(terms("kotlin"), 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenLinkRemoved_thenItIsNotFound() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        index.add(link(1L, "https://openjdk.java.net", null, "Articles"));
+        index.add(link(2L, "https://openjdk.org", null, "Articles"));
+
+        assertThat(index.remove(1L)).isTrue();
+        assertThat(index.remove(1L)).isFalse();
+
+        assertThat(ids(index.search(terms("openjdk"), 10))).containsExactly(2L);
+    }
+
+    @Test
+    public void whenMostLinksRemoved_thenCompactAndKeepTheOthers() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        for (long id = 1; id <= 4000; id++) {
+            index.add(link(id, "https://example.com/page" + id, null, "Articles"));
+        }
+        long footprint = index.memoryFootprint();
+
+        for (long id = 1; id <= 3000; id++) {
+            index.remove(id);
+        }
+
+        assertThat(index.memoryFootprint()).isLessThan(footprint);
+        assertThat(index.size()).isEqualTo(1000);
+        assertThat(index.search(terms("example"), 5000)).hasSize(1000);
+        assertThat(ids(index.search(terms("page4000"), 10))).containsExactly(4000L);
+    }
+
+    @Test
+    public void whenLinksAdded_thenFootprintGrows() {
+        UserLinkIndex index = new UserLinkIndex(1L);
+        long empty = index.memoryFootprint();
+
+        index.add(link(1L, "https://openjdk.java.net", "OpenJDK home", "Articles"));
+
+        assertThat(index.memoryFootprint()).isGreaterThan(empty);
+        assertThat(index.containsCategory(10L)).isTrue();
+        assertThat(index.containsTitle(100L)).isTrue();
+    }
+
+    private static LinkSearchResult link(Long id, String name, String description, String category) {
+        return new LinkSearchResult(id, name, description, 10L, category, 100L, "Languages");
+    }
+
+    private static List<String> terms(String query) {
+        return QueryTerms.parse(query);
+    }
+
+    private static List<Long> ids(List<LinkSearchResult> results) {
+        List<Long> ids = new ArrayList<>();
+        results.forEach(result -> ids.add(result.getId()));
+        return ids;
+    }
+}
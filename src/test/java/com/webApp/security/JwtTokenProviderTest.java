@@ -1,18 +1,22 @@
 package com.webApp.security;
 
+import com.webApp.cache.UserSecurityEpochCache;
 import com.webApp.model.CustomUserDetails;
 import com.webApp.model.Role;
 import com.webApp.model.RoleName;
 import com.webApp.model.User;
+import com.webApp.repository.UserRepository;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 
 public class JwtTokenProviderTest {
@@ -22,13 +26,16 @@ public class JwtTokenProviderTest {
 
     private JwtTokenProvider tokenProvider;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        this.tokenProvider = new JwtTokenProvider(jwtSecret,jwtExpiryInMs);
+        this.tokenProvider = new JwtTokenProvider(jwtSecret,jwtExpiryInMs, new UserSecurityEpochCache(userRepository, 10, 60000));
     }
 
     @Test
@@ -39,7 +46,7 @@ public class JwtTokenProviderTest {
 
     @Test
     public void testGetTokenExpiryFromJWT() {
-        String token = tokenProvider.generateTokenFromUserId(120L);
+        String token = tokenProvider.generateToken(stubCustomerUser());
         assertNotNull(tokenProvider.getTokenExpiryFromJWT(token));
     }
 
@@ -54,6 +61,11 @@ public class JwtTokenProviderTest {
         assertNotNull(tokenProvider.getAuthoritiesFromJWT(token));
     }
 
+    @Test
+    public void testTokensIssuedTogetherDiffer() {
+        assertNotEquals(tokenProvider.generateToken(stubCustomerUser()), tokenProvider.generateToken(stubCustomerUser()));
+    }
+
     private CustomUserDetails stubCustomerUser() {
         User user = new User();
         user.setId((long) 100);
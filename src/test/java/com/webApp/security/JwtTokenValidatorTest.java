@@ -1,8 +1,17 @@
 package com.webApp.security;
 
+import com.webApp.cache.JwtClaimsCache;
 import com.webApp.cache.LoggedOutJwtTokenCache;
+import com.webApp.cache.UserSecurityEpochCache;
 import com.webApp.event.OnUserLogoutSuccessEvent;
 import com.webApp.exception_handling.InvalidTokenRequestException;
+import com.webApp.model.CustomUserDetails;
+import com.webApp.model.Role;
+import com.webApp.model.RoleName;
+import com.webApp.model.User;
+import com.webApp.repository.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -10,8 +19,14 @@ import org.junit.rules.ExpectedException;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.*;
 
 public class JwtTokenValidatorTest {
@@ -22,23 +37,32 @@ public class JwtTokenValidatorTest {
     @Mock
     private LoggedOutJwtTokenCache cache;
 
+    @Mock
+    private UserRepository userRepository;
+
     private JwtTokenProvider tokenProvider;
 
     private JwtTokenValidator tokenValidator;
 
+    private JwtClaimsCache claimsCache;
+
+    private UserSecurityEpochCache securityEpochCache;
+
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
-        this.tokenProvider = new JwtTokenProvider(jwtSecret,jwtExpiryInMs);
-        this.tokenValidator = new JwtTokenValidator(jwtSecret, cache);
+        this.securityEpochCache = new UserSecurityEpochCache(userRepository, 10, 60000);
+        this.tokenProvider = new JwtTokenProvider(jwtSecret,jwtExpiryInMs, securityEpochCache);
+        this.claimsCache = new JwtClaimsCache(10);
+        this.tokenValidator = new JwtTokenValidator(jwtSecret, cache, claimsCache, securityEpochCache);
     }
 
     @Test
     public void testValidateTokenThrowsExceptionWhenTokenIsDamaged() {
-        String token = tokenProvider.generateTokenFromUserId(100L);
+        String token = tokenProvider.generateToken(stubCustomUser(100L));
         OnUserLogoutSuccessEvent logoutEvent = stubLogoutEvent("U1", token);
         when(cache.getLogoutEventForToken(token)).thenReturn(logoutEvent);
 
@@ -49,7 +73,7 @@ public class JwtTokenValidatorTest {
 
     @Test
     public void testValidateTokenThrowsExceptionWhenTokenIsExprired() throws InterruptedException {
-        String token = tokenProvider.generateTokenFromUserId(123L);
+        String token = tokenProvider.generateToken(stubCustomUser(123L));
         TimeUnit.MILLISECONDS.sleep(jwtExpiryInMs);
         OnUserLogoutSuccessEvent logoutEvent = stubLogoutEvent("U1", token);
         when(cache.getLogoutEventForToken(token)).thenReturn(logoutEvent);
@@ -57,7 +81,7 @@ public class JwtTokenValidatorTest {
 
     @Test
     public void testValidateTokenThrowsExceptionWhenItIsPresentInTokenCache() {
-        String token = tokenProvider.generateTokenFromUserId(124L);
+        String token = tokenProvider.generateToken(stubCustomUser(124L));
         OnUserLogoutSuccessEvent logoutEvent = stubLogoutEvent("U2", token);
         when(cache.getLogoutEventForToken(token)).thenReturn(logoutEvent);
 
@@ -68,11 +92,86 @@ public class JwtTokenValidatorTest {
 
     @Test
     public void testValidateTokenWorksWhenItIsNotPresentInTokenCache() {
-        String token = tokenProvider.generateTokenFromUserId(100L);
+        String token = tokenProvider.generateToken(stubCustomUser(100L));
         tokenValidator.validateToken(token);
         verify(cache,times(1)).getLogoutEventForToken(token);
     }
 
+    @Test
+    public void testValidateAndParseTokenVerifiesTokenOnlyOnce() {
+        String token = tokenProvider.generateToken(stubCustomUser(101L));
+
+        JwtClaims first = tokenValidator.validateAndParseToken(token);
+        JwtClaims second = tokenValidator.validateAndParseToken(token);
+
+        assertSame(first, second);
+        assertEquals(101L, second.getUserId().longValue());
+        assertEquals(1, claimsCache.getMissCount());
+        assertEquals(1, claimsCache.getHitCount());
+    }
+
+    @Test
+    public void testValidateAndParseTokenChecksLogoutCacheOnCacheHit() {
+        String token = tokenProvider.generateToken(stubCustomUser(102L));
+        tokenValidator.validateAndParseToken(token);
+        when(cache.getLogoutEventForToken(token)).thenReturn(stubLogoutEvent("U3", token));
+
+        thrown.expect(InvalidTokenRequestException.class);
+        thrown.expectMessage("Token corresponds to an already logged out user [U3]");
+        tokenValidator.validateAndParseToken(token);
+    }
+
+    @Test
+    public void testValidateTokenThrowsExceptionWhenSecurityEpochChanged() {
+        String token = tokenProvider.generateToken(stubCustomUser(103L));
+        tokenValidator.validateAndParseToken(token);
+        when(userRepository.findSecurityEpochById(103L)).thenReturn(Optional.of(1L));
+        securityEpochCache.incrementEpochForUser(103L);
+
+        thrown.expect(InvalidTokenRequestException.class);
+        thrown.expectMessage("Token was issued before the last account change of user [103]");
+        tokenValidator.validateAndParseToken(token);
+    }
+
+    @Test
+    public void testValidateTokenWorksForTokenIssuedAfterSecurityEpochChanged() {
+        when(userRepository.findSecurityEpochById(104L)).thenReturn(Optional.of(1L));
+        securityEpochCache.incrementEpochForUser(104L);
+        String token = tokenProvider.generateToken(stubCustomUser(104L));
+
+        assertEquals(1L, tokenValidator.validateAndParseToken(token).getSecurityEpoch());
+    }
+
+    @Test
+    public void testValidateAndParseTokenCarriesTheClaimsOfTheUser() {
+        JwtClaims claims = tokenValidator.validateAndParseToken(tokenProvider.generateToken(stubCustomUser(105L)));
+
+        assertEquals("user105@gmail.com", claims.getEmail());
+        assertEquals("ROLE_USER", claims.getAuthorities().get(0).getAuthority());
+    }
+
+    @Test
+    public void testValidateTokenThrowsExceptionWhenAuthorityIsUnknown() {
+        String token = Jwts.builder()
+                .setSubject("106")
+                .setExpiration(Date.from(Instant.now().plusMillis(jwtExpiryInMs)))
+                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .claim(JwtTokenProvider.AUTHORITIES_CLAIM, "ROLE_USER,ROLE_ROOT")
+                .compact();
+
+        thrown.expect(InvalidTokenRequestException.class);
+        thrown.expectMessage("Unknown authority ROLE_ROOT");
+        tokenValidator.validateAndParseToken(token);
+    }
+
+    private CustomUserDetails stubCustomUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@gmail.com");
+        user.setRoles(Collections.singleton(new Role(RoleName.ROLE_USER)));
+        return new CustomUserDetails(user);
+    }
+
     private OnUserLogoutSuccessEvent stubLogoutEvent(String email, String token) {
         return new OnUserLogoutSuccessEvent(email,token,null);
     }
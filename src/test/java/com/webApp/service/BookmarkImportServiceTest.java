@@ -0,0 +1,117 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.BookmarkImportProgress;
+import com.webApp.repository.CategoryRepository;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import com.webApp.search.UserLinkIndexCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({BookmarkImportService.class, UserLinkIndexCache.class})
+@RunWith(SpringRunner.class)
+public class BookmarkImportServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private BookmarkImportService bookmarkImportService;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persistAndFlush(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    @Test
+    public void whenImportBookmarks_thenMapFoldersToTitlesAndCategories() throws IOException {
+        String bookmarks = "<DL><p>\n" +
+                "<DT><A HREF=\"https://loose.com\">Loose</A>\n" +
+                "<DT><H3>Programming</H3>\n" +
+                "<DL><p>\n" +
+                "    <DT><A HREF=\"https://docs.oracle.com\">Docs</A>\n" +
+                "    <DD>Reference\n" +
+                "    <DT><A HREF=\"javascript:void(0)\">Bookmarklet</A>\n" +
+                "    <DT><H3>Java</H3>\n" +
+                "    <DL><p>\n" +
+                "        <DT><A HREF=\"https://openjdk.java.net\">OpenJDK</A>\n" +
+                "    </DL><p>\n" +
+                "</DL><p>\n" +
+                "</DL><p>\n";
+
+        BookmarkImportProgress progress = bookmarkImportService.importBookmarks(user.getId(),
+                new StringReader(bookmarks), update -> { });
+
+        assertThat(progress.isDone()).isTrue();
+        assertThat(progress.getLinks()).isEqualTo(3);
+        assertThat(progress.getSkipped()).isEqualTo(1);
+        assertThat(titleRepository.findAllByUserId(user.getId()))
+                .extracting(Title::getName)
+                .containsExactlyInAnyOrder("Imported bookmarks", "Programming");
+
+        Title programming = titleRepository.findTitleByName("Programming");
+        List<Category> categories = categoryRepository.findByTitleId(programming.getId());
+        assertThat(categories).extracting(Category::getName).containsExactlyInAnyOrder("Unsorted", "Java");
+
+        Category java = categories.stream().filter(category -> category.getName().equals("Java")).findFirst().get();
+        assertThat(linkRepository.findByCategoryId(java.getId()))
+                .extracting(Link::getLinkName)
+                .containsExactly("https://openjdk.java.net");
+        assertThat(linkRepository.findLinkByLinkName("https://docs.oracle.com").getLinkDescription())
+                .isEqualTo("Docs - Reference");
+    }
+
+    @Test
+    public void whenImportManyBookmarks_thenReportProgressPerBatch() throws IOException {
+        StringBuilder bookmarks = new StringBuilder("<DL><p><DT><H3>Folder</H3><DL><p>");
+        for (int i = 0; i < 120; i++) {
+            bookmarks.append("<DT><A HREF=\"https://link").append(i).append(".com\">Link ").append(i).append("</A>");
+        }
+        bookmarks.append("</DL><p></DL><p>");
+        List<BookmarkImportProgress> updates = new ArrayList<>();
+
+        BookmarkImportProgress progress = bookmarkImportService.importBookmarks(user.getId(),
+                new StringReader(bookmarks.toString()), updates::add);
+
+        assertThat(updates.stream().map(BookmarkImportProgress::getLinks).collect(Collectors.toList()))
+                .containsExactly(50, 100, 120);
+        assertThat(progress.getCategories()).isEqualTo(1);
+        assertThat(linkRepository.count()).isEqualTo(120);
+    }
+}
@@ -0,0 +1,93 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CategoryProvisioningService.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@RunWith(SpringRunner.class)
+public class CategoryProvisioningServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private CategoryProvisioningService categoryProvisioningService;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    @Test
+    public void whenUserHasNoTemplate_thenGlobalCategoriesAreProvisioned() {
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+
+        List<Category> categories = categoryProvisioningService.provision(user.getId(), Collections.singletonList(title));
+
+        assertThat(categories).extracting(Category::getName)
+                .containsExactly("Articles", "Videos", "Books", "Useful links");
+        assertThat(title.getCategories()).containsExactlyElementsOf(categories);
+    }
+
+    @Test
+    public void whenUserHasTemplate_thenItReplacesTheGlobalOne() {
+        categoryProvisioningService.replaceTemplate(user.getId(), Arrays.asList("Papers", "Talks"));
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+
+        List<Category> categories = categoryProvisioningService.provision(user.getId(), Collections.singletonList(title));
+
+        assertThat(categories).extracting(Category::getName).containsExactly("Papers", "Talks");
+
+        categoryProvisioningService.replaceTemplate(user.getId(), Collections.emptyList());
+
+        assertThat(categoryProvisioningService.findTemplate(user.getId()))
+                .containsExactly("Articles", "Videos", "Books", "Useful links");
+    }
+
+    @Test
+    public void whenProvisionManyTitles_thenCategoriesAreInsertedInOneBatch() {
+        testEntityManager.flush();
+        List<Title> titles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            titles.add(testEntityManager.persist(Title.builder().name("Title " + i).user(user).build()));
+        }
+        Statistics statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        categoryProvisioningService.provision(user.getId(), titles);
+        testEntityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(50L);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(10L);
+    }
+}
@@ -4,11 +4,13 @@ import com.webApp.model.Category;
 import com.webApp.model.Title;
 import com.webApp.model.User;
 import com.webApp.repository.CategoryRepository;
+import com.webApp.search.UserLinkIndexCache;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +25,15 @@ public class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private UserLinkIndexCache userLinkIndexCache;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private KnowledgeTreeDeletionService knowledgeTreeDeletionService;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -70,7 +81,8 @@ public class CategoryServiceTest {
 
         categoryService.deleteCategoryById(categoryToBeDeleted.getId());
 
-        verify(categoryRepository, times(1)).deleteById(categoryToBeDeleted.getId());
+        verify(knowledgeTreeDeletionService, times(1)).deleteCategory(categoryToBeDeleted.getId());
+        verify(categoryRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -0,0 +1,130 @@
+package com.webApp.service;
+
+import com.webApp.export.ExportFormat;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.util.NetscapeBookmarkParser;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(KnowledgeExportService.class)
+@RunWith(SpringRunner.class)
+public class KnowledgeExportServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private KnowledgeExportService knowledgeExportService;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title java = testEntityManager.persist(Title.builder().name("Java").user(user).build());
+        Category articles = testEntityManager.persist(Category.builder().name("Articles").title(java).build());
+        testEntityManager.persist(Category.builder().name("Videos").title(java).build());
+        testEntityManager.persist(Link.builder()
+                .linkName("https://openjdk.java.net")
+                .linkDescription("OpenJDK, \"the\" JDK")
+                .category(articles)
+                .build());
+        testEntityManager.persist(Link.builder().linkName("https://docs.oracle.com").category(articles).build());
+        testEntityManager.persist(Title.builder().name("Empty").user(user).build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void whenExportNdjson_thenWriteOneTypedLinePerNode() throws IOException {
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(6);
+        assertThat(lines[0]).contains("\"type\":\"title\"").contains("\"name\":\"Java\"");
+        assertThat(lines[1]).contains("\"type\":\"category\"").contains("\"name\":\"Articles\"");
+        assertThat(lines[2]).contains("\"type\":\"link\"").contains("\"linkName\":\"https://openjdk.java.net\"");
+        assertThat(lines[3]).contains("\"linkName\":\"https://docs.oracle.com\"");
+        assertThat(lines[4]).contains("\"type\":\"category\"").contains("\"name\":\"Videos\"");
+        assertThat(lines[5]).contains("\"type\":\"title\"").contains("\"name\":\"Empty\"");
+    }
+
+    @Test
+    public void whenExportCsv_thenQuoteFieldsAndKeepEmptyTitlesAndCategories() throws IOException {
+        assertThat(export(ExportFormat.CSV)).isEqualTo(
+                "title,category,link_name,link_description\r\n" +
+                "Java,Articles,https://openjdk.java.net,\"OpenJDK, \"\"the\"\" JDK\"\r\n" +
+                "Java,Articles,https://docs.oracle.com,\r\n" +
+                "Java,Videos,,\r\n" +
+                "Empty,,,\r\n");
+    }
+
+    @Test
+    public void whenExportHtml_thenBookmarkParserReadsItBack() throws IOException {
+        List<String> events = new ArrayList<>();
+
+        new NetscapeBookmarkParser(new StringReader(export(ExportFormat.HTML))).parse(new NetscapeBookmarkParser.Handler() {
+            @Override
+            public void startFolder(String name) {
+                events.add("start " + name);
+            }
+
+            @Override
+            public void endFolder() {
+                events.add("end");
+            }
+
+            @Override
+            public void link(String href, String name) {
+                events.add("link " + href + " " + name);
+            }
+
+            @Override
+            public void description(String description) {
+                events.add("description " + description);
+            }
+        });
+
+        assertThat(events).containsExactly(
+                "start Java",
+                "start Articles",
+                "link https://openjdk.java.net OpenJDK, \"the\" JDK",
+                "link https://docs.oracle.com https://docs.oracle.com",
+                "end",
+                "start Videos",
+                "end",
+                "end",
+                "start Empty",
+                "end");
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        knowledgeExportService.export(user.getId(), format, outputStream);
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
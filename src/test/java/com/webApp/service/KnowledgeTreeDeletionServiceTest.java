@@ -0,0 +1,151 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.repository.LinkRepository;
+import com.webApp.repository.TitleRepository;
+import org.hibernate.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(KnowledgeTreeDeletionService.class)
+@TestPropertySource(properties = {"app.delete.softDelete.minLinks=5", "app.delete.purge.batchSize=2",
+        "app.delete.purge.maxBatchesPerRun=4"})
+@RunWith(SpringRunner.class)
+public class KnowledgeTreeDeletionServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private KnowledgeTreeDeletionService knowledgeTreeDeletionService;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    @Test
+    public void whenDeleteSmallTitle_thenRowsAreDeletedWithoutLoadingThem() {
+        Title title = persistTitle("Languages", 2, 2);
+        Title other = persistTitle("History", 1, 1);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        boolean hidden = knowledgeTreeDeletionService.deleteTitle(title.getId());
+
+        assertThat(hidden).isFalse();
+        assertThat(managedEntities()).isZero();
+        assertThat(titleRepository.findById(title.getId())).isEmpty();
+        assertThat(count(Category.class)).isEqualTo(1L);
+        assertThat(count(Link.class)).isEqualTo(1L);
+        assertThat(linkRepository.countByTitleId(other.getId())).isEqualTo(1L);
+    }
+
+    @Test
+    public void whenDeleteCategory_thenOnlyItsLinksAreDeleted() {
+        Title title = persistTitle("Languages", 2, 3);
+        Category category = title.getCategories().iterator().next();
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        knowledgeTreeDeletionService.deleteCategory(category.getId());
+
+        assertThat(managedEntities()).isZero();
+        assertThat(testEntityManager.find(Category.class, category.getId())).isNull();
+        assertThat(linkRepository.countByTitleId(title.getId())).isEqualTo(3L);
+    }
+
+    @Test
+    public void whenDeleteLargeTitle_thenItIsHiddenAndPurgedInBatches() {
+        Title title = persistTitle("Languages", 2, 3);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        boolean hidden = knowledgeTreeDeletionService.deleteTitle(title.getId());
+
+        assertThat(hidden).isTrue();
+        assertThat(titleRepository.findTreeNodesByUserId(user.getId())).isEmpty();
+        assertThat(titleRepository.findTreeNodeByUserIdAndId(user.getId(), title.getId())).isEmpty();
+        assertThat(linkRepository.findTreeNodesByUserId(user.getId())).isEmpty();
+        assertThat(linkRepository.countByTitleId(title.getId())).isEqualTo(6L);
+
+        knowledgeTreeDeletionService.purge();
+
+        assertThat(count(Title.class)).isZero();
+        assertThat(count(Category.class)).isZero();
+        assertThat(count(Link.class)).isZero();
+    }
+
+    @Test
+    public void whenHiddenTitleTakesMoreBatchesThanARun_thenItIsPurgedOverSeveralRuns() {
+        Title title = persistTitle("Languages", 5, 2);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        knowledgeTreeDeletionService.deleteTitle(title.getId());
+
+        knowledgeTreeDeletionService.purge();
+
+        assertThat(count(Title.class)).isEqualTo(1L);
+        assertThat(count(Link.class)).isEqualTo(2L);
+
+        knowledgeTreeDeletionService.purge();
+
+        assertThat(count(Title.class)).isZero();
+        assertThat(count(Category.class)).isZero();
+        assertThat(count(Link.class)).isZero();
+    }
+
+    private Title persistTitle(String name, int categories, int linksPerCategory) {
+        Title title = testEntityManager.persist(Title.builder().name(name).user(user)
+                .categories(new HashSet<>()).build());
+        for (int c = 0; c < categories; c++) {
+            Category category = testEntityManager.persist(Category.builder().name("Category " + c).title(title).build());
+            title.getCategories().add(category);
+            for (int l = 0; l < linksPerCategory; l++) {
+                Link link = new Link("https://example.com/" + c + "/" + l);
+                link.setCategory(category);
+                testEntityManager.persist(link);
+            }
+        }
+        return title;
+    }
+
+    private long count(Class<?> entity) {
+        return testEntityManager.getEntityManager()
+                .createQuery("select count(e) from " + entity.getSimpleName() + " e", Long.class)
+                .getSingleResult();
+    }
+
+    private int managedEntities() {
+        return testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
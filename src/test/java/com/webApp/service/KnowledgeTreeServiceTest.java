@@ -0,0 +1,150 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.config.CacheConfig;
+import com.webApp.model.User;
+import com.webApp.payload.TitleTreeResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({KnowledgeTreeService.class, KnowledgeTreeVersionService.class, CacheConfig.class})
+@RunWith(SpringRunner.class)
+public class KnowledgeTreeServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private KnowledgeTreeService knowledgeTreeService;
+
+    @Autowired
+    private KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private Statistics statistics;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    @Test
+    public void whenFindTree_thenReturnTitlesCategoriesAndLinks() {
+        persistTree(2, 2, 3);
+
+        List<TitleTreeResponse> tree = knowledgeTreeService.findTreeByUserId(user.getId());
+
+        assertThat(tree).hasSize(2);
+        assertThat(tree.get(0).getName()).isEqualTo("Title0");
+        assertThat(tree.get(0).getCategories()).hasSize(2);
+        assertThat(tree.get(0).getCategories().get(1).getLinks()).hasSize(3);
+        assertThat(tree.get(1).getCategories().get(0).getLinks().get(2).getLinkName())
+                .isEqualTo("http://link-1-0-2");
+    }
+
+    @Test
+    public void whenTreeGrows_thenStatementCountStaysTheSame() {
+        persistTree(1, 1, 1);
+        long smallTreeStatements = countStatements();
+
+        persistTree(5, 4, 10);
+        long largeTreeStatements = countStatements();
+
+        assertThat(smallTreeStatements).isEqualTo(3);
+        assertThat(largeTreeStatements).isEqualTo(smallTreeStatements);
+    }
+
+    @Test
+    public void whenCachedTreeIsOlderThanTheVersion_thenRebuildIt() {
+        persistTree(1, 1, 1);
+        testEntityManager.flush();
+        assertThat(knowledgeTreeService.findTreeByUserId(user.getId(), 0)).hasSize(1);
+
+        persistTree(1, 1, 1);
+        testEntityManager.flush();
+        assertThat(knowledgeTreeService.findTreeByUserId(user.getId(), 0)).hasSize(1);
+
+        knowledgeTreeVersionService.increment(user.getId());
+        assertThat(knowledgeTreeService.findTreeByUserId(user.getId(), 1)).hasSize(2);
+        assertThat(knowledgeTreeService.findTreeByUserId(user.getId(), 0)).hasSize(2);
+    }
+
+    @Test
+    public void whenFindSingleNodes_thenSelectProjectionsScopedToTheUserAndPath() {
+        persistTree(2, 1, 1);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        TitleTreeResponse first = knowledgeTreeService.findTreeByUserId(user.getId()).get(0);
+        TitleTreeResponse second = knowledgeTreeService.findTreeByUserId(user.getId()).get(1);
+        Long categoryId = first.getCategories().get(0).getId();
+        Long linkId = first.getCategories().get(0).getLinks().get(0).getId();
+        statistics.clear();
+
+        assertThat(knowledgeTreeService.findTitle(user.getId(), first.getId(), 0))
+                .hasValueSatisfying(title -> assertThat(title.getCategories().get(0).getLinks()).hasSize(1));
+        assertThat(knowledgeTreeService.findCategory(user.getId(), first.getId(), categoryId))
+                .hasValueSatisfying(category -> assertThat(category.getLinks()).hasSize(1));
+        assertThat(knowledgeTreeService.findLink(user.getId(), first.getId(), categoryId, linkId))
+                .hasValueSatisfying(link -> assertThat(link.getLinkName()).isEqualTo("http://link-0-0-0"));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        assertThat(knowledgeTreeService.findTitle(user.getId() + 1, first.getId(), 0)).isEmpty();
+        assertThat(knowledgeTreeService.findCategory(user.getId(), second.getId(), categoryId)).isEmpty();
+        assertThat(knowledgeTreeService.findLink(user.getId(), second.getId(), categoryId, linkId)).isEmpty();
+        assertThat(knowledgeTreeService.categoryExists(user.getId(), first.getId(), categoryId)).isTrue();
+        assertThat(knowledgeTreeService.categoryExists(user.getId(), second.getId(), categoryId)).isFalse();
+    }
+
+    private long countStatements() {
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+        knowledgeTreeService.findTreeByUserId(user.getId());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistTree(int titles, int categoriesPerTitle, int linksPerCategory) {
+        User owner = testEntityManager.find(User.class, user.getId());
+        for (int t = 0; t < titles; t++) {
+            Title title = Title.builder().name("Title" + t).user(owner).build();
+            testEntityManager.persist(title);
+            for (int c = 0; c < categoriesPerTitle; c++) {
+                Category category = Category.builder().name("Category" + c).title(title).build();
+                testEntityManager.persist(category);
+                for (int l = 0; l < linksPerCategory; l++) {
+                    testEntityManager.persist(Link.builder()
+                            .linkName("http://link-" + t + "-" + c + "-" + l)
+                            .category(category)
+                            .build());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.webApp.service;
+
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.KnowledgeTreeSummary;
+import com.webApp.search.UserLinkIndexCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({KnowledgeTreeSummaryService.class, LinkService.class, UserLinkIndexCache.class,
+        LinkEnrichmentService.class, PageFetcher.class})
+@TestPropertySource(properties = {"app.counters.repair.batchSize=2", "app.counters.repair.maxBatchesPerRun=1",
+        "app.counters.repair.intervalMs=0"})
+@RunWith(SpringRunner.class)
+public class KnowledgeTreeSummaryServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private KnowledgeTreeSummaryService knowledgeTreeSummaryService;
+
+    @Autowired
+    private LinkService linkService;
+
+    private User user;
+
+    private Title title;
+
+    private Category articles;
+
+    private Category videos;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        articles = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+        videos = testEntityManager.persist(Category.builder().name("Videos").title(title).build());
+        testEntityManager.persist(Title.builder().name("History").user(user).build());
+        testEntityManager.flush();
+    }
+
+    @Test
+    public void whenLinksAreSavedMovedAndDeleted_thenCountersFollow() {
+        Link first = linkService.saveLink(link(articles, "https://first"));
+        linkService.saveLink(link(articles, "https://second"));
+        Link third = linkService.saveLink(link(articles, "https://third"));
+
+        Link moved = link(videos, "https://first");
+        moved.setId(first.getId());
+        linkService.saveLink(moved);
+        linkService.deleteLinkById(third.getId());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertThat(linkCount(articles)).isEqualTo(1L);
+        assertThat(linkCount(videos)).isEqualTo(1L);
+
+        KnowledgeTreeSummary summary = knowledgeTreeSummaryService.findSummary(user.getId());
+
+        assertThat(summary.getTitleCount()).isEqualTo(2);
+        assertThat(summary.getCategoryCount()).isEqualTo(2L);
+        assertThat(summary.getLinkCount()).isEqualTo(2L);
+        assertThat(summary.getTitles().get(0).getCategoryCount()).isEqualTo(2L);
+        assertThat(summary.getTitles().get(0).getLinkCount()).isEqualTo(2L);
+        assertThat(summary.getTitles().get(1).getCategoryCount()).isZero();
+        assertThat(summary.getTitles().get(1).getLinkCount()).isZero();
+    }
+
+    @Test
+    public void whenLinksAreWrittenAroundTheServices_thenRepairRecountsThem() {
+        for (int i = 0; i < 3; i++) {
+            testEntityManager.persist(link(articles, "https://link" + i));
+        }
+        testEntityManager.persist(link(videos, "https://video"));
+        Title other = testEntityManager.persist(Title.builder().name("Other").user(user).build());
+        testEntityManager.persist(Category.builder().name("Books").title(other).build());
+        testEntityManager.flush();
+
+        assertThat(knowledgeTreeSummaryService.findSummary(user.getId()).getLinkCount()).isZero();
+
+        int repaired = knowledgeTreeSummaryService.repairLinkCounts();
+        testEntityManager.clear();
+
+        assertThat(repaired).isEqualTo(2);
+        assertThat(linkCount(articles)).isEqualTo(3L);
+        assertThat(linkCount(videos)).isEqualTo(1L);
+        assertThat(knowledgeTreeSummaryService.findSummary(user.getId()).getLinkCount()).isEqualTo(4L);
+        assertThat(knowledgeTreeSummaryService.repairLinkCounts()).isZero();
+    }
+
+    @Test
+    public void whenCategoriesTakeMoreBatchesThanARun_thenTheNextRunGoesOn() {
+        Title other = testEntityManager.persist(Title.builder().name("Other").user(user).build());
+        Category books = testEntityManager.persist(Category.builder().name("Books").title(other).build());
+        testEntityManager.persist(link(articles, "https://article"));
+        testEntityManager.persist(link(books, "https://book"));
+        testEntityManager.flush();
+
+        assertThat(knowledgeTreeSummaryService.repairLinkCounts()).isEqualTo(1);
+        testEntityManager.clear();
+        assertThat(linkCount(books)).isZero();
+
+        assertThat(knowledgeTreeSummaryService.repairLinkCounts()).isEqualTo(1);
+        testEntityManager.clear();
+        assertThat(linkCount(articles)).isEqualTo(1L);
+        assertThat(linkCount(books)).isEqualTo(1L);
+    }
+
+    private long linkCount(Category category) {
+        return testEntityManager.find(Category.class, category.getId()).getLinkCount();
+    }
+
+    private static Link link(Category category, String name) {
+        Link link = new Link(name);
+        link.setCategory(category);
+        return link;
+    }
+}
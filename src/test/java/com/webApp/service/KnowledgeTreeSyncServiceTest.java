@@ -0,0 +1,173 @@
+package com.webApp.service;
+
+import com.webApp.event.OnKnowledgeTreeChangeEvent.Change;
+import com.webApp.exception_handling.InvalidCursorException;
+import com.webApp.model.Category;
+import com.webApp.model.KnowledgeTreeChange;
+import com.webApp.model.KnowledgeTreeEntityType;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.SyncItem;
+import com.webApp.payload.SyncPage;
+import com.webApp.repository.KnowledgeTreeChangeRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({KnowledgeTreeSyncService.class, KnowledgeTreeVersionService.class})
+@RunWith(SpringRunner.class)
+public class KnowledgeTreeSyncServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private KnowledgeTreeSyncService knowledgeTreeSyncService;
+
+    @Autowired
+    private KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    @Autowired
+    private KnowledgeTreeChangeRepository knowledgeTreeChangeRepository;
+
+    private User user;
+
+    private Title title;
+
+    private Category category;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+    }
+
+    @Test
+    public void whenSyncWithoutToken_thenAskForResetAtCurrentVersion() {
+        change(Change.saved(KnowledgeTreeEntityType.TITLE, title.getId()));
+
+        SyncPage reset = knowledgeTreeSyncService.findChangesSince(user.getId(), null, 10);
+        SyncPage upToDate = knowledgeTreeSyncService.findChangesSince(user.getId(), reset.getNext(), 10);
+
+        assertThat(reset.isReset()).isTrue();
+        assertThat(reset.getTitles()).isEmpty();
+        assertThat(upToDate.isReset()).isFalse();
+        assertThat(upToDate.isHasMore()).isFalse();
+        assertThat(upToDate.getTitles()).isEmpty();
+        assertThat(upToDate.getNext()).isEqualTo(reset.getNext());
+    }
+
+    @Test
+    public void whenSyncFromToken_thenReturnOnlyLaterChangesWithCurrentState() {
+        String token = knowledgeTreeSyncService.findChangesSince(user.getId(), null, 10).getNext();
+        Link link = persistLink("https://openjdk.java.net");
+        change(Change.saved(KnowledgeTreeEntityType.TITLE, title.getId()),
+                Change.saved(KnowledgeTreeEntityType.CATEGORY, category.getId()));
+        change(Change.saved(KnowledgeTreeEntityType.LINK, link.getId()));
+        change(Change.deleted(KnowledgeTreeEntityType.LINK, 424242L));
+        testEntityManager.find(Link.class, link.getId()).setLinkDescription("Java");
+        testEntityManager.flush();
+
+        SyncPage page = knowledgeTreeSyncService.findChangesSince(user.getId(), token, 10);
+
+        assertThat(page.isReset()).isFalse();
+        assertThat(page.getTitles()).extracting(SyncItem::getName).containsExactly("Languages");
+        assertThat(page.getCategories()).extracting(SyncItem::getParentId).containsExactly(title.getId());
+        assertThat(page.getLinks()).extracting(SyncItem::getDescription).containsExactly("Java");
+        assertThat(page.getDeletedLinkIds()).containsExactly(424242L);
+    }
+
+    @Test
+    public void whenChangesDontFitInPage_thenContinueFromNextToken() {
+        String token = knowledgeTreeSyncService.findChangesSince(user.getId(), null, 10).getNext();
+        Link first = persistLink("https://openjdk.java.net");
+        Link second = persistLink("https://kotlinlang.org");
+        change(Change.saved(KnowledgeTreeEntityType.LINK, first.getId()),
+                Change.saved(KnowledgeTreeEntityType.LINK, second.getId()));
+        change(Change.deleted(KnowledgeTreeEntityType.LINK, first.getId()));
+
+        SyncPage firstPage = knowledgeTreeSyncService.findChangesSince(user.getId(), token, 1);
+        SyncPage secondPage = knowledgeTreeSyncService.findChangesSince(user.getId(), firstPage.getNext(), 1);
+        SyncPage lastPage = knowledgeTreeSyncService.findChangesSince(user.getId(), secondPage.getNext(), 1);
+
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(firstPage.getLinks()).extracting(SyncItem::getId).containsExactly(first.getId());
+        assertThat(secondPage.isHasMore()).isTrue();
+        assertThat(secondPage.getLinks()).extracting(SyncItem::getId).containsExactly(second.getId());
+        assertThat(lastPage.isHasMore()).isFalse();
+        assertThat(lastPage.getDeletedLinkIds()).containsExactly(first.getId());
+    }
+
+    @Test
+    public void whenSavedEntityIsGone_thenReportItAsDeleted() {
+        String token = knowledgeTreeSyncService.findChangesSince(user.getId(), null, 10).getNext();
+        change(Change.saved(KnowledgeTreeEntityType.CATEGORY, 424242L));
+
+        SyncPage page = knowledgeTreeSyncService.findChangesSince(user.getId(), token, 10);
+
+        assertThat(page.getCategories()).isEmpty();
+        assertThat(page.getDeletedCategoryIds()).containsExactly(424242L);
+    }
+
+    @Test
+    public void whenCompact_thenDropSupersededAndExpiredEntries() {
+        String token = knowledgeTreeSyncService.findChangesSince(user.getId(), null, 10).getNext();
+        long expiredVersion = change(Change.saved(KnowledgeTreeEntityType.TITLE, title.getId()));
+        Date longAgo = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365));
+        knowledgeTreeChangeRepository.findAll().forEach(entry -> entry.setChangedAt(longAgo));
+        change(Change.saved(KnowledgeTreeEntityType.CATEGORY, category.getId()));
+        change(Change.saved(KnowledgeTreeEntityType.CATEGORY, category.getId()));
+        testEntityManager.flush();
+
+        knowledgeTreeSyncService.compact();
+        testEntityManager.clear();
+
+        assertThat(knowledgeTreeChangeRepository.findAll())
+                .extracting(KnowledgeTreeChange::getEntityType)
+                .containsExactly(KnowledgeTreeEntityType.CATEGORY);
+        assertThat(knowledgeTreeVersionService.findVersion(user.getId()).getPurgedVersion()).isEqualTo(expiredVersion);
+        assertThat(knowledgeTreeSyncService.findChangesSince(user.getId(), token, 10).isReset()).isTrue();
+    }
+
+    @Test
+    public void whenTokenIsInvalid_thenThrowInvalidCursorException() {
+        assertThatThrownBy(() -> knowledgeTreeSyncService.findChangesSince(user.getId(), "bad", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private long change(Change... changes) {
+        long version = knowledgeTreeVersionService.increment(user.getId());
+        knowledgeTreeSyncService.recordChanges(user.getId(), version, Arrays.asList(changes));
+        testEntityManager.flush();
+        testEntityManager.clear();
+        return version;
+    }
+
+    private Link persistLink(String name) {
+        return testEntityManager.persist(Link.builder()
+                .linkName(name)
+                .category(testEntityManager.find(Category.class, category.getId()))
+                .build());
+    }
+}
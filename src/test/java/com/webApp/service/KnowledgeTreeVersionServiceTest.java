@@ -0,0 +1,68 @@
+package com.webApp.service;
+
+import com.webApp.model.KnowledgeTreeVersion;
+import com.webApp.model.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(KnowledgeTreeVersionService.class)
+@RunWith(SpringRunner.class)
+public class KnowledgeTreeVersionServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private KnowledgeTreeVersionService knowledgeTreeVersionService;
+
+    private User user;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    @Test
+    public void whenUserNeverChangedAnything_thenVersionIsInitial() {
+        KnowledgeTreeVersion version = knowledgeTreeVersionService.findVersion(user.getId());
+
+        assertThat(version.getVersion()).isZero();
+        assertThat(version.getLastModifiedMillis()).isEqualTo(-1L);
+        assertThat(version.getETag()).isEqualTo("\"" + user.getId() + "-0\"");
+    }
+
+    @Test
+    public void whenIncrementedWithinTheSameSecond_thenLastModifiedStillMovesForward() {
+        knowledgeTreeVersionService.increment(user.getId());
+        KnowledgeTreeVersion first = reload();
+        knowledgeTreeVersionService.increment(user.getId());
+        knowledgeTreeVersionService.increment(user.getId());
+        KnowledgeTreeVersion third = reload();
+
+        assertThat(first.getVersion()).isEqualTo(1L);
+        assertThat(third.getVersion()).isEqualTo(3L);
+        assertThat(third.getLastModified()).isGreaterThanOrEqualTo(first.getLastModified() + 2);
+        assertThat(third.getETag()).isNotEqualTo(first.getETag());
+    }
+
+    private KnowledgeTreeVersion reload() {
+        testEntityManager.flush();
+        testEntityManager.clear();
+        return knowledgeTreeVersionService.findVersion(user.getId());
+    }
+}
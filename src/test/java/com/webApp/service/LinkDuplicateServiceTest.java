@@ -0,0 +1,132 @@
+package com.webApp.service;
+
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.DuplicateLinkGroup;
+import com.webApp.payload.DuplicateLinkResponse;
+import com.webApp.util.UrlCanonicalizer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(LinkDuplicateService.class)
+@TestPropertySource(properties = {"app.links.urlHash.backfill.batchSize=2",
+        "app.links.urlHash.backfill.maxBatchesPerRun=2"})
+@RunWith(SpringRunner.class)
+public class LinkDuplicateServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkDuplicateService linkDuplicateService;
+
+    private User user;
+
+    private Category articles;
+
+    private Category videos;
+
+    private Category othersCategory;
+
+    @Before
+    public void setUp() {
+        user = persistUser("username", "alex@gmail.com");
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        articles = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+        videos = testEntityManager.persist(Category.builder().name("Videos").title(title).build());
+
+        User other = persistUser("other", "other@gmail.com");
+        Title othersTitle = testEntityManager.persist(Title.builder().name("Languages").user(other).build());
+        othersCategory = testEntityManager.persist(Category.builder().name("Articles").title(othersTitle).build());
+    }
+
+    @Test
+    public void whenSameUrlIsSavedInAnotherForm_thenItIsFoundForTheSameUserOnly() {
+        Link saved = persistLink(articles, "https://example.com/page/");
+        persistLink(othersCategory, "https://example.com/page");
+        testEntityManager.flush();
+
+        assertThat(saved.getUrlHash()).isEqualTo(UrlCanonicalizer.hash("http://example.com/page"));
+        List<DuplicateLinkResponse> duplicates =
+                linkDuplicateService.findDuplicatesOf(user.getId(), "http://example.com/page?utm_source=feed");
+
+        assertThat(duplicates).extracting(DuplicateLinkResponse::getId).containsExactly(saved.getId());
+        assertThat(linkDuplicateService.findDuplicatesOf(user.getId(), "https://example.com/other")).isEmpty();
+    }
+
+    @Test
+    public void whenUserSavedUrlsSeveralTimes_thenDuplicatesAreGroupedByCanonicalUrl() {
+        Link first = persistLink(articles, "https://example.com/page");
+        Link second = persistLink(videos, "http://example.com/page/#intro");
+        Link third = persistLink(videos, "https://EXAMPLE.com/page?utm_campaign=x");
+        persistLink(articles, "https://example.com/other");
+        Link docs = persistLink(articles, "https://docs.com");
+        Link docsAgain = persistLink(videos, "https://docs.com/");
+        persistLink(othersCategory, "https://example.com/page");
+        testEntityManager.flush();
+
+        List<DuplicateLinkGroup> groups = linkDuplicateService.findDuplicates(user.getId());
+
+        assertThat(groups).extracting(DuplicateLinkGroup::getCanonicalUrl)
+                .containsExactlyInAnyOrder("example.com/page", "docs.com");
+        DuplicateLinkGroup page = groups.stream()
+                .filter(group -> group.getCanonicalUrl().equals("example.com/page"))
+                .findFirst().orElseThrow(IllegalStateException::new);
+        assertThat(page.getLinks()).extracting(DuplicateLinkResponse::getId)
+                .containsExactly(first.getId(), second.getId(), third.getId());
+        DuplicateLinkGroup docsGroup = groups.stream()
+                .filter(group -> group.getCanonicalUrl().equals("docs.com"))
+                .findFirst().orElseThrow(IllegalStateException::new);
+        assertThat(docsGroup.getLinks()).extracting(DuplicateLinkResponse::getId)
+                .containsExactly(docs.getId(), docsAgain.getId());
+    }
+
+    @Test
+    public void whenLinksHaveNoHash_thenBackfillHashesThemOverSeveralRuns() {
+        for (int i = 0; i < 5; i++) {
+            persistLink(articles, "https://example.com/" + i);
+        }
+        testEntityManager.flush();
+        testEntityManager.getEntityManager().createQuery("update Link l set l.urlHash = null").executeUpdate();
+        testEntityManager.clear();
+
+        assertThat(linkDuplicateService.backfillUrlHashes()).isEqualTo(4);
+        assertThat(linkDuplicateService.backfillUrlHashes()).isEqualTo(1);
+        assertThat(linkDuplicateService.backfillUrlHashes()).isZero();
+
+        Long hashed = testEntityManager.getEntityManager()
+                .createQuery("select count(l) from Link l where l.urlHash is not null", Long.class)
+                .getSingleResult();
+        assertThat(hashed).isEqualTo(5L);
+    }
+
+    private User persistUser(String username, String email) {
+        return testEntityManager.persist(User.builder()
+                .username(username)
+                .email(email)
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    private Link persistLink(Category category, String name) {
+        Link link = new Link(name);
+        link.setCategory(category);
+        return testEntityManager.persist(link);
+    }
+}
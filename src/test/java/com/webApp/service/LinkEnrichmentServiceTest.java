@@ -0,0 +1,219 @@
+package com.webApp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({LinkEnrichmentService.class, PageFetcher.class})
+@TestPropertySource(properties = {
+        "app.enrichment.enabled=true",
+        "app.enrichment.concurrency=4",
+        "app.enrichment.host.maxConcurrent=1",
+        "app.enrichment.host.minIntervalMs=0",
+        "app.enrichment.queue.capacity=4",
+        "app.enrichment.host.maxWaiting=2",
+        "app.enrichment.sweep.batchSize=2",
+        "app.fetch.allowPrivateAddresses=true",
+        "app.fetch.timeoutMs=2000"})
+@RunWith(SpringRunner.class)
+public class LinkEnrichmentServiceTest {
+
+    private static final String PAGE = "<html><head>" +
+            "<title>Stub page</title>" +
+            "<meta name=\"description\" content=\"Served by the stub\">" +
+            "<link rel=\"canonical\" href=\"/canonical\">" +
+            "<link rel=\"icon\" href=\"/icon.png\">" +
+            "</head><body>Body</body></html>";
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkEnrichmentService linkEnrichmentService;
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final Map<String, AtomicInteger> activeByHost = new ConcurrentHashMap<>();
+
+    private final AtomicInteger maxActivePerHost = new AtomicInteger();
+
+    private Category category;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        User user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void whenLinksAreQueued_thenTheirMetadataIsWrittenBack() throws Exception {
+        Link page = persistLink(baseUrl + "/page");
+        Link missing = persistLink(baseUrl + "/missing");
+        Link text = persistLink("http://localhost:" + server.getAddress().getPort() + "/text");
+
+        assertThat(linkEnrichmentService.enqueue(page.getId(), page.getLinkName())).isTrue();
+        assertThat(linkEnrichmentService.enqueue(missing.getId(), missing.getLinkName())).isTrue();
+        assertThat(linkEnrichmentService.enqueue(text.getId(), text.getLinkName())).isTrue();
+        awaitWritten();
+
+        Link enriched = testEntityManager.find(Link.class, page.getId());
+        assertThat(enriched.getPageTitle()).isEqualTo("Stub page");
+        assertThat(enriched.getPageDescription()).isEqualTo("Served by the stub");
+        assertThat(enriched.getCanonicalUrl()).isEqualTo(baseUrl + "/canonical");
+        assertThat(enriched.getFaviconUrl()).isEqualTo(baseUrl + "/icon.png");
+        assertThat(enriched.getEnrichedUrlHash()).isEqualTo(enriched.getUrlHash());
+
+        Link notFound = testEntityManager.find(Link.class, missing.getId());
+        assertThat(notFound.getPageTitle()).isNull();
+        assertThat(notFound.getEnrichedAt()).isNotNull();
+        assertThat(testEntityManager.find(Link.class, text.getId()).getEnrichedAt()).isNotNull();
+    }
+
+    @Test
+    public void whenQueueIsFull_thenTheSweepQueuesTheRestPoliteToTheHost() throws Exception {
+        List<Link> links = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            links.add(persistLink(baseUrl + "/slow?page=" + i));
+        }
+
+        int queued = 0;
+        for (Link link : links) {
+            if (linkEnrichmentService.enqueue(link.getId(), link.getLinkName())) {
+                queued++;
+            }
+        }
+        assertThat(queued).isLessThan(links.size());
+
+        for (int round = 0; round < 10 && notEnriched() > 0; round++) {
+            awaitWritten();
+            linkEnrichmentService.sweep();
+        }
+
+        for (Link link : links) {
+            assertThat(testEntityManager.find(Link.class, link.getId()).getPageTitle()).isEqualTo("Stub page");
+        }
+        assertThat(maxActivePerHost.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenHostHasEnoughLinksWaiting_thenTheSweepQueuesTheLinksOfOtherHosts() throws Exception {
+        List<Link> busy = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            busy.add(persistLink(baseUrl + "/slow?page=" + i));
+        }
+        Link other = persistLink("http://localhost:" + server.getAddress().getPort() + "/page");
+        int refused = 0;
+        for (Link link : busy) {
+            if (!linkEnrichmentService.enqueue(link.getId(), link.getLinkName())) {
+                refused++;
+            }
+        }
+        assertThat(refused).isPositive();
+
+        assertThat(linkEnrichmentService.sweep()).isPositive();
+        awaitWritten();
+
+        assertThat(testEntityManager.find(Link.class, other.getId()).getPageTitle()).isEqualTo("Stub page");
+    }
+
+    private void awaitWritten() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (linkEnrichmentService.pendingLinks() > 0 && System.currentTimeMillis() < deadline) {
+            linkEnrichmentService.flush();
+            Thread.sleep(10);
+        }
+        assertThat(linkEnrichmentService.pendingLinks()).isZero();
+        testEntityManager.clear();
+    }
+
+    private long notEnriched() {
+        return testEntityManager.getEntityManager()
+                .createQuery("select count(l) from Link l where l.category = :category and l.enrichedAt is null", Long.class)
+                .setParameter("category", category)
+                .getSingleResult();
+    }
+
+    private Link persistLink(String url) {
+        Link link = new Link(url);
+        link.setCategory(category);
+        Link persisted = testEntityManager.persist(link);
+        testEntityManager.flush();
+        return persisted;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        AtomicInteger active = activeByHost.computeIfAbsent(host, h -> new AtomicInteger());
+        maxActivePerHost.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/slow")) {
+                Thread.sleep(20);
+            }
+            if (path.equals("/missing")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            boolean html = !path.equals("/text");
+            byte[] body = (html ? PAGE : "plain text").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", html ? "text/html; charset=utf-8" : "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.webApp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.LinkHealth;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkHealthResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({LinkHealthService.class, PageFetcher.class})
+@TestPropertySource(properties = {
+        "app.health.enabled=true",
+        "app.health.concurrency=4",
+        "app.health.host.minIntervalMs=0",
+        "app.health.recheckAfterMs=0",
+        "app.health.scan.batchSize=2",
+        "app.health.scan.passIntervalMs=0",
+        "app.fetch.allowPrivateAddresses=true",
+        "app.fetch.timeoutMs=2000"})
+@RunWith(SpringRunner.class)
+public class LinkHealthServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkHealthService linkHealthService;
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+
+    private User user;
+
+    private Category category;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void whenLinksAreCheckedTwice_thenValidatorsAreSentAndBrokenLinksReported() throws Exception {
+        Link cached = persistLink(baseUrl + "/cached");
+        Link gone = persistLink(baseUrl + "/gone");
+        Link noHead = persistLink(baseUrl + "/no-head");
+
+        checkAll();
+
+        assertThat(health(cached).getStatusCode()).isEqualTo(200);
+        assertThat(health(cached).getEtag()).isEqualTo("\"v1\"");
+        assertThat(health(gone).getStatusCode()).isEqualTo(404);
+        assertThat(health(gone).getConsecutiveFailures()).isEqualTo(1);
+        assertThat(health(noHead).getStatusCode()).isEqualTo(200);
+        assertThat(requests).contains("HEAD /cached", "HEAD /gone", "HEAD /no-head", "GET /no-head");
+        assertThat(linkHealthService.findBroken(user.getId(), 10)).isEmpty();
+
+        requests.clear();
+        checkAll();
+
+        assertThat(requests).contains("GET /cached \"v1\"");
+        assertThat(health(cached).getStatusCode()).isEqualTo(304);
+        assertThat(health(cached).getConsecutiveFailures()).isZero();
+        assertThat(health(gone).getConsecutiveFailures()).isEqualTo(2);
+        List<LinkHealthResponse> broken = linkHealthService.findBroken(user.getId(), 10);
+        assertThat(broken).extracting(LinkHealthResponse::getId).containsExactly(gone.getId());
+    }
+
+    private void checkAll() throws InterruptedException {
+        assertThat(linkHealthService.scan()).isGreaterThanOrEqualTo(3);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (linkHealthService.pendingLinks() > 0 && System.currentTimeMillis() < deadline) {
+            linkHealthService.flush();
+            Thread.sleep(10);
+        }
+        assertThat(linkHealthService.pendingLinks()).isZero();
+        testEntityManager.clear();
+    }
+
+    private LinkHealth health(Link link) {
+        return testEntityManager.find(LinkHealth.class, link.getId());
+    }
+
+    private Link persistLink(String url) {
+        Link link = new Link(url);
+        link.setCategory(category);
+        Link persisted = testEntityManager.persist(link);
+        testEntityManager.flush();
+        return persisted;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+        requests.add(method + " " + path + (etag == null ? "" : " " + etag));
+        try {
+            if (path.equals("/gone")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (path.equals("/no-head") && method.equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+            } else if (path.equals("/cached")) {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                exchange.sendResponseHeaders("\"v1\"".equals(etag) ? 304 : 200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
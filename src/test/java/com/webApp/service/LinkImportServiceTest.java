@@ -0,0 +1,118 @@
+package com.webApp.service;
+
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.Category;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.BulkLinkItem;
+import com.webApp.repository.LinkRepository;
+import com.webApp.search.UserLinkIndexCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({LinkImportService.class, UserLinkIndexCache.class})
+@RunWith(SpringRunner.class)
+public class LinkImportServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LinkImportService linkImportService;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private User user;
+
+    private Title title;
+
+    private Category articles;
+
+    private Category videos;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        title = testEntityManager.persist(Title.builder().name("Title").user(user).build());
+        articles = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+        videos = testEntityManager.persist(Category.builder().name("Videos").title(title).build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void whenImportLinks_thenInsertThemInBatches() {
+        List<BulkLinkItem> items = new ArrayList<>();
+        for (int i = 0; i < 240; i++) {
+            Long categoryId = i % 2 == 0 ? articles.getId() : videos.getId();
+            items.add(new BulkLinkItem(categoryId, "https://link" + i, "Link " + i));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> ids = linkImportService.importLinks(user.getId(), title.getId(), items);
+
+        assertThat(ids).hasSize(240).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(240);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(24);
+        assertThat(linkRepository.findByCategoryId(articles.getId())).hasSize(120);
+        assertThat(linkRepository.findByCategoryId(videos.getId())).hasSize(120);
+    }
+
+    @Test
+    public void whenImportLinksIntoForeignCategory_thenThrowNoSuchEntity() {
+        Title otherTitle = testEntityManager.persist(Title.builder()
+                .name("Other")
+                .user(testEntityManager.find(User.class, user.getId()))
+                .build());
+        List<BulkLinkItem> items = Collections.singletonList(
+                new BulkLinkItem(articles.getId(), "https://link", null));
+
+        assertThatThrownBy(() -> linkImportService.importLinks(user.getId(), otherTitle.getId(), items))
+                .isInstanceOf(NoSuchEntityException.class);
+    }
+
+    @Test
+    public void whenImportLinksIntoTitleOfAnotherUser_thenThrowNoSuchEntity() {
+        User other = testEntityManager.persist(User.builder()
+                .username("other")
+                .email("other@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        List<BulkLinkItem> items = Collections.singletonList(
+                new BulkLinkItem(articles.getId(), "https://link", null));
+
+        assertThatThrownBy(() -> linkImportService.importLinks(other.getId(), title.getId(), items))
+                .isInstanceOf(NoSuchEntityException.class);
+        assertThat(linkRepository.findByCategoryId(articles.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,157 @@
+package com.webApp.service;
+
+import com.webApp.exception_handling.InvalidBulkOperationException;
+import com.webApp.exception_handling.NoSuchEntityException;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.repository.LinkRepository;
+import com.webApp.search.UserLinkIndexCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({LinkReorganizationService.class, UserLinkIndexCache.class})
+@RunWith(SpringRunner.class)
+public class LinkReorganizationServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LinkReorganizationService linkReorganizationService;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    private User user;
+
+    private Title title;
+
+    private Category articles;
+
+    private Category videos;
+
+    private Category othersCategory;
+
+    private List<Long> articleLinkIds;
+
+    private Long othersLinkId;
+
+    @Before
+    public void setUp() {
+        user = persistUser("username", "alex@gmail.com");
+        title = testEntityManager.persist(Title.builder().name("Title").user(user).build());
+        articles = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+        videos = testEntityManager.persist(Category.builder().name("Videos").title(title).build());
+        articleLinkIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            articleLinkIds.add(persistLink(articles, "https://link" + i));
+        }
+        persistLink(videos, "https://video");
+
+        User other = persistUser("other", "other@gmail.com");
+        Title othersTitle = testEntityManager.persist(Title.builder().name("Title").user(other).build());
+        othersCategory = testEntityManager.persist(Category.builder().name("Articles").title(othersTitle).build());
+        othersLinkId = persistLink(othersCategory, "https://other");
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void whenMoveLinks_thenOnlyTheUsersLinksAreMovedInAFewStatements() {
+        List<Long> ids = new ArrayList<>(articleLinkIds);
+        ids.add(othersLinkId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int moved = linkReorganizationService.moveLinks(user.getId(), title.getId(), ids, videos.getId());
+
+        assertThat(moved).isEqualTo(100);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6L);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(linkRepository.findByCategoryId(videos.getId())).hasSize(101);
+        assertThat(testEntityManager.find(Link.class, othersLinkId).getCategory().getId())
+                .isEqualTo(othersCategory.getId());
+    }
+
+    @Test
+    public void whenMoveLinksToCategoryOfAnotherUser_thenNothingIsMoved() {
+        assertThatThrownBy(() -> linkReorganizationService.moveLinks(user.getId(), title.getId(), articleLinkIds,
+                othersCategory.getId()))
+                .isInstanceOf(NoSuchEntityException.class);
+
+        assertThat(linkRepository.findByCategoryId(articles.getId())).hasSize(100);
+    }
+
+    @Test
+    public void whenDeleteLinks_thenOnlyTheUsersLinksAreDeleted() {
+        List<Long> ids = new ArrayList<>(articleLinkIds.subList(0, 10));
+        ids.add(othersLinkId);
+
+        int deleted = linkReorganizationService.deleteLinks(user.getId(), title.getId(), ids);
+
+        assertThat(deleted).isEqualTo(10);
+        assertThat(linkRepository.findByCategoryId(articles.getId())).hasSize(90);
+        assertThat(testEntityManager.find(Link.class, othersLinkId)).isNotNull();
+    }
+
+    @Test
+    public void whenMergeCategories_thenLinksAreMovedAndSourceIsDeleted() {
+        int moved = linkReorganizationService.mergeCategories(user.getId(), title.getId(), articles.getId(), videos.getId());
+
+        assertThat(moved).isEqualTo(100);
+        assertThat(testEntityManager.find(Category.class, articles.getId())).isNull();
+        assertThat(linkRepository.findByCategoryId(videos.getId())).hasSize(101);
+        assertThat(testEntityManager.find(Category.class, videos.getId()).getLinkCount()).isEqualTo(100L);
+    }
+
+    @Test
+    public void whenMergeCategoryIntoItselfOrAnotherUsersOne_thenIsRejected() {
+        assertThatThrownBy(() -> linkReorganizationService.mergeCategories(user.getId(), title.getId(),
+                articles.getId(), articles.getId()))
+                .isInstanceOf(InvalidBulkOperationException.class);
+        assertThatThrownBy(() -> linkReorganizationService.mergeCategories(user.getId(), title.getId(),
+                othersCategory.getId(), videos.getId()))
+                .isInstanceOf(NoSuchEntityException.class);
+
+        assertThat(testEntityManager.find(Category.class, othersCategory.getId())).isNotNull();
+        assertThat(linkRepository.findOwnedIds(user.getId(), title.getId(), Arrays.asList(othersLinkId))).isEmpty();
+    }
+
+    private User persistUser(String username, String email) {
+        return testEntityManager.persist(User.builder()
+                .username(username)
+                .email(email)
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    private Long persistLink(Category category, String name) {
+        Link link = new Link(name);
+        link.setCategory(category);
+        return testEntityManager.persist(link).getId();
+    }
+}
@@ -0,0 +1,142 @@
+package com.webApp.service;
+
+import com.webApp.exception_handling.InvalidCursorException;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkSearchPage;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.search.JpqlLinkSearchEngine;
+import com.webApp.search.UserLinkIndexCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({LinkSearchService.class, JpqlLinkSearchEngine.class, UserLinkIndexCache.class})
+@RunWith(SpringRunner.class)
+public class LinkSearchServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkSearchService linkSearchService;
+
+    private User user;
+
+    private User otherUser;
+
+    @Before
+    public void setUp() {
+        user = persistUser("alex@gmail.com", "alex");
+        otherUser = persistUser("bob@gmail.com", "bob");
+
+        Title java = testEntityManager.persist(Title.builder().name("Java").user(user).build());
+        Category articles = testEntityManager.persist(Category.builder().name("Articles").title(java).build());
+        Category videos = testEntityManager.persist(Category.builder().name("Videos").title(java).build());
+        persistLink("https://openjdk.java.net", "OpenJDK home page", articles);
+        persistLink("https://docs.oracle.com/javase", "Java SE documentation", articles);
+        persistLink("https://www.youtube.com/c/java", null, videos);
+        persistLink("https://100%_pure.example.com", null, videos);
+
+        Title otherJava = testEntityManager.persist(Title.builder().name("Java").user(otherUser).build());
+        Category otherArticles = testEntityManager.persist(Category.builder().name("Articles").title(otherJava).build());
+        persistLink("https://openjdk.java.net", "Someone else's link", otherArticles);
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    public void whenSearch_thenReturnOnlyLinksOfTheUserMatchingEveryTerm() {
+        LinkSearchPage page = linkSearchService.search(user.getId(), "OpenJDK home", null, 10);
+
+        assertThat(page.getResults()).extracting(LinkSearchResult::getLinkName)
+                .containsExactly("https://openjdk.java.net");
+        assertThat(page.getResults().get(0).getCategoryName()).isEqualTo("Articles");
+        assertThat(page.getResults().get(0).getTitleName()).isEqualTo("Java");
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    public void whenSearchUrlWords_thenMatchInsideTheUrl() {
+        LinkSearchPage page = linkSearchService.search(user.getId(), "docs.oracle.com", null, 10);
+
+        assertThat(page.getResults()).extracting(LinkSearchResult::getLinkName)
+                .containsExactly("https://docs.oracle.com/javase");
+    }
+
+    @Test
+    public void whenSearchCategoryName_thenReturnEveryLinkOfTheCategory() {
+        LinkSearchPage page = linkSearchService.search(user.getId(), "videos", null, 10);
+
+        assertThat(page.getResults()).hasSize(2);
+    }
+
+    @Test
+    public void whenSearchLikeWildcards_thenMatchThemLiterally() {
+        assertThat(linkSearchService.search(user.getId(), "_", null, 10).getResults()).isEmpty();
+        assertThat(linkSearchService.search(user.getId(), "100 pure", null, 10).getResults()).hasSize(1);
+    }
+
+    @Test
+    public void whenSearchBlankQuery_thenReturnEmptyPage() {
+        LinkSearchPage page = linkSearchService.search(user.getId(), " .,; ", null, 10);
+
+        assertThat(page.getResults()).isEmpty();
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    public void whenFollowCursors_thenVisitEveryResultOnce() {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            LinkSearchPage page = linkSearchService.search(user.getId(), "java", cursor, 1);
+            assertThat(page.getResults()).hasSize(1);
+            ids.add(page.getResults().get(0).getId());
+            cursor = page.getNext();
+        } while (cursor != null);
+
+        assertThat(ids).hasSize(4).doesNotHaveDuplicates();
+        assertThat(ids).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(linkSearchService.search(user.getId(), "java", null, 10).getResults().stream()
+                .map(LinkSearchResult::getId).collect(Collectors.toList())).isEqualTo(ids);
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void whenSearchWithInvalidCursor_thenThrow() {
+        linkSearchService.search(user.getId(), "java", "not-a-cursor", 10);
+    }
+
+    private User persistUser(String email, String username) {
+        return testEntityManager.persist(User.builder()
+                .username(username)
+                .email(email)
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+    }
+
+    private void persistLink(String linkName, String description, Category category) {
+        testEntityManager.persist(Link.builder()
+                .linkName(linkName)
+                .linkDescription(description)
+                .category(category)
+                .build());
+    }
+}
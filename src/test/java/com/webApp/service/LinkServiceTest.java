@@ -2,12 +2,15 @@ package com.webApp.service;
 
 import com.webApp.model.Category;
 import com.webApp.model.Link;
+import com.webApp.repository.CategoryRepository;
 import com.webApp.repository.LinkRepository;
+import com.webApp.search.UserLinkIndexCache;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +25,18 @@ public class LinkServiceTest {
     @Mock
     private LinkRepository linkRepository;
 
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserLinkIndexCache userLinkIndexCache;
+
+    @Mock
+    private LinkEnrichmentService linkEnrichmentService;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @InjectMocks
     private LinkService linkService;
 
@@ -0,0 +1,168 @@
+package com.webApp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webApp.archive.BlobStore;
+import com.webApp.exception_handling.BlobTooLargeException;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.LinkSnapshot;
+import com.webApp.model.SnapshotSource;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkSnapshotResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({LinkSnapshotService.class, PageTextIndexService.class, BlobStore.class, PageFetcher.class})
+@TestPropertySource(properties = {
+        "app.archive.directory=target/archive-service-test",
+        "app.archive.maxBytes=1000",
+        "app.archive.capture.host.minIntervalMs=0",
+        "app.fetch.allowPrivateAddresses=true",
+        "app.fetch.timeoutMs=2000"})
+@RunWith(SpringRunner.class)
+public class LinkSnapshotServiceTest {
+
+    private static final String PAGE = "<html><head><title>Stub page</title></head><body>Captured</body></html>";
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkSnapshotService linkSnapshotService;
+
+    private HttpServer server;
+
+    private String baseUrl;
+
+    private User user;
+
+    private Category category;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(2));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void whenSameContentIsUploadedTwice_thenTheSnapshotsShareItsBytes() throws Exception {
+        Link first = persistLink(baseUrl + "/first");
+        Link second = persistLink(baseUrl + "/second");
+        String content = "<html><body>Uploaded</body></html>";
+
+        LinkSnapshotResponse uploaded = upload(first, content);
+        LinkSnapshotResponse again = upload(second, content);
+
+        assertThat(again.getId()).isNotEqualTo(uploaded.getId());
+        assertThat(again.getSha256()).isEqualTo(uploaded.getSha256());
+        assertThat(again.getSize()).isEqualTo(content.length());
+        LinkSnapshot firstSnapshot = linkSnapshotService.findSnapshot(user.getId(), first.getId(), uploaded.getId()).get();
+        LinkSnapshot secondSnapshot = linkSnapshotService.findSnapshot(user.getId(), second.getId(), again.getId()).get();
+        assertThat(secondSnapshot.getSegment()).isEqualTo(firstSnapshot.getSegment());
+        assertThat(secondSnapshot.getSegmentOffset()).isEqualTo(firstSnapshot.getSegmentOffset());
+        assertThat(read(secondSnapshot)).isEqualTo(content);
+
+        assertThat(linkSnapshotService.findSnapshot(user.getId(), first.getId(), again.getId())).isEmpty();
+        assertThat(linkSnapshotService.findSnapshot(user.getId() + 1, second.getId(), again.getId())).isEmpty();
+        assertThatThrownBy(() -> upload(first, new String(new char[1001]).replace('\0', 'a')))
+                .isInstanceOf(BlobTooLargeException.class);
+    }
+
+    @Test
+    public void whenPageIsCaptured_thenItsContentIsArchived() throws Exception {
+        Link page = persistLink(baseUrl + "/page");
+        Link text = persistLink(baseUrl + "/text");
+
+        assertThat(linkSnapshotService.capture(user.getId(), page.getId())).isTrue();
+        assertThat(linkSnapshotService.capture(user.getId(), text.getId())).isTrue();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (linkSnapshotService.pendingCaptures() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(linkSnapshotService.pendingCaptures()).isZero();
+
+        List<LinkSnapshotResponse> snapshots = linkSnapshotService.findSnapshots(user.getId(), page.getId());
+        assertThat(snapshots).hasSize(1);
+        assertThat(snapshots.get(0).getSource()).isEqualTo(SnapshotSource.FETCH);
+        assertThat(snapshots.get(0).getContentType()).isEqualTo("text/html; charset=utf-8");
+        LinkSnapshot snapshot = linkSnapshotService.findSnapshot(user.getId(), page.getId(), snapshots.get(0).getId()).get();
+        assertThat(read(snapshot)).isEqualTo(PAGE);
+        assertThat(linkSnapshotService.findSnapshots(user.getId(), text.getId())).isEmpty();
+    }
+
+    private LinkSnapshotResponse upload(Link link, String content) throws IOException {
+        return linkSnapshotService.upload(link.getId(),
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "text/html");
+    }
+
+    private String read(LinkSnapshot snapshot) throws IOException {
+        try (InputStream content = linkSnapshotService.open(snapshot)) {
+            return StreamUtils.copyToString(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    private Link persistLink(String url) {
+        Link link = new Link(url);
+        link.setCategory(category);
+        Link persisted = testEntityManager.persist(link);
+        testEntityManager.flush();
+        return persisted;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            boolean html = !exchange.getRequestURI().getPath().equals("/text");
+            byte[] body = (html ? PAGE : "plain text").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", html ? "text/html; charset=utf-8" : "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
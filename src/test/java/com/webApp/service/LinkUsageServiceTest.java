@@ -0,0 +1,141 @@
+package com.webApp.service;
+
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.LinkUsage;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkUsageResponse;
+import com.webApp.search.UserLinkIndexCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({LinkUsageService.class, LinkService.class, UserLinkIndexCache.class,
+        LinkEnrichmentService.class, PageFetcher.class})
+@TestPropertySource(properties = "app.usage.flush.batchSize=2")
+@RunWith(SpringRunner.class)
+public class LinkUsageServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private LinkUsageService linkUsageService;
+
+    @Autowired
+    private LinkService linkService;
+
+    private User user;
+
+    private List<Long> linkIds;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        Category category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+        linkIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Link link = new Link("https://link" + i);
+            link.setCategory(category);
+            linkIds.add(testEntityManager.persist(link).getId());
+        }
+        testEntityManager.flush();
+    }
+
+    @Test
+    public void whenLinksAreOpenedConcurrently_thenEveryOpenIsFlushed() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        linkUsageService.recordOpen(linkIds.get(i % 2));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        linkUsageService.recordOpen(linkIds.get(2));
+
+        assertThat(linkUsageService.flush()).isEqualTo(3);
+        assertThat(openCount(linkIds.get(0))).isEqualTo(4000L);
+        assertThat(openCount(linkIds.get(1))).isEqualTo(4000L);
+        assertThat(openCount(linkIds.get(2))).isEqualTo(1L);
+    }
+
+    @Test
+    public void whenFlushedTwice_thenOpensAreAddedToTheExistingRows() {
+        linkUsageService.recordOpen(linkIds.get(0));
+        linkUsageService.flush();
+        linkUsageService.recordOpen(linkIds.get(0));
+        linkUsageService.recordOpen(linkIds.get(0));
+
+        assertThat(linkUsageService.flush()).isEqualTo(1);
+        assertThat(openCount(linkIds.get(0))).isEqualTo(3L);
+        assertThat(linkUsageService.flush()).isZero();
+        assertThat(linkUsageService.pendingLinks()).isZero();
+    }
+
+    @Test
+    public void whenOpenedLinkIsGone_thenItsOpensAreDropped() {
+        linkUsageService.recordOpen(Long.MAX_VALUE);
+
+        linkUsageService.flush();
+
+        assertThat(testEntityManager.find(LinkUsage.class, Long.MAX_VALUE)).isNull();
+    }
+
+    @Test
+    public void whenLinksAreOpened_thenListingsFollowTheirUsage() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            linkUsageService.recordOpen(linkIds.get(1));
+        }
+        linkUsageService.recordOpen(linkIds.get(3));
+        linkUsageService.flush();
+        Thread.sleep(5);
+        linkUsageService.recordOpen(linkIds.get(4));
+        linkUsageService.flush();
+
+        List<LinkUsageResponse> mostUsed = linkService.findMostUsed(user.getId(), 2);
+        List<LinkUsageResponse> recentlyUsed = linkService.findRecentlyUsed(user.getId(), 10);
+
+        assertThat(mostUsed).extracting(LinkUsageResponse::getId).containsExactly(linkIds.get(1), linkIds.get(4));
+        assertThat(mostUsed.get(0).getOpenCount()).isEqualTo(3L);
+        assertThat(recentlyUsed).hasSize(3);
+        assertThat(recentlyUsed.get(0).getId()).isEqualTo(linkIds.get(4));
+    }
+
+    private long openCount(Long linkId) {
+        testEntityManager.clear();
+        return testEntityManager.find(LinkUsage.class, linkId).getOpenCount();
+    }
+}
@@ -0,0 +1,138 @@
+package com.webApp.service;
+
+import com.webApp.archive.BlobStore;
+import com.webApp.fetch.PageFetcher;
+import com.webApp.model.Category;
+import com.webApp.model.Link;
+import com.webApp.model.Title;
+import com.webApp.model.User;
+import com.webApp.payload.LinkSearchResult;
+import com.webApp.search.JpqlLinkSearchEngine;
+import com.webApp.search.QueryTerms;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({PageTextIndexService.class, LinkSnapshotService.class, BlobStore.class, PageFetcher.class,
+        JpqlLinkSearchEngine.class})
+@TestPropertySource(properties = {
+        "app.archive.directory=target/archive-index-test",
+        "app.search.pageText.enabled=true",
+        "app.search.pageText.batchSize=3"})
+@RunWith(SpringRunner.class)
+public class PageTextIndexServiceTest {
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private PageTextIndexService pageTextIndexService;
+
+    @Autowired
+    private LinkSnapshotService linkSnapshotService;
+
+    @Autowired
+    private JpqlLinkSearchEngine linkSearchEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    private Category category;
+
+    @Before
+    public void setUp() {
+        user = testEntityManager.persist(User.builder()
+                .username("username")
+                .email("alex@gmail.com")
+                .password("secret")
+                .active(true)
+                .isEmailVerified(true)
+                .build());
+        Title title = testEntityManager.persist(Title.builder().name("Languages").user(user).build());
+        category = testEntityManager.persist(Category.builder().name("Articles").title(title).build());
+    }
+
+    @Test
+    public void whenSnapshotsAreWritten_thenTheLinkIsFoundByItsLatestPageText() throws IOException {
+        Link link = persistLink("https://example.com/orm");
+        upload(link, "<html><body><p>Persistence with <b>Hibernate</b></p></body></html>");
+        upload(link, "<html><body><p>Persistence with <b>EclipseLink</b></p></body></html>");
+        assertThat(pageTextIndexService.pendingLinks()).isEqualTo(1);
+        assertThat(search(user.getId(), "eclipselink persistence")).isEmpty();
+
+        assertThat(pageTextIndexService.flush()).isEqualTo(1);
+
+        assertThat(search(user.getId(), "eclipselink persistence")).extracting(LinkSearchResult::getId)
+                .containsExactly(link.getId());
+        assertThat(search(user.getId(), "articles eclipselink")).hasSize(1);
+        assertThat(search(user.getId(), "hibernate")).isEmpty();
+        assertThat(search(user.getId() + 1, "eclipselink")).isEmpty();
+    }
+
+    @Test
+    public void whenBatchIsFull_thenTheWriterWritesItAndTheSweepQueuesLostTexts() throws Exception {
+        Link[] links = new Link[3];
+        for (int i = 0; i < links.length; i++) {
+            links[i] = persistLink("https://example.com/page" + i);
+        }
+        // the writer reads the links in its own transactions
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            for (int i = 0; i < links.length; i++) {
+                upload(links[i], "<p>Page number" + i + " of the batch</p>");
+            }
+            for (int wait = 0; wait < 100 && search(user.getId(), "batch").size() < 3; wait++) {
+                Thread.sleep(100);
+            }
+            assertThat(search(user.getId(), "batch")).hasSize(3);
+            assertThat(pageTextIndexService.pendingLinks()).isZero();
+
+            jdbcTemplate.update("delete from link_page_text");
+            assertThat(search(user.getId(), "batch")).isEmpty();
+
+            assertThat(pageTextIndexService.sweep()).isEqualTo(3);
+            pageTextIndexService.flush();
+            assertThat(search(user.getId(), "number1")).hasSize(1);
+        } finally {
+            for (String table : new String[]{"link_page_text", "link_snapshots", "links", "categories", "titles", "users"}) {
+                jdbcTemplate.update("delete from " + table);
+            }
+        }
+    }
+
+    private List<LinkSearchResult> search(Long userId, String query) {
+        return linkSearchEngine.search(userId, QueryTerms.parse(query), 0f, Long.MAX_VALUE, 10);
+    }
+
+    private void upload(Link link, String page) throws IOException {
+        linkSnapshotService.upload(link.getId(), new ByteArrayInputStream(page.getBytes(StandardCharsets.UTF_8)),
+                "text/html; charset=utf-8");
+    }
+
+    private Link persistLink(String url) {
+        Link link = new Link(url);
+        link.setCategory(category);
+        Link persisted = testEntityManager.persist(link);
+        testEntityManager.flush();
+        return persisted;
+    }
+}
@@ -1,13 +1,16 @@
 package com.webApp.service;
 
+import com.webApp.event.OnKnowledgeTreeChangeEvent;
 import com.webApp.model.Title;
 import com.webApp.model.User;
 import com.webApp.repository.TitleRepository;
+import com.webApp.search.UserLinkIndexCache;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
 import java.util.List;
@@ -24,6 +27,18 @@ public class TitleServiceTest {
     @Mock
     private TitleRepository titleRepository;
 
+    @Mock
+    private UserLinkIndexCache userLinkIndexCache;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private KnowledgeTreeDeletionService knowledgeTreeDeletionService;
+
+    @Mock
+    private CategoryProvisioningService categoryProvisioningService;
+
     @InjectMocks
     private TitleService titleService;
 
@@ -47,11 +62,36 @@ public class TitleServiceTest {
 
     @Test
     public void whenCreateTitle_thenReturnCreatedOne() {
+        User user = User.builder().id(2L).username("username").build();
         Title toBeCreated = new Title(1L,"Title1");
+        toBeCreated.setUser(user);
+        given(titleRepository.save(toBeCreated)).willReturn(toBeCreated);
 
         titleService.saveTitle(toBeCreated);
 
-        assertThat(toBeCreated.getCategories()).hasSize(4);
+        verify(categoryProvisioningService).provision(2L, Collections.singletonList(toBeCreated));
+    }
+
+    @Test
+    public void whenRenameTitle_thenOnlyItsNameIsUpdated() {
+        given(titleRepository.updateName(eq(2L), eq(1L), eq("Renamed"), any())).willReturn(1);
+
+        boolean updated = titleService.updateTitle(2L, 1L, "Renamed");
+
+        assertThat(updated).isTrue();
+        verify(titleRepository, never()).save(any(Title.class));
+        verifyNoInteractions(categoryProvisioningService);
+        verify(applicationEventPublisher).publishEvent(any(OnKnowledgeTreeChangeEvent.class));
+    }
+
+    @Test
+    public void whenRenamedTitleIsGone_thenNothingIsPublished() {
+        given(titleRepository.updateName(eq(2L), eq(1L), eq("Renamed"), any())).willReturn(0);
+
+        boolean updated = titleService.updateTitle(2L, 1L, "Renamed");
+
+        assertThat(updated).isFalse();
+        verifyNoInteractions(applicationEventPublisher);
     }
 
     @Test
@@ -96,8 +136,9 @@ public class TitleServiceTest {
                 .build();
         titleService.deleteTitleById(titleToBeDeleted.getId());
 
-        verify(titleRepository, times(1))
-                .deleteById(titleToBeDeleted.getId());
+        verify(knowledgeTreeDeletionService, times(1))
+                .deleteTitle(titleToBeDeleted.getId());
+        verify(titleRepository, never()).deleteById(anyLong());
     }
 
     @Test
@@ -0,0 +1,81 @@
+package com.webApp.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HtmlHeadParserTest {
+
+    @Test
+    public void whenHeadHasMetadata_thenItIsReadAndUrlsAreResolved() throws IOException {
+        String html = "<!DOCTYPE html><html><HEAD>" +
+                "<!-- <title>Commented out</title> -->" +
+                "<meta charset=utf-8>" +
+                "<script>if (a < b && '</head>') {}</script>" +
+                "<Title>  Spring &amp;\n Hibernate </TITLE>" +
+                "<meta property='og:title' content='Ignored, the title comes first'>" +
+                "<meta name=\"Description\" content=\"All about &quot;ORM&quot;\">" +
+                "<link rel=\"canonical\" href=\"/docs/orm\">" +
+                "<link rel=\"shortcut icon\" href=\"static/icon.png\">" +
+                "</head><body><title>Not in the head</title></body></html>";
+
+        PageMetadata metadata = new HtmlHeadParser(new StringReader(html), 65536)
+                .parse(new URL("https://example.com/docs/index.html"));
+
+        assertThat(metadata.getTitle()).isEqualTo("Spring & Hibernate");
+        assertThat(metadata.getDescription()).isEqualTo("All about \"ORM\"");
+        assertThat(metadata.getCanonicalUrl()).isEqualTo("https://example.com/docs/orm");
+        assertThat(metadata.getFaviconUrl()).isEqualTo("https://example.com/docs/static/icon.png");
+    }
+
+    @Test
+    public void whenHeadHasOnlyOpenGraphProperties_thenTheyAreUsed() throws IOException {
+        String html = "<html><head>" +
+                "<meta property=\"og:title\" content=\"Open graph title\">" +
+                "<meta property=\"og:description\" content=\"Open graph description\">" +
+                "<meta property=\"og:url\" content=\"https://example.com/canonical\">" +
+                "</head></html>";
+
+        PageMetadata metadata = new HtmlHeadParser(new StringReader(html), 65536)
+                .parse(new URL("http://example.com:8080/page"));
+
+        assertThat(metadata.getTitle()).isEqualTo("Open graph title");
+        assertThat(metadata.getDescription()).isEqualTo("Open graph description");
+        assertThat(metadata.getCanonicalUrl()).isEqualTo("https://example.com/canonical");
+        assertThat(metadata.getFaviconUrl()).isEqualTo("http://example.com:8080/favicon.ico");
+    }
+
+    @Test
+    public void whenHeadEnds_thenTheBodyIsNotRead() throws IOException {
+        String head = "<html><head><title>Page</title></head>";
+        StringBuilder html = new StringBuilder(head).append("<body>");
+        for (int i = 0; i < 10000; i++) {
+            html.append("<p>paragraph ").append(i).append("</p>");
+        }
+        StringReader reader = new StringReader(html.toString());
+
+        new HtmlHeadParser(reader, 65536).parse(new URL("https://example.com"));
+
+        char[] next = new char[6];
+        assertThat(reader.read(next)).isEqualTo(6);
+        assertThat(new String(next)).isEqualTo("<body>");
+    }
+
+    @Test
+    public void whenPageHasNoHeadEnd_thenReadingStopsAtTheLimit() throws IOException {
+        StringBuilder html = new StringBuilder("<html><head><title>");
+        for (int i = 0; i < 1000; i++) {
+            html.append("long title ");
+        }
+        StringReader reader = new StringReader(html.toString());
+
+        PageMetadata metadata = new HtmlHeadParser(reader, 100).parse(new URL("https://example.com"));
+
+        assertThat(metadata.getTitle()).hasSizeLessThan(100);
+        assertThat(reader.read()).isNotEqualTo(-1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.webApp.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HtmlTextExtractorTest {
+
+    @Test
+    public void whenPageHasMarkup_thenOnlyItsTextIsExtracted() throws IOException {
+        String html = "<!DOCTYPE html><html><head><title>Spring &amp; Hibernate</title>" +
+                "<style>body { color: red; }</style>" +
+                "<script>if (a < b && '</p>') { hidden(); }</script></head>" +
+                "<body><!-- <p>Commented out</p> -->" +
+                "<h1 class=\"title\" data-note='a > b'>Object\n   relational</h1>" +
+                "<p>mapping <b>with</b> JPA, 1 < 2</p><noscript>Enable scripts</noscript>" +
+                "<template><p>Not rendered</p></template></body></html>";
+
+        String text = new HtmlTextExtractor(new StringReader(html), 1000).extract();
+
+        assertThat(text).isEqualTo("Spring & Hibernate Object relational mapping with JPA, 1 < 2");
+    }
+
+    @Test
+    public void whenTextIsLong_thenItIsCutAtMaxChars() throws IOException {
+        StringBuilder html = new StringBuilder("<body>");
+        for (int i = 0; i < 1000; i++) {
+            html.append("<p>paragraph ").append(i).append("</p>");
+        }
+
+        String text = new HtmlTextExtractor(new StringReader(html.toString()), 100).extract();
+
+        assertThat(text).hasSizeLessThanOrEqualTo(100).startsWith("paragraph 0 paragraph 1 ");
+    }
+}
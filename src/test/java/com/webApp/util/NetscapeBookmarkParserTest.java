@@ -0,0 +1,68 @@
+package com.webApp.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NetscapeBookmarkParserTest {
+
+    private static final String BOOKMARKS = "<!DOCTYPE NETSCAPE-Bookmark-file-1>\n" +
+            "<!-- This is an automatically generated file. -->\n" +
+            "<META HTTP-EQUIV=\"Content-Type\" CONTENT=\"text/html; charset=UTF-8\">\n" +
+            "<TITLE>Bookmarks</TITLE>\n" +
+            "<H1>Bookmarks</H1>\n" +
+            "<DL><p>\n" +
+            "    <DT><A HREF=\"https://root.com\" ADD_DATE=\"1\">Root</A>\n" +
+            "    <DT><H3 ADD_DATE=\"1\" PERSONAL_TOOLBAR_FOLDER=\"true\">Bookmarks bar</H3>\n" +
+            "    <DL><p>\n" +
+            "        <DT><A HREF=\"https://a.com/?x=1&amp;y=2\" ICON=\"data:image/png;base64,iVBORw0KGgo=\">A &amp; B</A>\n" +
+            "        <DD>First description\n" +
+            "        <DT><h3>Java</h3>\n" +
+            "        <DL><p>\n" +
+            "            <DT><a href='http://java.com'>Java</a>\n" +
+            "        </DL><p>\n" +
+            "    </DL><p>\n" +
+            "</DL><p>\n";
+
+    @Test
+    public void whenParseBookmarks_thenReportFoldersLinksAndDescriptionsInOrder() throws IOException {
+        List<String> events = new ArrayList<>();
+
+        new NetscapeBookmarkParser(new StringReader(BOOKMARKS)).parse(new NetscapeBookmarkParser.Handler() {
+            @Override
+            public void startFolder(String name) {
+                events.add("start " + name);
+            }
+
+            @Override
+            public void endFolder() {
+                events.add("end");
+            }
+
+            @Override
+            public void link(String href, String name) {
+                events.add("link " + href + " " + name);
+            }
+
+            @Override
+            public void description(String description) {
+                events.add("description " + description);
+            }
+        });
+
+        assertThat(events).containsExactly(
+                "link https://root.com Root",
+                "start Bookmarks bar",
+                "link https://a.com/?x=1&y=2 A & B",
+                "description First description",
+                "start Java",
+                "link http://java.com Java",
+                "end",
+                "end");
+    }
+}
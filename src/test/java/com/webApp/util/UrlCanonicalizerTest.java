@@ -0,0 +1,37 @@
+package com.webApp.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UrlCanonicalizerTest {
+
+    @Test
+    public void whenUrlsDifferInSchemeCaseSlashesOrTracking_thenTheyHaveTheSameCanonicalForm() {
+        String[] forms = {
+                "https://example.com/docs/page",
+                "http://example.com/docs/page",
+                "HTTPS://Example.COM/docs/page/",
+                "https://example.com:443/docs/page//",
+                "http://example.com:80/docs/page#section",
+                "  https://example.com/docs/page?utm_source=newsletter&UTM_MEDIUM=mail&fbclid=abc  "
+        };
+
+        for (String form : forms) {
+            assertThat(UrlCanonicalizer.canonicalize(form)).isEqualTo("example.com/docs/page");
+            assertThat(UrlCanonicalizer.hash(form)).isEqualTo(UrlCanonicalizer.hash(forms[0]));
+        }
+    }
+
+    @Test
+    public void whenUrlsDifferInPathCaseOrQuery_thenTheyStayDifferent() {
+        assertThat(UrlCanonicalizer.canonicalize("https://a.com/?utm_source=x&id=1&utm_campaign=y&page=2#top"))
+                .isEqualTo("a.com?id=1&page=2");
+        assertThat(UrlCanonicalizer.canonicalize("https://a.com:8080/Docs/"))
+                .isEqualTo("a.com:8080/Docs");
+        assertThat(UrlCanonicalizer.canonicalize("https://a.com/a//b/")).isEqualTo("a.com/a//b");
+        assertThat(UrlCanonicalizer.hash("https://a.com/Docs")).isNotEqualTo(UrlCanonicalizer.hash("https://a.com/docs"));
+        assertThat(UrlCanonicalizer.hash("https://a.com/?id=1")).isNotEqualTo(UrlCanonicalizer.hash("https://a.com/?id=2"));
+        assertThat(UrlCanonicalizer.hash("https://a.com?utm=1")).isNotEqualTo(UrlCanonicalizer.hash("https://a.com"));
+    }
+}
@@ -1 +1,4 @@
+DELETE FROM link_snapshots;
+DELETE FROM link_health;
+DELETE FROM link_usage;
 DELETE FROM links;
\ No newline at end of file